@@ -0,0 +1,86 @@
+package au.com.phiware.math;
+
+/**
+ * Computes remainders by a fixed divisor, such as a prime hashtable capacity,
+ * without a hardware division.
+ *
+ * <p>A 64-bit reciprocal of the divisor is precomputed and each remainder costs
+ * two multiplications (Lemire, Kaser and Kurz, <i>Faster Remainder by Direct
+ * Computation</i>, 2019): the low 64 bits of <code>magic * a</code> are the
+ * fractional part of <code>a / divisor</code>, and the high 64 bits of that
+ * fraction times the divisor are the remainder. The result is exact for every
+ * 32-bit dividend.
+ *
+ * <p>Instances for the capacities of {@link PrimeFinder} are precomputed; see
+ * {@link PrimeFinder#fastMod(int)}.
+ */
+public final class FastMod {
+	private static final long LOW_32 = 0xffffffffL;
+
+	private final int divisor;
+	private final long magic;
+
+	/**
+	 * @param divisor the divisor; positive.
+	 */
+	public FastMod(int divisor) {
+		this.divisor = divisor;
+		this.magic = magic(divisor);
+	}
+
+	/**
+	 * @return <code>ceil(2<sup>64</sup> / divisor)</code>, modulo 2<sup>64</sup>.
+	 * @throws IllegalArgumentException if divisor is not positive.
+	 */
+	public static long magic(int divisor) {
+		if (divisor <= 0)
+			throw new IllegalArgumentException("Divisor, "+divisor+", must be positive.");
+		// floor((2^64 - 1) / divisor), by unsigned long division
+		long q = ((-1L >>> 1) / divisor) << 1;
+		long r = -1L - q * divisor;
+		while (r >= divisor) {
+			q++;
+			r -= divisor;
+		}
+		return q + 1;
+	}
+
+	/**
+	 * @return the remainder of the unsigned 32-bit value a, given as a long, by divisor.
+	 */
+	private static int remainder(long a, int divisor, long magic) {
+		long fraction = magic * a;
+		// high 64 bits of fraction * divisor, which is less than 2^32
+		return (int) (((fraction >>> 32) * divisor + ((fraction & LOW_32) * divisor >>> 32)) >>> 32);
+	}
+
+	/**
+	 * @return <code>a % divisor</code>, given the divisor's {@link #magic(int) magic}.
+	 */
+	public static int mod(int a, int divisor, long magic) {
+		return a >= 0 ? remainder(a, divisor, magic) : -remainder(-(long) a, divisor, magic);
+	}
+
+	public int getDivisor() {
+		return divisor;
+	}
+
+	/**
+	 * @return <code>a % getDivisor()</code>.
+	 */
+	public int mod(int a) {
+		return mod(a, divisor, magic);
+	}
+
+	/**
+	 * @return the remainder of a, as an unsigned 32-bit value, by getDivisor().
+	 */
+	public int modUnsigned(int a) {
+		return remainder(a & LOW_32, divisor, magic);
+	}
+
+	@Override
+	public String toString() {
+		return "mod "+divisor;
+	}
+}
@@ -1,5 +1,7 @@
 package au.com.phiware.math;
 
+import au.com.phiware.math.ring.LongMath;
+
 /**
  * Not of interest for users; only for implementors of hashtables.
  * Used to keep hash table capacities prime numbers.
@@ -22,6 +24,11 @@ public class PrimeFinder extends Object {
 	 */
 	public static final int largestPrime = Integer.MAX_VALUE; //yes, it is prime.
 
+	/**
+	 * The largest prime that is a <tt>long</tt>; equal to <tt>Long.MAX_VALUE - 24</tt>.
+	 */
+	public static final long largestLongPrime = Long.MAX_VALUE - 24;
+
 	/**
 	 * The prime number list consists of 11 chunks.
 	 * Each chunk contains prime numbers.
@@ -128,6 +135,15 @@ public class PrimeFinder extends Object {
 		java.util.Arrays.sort(primeCapacities);
 		//new cern.colt.list.IntArrayList(primeCapacities).mergeSort(); // for debug only, TODO
 	}
+
+	/**
+	 * The reducers of the above prime numbers, such that <code>fastMods[i]</code> divides by <code>primeCapacities[i]</code>.
+	 */
+	private static final FastMod[] fastMods = new FastMod[primeCapacities.length];
+	static {
+		for (int i = 0; i < fastMods.length; i++)
+			fastMods[i] = new FastMod(primeCapacities[i]);
+	}
 	
 /**
  * Makes this class non instantiable, but still let's others inherit from it.
@@ -152,13 +168,23 @@ protected static void main(String args[]) {
  * @return the capacity which should be used for a hashtable.
  */
 public static int nextPrime(int desiredCapacity) {
-	int i = java.util.Arrays.binarySearch(primeCapacities, desiredCapacity);
+	return nextPrime(primeCapacities, desiredCapacity);
+}
+/**
+ * Returns the element of <code>capacities</code>, a table as returned by {@link #primeCapacities(double, double)},
+ * which is <code>&gt;= desiredCapacity</code> and closest to it.
+ * @param capacities a sorted table of prime capacities, ending in {@link #largestPrime}.
+ * @param desiredCapacity the capacity desired by the user.
+ * @return the capacity which should be used for a hashtable.
+ */
+public static int nextPrime(int[] capacities, int desiredCapacity) {
+	int i = java.util.Arrays.binarySearch(capacities, desiredCapacity);
 	//int i = new cern.colt.list.IntArrayList(primeCapacities).binarySearch(desiredCapacity); // for debug only TODO
 	if (i<0) {
 		// desired capacity not found, choose next prime greater than desired capacity
 		i = -i -1; // remember the semantics of binarySearch...
 	}
-	return primeCapacities[i];
+	return capacities[i];
 }
 /**
  * Returns a prime number which is <code>&lt;= desired</code> and very close to <code>desired</code>.
@@ -167,7 +193,17 @@ public static int nextPrime(int desiredCapacity) {
  * @author Corin Lawson <corin@phiware.com.au>
  */
 public static int priorPrime(int desired) {
-	int i = java.util.Arrays.binarySearch(primeCapacities, desired);
+	return priorPrime(primeCapacities, desired);
+}
+/**
+ * Returns the element of <code>capacities</code>, a table as returned by {@link #primeCapacities(double, double)},
+ * which is <code>&lt;= desired</code> and closest to it.
+ * @param capacities a sorted table of prime capacities.
+ * @param desired the number, assumed to be greater than zero.
+ * @return the largest element that is not greater than <code>desired</code>, or 1.
+ */
+public static int priorPrime(int[] capacities, int desired) {
+	int i = java.util.Arrays.binarySearch(capacities, desired);
 	//int i = new cern.colt.list.IntArrayList(primeCapacities).binarySearch(desiredCapacity); // for debug only TODO
 	if (i<0) {
 		// desired capacity not found, choose next prime less than desired
@@ -177,7 +213,205 @@ public static int priorPrime(int desired) {
 		// desired was less than the smallest prime
 		return 1;
 	}
-	return primeCapacities[i];
+	return capacities[i];
+}
+/**
+ * Returns a reducer that computes remainders by <code>capacity</code> without a hardware division,
+ * for use in hash probes; the reducers of the capacities returned by {@link #nextPrime(int)} are precomputed.
+ * @param capacity a hashtable capacity; positive.
+ * @return a reducer such that <code>fastMod(capacity).mod(hash) == hash % capacity</code>.
+ */
+public static FastMod fastMod(int capacity) {
+	int i = java.util.Arrays.binarySearch(primeCapacities, capacity);
+	return i >= 0 ? fastMods[i] : new FastMod(capacity);
+}
+/**
+ * Generates a table of prime capacities, for use with {@link #nextPrime(int[], int)}, 
+ * that is optimized for the given hashtable growth factor, in the manner of the built-in table
+ * (which is optimized for a growth factor of 2.0).
+ *
+ * <p>The table consists of chains; for each element P1 the table includes
+ * the smallest prime P2 &gt;= growthFactor*P1, and so on up to {@link #largestPrime}.
+ * Further chains are started such that for any desired capacity the table includes
+ * a prime number <code>&lt;= desired capacity * (1 + maxError)</code>,
+ * except where no such prime exists (which is only the case for small capacities).
+ *
+ * <p>The primes are found by a segmented sieve; generating a table takes time in proportion to
+ * its length, which is about <code>log(largestPrime) / log(1 + maxError)</code>.
+ *
+ * @param growthFactor the factor by which the hashtable grows; greater than 1.
+ * @param maxError the greatest deviation of a capacity from the desired capacity; greater than 0.
+ * @return a sorted table of primes.
+ * @author Corin Lawson <corin@phiware.com.au>
+ */
+public static int[] primeCapacities(double growthFactor, double maxError) {
+	if (!(growthFactor > 1.0))
+		throw new IllegalArgumentException("Growth factor, "+growthFactor+", must be greater than 1.");
+	if (!(maxError > 0.0))
+		throw new IllegalArgumentException("Maximum error, "+maxError+", must be greater than 0.");
+
+	java.util.TreeSet<Integer> capacities = new java.util.TreeSet<Integer>();
+	capacities.add((int) leastPrime(3));
+	capacities.add(largestPrime);
+	for (Integer a = capacities.first(); a != largestPrime; a = capacities.higher(a)) {
+		// continue the chain
+		double grown = Math.ceil(a * growthFactor);
+		if (grown <= largestPrime)
+			capacities.add((int) leastPrime((long) grown));
+		// every desired capacity in (a, b] must have a prime within the error bound
+		int b = capacities.higher(a);
+		long q = greatestPrime((long) ((a + 1L) * (1.0 + maxError)));
+		if (q <= a)
+			q = leastPrime(a + 1L);
+		if (q < b)
+			capacities.add((int) q);
+	}
+
+	int[] table = new int[capacities.size()];
+	int n = 0;
+	for (int p : capacities)
+		table[n++] = p;
+	return table;
+}
+
+private static final int SEGMENT_LENGTH = 1 << 10;
+private static int[] sievingPrimes;
+
+/**
+ * @return the primes up to the square root of {@link #largestPrime}, by a sieve of Eratosthenes.
+ */
+private static synchronized int[] sievingPrimes() {
+	if (sievingPrimes == null) {
+		int limit = (int) Math.sqrt((double) largestPrime) + 1;
+		boolean[] composite = new boolean[limit + 1];
+		int[] primes = new int[limit];
+		int n = 0;
+		for (int i = 2; i <= limit; i++) {
+			if (composite[i])
+				continue;
+			primes[n++] = i;
+			for (long j = (long) i * i; j <= limit; j += i)
+				composite[(int) j] = true;
+		}
+		sievingPrimes = java.util.Arrays.copyOf(primes, n);
+	}
+	return sievingPrimes;
+}
+
+/**
+ * Sieves the segment <code>[from, from + SEGMENT_LENGTH)</code>.
+ * @return the composites of the segment, including 0 and 1.
+ */
+private static boolean[] sieve(long from) {
+	boolean[] composite = new boolean[SEGMENT_LENGTH];
+	long to = from + SEGMENT_LENGTH;
+	for (long i = from; i < 2 && i < to; i++)
+		composite[(int) (i - from)] = true;
+	for (int p : sievingPrimes()) {
+		long pp = (long) p * p;
+		if (pp >= to)
+			break;
+		for (long j = Math.max(pp, (from + p - 1) / p * p); j < to; j += p)
+			composite[(int) (j - from)] = true;
+	}
+	return composite;
+}
+
+/**
+ * @return the smallest prime <code>&gt;= n</code>, which may be greater than {@link #largestPrime}.
+ */
+static long leastPrime(long n) {
+	for (long from = Math.max(n, 0); ; from += SEGMENT_LENGTH) {
+		boolean[] composite = sieve(from);
+		for (int i = 0; i < SEGMENT_LENGTH; i++)
+			if (!composite[i])
+				return from + i;
+	}
+}
+
+/**
+ * @return the largest prime <code>&lt;= n</code>, or 1.
+ */
+static long greatestPrime(long n) {
+	for (long to = n + 1; to > 2; to -= SEGMENT_LENGTH) {
+		long from = Math.max(to - SEGMENT_LENGTH, 0);
+		boolean[] composite = sieve(from);
+		for (int i = (int) (to - from) - 1; i >= 0; i--)
+			if (!composite[i])
+				return from + i;
+	}
+	return 1;
+}
+/**
+ * The wheel of the primes 2, 3, 5 and 7; candidates that share a factor with it are skipped.
+ */
+private static final int WHEEL = 2 * 3 * 5 * 7;
+/**
+ * The distance from each residue to the next (or prior) residue that is coprime to the wheel, or zero.
+ */
+private static final byte[] wheelNext = new byte[WHEEL], wheelPrior = new byte[WHEEL];
+static {
+	for (int r = 0; r < WHEEL; r++) {
+		int d = 0;
+		while (!coprimeToWheel(r + d))
+			d++;
+		wheelNext[r] = (byte) d;
+		d = 0;
+		while (!coprimeToWheel(r - d + WHEEL))
+			d++;
+		wheelPrior[r] = (byte) d;
+	}
+}
+private static boolean coprimeToWheel(int n) {
+	return n % 2 != 0 && n % 3 != 0 && n % 5 != 0 && n % 7 != 0;
+}
+/**
+ * Returns the smallest prime number which is <code>&gt;= desired</code>.
+ * Unlike {@link #nextPrime(int)}, which chooses from a table, the prime is exact;
+ * candidates are prefiltered by a wheel and then tested by {@link LongMath#isPrime(long)},
+ * which is deterministic.
+ * @param desired any number.
+ * @return the smallest prime number that is not less than <code>desired</code>.
+ * @throws ArithmeticException if <code>desired</code> is greater than {@link #largestLongPrime}.
+ * @author Corin Lawson <corin@phiware.com.au>
+ */
+public static long nextPrime(long desired) {
+	if (desired > largestLongPrime)
+		throw new ArithmeticException("There is no long prime greater than "+desired+".");
+	if (desired <= 2)
+		return 2;
+	for (long n = desired; n <= 11; n++)
+		if (LongMath.isPrime(n))
+			return n;
+	long n = desired + wheelNext[(int) (desired % WHEEL)];
+	while (!LongMath.isPrime(n)) {
+		n++;
+		n += wheelNext[(int) (n % WHEEL)];
+	}
+	return n;
+}
+/**
+ * Returns the largest prime number which is <code>&lt;= desired</code>.
+ * Unlike {@link #priorPrime(int)}, which chooses from a table, the prime is exact.
+ * @param desired any number.
+ * @return the largest prime number that is not greater than <code>desired</code>, or 1.
+ * @author Corin Lawson <corin@phiware.com.au>
+ */
+public static long priorPrime(long desired) {
+	if (desired < 2)
+		return 1;
+	if (desired <= 11) {
+		long n = desired;
+		while (!LongMath.isPrime(n))
+			n--;
+		return n;
+	}
+	long n = desired - wheelPrior[(int) (desired % WHEEL)];
+	while (!LongMath.isPrime(n)) {
+		n--;
+		n -= wheelPrior[(int) (n % WHEEL)];
+	}
+	return n;
 }
 /**
  * Tests correctness.
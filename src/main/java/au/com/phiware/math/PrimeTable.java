@@ -0,0 +1,106 @@
+package au.com.phiware.math;
+
+import java.util.concurrent.RecursiveAction;
+
+import au.com.phiware.math.ring.LongMath;
+
+/**
+ * A table of the primes below a bound, one bit per odd number, for constant
+ * time primality tests; a table of the primes below 10<sup>9</sup> takes
+ * about 60 MB.
+ *
+ * <p>The table is filled by a {@link PrimeSieve}, in parallel.
+ */
+public class PrimeTable {
+	/**
+	 * The greatest bound of a table.
+	 */
+	public static final long MAX_BOUND = 1L << 37;
+
+	private final long bound;
+	/**
+	 * Bit i is set if 2i + 1 is prime.
+	 */
+	private final long[] bits;
+
+	/**
+	 * @param bound the number after the greatest number of the table.
+	 * @throws IllegalArgumentException unless <tt>0 &lt;= bound &lt;= MAX_BOUND</tt>.
+	 */
+	public PrimeTable(long bound) {
+		if (bound < 0 || bound > MAX_BOUND)
+			throw new IllegalArgumentException("Bound, "+bound+", must be within [0, "+MAX_BOUND+"].");
+		this.bound = bound;
+		this.bits = new long[(int) ((bound + 127) >>> 7)];
+		final PrimeSieve sieve = new PrimeSieve(0, bound);
+		PrimeSieve.pool().invoke(new Fill(sieve, 0, (int) sieve.segments())); // at most 2^18 segments
+	}
+
+	/**
+	 * Copies the primes of a run of segments into the table; segments start
+	 * at multiples of {@link PrimeSieve#SEGMENT_LENGTH}, so that each fills
+	 * whole words.
+	 */
+	@SuppressWarnings("serial")
+	private final class Fill extends RecursiveAction {
+		final PrimeSieve sieve;
+		final int from, to;
+
+		Fill(PrimeSieve sieve, int from, int to) {
+			this.sieve = sieve;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Fill(sieve, from, mid), new Fill(sieve, mid, to));
+			} else if (to > from) {
+				long[] composite = new long[PrimeSieve.SEGMENT_WORDS];
+				sieve.sieve(from, composite);
+				int offset = from * PrimeSieve.SEGMENT_WORDS;
+				int length = Math.min(composite.length, bits.length - offset);
+				for (int j = 0; j < length; j++)
+					bits[offset + j] = ~composite[j];
+				if (offset + length == bits.length) {
+					// clear the bits of the odd numbers from the bound
+					long n = bound >>> 1; // the number of odd numbers below the bound
+					int last = (int) (n >>> 6);
+					if (last < bits.length)
+						bits[last] &= (1L << n) - 1;
+					for (int j = last + 1; j < bits.length; j++)
+						bits[j] = 0;
+				}
+			}
+		}
+	}
+
+	public long getBound() {
+		return bound;
+	}
+
+	/**
+	 * @return true if n is prime; by the table if n is less than the bound,
+	 *         otherwise by {@link LongMath#isPrime(long)}.
+	 */
+	public boolean isPrime(long n) {
+		if (n >= bound || n < 0)
+			return LongMath.isPrime(n);
+		if ((n & 1) == 0)
+			return n == 2;
+		long i = n >>> 1;
+		return (bits[(int) (i >>> 6)] & 1L << i) != 0;
+	}
+
+	/**
+	 * @return the number of primes below the bound.
+	 */
+	public long count() {
+		long count = bound > 2 ? 1 : 0;
+		for (long word : bits)
+			count += Long.bitCount(word);
+		return count;
+	}
+}
@@ -16,8 +16,12 @@ import org.slf4j.LoggerFactory;
 import au.com.phiware.math.binom.Binom;
 import au.com.phiware.math.binom.BinomFactory;
 import au.com.phiware.math.binom.Binomials;
+import au.com.phiware.math.ring.Accumulator;
+import au.com.phiware.math.ring.Accumulators;
 import au.com.phiware.math.ring.ArithmeticFactory;
 import au.com.phiware.math.ring.BitArithmetic;
+import au.com.phiware.math.ring.BitOps;
+import au.com.phiware.math.ring.LongBitOps;
 
 /**
  * @author Corin Lawson <me@corinlawson.com.au>
@@ -28,6 +32,32 @@ public abstract class Bankers<V extends Number> {
 	private BinomFactory<V> binomFactory;
 	private final int length;
 	private final V mask;
+	private LongBitOps longOps;
+	private long longOne, longZero;
+	private boolean ints;
+
+	/**
+	 * Detects whether the arithmetic can operate on primitives, in which case
+	 * the boxing-free path is taken, over longs even for an arithmetic of
+	 * ints. The arithmetic's own one and zero are kept, as they need not be 1
+	 * and 0 (e.g. in Montgomery form).
+	 */
+	private void detectPrimitiveOps() {
+		BitArithmetic<V> a = getArithmetic();
+		longOps = BitOps.longBitOps(a);
+		if (longOps != null) {
+			longOne = a.one().longValue();
+			longZero = a.zero().longValue();
+			ints = a.one() instanceof Integer;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueOf(long v) {
+		if (ints)
+			return (V) Integer.valueOf((int) v);
+		return (V) Long.valueOf(v);
+	}
 
 	private V constructMask() {
 		BitArithmetic<V> a = getArithmetic();
@@ -38,6 +68,7 @@ public abstract class Bankers<V extends Number> {
 		this.length = length;
 		this.binomFactory = binomFactory;
 		this.mask = constructMask();
+		detectPrimitiveOps();
 	}
 	@SuppressWarnings("unchecked")
 	public Bankers(int length) throws ClassNotFoundException {
@@ -55,6 +86,7 @@ public abstract class Bankers<V extends Number> {
 		binomFactory = Binomials.defaultBinomFactory(arithmetic);
 
 		this.mask = constructMask();
+		detectPrimitiveOps();
 	}
 
 	public BitArithmetic<V> getArithmetic() {
@@ -66,6 +98,9 @@ public abstract class Bankers<V extends Number> {
 	}
 
 	public V next(V b) {
+		if (longOps != null)
+			return valueOf(next(b.longValue()));
+
 		BitArithmetic<V> a = getArithmetic();
 
 		V next = a.zero();
@@ -101,6 +136,30 @@ public abstract class Bankers<V extends Number> {
 		return next;
 	}
 	
+	private long next(long b) {
+		LongBitOps a = longOps;
+
+		long one = longOne, next = longZero;
+		int z = 0, i = length - 1;
+		
+		while (i >= 0 && a.testBit(b, i))
+			i--;
+		while (i >= 0 && !a.testBit(b, i)) {
+			z++;
+			i--;
+		}
+		
+		long passthru = a.subtract(a.shiftLeft(one, i + 1), one);
+		
+		next = a.or(next, a.nand(a.subtract(a.shiftLeft(one, length - z + 1), one), passthru));
+		if (i > 0) {
+			passthru = a.shiftRight(passthru, 1);
+			next = a.or(next, a.and(b, passthru));
+		}
+		
+		return next;
+	}
+
 	private Map<Integer, SoftReference<Binom<V>>> binomRow = new HashMap<Integer, SoftReference<Binom<V>>>();
 	private Binom<V> getBinom(int k) {
 		Binom<V> binom = null;
@@ -119,8 +178,11 @@ public abstract class Bankers<V extends Number> {
 	}
 	
 	public V to(V v, int k) {
+		if (longOps != null)
+			return valueOf(to(v.longValue(), k));
+
 		BitArithmetic<V> a = getArithmetic();
-		V e, b = a.zero();
+		V b = a.zero();
 		
 		if (a.testBit(v, length() - 1)) {
 			v = a.xor(v, mask);
@@ -129,21 +191,57 @@ public abstract class Bankers<V extends Number> {
 			if (v.equals(b)) return b;
 		
 			Binom<V> binom = getBinom(k);
+			Accumulator<V> e = Accumulators.newAccumulator(a).set(v);
 			if (k == 0) {
 				while (a.compare(binom.right().sum(), v) <= 0)
 					binom = binom.right();
-				e = a.subtract(v, binom.sum());
+				e.subtractInPlace(binom.sum());
+			}
+
+			debug(binom);
+			binom = binom.down();
+			for (int i = 0; binom != null; i++) {
+				debug(binom);
+				if (e.compareTo(binom.value()) < 0) {
+					b = a.setBit(b, i);
+					binom = binom.back();
+				} else {
+					e.subtractInPlace(binom.value());
+					binom = binom.down();
+				}
+			}
+		}
+		
+		return b;
+	}
+
+	private long to(long v, int k) {
+		LongBitOps a = longOps;
+		long e, b = longZero;
+		
+		if (a.testBit(v, length() - 1)) {
+			long mask = this.mask.longValue();
+			v = a.xor(v, mask);
+			b = a.xor(to(v, 0), mask);
+		} else {
+			if (v == b) return b;
+		
+			Binom<V> binom = getBinom(k);
+			if (k == 0) {
+				while (a.compare(binom.right().sum().longValue(), v) <= 0)
+					binom = binom.right();
+				e = a.subtract(v, binom.sum().longValue());
 			} else	e = v;
 
 			debug(binom);
 			binom = binom.down();
 			for (int i = 0; binom != null; i++) {
 				debug(binom);
-				if (a.compare(binom.value(), e) > 0) {
+				if (a.compare(binom.longValue(), e) > 0) {
 					b = a.setBit(b, i);
 					binom = binom.back();
 				} else {
-					e = a.subtract(e, binom.value());
+					e = a.subtract(e, binom.longValue());
 					binom = binom.down();
 				}
 			}
@@ -153,6 +251,9 @@ public abstract class Bankers<V extends Number> {
 	}
 
 	public V from(V b) {
+		if (longOps != null)
+			return valueOf(from(b.longValue()));
+
 		BitArithmetic<V> a = getArithmetic();
 		int n = 0, c = a.bitCount(b);
 		
@@ -160,7 +261,34 @@ public abstract class Bankers<V extends Number> {
 			return a.zero();
 		
 		Binom<V> binom = getBinom(c - 1);
-		V v = binom.sum();
+		Accumulator<V> v = Accumulators.newAccumulator(a).set(binom.sum());
+		
+		debug(binom);
+		binom = binom.down();
+		while (binom != null && c > 0) {
+			debug(binom);
+			if (a.testBit(b, n++)) {
+				binom = binom.back();
+				c--;
+			} else {
+				v.addInPlace(binom.value());
+				binom = binom.down();
+			}
+		}
+		
+		log.debug("from {} to {}", b, v);
+		return v.value();
+	}
+
+	private long from(long b) {
+		LongBitOps a = longOps;
+		int n = 0, c = a.bitCount(b);
+		
+		if (c == 0)
+			return longZero;
+		
+		Binom<V> binom = getBinom(c - 1);
+		long v = binom.sum().longValue();
 		
 		debug(binom);
 		binom = binom.down();
@@ -170,7 +298,7 @@ public abstract class Bankers<V extends Number> {
 				binom = binom.back();
 				c--;
 			} else {
-				v = a.add(v, binom.value());
+				v = a.add(v, binom.longValue());
 				binom = binom.down();
 			}
 		}
@@ -0,0 +1,217 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+import java.math.BigInteger;
+import java.text.MessageFormat;
+
+import au.com.phiware.math.ring.BigIntegerArithmetic;
+import au.com.phiware.math.ring.BitArithmetic;
+import au.com.phiware.math.ring.ModularArithmetic;
+
+/**
+ * Skeleton for factories that can produce the value of any entry of Pascal's
+ * triangle directly, i.e. without walking a {@link BinomGraph}. Subclasses
+ * need only implement {@link #value(int, int)}; navigation is achieved by
+ * asking the factory for the neighbouring entry.
+ */
+abstract class AbstractBinomFactory<V extends Number> implements BinomFactory<V> {
+	protected final BitArithmetic<V> arithmetic;
+
+	protected AbstractBinomFactory(BitArithmetic<V> arithmetic) {
+		this.arithmetic = arithmetic;
+	}
+
+	@Override
+	public BitArithmetic<V> getArithmetic() {
+		return arithmetic;
+	}
+
+	@Override
+	public Binom<V> createBinom(int n, int k) {
+		if (n < 0 || k < 0 || k > n)
+			throw new IllegalArgumentException(MessageFormat.format("Undefined value for n = {0} and k = {1}.", n, k));
+		return new Entry(n, k);
+	}
+
+	/**
+	 * @return n choose k, where 0 &lt;= k &lt;= n.
+	 */
+	protected abstract V value(int n, int k);
+
+	/**
+	 * @return the sum of n choose 0 through n choose k.
+	 */
+	protected V sum(int n, int k) {
+		if (k == n)
+			return n < arithmetic.maxBitLength() ? arithmetic.shiftLeft(arithmetic.one(), n) : arithmetic.zero();
+		V sum = arithmetic.zero();
+		for (int j = 0; j <= k; j++)
+			sum = arithmetic.add(sum, value(n, j));
+		return sum;
+	}
+
+	/**
+	 * Converts an exact value to the arithmetic's representation; bits beyond
+	 * {@link BitArithmetic#maxBitLength()} are discarded, which is consistent
+	 * with the wrapping addition performed by {@link BinomGraph}. A
+	 * {@link ModularArithmetic} reduces modulo its modulus instead.
+	 */
+	@SuppressWarnings("unchecked")
+	protected V valueOf(BigInteger x) {
+		if (arithmetic instanceof BigIntegerArithmetic)
+			return (V) x;
+		if (arithmetic instanceof ModularArithmetic) {
+			ModularArithmetic m = (ModularArithmetic) arithmetic;
+			return (V) Long.valueOf(m.valueOf(x.mod(BigInteger.valueOf(m.getModulus())).longValue()));
+		}
+		if (x.bitLength() < Long.SIZE)
+			return valueOf(x.longValue());
+		V v = arithmetic.zero();
+		int max = Math.min(arithmetic.maxBitLength(), x.bitLength());
+		for (int i = x.getLowestSetBit(); i >= 0 && i < max; i++)
+			if (x.testBit(i))
+				v = arithmetic.setBit(v, i);
+		return v;
+	}
+
+	/**
+	 * @see #valueOf(BigInteger)
+	 */
+	@SuppressWarnings("unchecked")
+	protected V valueOf(long x) {
+		if (arithmetic instanceof BigIntegerArithmetic)
+			return (V) BigInteger.valueOf(x);
+		if (arithmetic instanceof ModularArithmetic)
+			return (V) Long.valueOf(((ModularArithmetic) arithmetic).valueOf(x));
+		V v = arithmetic.zero();
+		int max = arithmetic.maxBitLength();
+		while (x != 0) {
+			int i = Long.numberOfTrailingZeros(x);
+			if (i >= max)
+				break;
+			v = arithmetic.setBit(v, i);
+			x &= x - 1;
+		}
+		return v;
+	}
+
+	/**
+	 * Gives subclasses the chance to derive the value of n choose k + 1 from
+	 * that of n choose k.
+	 * @return n choose k + 1, or null if it should be computed on demand.
+	 */
+	protected V right(int n, int k, V value) {
+		return null;
+	}
+
+	/**
+	 * @return n choose k - 1, or null if it should be computed on demand.
+	 * @see #right(int, int, Number)
+	 */
+	protected V left(int n, int k, V value) {
+		return null;
+	}
+
+	protected Binom<V> createBinom(int n, int k, V value) {
+		Entry entry = new Entry(n, k);
+		entry.value = value;
+		return entry;
+	}
+
+	protected class Entry extends Number implements Binom<V> {
+		private static final long serialVersionUID = 2914528703616497314L;
+		final int n, k;
+		V value;
+
+		Entry(int n, int k) {
+			this.n = n;
+			this.k = k;
+		}
+
+		@Override
+		public V value() {
+			if (value == null)
+				value = AbstractBinomFactory.this.value(n, k);
+			return value;
+		}
+
+		@Override
+		public V sum() {
+			return AbstractBinomFactory.this.sum(n, k);
+		}
+
+		@Override
+		public Binom<V> back() {
+			if (k == 0)
+				return null;
+			return createBinom(n - 1, k - 1);
+		}
+
+		@Override
+		public Binom<V> down() {
+			if (k == n)
+				return null;
+			return createBinom(n - 1, k);
+		}
+
+		@Override
+		public Binom<V> next() {
+			return createBinom(n + 1, k + 1);
+		}
+
+		@Override
+		public Binom<V> up() {
+			return createBinom(n + 1, k);
+		}
+
+		@Override
+		public Binom<V> right() {
+			if (k == n)
+				return null;
+			return createBinom(n, k + 1, value == null ? null : AbstractBinomFactory.this.right(n, k, value));
+		}
+
+		@Override
+		public Binom<V> left() {
+			if (k == 0)
+				return null;
+			return createBinom(n, k - 1, value == null ? null : AbstractBinomFactory.this.left(n, k, value));
+		}
+
+		@Override
+		public double doubleValue() {
+			return value().doubleValue();
+		}
+
+		@Override
+		public float floatValue() {
+			return value().floatValue();
+		}
+
+		@Override
+		public int intValue() {
+			return value().intValue();
+		}
+
+		@Override
+		public long longValue() {
+			return value().longValue();
+		}
+
+		@Override
+		public int getRow() {
+			return n;
+		}
+
+		@Override
+		public int getColumn() {
+			return k;
+		}
+
+		public String toString() {
+			return n+" choose "+k+(value==null ? "" : " = "+value);
+		}
+	}
+}
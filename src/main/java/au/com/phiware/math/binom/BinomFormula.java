@@ -0,0 +1,156 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+import java.math.BigInteger;
+
+import au.com.phiware.math.ring.BitArithmetic;
+
+/**
+ * Computes each entry of Pascal's triangle on demand with the multiplicative
+ * formula, C(n, k + 1) = C(n, k) &middot; (n - k) / (k + 1), so that nothing
+ * but the requested values are ever held in memory.
+ *
+ * <p>Moving {@link Binom#right() right} or {@link Binom#left() left} from an
+ * entry whose value is known takes a single step of the recurrence rather
+ * than starting again from the edge of the triangle.
+ */
+public class BinomFormula<V extends Number> extends AbstractBinomFactory<V> {
+	/**
+	 * Every entry of rows up to and including this one fits in a long.
+	 */
+	static final int LONG_ROW_LIMIT = 66;
+
+	public BinomFormula(BitArithmetic<V> arithmetic) {
+		super(arithmetic);
+	}
+
+	/**
+	 * Takes one step of the multiplicative recurrence without overflowing
+	 * unless the result does.
+	 * @return c &middot; p / q, where q is known to divide c &middot; p.
+	 */
+	static long multiplyDivide(long c, long p, long q) {
+		long g = gcd(c, q);
+		return (c / g) * (p / (q / g));
+	}
+
+	private static long gcd(long a, long b) {
+		long r;
+		while (b != 0) {
+			r = a % b;
+			a = b;
+			b = r;
+		}
+		return a;
+	}
+
+	static long longValue(int n, int k) {
+		if (k > n / 2)
+			k = n - k;
+		long c = 1;
+		for (int j = 0; j < k; j++)
+			c = multiplyDivide(c, n - j, j + 1);
+		return c;
+	}
+
+	static BigInteger bigValue(int n, int k) {
+		if (k > n / 2)
+			k = n - k;
+		BigInteger c = BigInteger.ONE;
+		for (int j = 0; j < k; j++)
+			c = c.multiply(BigInteger.valueOf(n - j)).divide(BigInteger.valueOf(j + 1));
+		return c;
+	}
+
+	@Override
+	protected V value(int n, int k) {
+		if (n <= LONG_ROW_LIMIT)
+			return valueOf(longValue(n, k));
+		return valueOf(bigValue(n, k));
+	}
+
+	/**
+	 * Only an exact value may be stepped; a value that has wrapped around a
+	 * fixed width arithmetic is no longer divisible, so beyond this row the
+	 * entries carry their exact value, which is stepped instead.
+	 * @see Exact
+	 */
+	private boolean isExact(int n) {
+		return arithmetic.maxBitLength() == Integer.MAX_VALUE || n < arithmetic.maxBitLength() - 1;
+	}
+
+	@Override
+	public Binom<V> createBinom(int n, int k) {
+		Binom<V> binom = super.createBinom(n, k); // checks n and k
+		return isExact(n) ? binom : new Exact(n, k, null);
+	}
+
+	@Override
+	protected V right(int n, int k, V value) {
+		if (n <= LONG_ROW_LIMIT)
+			return valueOf(multiplyDivide(value.longValue(), n - k, k + 1));
+		return valueOf(toBigInteger(value).multiply(BigInteger.valueOf(n - k)).divide(BigInteger.valueOf(k + 1)));
+	}
+
+	@Override
+	protected V left(int n, int k, V value) {
+		if (n <= LONG_ROW_LIMIT)
+			return valueOf(multiplyDivide(value.longValue(), k, n - k + 1));
+		return valueOf(toBigInteger(value).multiply(BigInteger.valueOf(k)).divide(BigInteger.valueOf(n - k + 1)));
+	}
+
+	/**
+	 * An entry of a row whose values do not fit the arithmetic; it keeps the
+	 * exact value so that moving right or left takes a single step in
+	 * BigInteger, which is only reduced to the arithmetic when the value is
+	 * requested.
+	 */
+	private class Exact extends Entry {
+		private static final long serialVersionUID = -6290785462281425046L;
+		private BigInteger exact;
+
+		Exact(int n, int k, BigInteger exact) {
+			super(n, k);
+			this.exact = exact;
+		}
+
+		private BigInteger exact() {
+			if (exact == null)
+				exact = bigValue(n, k);
+			return exact;
+		}
+
+		@Override
+		public V value() {
+			if (value == null)
+				value = valueOf(exact());
+			return value;
+		}
+
+		@Override
+		public Binom<V> right() {
+			if (k == n)
+				return null;
+			if (exact == null)
+				return new Exact(n, k + 1, null);
+			return new Exact(n, k + 1, exact.multiply(BigInteger.valueOf(n - k)).divide(BigInteger.valueOf(k + 1)));
+		}
+
+		@Override
+		public Binom<V> left() {
+			if (k == 0)
+				return null;
+			if (exact == null)
+				return new Exact(n, k - 1, null);
+			return new Exact(n, k - 1, exact.multiply(BigInteger.valueOf(k)).divide(BigInteger.valueOf(n - k + 1)));
+		}
+	}
+
+	private BigInteger toBigInteger(V value) {
+		if (value instanceof BigInteger)
+			return (BigInteger) value;
+		return new BigInteger(arithmetic.toString(value, 16), 16);
+	}
+}
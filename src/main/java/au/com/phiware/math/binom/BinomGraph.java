@@ -3,17 +3,22 @@
  */
 package au.com.phiware.math.binom;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.lang.reflect.Method;
 import java.text.MessageFormat;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import au.com.phiware.math.ring.Accumulator;
+import au.com.phiware.math.ring.Accumulators;
 import au.com.phiware.math.ring.BitArithmetic;
+import au.com.phiware.math.ring.BitOps;
 import au.com.phiware.math.ring.LongArithmetic;
+import au.com.phiware.math.ring.LongBitOps;
+import au.com.phiware.util.collect.LongObjectMap;
 
 /**
  * Represents a portion of Pascal's triangle, whereby the value of the root of
@@ -119,7 +124,32 @@ public class BinomGraph<V extends Number> extends Number implements Binom<V>, Bi
 		}
 	}
 
-	private Map<Long, BinomNode> foldedNodes = new WeakHashMap<Long, BinomNode>();
+	/*
+	 * Nodes are held softly, like the up and next links, so that upper nodes
+	 * may be reclaimed under memory pressure; a reclaimed node is rebuilt on
+	 * demand. Cleared references are queued, and removed from the map by
+	 * the next createNode.
+	 */
+	final class NodeReference extends SoftReference<BinomNode> {
+		final long key;
+
+		NodeReference(long key, BinomNode node) {
+			super(node, clearedNodes);
+			this.key = key;
+		}
+	}
+	private final ReferenceQueue<BinomNode> clearedNodes = new ReferenceQueue<BinomNode>();
+	final LongObjectMap<NodeReference> foldedNodes = new LongObjectMap<NodeReference>();
+
+	private void removeClearedNodes() {
+		for (Reference<? extends BinomNode> ref; (ref = clearedNodes.poll()) != null; ) {
+			long key = ((NodeReference) ref).key;
+			// the key may since map to a rebuilt node
+			if (foldedNodes.get(key) == ref)
+				foldedNodes.removeKey(key);
+		}
+	}
+
 	protected BinomNode createNode(int n, int k) {
 		long key = (((long) n + 1) * ((long) n + 1)) / 4 + k;
 		if (k > n / 2)
@@ -127,12 +157,14 @@ public class BinomGraph<V extends Number> extends Number implements Binom<V>, Bi
 		if (key >= (((long) n + 2) * ((long) n + 2)) / 4)
 			throw new IndexOutOfBoundsException("Row: "+n+", Column: "+k+" -> "+key+".");
 
-		BinomNode node = foldedNodes.get(key);
+		removeClearedNodes();
+		NodeReference ref = foldedNodes.get(key);
+		BinomNode node = ref == null ? null : ref.get();
 		log.debug("{} choose {}", n,k);
 		if (node == null) {
 			count(n, k);
 			node = new BinomNode(n, k);
-			foldedNodes.put(key, node);
+			foldedNodes.put(key, new NodeReference(key, node));
 		}
 		return node;
 	}
@@ -162,6 +194,9 @@ public class BinomGraph<V extends Number> extends Number implements Binom<V>, Bi
 	}
 
 	BitArithmetic<V> arithmetics;
+	LongBitOps longOps;
+	long longOne;
+	boolean ints;
 	BinomNode root;
 	boolean folded = false;
 	
@@ -188,6 +223,12 @@ public class BinomGraph<V extends Number> extends Number implements Binom<V>, Bi
 
 	public BinomGraph(BitArithmetic<V> arithmetic) {
 		this.arithmetics = arithmetic;
+		longOps = BitOps.longBitOps(arithmetic);
+		if (longOps != null) {
+			// one need not be 1, e.g. in Montgomery form
+			longOne = arithmetic.one().longValue();
+			ints = arithmetic.one() instanceof Integer;
+		}
 	}
 
 	/* (non-Javadoc)
@@ -207,10 +248,16 @@ public class BinomGraph<V extends Number> extends Number implements Binom<V>, Bi
 	/* (non-Javadoc)
 	 * @see au.com.phiware.math.binom.Binom#sum()
 	 */
+	@SuppressWarnings("unchecked")
 	@Override
 	public V sum() {
 		if (root.value == null)
 			buildNode(root);
+		if (longOps != null) {
+			if (ints)
+				return (V) Integer.valueOf((int) longSum());
+			return (V) Long.valueOf(longSum());
+		}
 		V sum = root.value;
 		boolean folded = this.folded;
 		if (root.k == (folded ? 0 : root.n))
@@ -218,12 +265,42 @@ public class BinomGraph<V extends Number> extends Number implements Binom<V>, Bi
 		else if (root.k != 0) {
 			BinomNode step = folded ? downNode(root) : root.back();
 			if (step != null) {
-				sum = add(sum, one());
+				Accumulator<V> acc  = Accumulators.newAccumulator(arithmetics),
+				               term = Accumulators.newAccumulator(arithmetics);
+				acc.set(sum).addInPlace(one());
+				int i = 0,
+				    max = folded ? step.n - step.k : step.k;
+				while (i < max) {
+					if (step.n % 2 == 0 && step.k == step.n / 2) folded = false;
+					acc.addInPlace(term.set(step.value).addInPlace(one()).shiftLeftInPlace(i++));
+					step = folded ? downNode(step) : step.back();
+				}
+				sum = acc.value();
+			}
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Boxing-free equivalent of {@link #sum()}, over longs even for an
+	 * arithmetic of ints.
+	 */
+	private long longSum() {
+		LongBitOps a = longOps;
+		long one = longOne, sum = root.value.longValue();
+		boolean folded = this.folded;
+		if (root.k == (folded ? 0 : root.n))
+			sum = a.shiftLeft(one, root.n);
+		else if (root.k != 0) {
+			BinomNode step = folded ? downNode(root) : root.back();
+			if (step != null) {
+				sum = a.add(sum, one);
 				int i = 0,
 				    max = folded ? step.n - step.k : step.k;
 				while (i < max) {
 					if (step.n % 2 == 0 && step.k == step.n / 2) folded = false;
-					sum = add(sum, shiftLeft(add(step.value, one()), i++));
+					sum = a.add(sum, a.shiftLeft(a.add(step.value.longValue(), one), i++));
 					step = folded ? downNode(step) : step.back();
 				}
 			}
@@ -0,0 +1,111 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+import au.com.phiware.math.ring.BitArithmetic;
+import au.com.phiware.math.ring.LongMath;
+import au.com.phiware.math.ring.ModularArithmetic;
+
+/**
+ * Produces entries of Pascal's triangle reduced modulo a prime, p, from
+ * tables of factorials and inverse factorials modulo p, i.e.
+ * C(n, k) = n! &middot; (k!)<sup>-1</sup> &middot; ((n - k)!)<sup>-1</sup> (mod p).
+ * Rows beyond the tables are handled by Lucas' theorem. For odd primes the
+ * tables are held in Montgomery form, see {@link ModularArithmetic}, so that
+ * no residue requires a division.
+ */
+public class BinomModulo<V extends Number> extends AbstractBinomFactory<V> {
+	private final long modulus;
+	/**
+	 * The ring in which the tables are held, or null if the modulus is two.
+	 */
+	private final ModularArithmetic field;
+	private final long[] factorial;
+	private final long[] inverseFactorial;
+
+	/**
+	 * @param arithmetic in which to present the residues.
+	 * @param maxN the largest row that is expected, which sizes the tables.
+	 * @param modulus a prime.
+	 */
+	public BinomModulo(BitArithmetic<V> arithmetic, int maxN, long modulus) {
+		super(arithmetic);
+		if (!LongMath.isPrime(modulus))
+			throw new IllegalArgumentException("Modulus, "+modulus+", must be prime.");
+		this.modulus = modulus;
+		this.field = modulus == 2 ? null : new ModularArithmetic(modulus);
+
+		int size = (int) Math.min((long) Math.max(maxN, 0) + 1, modulus);
+		factorial = new long[size];
+		inverseFactorial = new long[size];
+		factorial[0] = element(1);
+		for (int i = 1; i < size; i++)
+			factorial[i] = multiply(factorial[i - 1], element(i));
+		inverseFactorial[size - 1] = pow(factorial[size - 1], modulus - 2);
+		for (int i = size - 1; i > 0; i--)
+			inverseFactorial[i - 1] = multiply(inverseFactorial[i], element(i));
+	}
+
+	public long getModulus() {
+		return modulus;
+	}
+
+	/**
+	 * @return x mod p, as held in the tables.
+	 */
+	private long element(long x) {
+		return field != null ? field.valueOf(x) : x & 1;
+	}
+
+	private long multiply(long a, long b) {
+		return field != null ? field.multiply(a, b) : a & b;
+	}
+
+	private long pow(long a, long e) {
+		return field != null ? field.pow(a, e) : e == 0 ? 1 : a;
+	}
+
+	/**
+	 * @return n choose k modulo p, for 0 &lt;= k &lt;= n &lt; p, as held in the tables.
+	 */
+	private long element(long n, long k) {
+		if (n < factorial.length)
+			return multiply(factorial[(int) n], multiply(inverseFactorial[(int) k], inverseFactorial[(int) (n - k)]));
+		long c = element(1);
+		for (long j = 0; j < k; j++)
+			c = multiply(multiply(c, element(n - j)), pow(element(j + 1), modulus - 2));
+		return c;
+	}
+
+	/**
+	 * @return n choose k modulo p.
+	 */
+	public long residueOf(int n, int k) {
+		long r = element(1), nn = n, kk = k;
+		while (kk > 0 && r != 0) {
+			long ni = nn % modulus, ki = kk % modulus;
+			if (ki > ni)
+				return 0;
+			r = multiply(r, element(ni, ki));
+			nn /= modulus;
+			kk /= modulus;
+		}
+		return field != null ? field.residue(r) : r;
+	}
+
+	@Override
+	protected V value(int n, int k) {
+		return valueOf(residueOf(n, k));
+	}
+
+	@Override
+	protected V sum(int n, int k) {
+		long sum = 0;
+		for (int j = 0; j <= k; j++) {
+			long r = residueOf(n, j);
+			sum = r >= modulus - sum ? r - (modulus - sum) : sum + r;
+		}
+		return valueOf(sum);
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams a row of Pascal's triangle, n choose 0 through n choose n, by the
+ * multiplicative recurrence C(n, k + 1) = C(n, k) &middot; (n - k) / (k + 1).
+ * Only the current entry is held; entries are kept as a primitive long
+ * whilst they fit and as a {@link BigInteger} otherwise, so that the ends
+ * of even very long rows are produced without allocation.
+ *
+ * <p>Use {@link #nextLong()} to avoid boxing when every entry of the row is
+ * known to fit in a long, i.e. n &lt;= 66.
+ */
+public class BinomRow implements Iterator<BigInteger> {
+	private final int n;
+	private int k = 0;
+	private long value = 1;
+	private BigInteger bigValue = null;
+
+	public BinomRow(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException("Undefined row, "+n+".");
+		this.n = n;
+	}
+
+	public int getRow() {
+		return n;
+	}
+
+	/**
+	 * @return the column of the entry that will be returned next.
+	 */
+	public int getColumn() {
+		return k;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return k <= n;
+	}
+
+	/**
+	 * @return n choose k, as a primitive.
+	 * @throws ArithmeticException if the entry does not fit in a long.
+	 */
+	public long nextLong() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		if (bigValue != null)
+			throw new ArithmeticException(n+" choose "+k+" does not fit in a long.");
+		long c = value;
+		step();
+		return c;
+	}
+
+	@Override
+	public BigInteger next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		BigInteger c = bigValue != null ? bigValue : BigInteger.valueOf(value);
+		step();
+		return c;
+	}
+
+	private void step() {
+		long p = n - k, q = ++k;
+		if (p == 0)
+			return;
+		if (bigValue == null) {
+			long g = gcd(value, q),
+			     c = value / g,
+			     d = p / (q / g);
+			if (c <= Long.MAX_VALUE / d) {
+				value = c * d;
+				return;
+			}
+			bigValue = BigInteger.valueOf(value);
+		}
+		bigValue = bigValue.multiply(BigInteger.valueOf(p)).divide(BigInteger.valueOf(q));
+		if (bigValue.bitLength() < Long.SIZE) {
+			value = bigValue.longValue();
+			bigValue = null;
+		}
+	}
+
+	private static long gcd(long a, long b) {
+		long r;
+		while (b != 0) {
+			r = a % b;
+			a = b;
+			b = r;
+		}
+		return a;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+import au.com.phiware.math.ring.BitArithmetic;
+
+/**
+ * A dense, eagerly computed portion of Pascal's triangle for rows 0 through
+ * <code>maxN</code>. Only the left half of each row is stored (the right half
+ * is folded onto it) together with the running sums of that half, so that
+ * both {@link Binom#value()} and {@link Binom#sum()} are constant time.
+ *
+ * <p>Values are built with the same additions as {@link BinomGraph}, hence
+ * a fixed width arithmetic wraps in exactly the same manner.
+ */
+public class BinomTable<V extends Number> extends AbstractBinomFactory<V> {
+	private final int maxN;
+	private final Object[][] values;
+	private final Object[][] sums;
+
+	public BinomTable(BitArithmetic<V> arithmetic, int maxN) {
+		super(arithmetic);
+		if (maxN < 0)
+			throw new IllegalArgumentException("Maximum row, "+maxN+", must not be negative.");
+		this.maxN = maxN;
+		this.values = new Object[maxN + 1][];
+		this.sums = new Object[maxN + 1][];
+
+		V one = arithmetic.one();
+		for (int n = 0; n <= maxN; n++) {
+			Object[] row = values[n] = new Object[n / 2 + 1];
+			Object[] sum = sums[n] = new Object[n / 2 + 1];
+			row[0] = one;
+			for (int k = 1; k <= n / 2; k++)
+				row[k] = arithmetic.add(get(n - 1, k - 1), get(n - 1, k));
+			sum[0] = one;
+			for (int k = 1; k <= n / 2; k++)
+				sum[k] = arithmetic.add(cast(sum[k - 1]), cast(row[k]));
+		}
+	}
+
+	public int getMaxRow() {
+		return maxN;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V cast(Object v) {
+		return (V) v;
+	}
+
+	private V get(int n, int k) {
+		return cast(values[n][k > n / 2 ? n - k : k]);
+	}
+
+	private void check(int n) {
+		if (n > maxN)
+			throw new IndexOutOfBoundsException("Row: "+n+" exceeds the table's maximum row, "+maxN+".");
+	}
+
+	@Override
+	public Binom<V> createBinom(int n, int k) {
+		check(n);
+		return super.createBinom(n, k);
+	}
+
+	@Override
+	protected V value(int n, int k) {
+		check(n);
+		return get(n, k);
+	}
+
+	@Override
+	protected V sum(int n, int k) {
+		check(n);
+		if (k <= n / 2)
+			return cast(sums[n][k]);
+		// the folded half mirrors the stored half: sum(0..k) = 2^n - sum(0..n-k-1)
+		V half = cast(sums[n][n / 2]);
+		V total = arithmetic.add(half, half);
+		if (n % 2 == 0)
+			total = arithmetic.subtract(total, cast(values[n][n / 2]));
+		if (k == n)
+			return total;
+		return arithmetic.subtract(total, cast(sums[n][n - k - 1]));
+	}
+}
@@ -1,9 +1,102 @@
 package au.com.phiware.math.binom;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+
 import au.com.phiware.math.ring.BitArithmetic;
+import au.com.phiware.math.ring.LongMath;
+import au.com.phiware.math.ring.ModularArithmetic;
 
 public final class Binomials {
+	/**
+	 * Describes how the binomials produced by a factory are going to be used.
+	 */
+	public static enum Hint {
+		/**
+		 * Arbitrary entries are requested in no particular order.
+		 */
+		RANDOM_ACCESS,
+		/**
+		 * Whole rows are consumed by moving {@link Binom#right() right}.
+		 */
+		ROW_SCAN,
+		/**
+		 * Entries are reached by moving about the triangle, e.g. by
+		 * {@link Binom#down() down} and {@link Binom#back() back}.
+		 */
+		NAVIGATION
+	}
+
+	/**
+	 * The largest number of entries a {@link BinomTable} may hold when the
+	 * arithmetic has a fixed width.
+	 */
+	static final long TABLE_LIMIT = 1L << 20;
+	/**
+	 * The largest number of entries a {@link BinomTable} may hold when the
+	 * arithmetic is unbounded, for the entries themselves grow with n.
+	 */
+	static final long BIG_TABLE_LIMIT = 1L << 14;
+
 	public static <V extends Number> BinomFactory<V> defaultBinomFactory(BitArithmetic<V> arithmetic) {
 		return new BinomGraph<V>(arithmetic);
 	}
+
+	/**
+	 * Streams row n of Pascal's triangle without creating any {@link Binom}s.
+	 * @see BinomRow
+	 */
+	public static BinomRow row(int n) {
+		return new BinomRow(n);
+	}
+
+	/**
+	 * Selects the backend best suited to the given arithmetic, the largest
+	 * row that will be requested and the manner of access:
+	 * <ul>
+	 * <li>a {@link BinomModulo} for a {@link ModularArithmetic} of prime
+	 * modulus;</li>
+	 * <li>a {@link BinomTable} whenever the folded triangle is small enough
+	 * to be computed up front;</li>
+	 * <li>otherwise, a {@link BinomFormula} for random access and row scans;</li>
+	 * <li>otherwise, the lazy {@link BinomGraph}.</li>
+	 * </ul>
+	 * A {@link ModularArithmetic} of composite modulus is never given a
+	 * {@link BinomFormula}, whose exact values would not survive reduction.
+	 * @param maxN the largest row that will be requested.
+	 * @param hints how the binomials will be accessed; none implies
+	 *              {@link Hint#NAVIGATION}.
+	 */
+	public static <V extends Number> BinomFactory<V> binomFactory(BitArithmetic<V> arithmetic, int maxN, Hint... hints) {
+		EnumSet<Hint> access = EnumSet.noneOf(Hint.class);
+		access.addAll(Arrays.asList(hints));
+		if (access.isEmpty())
+			access.add(Hint.NAVIGATION);
+
+		boolean modular = arithmetic instanceof ModularArithmetic;
+		if (modular) {
+			long modulus = ((ModularArithmetic) arithmetic).getModulus();
+			if (LongMath.isPrime(modulus))
+				return new BinomModulo<V>(arithmetic, maxN, modulus);
+		}
+
+		boolean bounded = arithmetic.maxBitLength() != Integer.MAX_VALUE;
+		long entries = ((long) maxN + 2) * ((long) maxN + 2) / 4;
+		if (entries <= (bounded ? TABLE_LIMIT : BIG_TABLE_LIMIT))
+			return new BinomTable<V>(arithmetic, maxN);
+
+		if (!modular && (access.contains(Hint.RANDOM_ACCESS) || access.contains(Hint.ROW_SCAN)))
+			return new BinomFormula<V>(arithmetic);
+
+		return new BinomGraph<V>(arithmetic);
+	}
+
+	/**
+	 * Selects a backend that produces binomials modulo a prime; the manner
+	 * of access does not matter, as there is only one.
+	 * @see BinomModulo
+	 */
+	public static <V extends Number> BinomFactory<V> binomFactory(BitArithmetic<V> arithmetic, int maxN, long modulus) {
+		return new BinomModulo<V>(arithmetic, maxN, modulus);
+	}
 }
@@ -0,0 +1,95 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+/**
+ * Approximates the natural logarithm of binomial coefficients as doubles,
+ * for probability work where the exact values are neither needed nor
+ * affordable. The log factorials of small numbers are held in a table and
+ * those of large numbers are given by the Stirling series,
+ * <pre>
+ *   ln n! = n ln n - n + ln(2&pi;n)/2 + 1/12n - 1/360n<sup>3</sup> + 1/1260n<sup>5</sup> - 1/1680n<sup>7</sup>
+ * </pre>
+ * which, for n &gt;= {@value #STIRLING_MIN}, is accurate to the precision of a double.
+ */
+public class LogBinomTable {
+	/**
+	 * The least n for which the Stirling series is used.
+	 */
+	public static final int STIRLING_MIN = 256;
+	public static final int DEFAULT_TABLE_SIZE = 1 << 16;
+
+	private static final double HALF_LOG_TWO_PI = 0.5 * Math.log(2 * Math.PI);
+	private static final LogBinomTable instance = new LogBinomTable(DEFAULT_TABLE_SIZE);
+
+	private final double[] logFactorials;
+
+	/**
+	 * @param tableSize the number of log factorials to precompute.
+	 */
+	public LogBinomTable(int tableSize) {
+		logFactorials = new double[Math.max(tableSize, STIRLING_MIN)];
+		double sum = 0;
+		for (int i = 2; i < STIRLING_MIN; i++)
+			logFactorials[i] = sum += Math.log(i);
+		for (int i = STIRLING_MIN; i < logFactorials.length; i++)
+			logFactorials[i] = stirling(i);
+	}
+
+	public static LogBinomTable getInstance() {
+		return instance;
+	}
+
+	private static double stirling(double n) {
+		double r = 1 / n, r2 = r * r;
+		return n * Math.log(n) - n + HALF_LOG_TWO_PI + 0.5 * Math.log(n)
+				+ r * (1.0 / 12 - r2 * (1.0 / 360 - r2 * (1.0 / 1260 - r2 * (1.0 / 1680))));
+	}
+
+	/**
+	 * @return ln n!
+	 */
+	public double logFactorial(long n) {
+		if (n < 0)
+			throw new IllegalArgumentException("Undefined factorial of "+n+".");
+		if (n < logFactorials.length)
+			return logFactorials[(int) n];
+		return stirling(n);
+	}
+
+	/**
+	 * @return ln (n choose k), or negative infinity if k is outside [0, n].
+	 */
+	public double logChoose(long n, long k) {
+		if (k < 0 || k > n)
+			return Double.NEGATIVE_INFINITY;
+		return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+	}
+
+	/**
+	 * @return n choose k, approximately.
+	 */
+	public double choose(long n, long k) {
+		return Math.exp(logChoose(n, k));
+	}
+
+	/**
+	 * Fills dst with ln (n choose 0) through ln (n choose n).
+	 * @param dst an array of at least n + 1 elements, or null.
+	 * @return dst, or a new array if dst was null.
+	 */
+	public double[] logRow(int n, double[] dst) {
+		if (n < 0)
+			throw new IllegalArgumentException("Undefined row, "+n+".");
+		if (dst == null)
+			dst = new double[n + 1];
+		else if (dst.length <= n)
+			throw new IllegalArgumentException("Destination has "+dst.length+" elements but row "+n+" has "+(n + 1)+".");
+
+		double logN = logFactorial(n);
+		for (int k = 0, j = n; k <= j; k++, j--)
+			dst[k] = dst[j] = logN - logFactorial(k) - logFactorial(j);
+		return dst;
+	}
+}
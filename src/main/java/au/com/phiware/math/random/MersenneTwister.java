@@ -311,15 +311,116 @@ public int nextInt() {
 	/* Each single bit including the sign bit will be random */
   	if (mti == N) nextBlock(); // generate N ints at one time
 
-	int y = mt[mti++];
+	return temper(mt[mti++]);
+}
+/**
+ * Returns the output of the word y of the block.
+ */
+private static int temper(int y) {
 	y ^= y >>> 11; // y ^= TEMPERING_SHIFT_U(y );
 	y ^= (y << 7) & TEMPERING_MASK_B; // y ^= TEMPERING_SHIFT_S(y) & TEMPERING_MASK_B;
-	y ^= (y << 15) & TEMPERING_MASK_C; // y ^= TEMPERING_SHIFT_T(y) & TEMPERING_MASK_C;	
-	// y &= 0xffffffff; //you may delete this line if word size = 32 
+	y ^= (y << 15) & TEMPERING_MASK_C; // y ^= TEMPERING_SHIFT_T(y) & TEMPERING_MASK_C;
+	// y &= 0xffffffff; //you may delete this line if word size = 32
 	y ^= y >>> 18; // y ^= TEMPERING_SHIFT_L(y);
 
 	return y;
 }
+/**
+ * Tempers the remaining words of the block straight into <tt>dst</tt>, generating the next block as each is exhausted.
+ * The values are those of successive calls to {@link #nextInt()}.
+ */
+@Override
+public void nextInts(int[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	int[] mt = this.mt;
+	for (int end = off + len; off < end; ) {
+		if (mti == N) nextBlock();
+		int i = mti, n = Math.min(N - i, end - off);
+		for (int stop = off + n; off < stop; )
+			dst[off++] = temper(mt[i++]);
+		mti = i;
+	}
+}
+/**
+ * Concatenates pairs of tempered words of the block straight into <tt>dst</tt>.
+ * The values are those of successive calls to {@link #nextLong()}.
+ */
+@Override
+public void nextLongs(long[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	int[] mt = this.mt;
+	for (int end = off + len; off < end; ) {
+		if (mti == N) nextBlock();
+		int i = mti, n = Math.min((N - i) >>> 1, end - off);
+		if (n == 0) { // a single word remains; the pair straddles two blocks
+			dst[off++] = nextLong();
+			continue;
+		}
+		for (int stop = off + n; off < stop; i += 2)
+			dst[off++] = ((long) temper(mt[i]) << 32) | (temper(mt[i+1]) & 0xFFFFFFFFL);
+		mti = i;
+	}
+}
+/**
+ * Converts pairs of tempered words of the block straight into <tt>dst</tt>.
+ * The values are those of successive calls to {@link #nextDouble()};
+ * a pair that falls on an end of the unit interval is rejected by deferring to {@link #nextDouble()}.
+ */
+@Override
+public void nextDoubles(double[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	int[] mt = this.mt;
+	block:
+	for (int end = off + len; off < end; ) {
+		if (mti == N) nextBlock();
+		int i = mti, n = Math.min((N - i) >>> 1, end - off);
+		if (n == 0) {
+			dst[off++] = nextDouble();
+			continue;
+		}
+		for (int stop = off + n; off < stop; i += 2) {
+			long bits = ((long) temper(mt[i]) << 32) | (temper(mt[i+1]) & 0xFFFFFFFFL);
+			// as RandomEngine.nextDouble()
+			double d = ((double) bits - -9.223372036854776E18)  *  5.421010862427522E-20;
+			if (d > 0.0 && d < 1.0)
+				dst[off++] = d;
+			else {
+				mti = i + 2;
+				dst[off++] = nextDouble();
+				continue block;
+			}
+		}
+		mti = i;
+	}
+}
+/**
+ * Converts tempered words of the block straight into <tt>dst</tt>.
+ * The values are those of successive calls to {@link #nextFloat()};
+ * a word that falls on an end of the unit interval is rejected by deferring to {@link #nextFloat()}.
+ */
+@Override
+public void nextFloats(float[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	int[] mt = this.mt;
+	block:
+	for (int end = off + len; off < end; ) {
+		if (mti == N) nextBlock();
+		int i = mti, n = Math.min(N - i, end - off);
+		for (int stop = off + n; off < stop; i++) {
+			int y = temper(mt[i]);
+			// as RandomEngine.raw() and nextFloat()
+			float f = (float) ((double) (y & 0xFFFFFFFFL) * 2.3283064365386963E-10);
+			if (y != 0 && f < 1.0f)
+				dst[off++] = f;
+			else {
+				mti = i + 1;
+				dst[off++] = nextFloat();
+				continue block;
+			}
+		}
+		mti = i;
+	}
+}
 /**
  * Sets the receiver's seed. 
  * This method resets the receiver's entire internal state.
@@ -111,6 +111,78 @@ public long nextLong() {
 	return ((nextInt() & 0xFFFFFFFFL) << 32)
 		|  ((nextInt() & 0xFFFFFFFFL));
 }
+/**
+ * Fills <tt>dst[off]</tt> to <tt>dst[off+len-1]</tt> with the next <tt>len</tt> values of {@link #nextInt()}, in order.
+ * Subclasses may override this method to fill the array without a call per value.
+ *
+ * @throws IndexOutOfBoundsException if <tt>off</tt> or <tt>len</tt> are negative or <tt>off+len</tt> exceeds <tt>dst.length</tt>.
+ */
+public void nextInts(int[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	for (int end = off + len; off < end; off++)
+		dst[off] = nextInt();
+}
+/**
+ * Fills <tt>dst</tt> with the next <tt>dst.length</tt> values of {@link #nextInt()}.
+ */
+public void nextInts(int[] dst) {
+	nextInts(dst, 0, dst.length);
+}
+/**
+ * Fills <tt>dst[off]</tt> to <tt>dst[off+len-1]</tt> with the next <tt>len</tt> values of {@link #nextLong()}, in order.
+ *
+ * @throws IndexOutOfBoundsException if <tt>off</tt> or <tt>len</tt> are negative or <tt>off+len</tt> exceeds <tt>dst.length</tt>.
+ */
+public void nextLongs(long[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	for (int end = off + len; off < end; off++)
+		dst[off] = nextLong();
+}
+/**
+ * Fills <tt>dst</tt> with the next <tt>dst.length</tt> values of {@link #nextLong()}.
+ */
+public void nextLongs(long[] dst) {
+	nextLongs(dst, 0, dst.length);
+}
+/**
+ * Fills <tt>dst[off]</tt> to <tt>dst[off+len-1]</tt> with the next <tt>len</tt> values of {@link #nextDouble()}, in order.
+ *
+ * @throws IndexOutOfBoundsException if <tt>off</tt> or <tt>len</tt> are negative or <tt>off+len</tt> exceeds <tt>dst.length</tt>.
+ */
+public void nextDoubles(double[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	for (int end = off + len; off < end; off++)
+		dst[off] = nextDouble();
+}
+/**
+ * Fills <tt>dst</tt> with the next <tt>dst.length</tt> values of {@link #nextDouble()}.
+ */
+public void nextDoubles(double[] dst) {
+	nextDoubles(dst, 0, dst.length);
+}
+/**
+ * Fills <tt>dst[off]</tt> to <tt>dst[off+len-1]</tt> with the next <tt>len</tt> values of {@link #nextFloat()}, in order.
+ *
+ * @throws IndexOutOfBoundsException if <tt>off</tt> or <tt>len</tt> are negative or <tt>off+len</tt> exceeds <tt>dst.length</tt>.
+ */
+public void nextFloats(float[] dst, int off, int len) {
+	checkRange(dst.length, off, len);
+	for (int end = off + len; off < end; off++)
+		dst[off] = nextFloat();
+}
+/**
+ * Fills <tt>dst</tt> with the next <tt>dst.length</tt> values of {@link #nextFloat()}.
+ */
+public void nextFloats(float[] dst) {
+	nextFloats(dst, 0, dst.length);
+}
+/**
+ * Checks that <tt>[off, off+len)</tt> is within an array of the given length.
+ */
+protected static void checkRange(int length, int off, int len) {
+	if (off < 0 || len < 0 || off > length - len)
+		throw new IndexOutOfBoundsException("Range, ["+off+", "+off+"+"+len+"), must be within [0, "+length+").");
+}
 /**
  * Returns a 32 bit uniformly distributed random number in the open unit interval <code>(0.0,1.0)</code> (excluding 0.0 and 1.0).
  */
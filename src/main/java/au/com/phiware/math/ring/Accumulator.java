@@ -0,0 +1,37 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * A mutable value for loops that would otherwise create a new, immutable
+ * value per operation. Each method updates this accumulator and returns it,
+ * so that calls may be chained, e.g.
+ * <code>sum.addInPlace(term.set(x).addInPlace(one).shiftLeftInPlace(i))</code>.
+ *
+ * <p>Accumulators are not thread safe.
+ * @see Accumulators#newAccumulator(BitArithmetic)
+ */
+public interface Accumulator<V extends Number> {
+	public Accumulator<V> set(V a);
+	public Accumulator<V> set(Accumulator<V> a);
+	public Accumulator<V> addInPlace(V a);
+	public Accumulator<V> addInPlace(Accumulator<V> a);
+	public Accumulator<V> subtractInPlace(V a);
+	public Accumulator<V> subtractInPlace(Accumulator<V> a);
+	/**
+	 * @param n a non-negative shift distance.
+	 */
+	public Accumulator<V> shiftLeftInPlace(int n);
+
+	/**
+	 * Compares this accumulator's value with a, as the arithmetic would.
+	 */
+	public int compareTo(V a);
+	public int signum();
+
+	/**
+	 * @return the current value, which is unaffected by later operations.
+	 */
+	public V value();
+}
@@ -0,0 +1,96 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * Creates {@link Accumulator}s.
+ */
+public final class Accumulators {
+	private Accumulators() {}
+
+	/**
+	 * @return a zero accumulator for the given arithmetic; a
+	 *         {@link BigIntegerAccumulator} for {@link BigIntegerArithmetic}
+	 *         and otherwise one that delegates to the arithmetic.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V extends Number> Accumulator<V> newAccumulator(BitArithmetic<V> a) {
+		if (a instanceof BigIntegerArithmetic)
+			return (Accumulator<V>) new BigIntegerAccumulator();
+		return new ArithmeticAccumulator<V>(a);
+	}
+
+	/**
+	 * Holds an immutable value and replaces it on each operation, for the
+	 * arithmetics that have no mutable representation.
+	 */
+	static final class ArithmeticAccumulator<V extends Number> implements Accumulator<V> {
+		private final BitArithmetic<V> a;
+		private V value;
+
+		ArithmeticAccumulator(BitArithmetic<V> a) {
+			this.a = a;
+			this.value = a.zero();
+		}
+
+		@Override
+		public Accumulator<V> set(V x) {
+			value = x;
+			return this;
+		}
+
+		@Override
+		public Accumulator<V> set(Accumulator<V> x) {
+			return set(x.value());
+		}
+
+		@Override
+		public Accumulator<V> addInPlace(V x) {
+			value = a.add(value, x);
+			return this;
+		}
+
+		@Override
+		public Accumulator<V> addInPlace(Accumulator<V> x) {
+			return addInPlace(x.value());
+		}
+
+		@Override
+		public Accumulator<V> subtractInPlace(V x) {
+			value = a.subtract(value, x);
+			return this;
+		}
+
+		@Override
+		public Accumulator<V> subtractInPlace(Accumulator<V> x) {
+			return subtractInPlace(x.value());
+		}
+
+		@Override
+		public Accumulator<V> shiftLeftInPlace(int n) {
+			value = a.shiftLeft(value, n);
+			return this;
+		}
+
+		@Override
+		public int compareTo(V x) {
+			return a.compare(value, x);
+		}
+
+		@Override
+		public int signum() {
+			return a.signum(value);
+		}
+
+		@Override
+		public V value() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+}
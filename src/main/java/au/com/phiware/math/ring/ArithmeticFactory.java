@@ -4,42 +4,119 @@
 package au.com.phiware.math.ring;
 
 import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Finds the arithmetic of a type of {@link Number}. An arithmetic is sought,
+ * in order, among those {@link #register(Class, BitArithmetic) registered}
+ * for exactly that type, the built in arithmetics, the
+ * {@link ArithmeticProvider}s found by {@link ServiceLoader} and, lastly,
+ * the built in arithmetics whose type is assignable to the requested type.
+ * The outcome is cached per type, so that repeated lookups cost no more
+ * than a {@link ClassValue#get(Class)}. The arithmetics of the types that
+ * are fields rather than integers are found by
+ * {@link #getFieldArithmetic(Class)}.
+ *
  * @author Corin Lawson <me@corinlawson.com.au>
  *
  */
 public class ArithmeticFactory {
+	private static final Map<Class<?>, BitArithmetic<?>> builtIn = new LinkedHashMap<Class<?>, BitArithmetic<?>>();
+	static {
+		builtIn.put(BigInteger.class, BigIntegerArithmetic.getInstance());
+		builtIn.put(Int256.class, Int256Arithmetic.getInstance());
+		builtIn.put(Int128.class, Int128Arithmetic.getInstance());
+		builtIn.put(Long.class, LongArithmetic.getInstance());
+		builtIn.put(Integer.class, IntegerArithmetic.getInstance());
+		builtIn.put(Short.class, ShortArithmetic.getInstance());
+		builtIn.put(Byte.class, ByteArithmetic.getInstance());
+	}
+	private static final Map<Class<?>, FieldArithmetic<?>> fields = new LinkedHashMap<Class<?>, FieldArithmetic<?>>();
+	static {
+		fields.put(Rational.class, RationalArithmetic.getInstance());
+		fields.put(Double.class, DoubleArithmetic.getInstance());
+		fields.put(Float.class, FloatArithmetic.getInstance());
+	}
+	private static final ConcurrentMap<Class<?>, BitArithmetic<?>> registered = new ConcurrentHashMap<Class<?>, BitArithmetic<?>>();
+	private static ServiceLoader<ArithmeticProvider> providers;
+	private static volatile ClassValue<BitArithmetic<?>> cache = newCache();
+
+	private static ClassValue<BitArithmetic<?>> newCache() {
+		return new ClassValue<BitArithmetic<?>>() {
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			@Override
+			protected BitArithmetic<?> computeValue(Class<?> type) {
+				return lookup((Class) type);
+			}
+		};
+	}
+
+	/**
+	 * Makes the arithmetic available for the given type, replacing any that
+	 * was previously found for it.
+	 */
+	public static <V extends Number> void register(Class<V> type, BitArithmetic<V> arithmetic) {
+		registered.put(type, arithmetic);
+		cache = newCache();
+	}
+
+	private static synchronized Iterable<ArithmeticProvider> providers() {
+		if (providers == null)
+			providers = ServiceLoader.load(ArithmeticProvider.class);
+		return providers;
+	}
+
+	private static <V extends Number> BitArithmetic<?> lookup(Class<V> type) {
+		BitArithmetic<?> arithmetic = registered.get(type);
+		if (arithmetic != null)
+			return arithmetic;
+
+		arithmetic = builtIn.get(type);
+		if (arithmetic != null)
+			return arithmetic;
+
+		synchronized (ArithmeticFactory.class) {
+			for (ArithmeticProvider provider : providers()) {
+				arithmetic = provider.getBitArithmetic(type);
+				if (arithmetic != null)
+					return arithmetic;
+			}
+		}
+
+		for (Map.Entry<Class<?>, BitArithmetic<?>> entry : builtIn.entrySet())
+			if (type.isAssignableFrom(entry.getKey()))
+				return entry.getValue();
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
 	public static <V extends Number> RingArithmetic<V> getArithmeticForNumber(V n) throws ClassNotFoundException {
 		try {
 			return getBitArithmeticForNumber(n);
 		} catch (ClassNotFoundException e) {}
 		
-		throw new ClassNotFoundException();
+		return getFieldArithmetic((Class<V>) n.getClass());
 	}
 
 	@SuppressWarnings("unchecked")
-	public static <V extends Number> BitArithmetic<V> getBitArithmetic(Class<V> type) throws ClassNotFoundException {
-		
-		if (type.isAssignableFrom(BigInteger.class))
-			return (BitArithmetic<V>) BigIntegerArithmetic.getInstance();
-		
-		if (type.isAssignableFrom(Long.class))
-			return (BitArithmetic<V>) LongArithmetic.getInstance();
-		
-		if (type.isAssignableFrom(Integer.class))
-			return (BitArithmetic<V>) IntegerArithmetic.getInstance();
-		
-		if (type.isAssignableFrom(Short.class))
-			return (BitArithmetic<V>) IntegerArithmetic.getInstance();
-
-		if (type.isAssignableFrom(Character.class))
-			return (BitArithmetic<V>) IntegerArithmetic.getInstance();
-
-		if (type.isAssignableFrom(Byte.class))
-			return (BitArithmetic<V>) ByteArithmetic.getInstance();
+	public static <V extends Number> FieldArithmetic<V> getFieldArithmetic(Class<V> type) throws ClassNotFoundException {
+		FieldArithmetic<V> arithmetic = (FieldArithmetic<V>) fields.get(type);
+		if (arithmetic == null)
+			throw new ClassNotFoundException("No field arithmetic for "+type.getName()+".");
+		return arithmetic;
+	}
 
-		throw new ClassNotFoundException();
+	@SuppressWarnings("unchecked")
+	public static <V extends Number> BitArithmetic<V> getBitArithmetic(Class<V> type) throws ClassNotFoundException {
+		BitArithmetic<V> arithmetic = (BitArithmetic<V>) cache.get(type);
+		if (arithmetic == null)
+			throw new ClassNotFoundException("No arithmetic for "+type.getName()+".");
+		return arithmetic;
 	}
 
 	@SuppressWarnings("unchecked")
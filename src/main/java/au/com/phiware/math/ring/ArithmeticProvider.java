@@ -0,0 +1,18 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * Supplies arithmetics to the {@link ArithmeticFactory}. Implementations are
+ * discovered by {@link java.util.ServiceLoader}, i.e. by listing them in
+ * <code>META-INF/services/au.com.phiware.math.ring.ArithmeticProvider</code>,
+ * and must have a public no-argument constructor.
+ */
+public interface ArithmeticProvider {
+	/**
+	 * @return the arithmetic of the given type, or null if this provider has
+	 *         none.
+	 */
+	public <V extends Number> BitArithmetic<V> getBitArithmetic(Class<V> type);
+}
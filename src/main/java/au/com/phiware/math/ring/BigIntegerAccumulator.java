@@ -0,0 +1,296 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A mutable {@link BigInteger}, held as a sign and a growable magnitude of
+ * 32 bit words, least significant first. Operations work in place and only
+ * allocate when the magnitude outgrows its array. A {@link BigInteger}
+ * operand is read through {@link BigInteger#longValue()} or, beyond 63
+ * bits, one {@link BigInteger#toByteArray()}; another
+ * {@link BigIntegerAccumulator} is read directly, so operands that are
+ * added repeatedly are best kept as accumulators.
+ */
+public final class BigIntegerAccumulator implements Accumulator<BigInteger> {
+	private static final long MASK = 0xffffffffL;
+
+	private int[] mag = new int[4];
+	/**
+	 * Words of mag in use; mag[length - 1] is non-zero.
+	 */
+	private int length;
+	private int signum;
+
+	/**
+	 * Scratch space for a {@link BigInteger} operand's magnitude.
+	 */
+	private int[] operand = new int[4];
+	private int operandLength;
+
+	public BigIntegerAccumulator() {}
+
+	public BigIntegerAccumulator(BigInteger a) {
+		set(a);
+	}
+
+	private static int[] ensure(int[] w, int n) {
+		if (n <= w.length)
+			return w;
+		return Arrays.copyOf(w, Math.max(n, 2 * w.length));
+	}
+
+	/**
+	 * Reads the magnitude of a into operand; only an operand of 64 bits or
+	 * more allocates, to read its bytes.
+	 */
+	private void load(BigInteger a) {
+		int n;
+		if (a.bitLength() < Long.SIZE) {
+			long x = a.longValue();
+			if (x < 0)
+				x = -x; // as unsigned, even for Long.MIN_VALUE
+			operand[0] = (int) x;
+			operand[1] = (int) (x >>> 32);
+			n = 2;
+		} else {
+			byte[] b = a.toByteArray();
+			n = (b.length + 3) >>> 2;
+			operand = ensure(operand, n);
+			int k = b.length;
+			for (int i = 0; i < n; i++, k -= 4) {
+				int w;
+				if (k >= 4) {
+					w = b[k - 4] << 24 | (b[k - 3] & 0xff) << 16 | (b[k - 2] & 0xff) << 8 | b[k - 1] & 0xff;
+				} else {
+					w = b[0] < 0 ? -1 : 0;
+					for (int j = 0; j < k; j++)
+						w = w << 8 | b[j] & 0xff;
+				}
+				operand[i] = w;
+			}
+			if (b[0] < 0) {
+				// negate the two's complement words
+				long c = 1;
+				for (int i = 0; i < n; i++) {
+					c += ~operand[i] & MASK;
+					operand[i] = (int) c;
+					c >>>= 32;
+				}
+			}
+		}
+		while (n > 0 && operand[n - 1] == 0)
+			n--;
+		operandLength = n;
+	}
+
+	private void trim() {
+		while (length > 0 && mag[length - 1] == 0)
+			length--;
+		if (length == 0)
+			signum = 0;
+	}
+
+	private int compareMagnitude(int[] b, int bLength) {
+		if (length != bLength)
+			return length < bLength ? -1 : 1;
+		for (int i = length - 1; i >= 0; i--)
+			if (mag[i] != b[i])
+				return (mag[i] & MASK) < (b[i] & MASK) ? -1 : 1;
+		return 0;
+	}
+
+	private void addMagnitude(int[] b, int bLength) {
+		int n = Math.max(length, bLength);
+		mag = ensure(mag, n + 1);
+		long c = 0;
+		for (int i = 0; i < n; i++) {
+			c += (i < length ? mag[i] & MASK : 0) + (i < bLength ? b[i] & MASK : 0);
+			mag[i] = (int) c;
+			c >>>= 32;
+		}
+		if (c != 0)
+			mag[n++] = (int) c;
+		length = n;
+	}
+
+	/**
+	 * Replaces the magnitude with |this| - |b|, or |b| - |this| when reverse,
+	 * whichever is non-negative.
+	 */
+	private void subtractMagnitude(int[] b, int bLength, boolean reverse) {
+		int n = reverse ? bLength : length;
+		mag = ensure(mag, n);
+		long borrow = 0;
+		for (int i = 0; i < n; i++) {
+			long x = i < length ? mag[i] & MASK : 0,
+			     y = i < bLength ? b[i] & MASK : 0;
+			long d = reverse ? y - x - borrow : x - y - borrow;
+			mag[i] = (int) d;
+			borrow = d >>> 63;
+		}
+		length = n;
+		trim();
+	}
+
+	private void add(int[] b, int bLength, int bSignum) {
+		if (bSignum == 0)
+			return;
+		if (signum == 0) {
+			copy(b, bLength, bSignum);
+		} else if (signum == bSignum) {
+			addMagnitude(b, bLength);
+		} else {
+			int c = compareMagnitude(b, bLength);
+			if (c == 0) {
+				length = 0;
+				signum = 0;
+			} else if (c > 0) {
+				subtractMagnitude(b, bLength, false);
+			} else {
+				subtractMagnitude(b, bLength, true);
+				signum = bSignum;
+			}
+		}
+	}
+
+	private void copy(int[] b, int bLength, int bSignum) {
+		if (b != mag) {
+			mag = ensure(mag, bLength);
+			System.arraycopy(b, 0, mag, 0, bLength);
+		}
+		length = bLength;
+		signum = bSignum;
+	}
+
+	private static BigIntegerAccumulator cast(Accumulator<BigInteger> a) {
+		return a instanceof BigIntegerAccumulator ? (BigIntegerAccumulator) a : null;
+	}
+
+	@Override
+	public BigIntegerAccumulator set(BigInteger a) {
+		load(a);
+		copy(operand, operandLength, a.signum());
+		return this;
+	}
+
+	@Override
+	public BigIntegerAccumulator set(Accumulator<BigInteger> a) {
+		BigIntegerAccumulator b = cast(a);
+		if (b == null)
+			return set(a.value());
+		copy(b.mag, b.length, b.signum);
+		return this;
+	}
+
+	@Override
+	public BigIntegerAccumulator addInPlace(BigInteger a) {
+		load(a);
+		add(operand, operandLength, a.signum());
+		return this;
+	}
+
+	@Override
+	public BigIntegerAccumulator addInPlace(Accumulator<BigInteger> a) {
+		BigIntegerAccumulator b = cast(a);
+		if (b == null)
+			return addInPlace(a.value());
+		add(b.mag, b.length, b.signum);
+		return this;
+	}
+
+	@Override
+	public BigIntegerAccumulator subtractInPlace(BigInteger a) {
+		load(a);
+		add(operand, operandLength, -a.signum());
+		return this;
+	}
+
+	@Override
+	public BigIntegerAccumulator subtractInPlace(Accumulator<BigInteger> a) {
+		BigIntegerAccumulator b = cast(a);
+		if (b == null)
+			return subtractInPlace(a.value());
+		add(b.mag, b.length, -b.signum);
+		return this;
+	}
+
+	@Override
+	public BigIntegerAccumulator shiftLeftInPlace(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException("Negative shift distance, "+n+".");
+		if (signum == 0 || n == 0)
+			return this;
+		int words = n >>> 5, bits = n & 31;
+		mag = ensure(mag, length + words + 1);
+		if (bits == 0) {
+			for (int i = length - 1; i >= 0; i--)
+				mag[i + words] = mag[i];
+		} else {
+			mag[length + words] = mag[length - 1] >>> (32 - bits);
+			for (int i = length - 1; i > 0; i--)
+				mag[i + words] = mag[i] << bits | mag[i - 1] >>> (32 - bits);
+			mag[words] = mag[0] << bits;
+			length++;
+		}
+		Arrays.fill(mag, 0, words, 0);
+		length += words;
+		trim();
+		return this;
+	}
+
+	public int bitLength() {
+		if (length == 0)
+			return 0;
+		return 32 * length - Integer.numberOfLeadingZeros(mag[length - 1]);
+	}
+
+	/**
+	 * Compares the signs and, when a is positive, the bit lengths before
+	 * reading a.
+	 */
+	@Override
+	public int compareTo(BigInteger a) {
+		int s = a.signum();
+		if (signum != s)
+			return signum < s ? -1 : 1;
+		if (s == 0)
+			return 0;
+		if (s > 0) {
+			int n = bitLength(), m = a.bitLength();
+			if (n != m)
+				return n < m ? -1 : 1;
+		}
+		load(a);
+		int c = compareMagnitude(operand, operandLength);
+		return s < 0 ? -c : c;
+	}
+
+	@Override
+	public int signum() {
+		return signum;
+	}
+
+	@Override
+	public BigInteger value() {
+		if (signum == 0)
+			return BigInteger.ZERO;
+		byte[] b = new byte[4 * length];
+		for (int i = 0; i < length; i++) {
+			int w = mag[i], k = b.length - 1 - 4 * i;
+			b[k] = (byte) w;
+			b[k - 1] = (byte) (w >>> 8);
+			b[k - 2] = (byte) (w >>> 16);
+			b[k - 3] = (byte) (w >>> 24);
+		}
+		return new BigInteger(signum, b);
+	}
+
+	@Override
+	public String toString() {
+		return value().toString();
+	}
+}
@@ -28,16 +28,22 @@ public class BigIntegerArithmetic implements BitArithmetic<BigInteger> {
 		return BigInteger.ONE;
 	}
 
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
 	@Override
 	public Set<BigInteger> factors(BigInteger a) {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException();
+		return Factorization.divisors(Factorization.primeFactors(a));
 	}
 
+	/**
+	 * Composite cofactors of {@value Factorization#PARALLEL_BIT_LENGTH} bits
+	 * or more are factored by racing several rho walks on separate threads.
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
 	@Override
 	public BigInteger[] primeFactorization(BigInteger a) {
-		// TODO Auto-generated method stub
-		throw new UnsupportedOperationException();
+		return Factorization.primeFactors(a);
 	}
 
 	@Override
@@ -45,6 +51,21 @@ public class BigIntegerArithmetic implements BitArithmetic<BigInteger> {
 		return a.gcd(b);
 	}
 
+	@Override
+	public BigInteger[] extendedGcd(BigInteger a, BigInteger b) {
+		return BigIntegerMath.extendedGcd(a, b);
+	}
+
+	@Override
+	public BigInteger modInverse(BigInteger a, BigInteger mod) {
+		return a.modInverse(mod);
+	}
+
+	@Override
+	public void modInverse(BigInteger[] a, BigInteger mod, BigInteger[] out) {
+		BigIntegerMath.modInverse(a, mod, out);
+	}
+
 	@Override
 	public boolean congruent(BigInteger a, BigInteger b, BigInteger mod) {
 		return mod(subtract(a, b), mod).equals(zero());
@@ -75,14 +96,25 @@ public class BigIntegerArithmetic implements BitArithmetic<BigInteger> {
 		return a.subtract(b);
 	}
 
+	/**
+	 * Operands of {@value BigIntegerMath#PARALLEL_BIT_LENGTH} bits or more
+	 * are multiplied in parallel, by Karatsuba's method.
+	 */
 	@Override
 	public BigInteger multiply(BigInteger a, BigInteger b) {
-		return a.multiply(b);
+		return BigIntegerMath.multiply(a, b);
 	}
 
+	/**
+	 * Powers that will be {@value BigIntegerMath#PARALLEL_BIT_LENGTH} bits or
+	 * more are computed by squaring in parallel.
+	 */
 	@Override
 	public BigInteger pow(BigInteger a, BigInteger b) {
-		return a.pow(b.intValue());
+		int e = b.intValue();
+		if ((long) a.bitLength() * e < 2L * BigIntegerMath.PARALLEL_BIT_LENGTH)
+			return a.pow(e);
+		return BigIntegerMath.pow(a, e);
 	}
 
 	@Override
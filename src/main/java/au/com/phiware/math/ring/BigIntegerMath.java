@@ -0,0 +1,179 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The gcd family over {@link BigInteger}, for the arithmetics that have no
+ * cheaper means, and multiplication of huge {@link BigInteger}s in
+ * parallel.
+ * @see LongMath
+ */
+final class BigIntegerMath {
+	/**
+	 * Products of operands this long, or longer, are split by Karatsuba's
+	 * method into products that are computed in parallel; shorter products
+	 * are left to {@link BigInteger#multiply(BigInteger)}.
+	 */
+	static final int PARALLEL_BIT_LENGTH = 1 << 18;
+
+	private static ForkJoinPool pool;
+
+	private BigIntegerMath() {}
+
+	static synchronized ForkJoinPool pool() {
+		if (pool == null)
+			pool = new ForkJoinPool();
+		return pool;
+	}
+
+	/**
+	 * @see LongMath#extendedGcd(long, long)
+	 */
+	static BigInteger[] extendedGcd(BigInteger a, BigInteger b) {
+		BigInteger x0 = BigInteger.ONE, y0 = BigInteger.ZERO,
+		           x1 = BigInteger.ZERO, y1 = BigInteger.ONE, t;
+		while (b.signum() != 0) {
+			BigInteger[] qr = a.divideAndRemainder(b);
+			BigInteger q = qr[0];
+			a = b; b = qr[1];
+			t = x0.subtract(q.multiply(x1)); x0 = x1; x1 = t;
+			t = y0.subtract(q.multiply(y1)); y0 = y1; y1 = t;
+		}
+		if (a.signum() < 0)
+			return new BigInteger[] {a.negate(), x0.negate(), y0.negate()};
+		return new BigInteger[] {a, x0, y0};
+	}
+
+	/**
+	 * @see LongMath#modInverse(long[], long, long[])
+	 */
+	static void modInverse(BigInteger[] a, BigInteger m, BigInteger[] out) {
+		int n = a.length;
+		if (n == 0)
+			return;
+		if (m.signum() <= 0)
+			throw new ArithmeticException("Modulus, "+m+", not positive.");
+		BigInteger[] prefix = new BigInteger[n];
+		for (int i = 0; i < n; i++) {
+			out[i] = a[i].mod(m);
+			prefix[i] = i == 0 ? out[0] : prefix[i - 1].multiply(out[i]).mod(m);
+		}
+		BigInteger inverse = prefix[n - 1].modInverse(m);
+		for (int i = n - 1; i > 0; i--) {
+			BigInteger x = out[i];
+			out[i] = inverse.multiply(prefix[i - 1]).mod(m);
+			inverse = inverse.multiply(x).mod(m);
+		}
+		out[0] = inverse;
+	}
+
+	/**
+	 * Newton's method, from above.
+	 * @param a non-negative.
+	 * @param n positive.
+	 * @return the floor of the n<sup>th</sup> root of a.
+	 */
+	static BigInteger root(BigInteger a, int n) {
+		if (a.signum() == 0 || n == 1)
+			return a;
+		BigInteger k = BigInteger.valueOf(n), k1 = BigInteger.valueOf(n - 1);
+		BigInteger x = BigInteger.ONE.shiftLeft((a.bitLength() + n - 1) / n), y;
+		for (;;) {
+			y = k1.multiply(x).add(a.divide(x.pow(n - 1))).divide(k);
+			if (y.compareTo(x) >= 0)
+				return x;
+			x = y;
+		}
+	}
+
+	/**
+	 * @return a&middot;b, computed in parallel if both are at least
+	 *         {@value #PARALLEL_BIT_LENGTH} bits long.
+	 */
+	static BigInteger multiply(BigInteger a, BigInteger b) {
+		if (a.bitLength() < PARALLEL_BIT_LENGTH || b.bitLength() < PARALLEL_BIT_LENGTH)
+			return a.multiply(b);
+		return pool().invoke(new Product(a, b));
+	}
+
+	/**
+	 * Left to right binary exponentiation, whose squarings are computed in
+	 * parallel once they are long enough.
+	 * @param e a non-negative exponent.
+	 * @return a<sup>e</sup>.
+	 * @throws ArithmeticException if e is negative or, as for
+	 *         {@link BigInteger#pow(int)}, the result would be too large.
+	 */
+	static BigInteger pow(BigInteger a, int e) {
+		if (e < 0)
+			throw new ArithmeticException("Negative exponent, "+e+".");
+		if (e == 0)
+			return BigInteger.ONE;
+		int twos = a.signum() == 0 ? 0 : a.getLowestSetBit();
+		if ((long) twos * e > Integer.MAX_VALUE)
+			throw new ArithmeticException("Power, "+a.bitLength()+" bits to the "+e+", is too large.");
+		BigInteger odd = a.shiftRight(twos), r = odd;
+		for (int i = 30 - Integer.numberOfLeadingZeros(e); i >= 0; i--) {
+			r = multiply(r, r);
+			if ((e >>> i & 1) != 0)
+				r = multiply(r, odd);
+		}
+		return r.shiftLeft(twos * e);
+	}
+
+	/**
+	 * @return the lowest n bits of the non-negative a.
+	 */
+	private static BigInteger low(BigInteger a, int n) {
+		return a.subtract(a.shiftRight(n).shiftLeft(n));
+	}
+
+	private static final class Product extends RecursiveTask<BigInteger> {
+		private static final long serialVersionUID = 1L;
+		private final BigInteger a, b;
+
+		Product(BigInteger a, BigInteger b) {
+			this.a = a;
+			this.b = b;
+		}
+
+		@Override
+		protected BigInteger compute() {
+			int n = a.bitLength(), m = b.bitLength();
+			if (n < PARALLEL_BIT_LENGTH || m < PARALLEL_BIT_LENGTH)
+				return a.multiply(b);
+			int signum = a.signum() * b.signum();
+			BigInteger x = a.abs(), y = b.abs();
+			if (n < m) {
+				BigInteger t = x;
+				x = y;
+				y = t;
+				n = m;
+				m = y.bitLength();
+			}
+			int h = (n / 2 + 31) & ~31;
+			BigInteger x1 = x.shiftRight(h), x0 = low(x, h), r;
+			if (m <= h) {
+				// unbalanced: x1*y and x0*y
+				Product p1 = new Product(x1, y);
+				p1.fork();
+				BigInteger p0 = new Product(x0, y).compute();
+				r = p1.join().shiftLeft(h).add(p0);
+			} else {
+				BigInteger y1 = y.shiftRight(h), y0 = low(y, h);
+				Product z0 = new Product(x0, y0), z2 = new Product(x1, y1);
+				z0.fork();
+				z2.fork();
+				BigInteger z1 = new Product(x0.add(x1), y0.add(y1)).compute();
+				BigInteger lo = z0.join(), hi = z2.join();
+				r = hi.shiftLeft(h).add(z1.subtract(hi).subtract(lo)).shiftLeft(h).add(lo);
+			}
+			return signum < 0 ? r.negate() : r;
+		}
+	}
+}
@@ -0,0 +1,341 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The ring of integers modulo a fixed odd {@link BigInteger} modulus, m.
+ * This is the unbounded counterpart of {@link ModularArithmetic}: values are
+ * held in Montgomery form, x&middot;R mod m, where R is the least power of
+ * 2<sup>32</sup> that exceeds m, and {@link #multiply(BigInteger, BigInteger) multiply}
+ * and {@link #pow(BigInteger, BigInteger) pow} reduce word by word without
+ * dividing. Only {@link #valueOf(BigInteger)} divides, once, on the way in.
+ *
+ * <p>Comparisons and the bitwise operations act on the canonical
+ * representative, 0 &lt;= x &lt; m, and reduce their result.
+ */
+public class BigIntegerModularArithmetic implements BitArithmetic<BigInteger> {
+	private final BigMontgomery mont;
+	private final BigInteger modulus;
+	private final BigInteger one;
+	private final int bitLength;
+
+	/**
+	 * @param modulus an odd, positive modulus.
+	 */
+	public BigIntegerModularArithmetic(BigInteger modulus) {
+		mont = new BigMontgomery(modulus);
+		this.modulus = modulus;
+		one = BigMontgomery.fromWords(mont.one);
+		bitLength = modulus.subtract(BigInteger.ONE).bitLength();
+	}
+
+	public BigInteger getModulus() {
+		return modulus;
+	}
+
+	private int[] words(BigInteger a) {
+		return BigMontgomery.toWords(a, mont.words());
+	}
+
+	/**
+	 * @return x mod m, in Montgomery form.
+	 */
+	public BigInteger valueOf(BigInteger x) {
+		return x.shiftLeft(32 * mont.words()).mod(modulus);
+	}
+
+	/**
+	 * @see #valueOf(BigInteger)
+	 */
+	public BigInteger valueOf(long x) {
+		return valueOf(BigInteger.valueOf(x));
+	}
+
+	/**
+	 * @return the canonical representative of a, i.e. 0 &lt;= a &lt; m.
+	 */
+	public BigInteger residue(BigInteger a) {
+		return BigMontgomery.fromWords(mont.fromMontgomery(words(a)));
+	}
+
+	@Override
+	public int maxBitLength() {
+		return bitLength;
+	}
+
+	@Override
+	public BigInteger one() {
+		return one;
+	}
+
+	@Override
+	public BigInteger zero() {
+		return BigInteger.ZERO;
+	}
+
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
+	@Override
+	public Set<BigInteger> factors(BigInteger a) {
+		Set<BigInteger> factors = new TreeSet<BigInteger>(this);
+		for (BigInteger d : Factorization.divisors(Factorization.primeFactors(residue(a))))
+			factors.add(valueOf(d));
+		return factors;
+	}
+
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
+	@Override
+	public BigInteger[] primeFactorization(BigInteger a) {
+		BigInteger[] factors = Factorization.primeFactors(residue(a));
+		for (int i = 0; i < factors.length; i++)
+			factors[i] = valueOf(factors[i]);
+		return factors;
+	}
+
+	/**
+	 * @return the generator of the ideal generated by a, b and m.
+	 */
+	@Override
+	public BigInteger gcd(BigInteger a, BigInteger b) {
+		return valueOf(residue(a).gcd(residue(b)).gcd(modulus));
+	}
+
+	/**
+	 * @see ModularArithmetic#extendedGcd(long, long)
+	 */
+	@Override
+	public BigInteger[] extendedGcd(BigInteger a, BigInteger b) {
+		BigInteger[] e = BigIntegerMath.extendedGcd(residue(a), residue(b));
+		for (int i = 0; i < e.length; i++)
+			e[i] = valueOf(e[i]);
+		return e;
+	}
+
+	/**
+	 * @see ModularArithmetic#inverse(long)
+	 */
+	public BigInteger inverse(BigInteger a) {
+		return valueOf(residue(a).modInverse(modulus));
+	}
+
+	/**
+	 * @see ModularArithmetic#modInverse(long, long)
+	 */
+	@Override
+	public BigInteger modInverse(BigInteger a, BigInteger mod) {
+		if (mod.signum() == 0)
+			return inverse(a);
+		return valueOf(residue(a).modInverse(residue(mod)));
+	}
+
+	/**
+	 * @see ModularArithmetic#modInverse(long, long)
+	 */
+	@Override
+	public void modInverse(BigInteger[] a, BigInteger mod, BigInteger[] out) {
+		int n = a.length;
+		if (n == 0)
+			return;
+		if (mod.signum() != 0) {
+			BigInteger[] values = new BigInteger[n];
+			for (int i = 0; i < n; i++)
+				values[i] = residue(a[i]);
+			BigIntegerMath.modInverse(values, residue(mod), values);
+			for (int i = 0; i < n; i++)
+				out[i] = valueOf(values[i]);
+			return;
+		}
+		BigInteger[] prefix = new BigInteger[n];
+		prefix[0] = a[0];
+		for (int i = 1; i < n; i++)
+			prefix[i] = multiply(prefix[i - 1], a[i]);
+		BigInteger inverse = inverse(prefix[n - 1]);
+		for (int i = n - 1; i > 0; i--) {
+			BigInteger x = a[i];
+			out[i] = multiply(inverse, prefix[i - 1]);
+			inverse = multiply(inverse, x);
+		}
+		out[0] = inverse;
+	}
+
+	@Override
+	public boolean congruent(BigInteger a, BigInteger b, BigInteger mod) {
+		BigInteger r = residue(mod);
+		if (r.signum() == 0)
+			return a.equals(b);
+		return residue(a).subtract(residue(b)).mod(r).signum() == 0;
+	}
+
+	/**
+	 * @see ModularArithmetic#mod(long, long)
+	 */
+	@Override
+	public BigInteger mod(BigInteger a, BigInteger b) {
+		if (b.signum() != 0 && !b.equals(modulus))
+			throw new ArithmeticException("Modulus, "+residue(b)+", is not a multiple of "+modulus+".");
+		return a;
+	}
+
+	@Override
+	public BigInteger add(BigInteger a, BigInteger b) {
+		BigInteger r = a.add(b);
+		return r.compareTo(modulus) >= 0 ? r.subtract(modulus) : r;
+	}
+
+	@Override
+	public BigInteger negate(BigInteger a) {
+		return a.signum() == 0 ? a : modulus.subtract(a);
+	}
+
+	@Override
+	public BigInteger subtract(BigInteger a, BigInteger b) {
+		BigInteger r = a.subtract(b);
+		return r.signum() < 0 ? r.add(modulus) : r;
+	}
+
+	@Override
+	public BigInteger multiply(BigInteger a, BigInteger b) {
+		return BigMontgomery.fromWords(mont.multiply(words(a), words(b)));
+	}
+
+	/**
+	 * @param b an ordinary, non-negative exponent, <em>not</em> in Montgomery form.
+	 */
+	@Override
+	public BigInteger pow(BigInteger a, BigInteger b) {
+		if (b.signum() < 0)
+			throw new ArithmeticException("Negative exponent, "+b+".");
+		return BigMontgomery.fromWords(mont.pow(words(a), b));
+	}
+
+	@Override
+	public BigInteger max(BigInteger a, BigInteger b) {
+		return compare(a, b) >= 0 ? a : b;
+	}
+
+	@Override
+	public BigInteger min(BigInteger a, BigInteger b) {
+		return compare(a, b) <= 0 ? a : b;
+	}
+
+	@Override
+	public int compare(BigInteger a, BigInteger b) {
+		if (a.equals(b))
+			return 0;
+		return residue(a).compareTo(residue(b));
+	}
+
+	@Override
+	public boolean testBit(BigInteger a, int n) {
+		return residue(a).testBit(n);
+	}
+
+	@Override
+	public BigInteger setBit(BigInteger a, int n) {
+		return valueOf(residue(a).setBit(n));
+	}
+
+	@Override
+	public BigInteger clearBit(BigInteger a, int n) {
+		return valueOf(residue(a).clearBit(n));
+	}
+
+	@Override
+	public BigInteger flipBit(BigInteger a, int n) {
+		return valueOf(residue(a).flipBit(n));
+	}
+
+	@Override
+	public int signum(BigInteger a) {
+		return a.signum();
+	}
+
+	/**
+	 * Reverses the lowest {@link #maxBitLength()} bits of the canonical representative.
+	 */
+	@Override
+	public BigInteger reverse(BigInteger a) {
+		BigInteger r = residue(a), s = BigInteger.ZERO;
+		for (int i = r.getLowestSetBit(); i >= 0 && i < bitLength; i++)
+			if (r.testBit(i))
+				s = s.setBit(bitLength - 1 - i);
+		return valueOf(s);
+	}
+
+	@Override
+	public BigInteger or(BigInteger a, BigInteger b) {
+		return valueOf(residue(a).or(residue(b)));
+	}
+
+	@Override
+	public BigInteger and(BigInteger a, BigInteger b) {
+		return valueOf(residue(a).and(residue(b)));
+	}
+
+	@Override
+	public BigInteger nand(BigInteger a, BigInteger b) {
+		return valueOf(residue(a).andNot(residue(b)));
+	}
+
+	@Override
+	public BigInteger xor(BigInteger a, BigInteger b) {
+		return valueOf(residue(a).xor(residue(b)));
+	}
+
+	/**
+	 * @return -a - 1.
+	 */
+	@Override
+	public BigInteger not(BigInteger a) {
+		return subtract(negate(a), one);
+	}
+
+	/**
+	 * @return a &middot; 2<sup>n</sup>.
+	 */
+	@Override
+	public BigInteger shiftLeft(BigInteger a, int n) {
+		return multiply(a, valueOf(BigInteger.ONE.shiftLeft(n)));
+	}
+
+	/**
+	 * @return the canonical representative of a shifted right by n bits.
+	 */
+	@Override
+	public BigInteger shiftRight(BigInteger a, int n) {
+		return valueOf(residue(a).shiftRight(n));
+	}
+
+	@Override
+	public int bitCount(BigInteger a) {
+		return residue(a).bitCount();
+	}
+
+	@Override
+	public int highestOneBit(BigInteger a) {
+		return residue(a).bitLength() - 1;
+	}
+
+	@Override
+	public int lowestOneBit(BigInteger a) {
+		return residue(a).getLowestSetBit();
+	}
+
+	@Override
+	public String toString(BigInteger a, int radix) {
+		return residue(a).toString(radix);
+	}
+
+	@Override
+	public String toString() {
+		return "Z/"+modulus+"Z";
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+
+/**
+ * Montgomery multiplication modulo a fixed odd {@link BigInteger}, m, of n
+ * 32 bit words, with R = 2<sup>32n</sup>. Operands are little endian word
+ * arrays of length n and products are reduced word by word, interleaving
+ * the multiplication and reduction (the CIOS method of Ko&ccedil;, Acar and
+ * Kaliski), so that no division is ever performed.
+ */
+final class BigMontgomery {
+	private static final long MASK = 0xFFFFFFFFL;
+
+	final BigInteger modulus;
+	private final int[] m;
+	private final int n;
+	/**
+	 * -m<sup>-1</sup> mod 2<sup>32</sup>.
+	 */
+	private final int inverse;
+	/**
+	 * R mod m, i.e. one in Montgomery form.
+	 */
+	final int[] one;
+	/**
+	 * R<sup>2</sup> mod m.
+	 */
+	private final int[] r2;
+
+	BigMontgomery(BigInteger modulus) {
+		if (modulus.signum() <= 0 || !modulus.testBit(0))
+			throw new IllegalArgumentException("Modulus, "+modulus+", must be odd and positive.");
+		this.modulus = modulus;
+		n = (modulus.bitLength() + 31) >>> 5;
+		m = toWords(modulus, n);
+
+		int x = m[0]; // correct to 3 bits, each iteration doubles that
+		for (int i = 0; i < 4; i++)
+			x *= 2 - m[0] * x;
+		inverse = -x;
+
+		BigInteger r = BigInteger.ONE.shiftLeft(32 * n);
+		one = toWords(r.mod(modulus), n);
+		r2 = toWords(r.multiply(r).mod(modulus), n);
+	}
+
+	/**
+	 * @return the words of x, where 0 &lt;= x &lt; 2<sup>32n</sup>.
+	 */
+	static int[] toWords(BigInteger x, int n) {
+		byte[] bytes = x.toByteArray();
+		int[] words = new int[n];
+		for (int i = 0, j = bytes.length - 1; j >= 0 && i < 4 * n; i++, j--)
+			words[i >>> 2] |= (bytes[j] & 0xFF) << ((i & 3) << 3);
+		return words;
+	}
+
+	static BigInteger fromWords(int[] words) {
+		byte[] bytes = new byte[4 * words.length];
+		for (int i = 0, j = bytes.length - 1; j >= 0; i++, j--)
+			bytes[j] = (byte) (words[i >>> 2] >>> ((i & 3) << 3));
+		return new BigInteger(1, bytes);
+	}
+
+	int[] zero() {
+		return new int[n];
+	}
+
+	/**
+	 * @return a &middot; b &middot; R<sup>-1</sup> mod m.
+	 */
+	int[] multiply(int[] a, int[] b) {
+		int[] t = new int[n + 2];
+		for (int i = 0; i < n; i++) {
+			long bi = b[i] & MASK, c = 0, s;
+			for (int j = 0; j < n; j++) {
+				s = (t[j] & MASK) + (a[j] & MASK) * bi + c; // < 2^64, as unsigned
+				t[j] = (int) s;
+				c = s >>> 32;
+			}
+			s = (t[n] & MASK) + c;
+			t[n] = (int) s;
+			t[n + 1] = (int) (s >>> 32);
+
+			long q = (t[0] * inverse) & MASK;
+			s = (t[0] & MASK) + q * (m[0] & MASK);
+			c = s >>> 32;
+			for (int j = 1; j < n; j++) {
+				s = (t[j] & MASK) + q * (m[j] & MASK) + c;
+				t[j - 1] = (int) s;
+				c = s >>> 32;
+			}
+			s = (t[n] & MASK) + c;
+			t[n - 1] = (int) s;
+			t[n] = t[n + 1] + (int) (s >>> 32);
+		}
+		int[] r = new int[n];
+		System.arraycopy(t, 0, r, 0, n);
+		if (t[n] != 0 || !less(r, m))
+			subtract(r, m, r);
+		return r;
+	}
+
+	int[] square(int[] a) {
+		return multiply(a, a);
+	}
+
+	int[] add(int[] a, int[] b) {
+		int[] r = new int[n];
+		long c = 0;
+		for (int i = 0; i < n; i++) {
+			c += (a[i] & MASK) + (b[i] & MASK);
+			r[i] = (int) c;
+			c >>>= 32;
+		}
+		if (c != 0 || !less(r, m))
+			subtract(r, m, r);
+		return r;
+	}
+
+	int[] subtract(int[] a, int[] b) {
+		int[] r = new int[n];
+		if (subtract(a, b, r))
+			addInPlace(r, m);
+		return r;
+	}
+
+	/**
+	 * r = a - b, modulo 2<sup>32n</sup>.
+	 * @return whether a borrow was produced.
+	 */
+	private boolean subtract(int[] a, int[] b, int[] r) {
+		long borrow = 0;
+		for (int i = 0; i < n; i++) {
+			long d = (a[i] & MASK) - (b[i] & MASK) - borrow;
+			r[i] = (int) d;
+			borrow = d >>> 63;
+		}
+		return borrow != 0;
+	}
+
+	private void addInPlace(int[] r, int[] b) {
+		long c = 0;
+		for (int i = 0; i < n; i++) {
+			c += (r[i] & MASK) + (b[i] & MASK);
+			r[i] = (int) c;
+			c >>>= 32;
+		}
+	}
+
+	private boolean less(int[] a, int[] b) {
+		for (int i = n - 1; i >= 0; i--)
+			if (a[i] != b[i])
+				return (a[i] & MASK) < (b[i] & MASK);
+		return false;
+	}
+
+	static boolean isZero(int[] a) {
+		for (int w : a)
+			if (w != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * @param x where 0 &lt;= x &lt; m.
+	 * @return x in Montgomery form.
+	 */
+	int[] toMontgomery(int[] x) {
+		return multiply(x, r2);
+	}
+
+	/**
+	 * @return the canonical representative of x, which is in Montgomery form.
+	 */
+	int[] fromMontgomery(int[] x) {
+		int[] unit = new int[n];
+		unit[0] = 1;
+		return multiply(x, unit);
+	}
+
+	/**
+	 * @param a in Montgomery form.
+	 * @param e a non-negative exponent.
+	 * @return a<sup>e</sup> in Montgomery form.
+	 */
+	int[] pow(int[] a, BigInteger e) {
+		int[] r = one;
+		for (int i = e.bitLength() - 1; i >= 0; i--) {
+			r = square(r);
+			if (e.testBit(i))
+				r = multiply(r, a);
+		}
+		return r;
+	}
+
+	int words() {
+		return n;
+	}
+}
@@ -0,0 +1,800 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The finite field GF(2<sup>k</sup>), for k of 8, 16 or 32, as polynomials
+ * over GF(2) modulo an irreducible reduction polynomial of degree k. An
+ * element is held in the low k bits of an int, bit i being the coefficient
+ * of x<sup>i</sup>; for k = 32 the int is read as unsigned.
+ *
+ * <p>Addition and subtraction are both exclusive or. The fields of degree 8
+ * and 16 multiply, divide and invert through log and antilog tables; that of
+ * degree 32 multiplies carry-lessly and reduces a byte at a time through
+ * tables of the reduction. The region operations, e.g.
+ * {@link #multiplyAdd(byte[], byte, byte[])}, multiply a whole array by one
+ * coefficient through a table of that coefficient's multiples, as erasure
+ * codes do.
+ *
+ * <p>Every non-zero element is a unit, so the integral operations are
+ * trivial: the gcd of anything but zeros is one, and a zero modulus denotes
+ * the field itself, as it does for {@link ModularArithmetic}. The bitwise
+ * operations act on the k coefficients; {@link #shiftLeft(int, int)
+ * shiftLeft} multiplies by x<sup>n</sup>.
+ */
+public class BinaryFieldArithmetic implements FieldArithmetic<Integer>, BitArithmetic<Integer>, IntBitOps {
+	/**
+	 * x<sup>8</sup> + x<sup>4</sup> + x<sup>3</sup> + x<sup>2</sup> + 1, as
+	 * used by Reed&ndash;Solomon codes.
+	 */
+	public static final long GF8_POLYNOMIAL = 0x11dL;
+	/**
+	 * x<sup>16</sup> + x<sup>12</sup> + x<sup>3</sup> + x + 1.
+	 */
+	public static final long GF16_POLYNOMIAL = 0x1100bL;
+	/**
+	 * x<sup>32</sup> + x<sup>22</sup> + x<sup>2</sup> + x + 1.
+	 */
+	public static final long GF32_POLYNOMIAL = 0x100400007L;
+
+	private static final BinaryFieldArithmetic[] instances = new BinaryFieldArithmetic[3];
+
+	/**
+	 * @return the field of the given degree with the default polynomial.
+	 * @throws IllegalArgumentException unless degree is 8, 16 or 32.
+	 */
+	public static BinaryFieldArithmetic getInstance(int degree) {
+		int i = degree == 8 ? 0 : degree == 16 ? 1 : degree == 32 ? 2 : -1;
+		if (i < 0)
+			throw new IllegalArgumentException("Degree, "+degree+", must be 8, 16 or 32.");
+		synchronized (instances) {
+			if (instances[i] == null)
+				instances[i] = new BinaryFieldArithmetic(degree,
+						i == 0 ? GF8_POLYNOMIAL : i == 1 ? GF16_POLYNOMIAL : GF32_POLYNOMIAL);
+			return instances[i];
+		}
+	}
+
+	private final int degree;
+	private final long polynomial;
+	private final int mask;
+	/**
+	 * 2<sup>k</sup> - 1, the order of the multiplicative group.
+	 */
+	private final long order;
+	/**
+	 * For k &lt;= 16, exp[i] = g<sup>i</sup> for 0 &lt;= i &lt; 2&middot;order,
+	 * so that the sum of two logs needs no reduction, and log[exp[i]] = i.
+	 */
+	private final char[] exp, log;
+	/**
+	 * For k = 8, products[a][b] = a&middot;b.
+	 */
+	private final byte[][] products;
+	/**
+	 * For k = 32, reduction[j][v] = v&middot;x<sup>32 + 8j</sup> mod p.
+	 */
+	private final int[][] reduction;
+
+	/**
+	 * @param degree k, one of 8, 16 or 32.
+	 * @param polynomial an irreducible polynomial of degree k, including its
+	 *        x<sup>k</sup> term.
+	 * @throws IllegalArgumentException if either is unsuitable.
+	 */
+	public BinaryFieldArithmetic(int degree, long polynomial) {
+		if (degree != 8 && degree != 16 && degree != 32)
+			throw new IllegalArgumentException("Degree, "+degree+", must be 8, 16 or 32.");
+		if (polynomial >>> degree != 1)
+			throw new IllegalArgumentException("Polynomial, 0x"+Long.toHexString(polynomial)+", is not of degree "+degree+".");
+		this.degree = degree;
+		this.polynomial = polynomial;
+		this.mask = (int) ((1L << degree) - 1);
+		this.order = (1L << degree) - 1;
+
+		if (degree <= 16) {
+			int q = (int) order;
+			int g = generator();
+			exp = new char[2 * q];
+			log = new char[q + 1];
+			int x = 1;
+			for (int i = 0; i < q; i++) {
+				exp[i] = exp[i + q] = (char) x;
+				log[x] = (char) i;
+				x = slowMultiply(x, g);
+			}
+			reduction = null;
+		} else {
+			exp = log = null;
+			reduction = new int[4][256];
+			for (int j = 0; j < 4; j++)
+				for (int v = 0; v < 256; v++)
+					reduction[j][v] = (int) slowReduce((long) v << (32 + 8 * j));
+			if (!irreducible())
+				throw new IllegalArgumentException("Polynomial, 0x"+Long.toHexString(polynomial)+", is not irreducible.");
+		}
+
+		if (degree == 8) {
+			products = new byte[256][256];
+			for (int a = 1; a < 256; a++)
+				for (int b = 1; b < 256; b++)
+					products[a][b] = (byte) exp[log[a] + log[b]];
+		} else {
+			products = null;
+		}
+	}
+
+	public int getDegree() {
+		return degree;
+	}
+
+	public long getPolynomial() {
+		return polynomial;
+	}
+
+	/**
+	 * @return the carry-less product of a and b, both read as unsigned.
+	 */
+	static long clmul(int a, int b) {
+		long x = a & 0xffffffffL, r = 0;
+		for (int y = b; y != 0; y >>>= 2) {
+			r ^= x & -(y & 1);
+			r ^= x << 1 & -(y >>> 1 & 1);
+			x <<= 2;
+		}
+		return r;
+	}
+
+	private long slowReduce(long r) {
+		for (int i = 63 - Long.numberOfLeadingZeros(r); i >= degree; i--)
+			if ((r >>> i & 1) != 0)
+				r ^= polynomial << (i - degree);
+		return r;
+	}
+
+	private int slowMultiply(int a, int b) {
+		return (int) slowReduce(clmul(a, b));
+	}
+
+	private int slowPow(int a, long e) {
+		int r = 1;
+		for (; e != 0; e >>>= 1) {
+			if ((e & 1) != 0)
+				r = slowMultiply(r, a);
+			a = slowMultiply(a, a);
+		}
+		return r;
+	}
+
+	/**
+	 * @return a generator of the multiplicative group, i.e. x itself if the
+	 *         polynomial is primitive.
+	 * @throws IllegalArgumentException if the polynomial is reducible, in
+	 *         which case there is none.
+	 */
+	private int generator() {
+		long[] primes = Factorization.primeFactors(order);
+		search:
+		for (int g = 2; g <= order; g++) {
+			for (long p : primes)
+				if (slowPow(g, order / p) == 1)
+					continue search;
+			if (slowPow(g, order) == 1)
+				return g;
+		}
+		throw new IllegalArgumentException("Polynomial, 0x"+Long.toHexString(polynomial)+", is not irreducible.");
+	}
+
+	private static int degreeOf(long a) {
+		return 63 - Long.numberOfLeadingZeros(a);
+	}
+
+	private static long polynomialGcd(long a, long b) {
+		while (b != 0) {
+			int db = degreeOf(b);
+			while (a != 0 && degreeOf(a) >= db)
+				a ^= b << (degreeOf(a) - db);
+			long t = a;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/**
+	 * Rabin's test, for k = 32: p is irreducible iff x<sup>2<sup>32</sup></sup>
+	 * = x mod p and x<sup>2<sup>16</sup></sup> - x is coprime to p.
+	 */
+	private boolean irreducible() {
+		int x = 2, y = x;
+		for (int i = 1; i <= degree; i++) {
+			y = multiply(y, y);
+			if (i == degree / 2 && polynomialGcd(polynomial, (y ^ x) & 0xffffffffL) != 1)
+				return false;
+		}
+		return y == x;
+	}
+
+	private int reduce(long r) {
+		int hi = (int) (r >>> 32);
+		return (int) r ^ reduction[0][hi & 0xff] ^ reduction[1][hi >>> 8 & 0xff]
+		               ^ reduction[2][hi >>> 16 & 0xff] ^ reduction[3][hi >>> 24];
+	}
+
+	/**
+	 * @return a<sup>-1</sup>.
+	 * @throws ArithmeticException if a is zero.
+	 */
+	public int inverse(int a) {
+		if (a == 0)
+			throw new ArithmeticException("Zero is not invertible.");
+		if (exp != null)
+			return exp[(int) order - log[a]];
+		return pow(a, order - 1);
+	}
+
+	private int pow(int a, long e) {
+		if (a == 0)
+			return e == 0 ? 1 : 0;
+		if (exp != null)
+			return exp[(int) (log[a] * e % order)];
+		int r = 1;
+		for (; e != 0; e >>>= 1) {
+			if ((e & 1) != 0)
+				r = multiply(r, a);
+			a = multiply(a, a);
+		}
+		return r;
+	}
+
+	/**
+	 * Region multiplication: dst[i] = coeff&middot;src[i].
+	 * @throws UnsupportedOperationException unless the degree is 8.
+	 */
+	public void multiply(byte[] src, byte coeff, byte[] dst) {
+		multiply(src, 0, coeff, dst, 0, src.length);
+	}
+
+	/**
+	 * @see #multiply(byte[], byte, byte[])
+	 */
+	public void multiply(byte[] src, int srcPos, byte coeff, byte[] dst, int dstPos, int length) {
+		if (products == null)
+			throw new UnsupportedOperationException("Byte regions need GF(2^8), not "+this+".");
+		if (coeff == 0) {
+			Arrays.fill(dst, dstPos, dstPos + length, (byte) 0);
+		} else if (coeff == 1) {
+			System.arraycopy(src, srcPos, dst, dstPos, length);
+		} else {
+			byte[] row = products[coeff & 0xff];
+			for (int i = 0; i < length; i++)
+				dst[dstPos + i] = row[src[srcPos + i] & 0xff];
+		}
+	}
+
+	/**
+	 * Region multiply and accumulate: dst[i] += coeff&middot;src[i].
+	 * @throws UnsupportedOperationException unless the degree is 8.
+	 */
+	public void multiplyAdd(byte[] src, byte coeff, byte[] dst) {
+		multiplyAdd(src, 0, coeff, dst, 0, src.length);
+	}
+
+	/**
+	 * @see #multiplyAdd(byte[], byte, byte[])
+	 */
+	public void multiplyAdd(byte[] src, int srcPos, byte coeff, byte[] dst, int dstPos, int length) {
+		if (products == null)
+			throw new UnsupportedOperationException("Byte regions need GF(2^8), not "+this+".");
+		if (coeff == 0)
+			return;
+		if (coeff == 1) {
+			for (int i = 0; i < length; i++)
+				dst[dstPos + i] ^= src[srcPos + i];
+		} else {
+			byte[] row = products[coeff & 0xff];
+			for (int i = 0; i < length; i++)
+				dst[dstPos + i] ^= row[src[srcPos + i] & 0xff];
+		}
+	}
+
+	/**
+	 * @return t such that coeff&middot;a = t[a &amp; 0xff] ^
+	 *         t[256 + (a &gt;&gt;&gt; 8 &amp; 0xff)] ^ ..., i.e. the products
+	 *         of coeff with each byte of a, in each position.
+	 */
+	private int[] window(int coeff) {
+		int bytes = degree / 8;
+		int[] t = new int[256 * bytes];
+		for (int j = 0; j < bytes; j++)
+			for (int v = 1; v < 256; v++)
+				t[256 * j + v] = multiply(coeff, v << 8 * j);
+		return t;
+	}
+
+	private static int product(int[] t, int a) {
+		int r = t[a & 0xff];
+		if (t.length > 256)
+			r ^= t[256 + (a >>> 8 & 0xff)];
+		if (t.length > 512)
+			r ^= t[512 + (a >>> 16 & 0xff)] ^ t[768 + (a >>> 24)];
+		return r;
+	}
+
+	/**
+	 * Region multiplication: dst[i] = coeff&middot;src[i]. Long regions are
+	 * multiplied through a table of coeff's products with each byte.
+	 */
+	public void multiply(int[] src, int coeff, int[] dst) {
+		int n = src.length;
+		if (n < 64 || products != null) {
+			for (int i = 0; i < n; i++)
+				dst[i] = multiply(coeff, src[i]);
+		} else {
+			int[] t = window(coeff);
+			for (int i = 0; i < n; i++)
+				dst[i] = product(t, src[i]);
+		}
+	}
+
+	/**
+	 * Region multiply and accumulate: dst[i] += coeff&middot;src[i].
+	 * @see #multiply(int[], int, int[])
+	 */
+	public void multiplyAdd(int[] src, int coeff, int[] dst) {
+		int n = src.length;
+		if (n < 64 || products != null) {
+			for (int i = 0; i < n; i++)
+				dst[i] ^= multiply(coeff, src[i]);
+		} else {
+			int[] t = window(coeff);
+			for (int i = 0; i < n; i++)
+				dst[i] ^= product(t, src[i]);
+		}
+	}
+
+	@Override
+	public int maxBitLength() {
+		return degree;
+	}
+
+	@Override
+	public Integer one() {
+		return 1;
+	}
+
+	@Override
+	public Integer zero() {
+		return 0;
+	}
+
+	/**
+	 * @return {one} for any unit, i.e. any non-zero a.
+	 * @throws IllegalArgumentException if a is zero.
+	 */
+	@Override
+	public Set<Integer> factors(Integer a) {
+		if (a == 0)
+			throw new IllegalArgumentException("Zero has no factors.");
+		return Collections.singleton(1);
+	}
+
+	/**
+	 * @return the empty factorization of any unit, i.e. any non-zero a.
+	 * @throws IllegalArgumentException if a is zero.
+	 */
+	@Override
+	public Integer[] primeFactorization(Integer a) {
+		if (a == 0)
+			throw new IllegalArgumentException("Zero has no prime factorization.");
+		return new Integer[0];
+	}
+
+	@Override
+	public int gcd(int a, int b) {
+		return a == 0 && b == 0 ? 0 : 1;
+	}
+
+	@Override
+	public Integer gcd(Integer a, Integer b) {
+		return gcd(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int[] extendedGcd(int a, int b) {
+		if (a != 0)
+			return new int[] {1, inverse(a), 0};
+		if (b != 0)
+			return new int[] {1, 0, inverse(b)};
+		return new int[] {0, 0, 0};
+	}
+
+	@Override
+	public Integer[] extendedGcd(Integer a, Integer b) {
+		int[] e = extendedGcd(a.intValue(), b.intValue());
+		return new Integer[] {e[0], e[1], e[2]};
+	}
+
+	/**
+	 * @return the inverse of a when mod is zero, i.e. in the field; modulo
+	 *         a unit every element is congruent to zero, so zero.
+	 * @throws ArithmeticException if mod and a are both zero.
+	 */
+	@Override
+	public int modInverse(int a, int mod) {
+		if (mod != 0)
+			return 0;
+		return inverse(a);
+	}
+
+	@Override
+	public Integer modInverse(Integer a, Integer mod) {
+		return modInverse(a.intValue(), mod.intValue());
+	}
+
+	@Override
+	public void modInverse(int[] a, int mod, int[] out) {
+		int n = a.length;
+		if (n == 0)
+			return;
+		if (mod != 0) {
+			Arrays.fill(out, 0, n, 0);
+			return;
+		}
+		int[] prefix = new int[n];
+		prefix[0] = a[0];
+		for (int i = 1; i < n; i++)
+			prefix[i] = multiply(prefix[i - 1], a[i]);
+		int inverse = inverse(prefix[n - 1]);
+		for (int i = n - 1; i > 0; i--) {
+			int x = a[i];
+			out[i] = multiply(inverse, prefix[i - 1]);
+			inverse = multiply(inverse, x);
+		}
+		out[0] = inverse;
+	}
+
+	@Override
+	public void modInverse(Integer[] a, Integer mod, Integer[] out) {
+		int[] values = new int[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		modInverse(values, mod.intValue(), values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = values[i];
+	}
+
+	@Override
+	public boolean congruent(int a, int b, int mod) {
+		return mod != 0 || a == b;
+	}
+
+	@Override
+	public boolean congruent(Integer a, Integer b, Integer mod) {
+		return congruent(a.intValue(), b.intValue(), mod.intValue());
+	}
+
+	/**
+	 * @see ModularArithmetic#mod(long, long)
+	 */
+	@Override
+	public int mod(int a, int b) {
+		return b == 0 ? a : 0;
+	}
+
+	@Override
+	public Integer mod(Integer a, Integer b) {
+		return mod(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int add(int a, int b) {
+		return a ^ b;
+	}
+
+	@Override
+	public Integer add(Integer a, Integer b) {
+		return add(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int negate(int a) {
+		return a;
+	}
+
+	@Override
+	public Integer negate(Integer a) {
+		return a;
+	}
+
+	@Override
+	public int subtract(int a, int b) {
+		return a ^ b;
+	}
+
+	@Override
+	public Integer subtract(Integer a, Integer b) {
+		return subtract(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int multiply(int a, int b) {
+		if (a == 0 || b == 0)
+			return 0;
+		if (exp != null)
+			return exp[log[a] + log[b]];
+		return reduce(clmul(a, b));
+	}
+
+	@Override
+	public Integer multiply(Integer a, Integer b) {
+		return multiply(a.intValue(), b.intValue());
+	}
+
+	/**
+	 * @throws ArithmeticException if b is zero.
+	 */
+	public int divide(int a, int b) {
+		if (b == 0)
+			throw new ArithmeticException("Division by zero.");
+		if (a == 0)
+			return 0;
+		if (exp != null)
+			return exp[log[a] + (int) order - log[b]];
+		return multiply(a, inverse(b));
+	}
+
+	@Override
+	public Integer divide(Integer a, Integer b) {
+		return divide(a.intValue(), b.intValue());
+	}
+
+	/**
+	 * @param b an ordinary exponent, which may be negative.
+	 */
+	@Override
+	public int pow(int a, int b) {
+		if (b < 0)
+			return pow(inverse(a), -(long) b % order);
+		return pow(a, (long) b);
+	}
+
+	@Override
+	public Integer pow(Integer a, Integer b) {
+		return pow(a.intValue(), b.intValue());
+	}
+
+	/**
+	 * @param b an ordinary exponent, coprime to 2<sup>k</sup> - 1 so that
+	 *        the root is unique; every element has a unique square root.
+	 * @throws ArithmeticException if b is not coprime to 2<sup>k</sup> - 1.
+	 */
+	@Override
+	public Integer root(Integer a, Integer b) {
+		long e = b % order;
+		if (e < 0)
+			e += order;
+		return pow(a, LongMath.modInverse(e, order));
+	}
+
+	@Override
+	public int max(int a, int b) {
+		return compare(a, b) >= 0 ? a : b;
+	}
+
+	@Override
+	public Integer max(Integer a, Integer b) {
+		return max(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int min(int a, int b) {
+		return compare(a, b) <= 0 ? a : b;
+	}
+
+	@Override
+	public Integer min(Integer a, Integer b) {
+		return min(a.intValue(), b.intValue());
+	}
+
+	/**
+	 * Compares the coefficients as an unsigned integer.
+	 */
+	@Override
+	public int compare(int a, int b) {
+		a ^= Integer.MIN_VALUE;
+		b ^= Integer.MIN_VALUE;
+		return a < b ? -1 : a == b ? 0 : 1;
+	}
+
+	@Override
+	public int compare(Integer a, Integer b) {
+		return compare(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public boolean testBit(int a, int n) {
+		return n < degree && (a >>> n & 1) != 0;
+	}
+
+	@Override
+	public boolean testBit(Integer a, int n) {
+		return testBit(a.intValue(), n);
+	}
+
+	@Override
+	public int setBit(int a, int n) {
+		return (a | 1 << n) & mask;
+	}
+
+	@Override
+	public Integer setBit(Integer a, int n) {
+		return setBit(a.intValue(), n);
+	}
+
+	@Override
+	public int clearBit(int a, int n) {
+		return a & ~(1 << n);
+	}
+
+	@Override
+	public Integer clearBit(Integer a, int n) {
+		return clearBit(a.intValue(), n);
+	}
+
+	@Override
+	public int flipBit(int a, int n) {
+		return (a ^ 1 << n) & mask;
+	}
+
+	@Override
+	public Integer flipBit(Integer a, int n) {
+		return flipBit(a.intValue(), n);
+	}
+
+	@Override
+	public int signum(int a) {
+		return a == 0 ? 0 : 1;
+	}
+
+	@Override
+	public int signum(Integer a) {
+		return signum(a.intValue());
+	}
+
+	/**
+	 * Reverses the k coefficients.
+	 */
+	@Override
+	public int reverse(int a) {
+		return Integer.reverse(a) >>> (Integer.SIZE - degree);
+	}
+
+	@Override
+	public Integer reverse(Integer a) {
+		return reverse(a.intValue());
+	}
+
+	@Override
+	public int or(int a, int b) {
+		return a | b;
+	}
+
+	@Override
+	public Integer or(Integer a, Integer b) {
+		return or(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int and(int a, int b) {
+		return a & b;
+	}
+
+	@Override
+	public Integer and(Integer a, Integer b) {
+		return and(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int nand(int a, int b) {
+		return a & ~b;
+	}
+
+	@Override
+	public Integer nand(Integer a, Integer b) {
+		return nand(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int xor(int a, int b) {
+		return a ^ b;
+	}
+
+	@Override
+	public Integer xor(Integer a, Integer b) {
+		return xor(a.intValue(), b.intValue());
+	}
+
+	/**
+	 * Complements the k coefficients.
+	 */
+	@Override
+	public int not(int a) {
+		return ~a & mask;
+	}
+
+	@Override
+	public Integer not(Integer a) {
+		return not(a.intValue());
+	}
+
+	/**
+	 * @return a&middot;x<sup>n</sup>.
+	 */
+	@Override
+	public int shiftLeft(int a, int n) {
+		return multiply(a, pow(2, n));
+	}
+
+	@Override
+	public Integer shiftLeft(Integer a, int n) {
+		return shiftLeft(a.intValue(), n);
+	}
+
+	@Override
+	public int shiftRight(int a, int n) {
+		return n >= Integer.SIZE ? 0 : a >>> n;
+	}
+
+	@Override
+	public Integer shiftRight(Integer a, int n) {
+		return shiftRight(a.intValue(), n);
+	}
+
+	@Override
+	public int bitCount(int a) {
+		return Integer.bitCount(a);
+	}
+
+	@Override
+	public int bitCount(Integer a) {
+		return bitCount(a.intValue());
+	}
+
+	@Override
+	public int highestOneBit(int a) {
+		return 31 - Integer.numberOfLeadingZeros(a);
+	}
+
+	@Override
+	public int highestOneBit(Integer a) {
+		return highestOneBit(a.intValue());
+	}
+
+	@Override
+	public int lowestOneBit(int a) {
+		if (a == 0)
+			return -1;
+		return Integer.numberOfTrailingZeros(a);
+	}
+
+	@Override
+	public int lowestOneBit(Integer a) {
+		return lowestOneBit(a.intValue());
+	}
+
+	@Override
+	public String toString(Integer a, int radix) {
+		return Long.toString(a & 0xffffffffL, radix);
+	}
+
+	@Override
+	public String toString() {
+		return "GF(2^"+degree+")";
+	}
+}
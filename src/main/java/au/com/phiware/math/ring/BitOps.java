@@ -0,0 +1,206 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * Finds the operations over primitives of {@link BitArithmetic}s, so that
+ * generic algorithms need only one boxing-free path, over longs.
+ */
+public final class BitOps {
+	private BitOps() {}
+
+	/**
+	 * @return the arithmetic itself, if it is a {@link LongBitOps} whose
+	 *         values are {@link Long}s; a view of it over longs, if it is an
+	 *         {@link IntBitOps} whose values are {@link Integer}s; and
+	 *         otherwise null.
+	 */
+	public static LongBitOps longBitOps(BitArithmetic<?> a) {
+		if (a instanceof LongBitOps && a.one() instanceof Long)
+			return (LongBitOps) a;
+		if (a instanceof IntBitOps && a.one() instanceof Integer)
+			return new WidenedIntBitOps((IntBitOps) a);
+		return null;
+	}
+
+	/**
+	 * The operations of an {@link IntBitOps} over longs that hold ints; each
+	 * operand is narrowed to an int and each result widened back, so that
+	 * the int semantics, e.g. of overflow, are kept.
+	 */
+	static final class WidenedIntBitOps implements LongBitOps {
+		private final IntBitOps a;
+
+		WidenedIntBitOps(IntBitOps a) {
+			this.a = a;
+		}
+
+		private static long[] widen(int[] x) {
+			long[] y = new long[x.length];
+			for (int i = 0; i < x.length; i++)
+				y[i] = x[i];
+			return y;
+		}
+
+		private static int[] narrow(long[] x) {
+			int[] y = new int[x.length];
+			for (int i = 0; i < x.length; i++)
+				y[i] = (int) x[i];
+			return y;
+		}
+
+		@Override
+		public long add(long x, long y) {
+			return a.add((int) x, (int) y);
+		}
+
+		@Override
+		public long negate(long x) {
+			return a.negate((int) x);
+		}
+
+		@Override
+		public long subtract(long x, long y) {
+			return a.subtract((int) x, (int) y);
+		}
+
+		@Override
+		public long multiply(long x, long y) {
+			return a.multiply((int) x, (int) y);
+		}
+
+		@Override
+		public long pow(long x, long y) {
+			return a.pow((int) x, (int) y);
+		}
+
+		@Override
+		public long max(long x, long y) {
+			return a.max((int) x, (int) y);
+		}
+
+		@Override
+		public long min(long x, long y) {
+			return a.min((int) x, (int) y);
+		}
+
+		@Override
+		public int compare(long x, long y) {
+			return a.compare((int) x, (int) y);
+		}
+
+		@Override
+		public long gcd(long x, long y) {
+			return a.gcd((int) x, (int) y);
+		}
+
+		@Override
+		public long[] extendedGcd(long x, long y) {
+			return widen(a.extendedGcd((int) x, (int) y));
+		}
+
+		@Override
+		public long modInverse(long x, long mod) {
+			return a.modInverse((int) x, (int) mod);
+		}
+
+		@Override
+		public void modInverse(long[] x, long mod, long[] out) {
+			int[] inverses = new int[out.length];
+			a.modInverse(narrow(x), (int) mod, inverses);
+			for (int i = 0; i < out.length; i++)
+				out[i] = inverses[i];
+		}
+
+		@Override
+		public boolean congruent(long x, long y, long mod) {
+			return a.congruent((int) x, (int) y, (int) mod);
+		}
+
+		@Override
+		public long mod(long x, long y) {
+			return a.mod((int) x, (int) y);
+		}
+
+		@Override
+		public boolean testBit(long x, int n) {
+			return a.testBit((int) x, n);
+		}
+
+		@Override
+		public long setBit(long x, int n) {
+			return a.setBit((int) x, n);
+		}
+
+		@Override
+		public long clearBit(long x, int n) {
+			return a.clearBit((int) x, n);
+		}
+
+		@Override
+		public long flipBit(long x, int n) {
+			return a.flipBit((int) x, n);
+		}
+
+		@Override
+		public int signum(long x) {
+			return a.signum((int) x);
+		}
+
+		@Override
+		public long reverse(long x) {
+			return a.reverse((int) x);
+		}
+
+		@Override
+		public long or(long x, long y) {
+			return a.or((int) x, (int) y);
+		}
+
+		@Override
+		public long and(long x, long y) {
+			return a.and((int) x, (int) y);
+		}
+
+		@Override
+		public long nand(long x, long y) {
+			return a.nand((int) x, (int) y);
+		}
+
+		@Override
+		public long xor(long x, long y) {
+			return a.xor((int) x, (int) y);
+		}
+
+		@Override
+		public long not(long x) {
+			return a.not((int) x);
+		}
+
+		@Override
+		public long shiftLeft(long x, int n) {
+			return a.shiftLeft((int) x, n);
+		}
+
+		@Override
+		public long shiftRight(long x, int n) {
+			return a.shiftRight((int) x, n);
+		}
+
+		@Override
+		public int bitCount(long x) {
+			return a.bitCount((int) x);
+		}
+
+		@Override
+		public int highestOneBit(long x) {
+			return a.highestOneBit((int) x);
+		}
+
+		@Override
+		public int lowestOneBit(long x) {
+			return a.lowestOneBit((int) x);
+		}
+	}
+}
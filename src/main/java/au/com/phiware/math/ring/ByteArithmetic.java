@@ -4,6 +4,7 @@
 package au.com.phiware.math.ring;
 
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * @author Corin Lawson <me@corinlawson.com.au>
@@ -27,27 +28,53 @@ public class ByteArithmetic implements BitArithmetic<Byte> {
 		return 1;
 	}
 
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
 	@Override
 	public Set<Byte> factors(Byte a) {
-		// TODO Auto-generated method stub
-		return null;
+		Set<Byte> factors = new TreeSet<Byte>();
+		for (long d : Factorization.divisors(Factorization.primeFactors(a)))
+			factors.add((byte) d);
+		return factors;
 	}
 
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
 	@Override
 	public Byte[] primeFactorization(Byte a) {
-		// TODO Auto-generated method stub
-		return null;
+		long[] factors = Factorization.primeFactors(a);
+		Byte[] boxed = new Byte[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			boxed[i] = (byte) factors[i];
+		return boxed;
 	}
 
 	@Override
 	public Byte gcd(Byte a, Byte b) {
-		byte r;
-		while (b != 0) {
-			r = (byte) (a % b);
-			a = b;
-			b = r;
-		}               
-		return a;
+		return (byte) LongMath.gcd(a, b);
+	}
+
+	@Override
+	public Byte[] extendedGcd(Byte a, Byte b) {
+		long[] e = LongMath.extendedGcd(a, b);
+		return new Byte[] {(byte) e[0], (byte) e[1], (byte) e[2]};
+	}
+
+	@Override
+	public Byte modInverse(Byte a, Byte mod) {
+		return (byte) LongMath.modInverse(a, mod);
+	}
+
+	@Override
+	public void modInverse(Byte[] a, Byte mod, Byte[] out) {
+		long[] values = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		LongMath.modInverse(values, mod, values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = (byte) values[i];
 	}
 
 	@Override
@@ -0,0 +1,95 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * IEEE 754 double arithmetic, as a field up to rounding.
+ */
+public class DoubleArithmetic implements FieldArithmetic<Double> {
+
+	private static final DoubleArithmetic a = new DoubleArithmetic();
+	private DoubleArithmetic() {}
+	public static DoubleArithmetic getInstance() {
+		return a;
+	}
+
+	@Override
+	public Double zero() {
+		return 0.0;
+	}
+
+	@Override
+	public Double one() {
+		return 1.0;
+	}
+
+	@Override
+	public Double add(Double a, Double b) {
+		return a + b;
+	}
+
+	@Override
+	public Double negate(Double a) {
+		return -a;
+	}
+
+	@Override
+	public Double subtract(Double a, Double b) {
+		return a - b;
+	}
+
+	@Override
+	public Double multiply(Double a, Double b) {
+		return a * b;
+	}
+
+	@Override
+	public Double divide(Double a, Double b) {
+		return a / b;
+	}
+
+	@Override
+	public Double pow(Double a, Double b) {
+		return Math.pow(a, b);
+	}
+
+	/**
+	 * @return the b<sup>th</sup> root of a; real, and so negative, for
+	 *         negative a when b is an odd integer.
+	 */
+	@Override
+	public Double root(Double a, Double b) {
+		return root(a.doubleValue(), b.doubleValue());
+	}
+
+	static double root(double a, double b) {
+		if (b == 2)
+			return Math.sqrt(a);
+		if (b == 3)
+			return Math.cbrt(a);
+		if (a < 0 && Math.abs(b % 2) == 1)
+			return -Math.pow(-a, 1 / b);
+		return Math.pow(a, 1 / b);
+	}
+
+	@Override
+	public Double max(Double a, Double b) {
+		return Math.max(a, b);
+	}
+
+	@Override
+	public Double min(Double a, Double b) {
+		return Math.min(a, b);
+	}
+
+	@Override
+	public int compare(Double a, Double b) {
+		return Double.compare(a, b);
+	}
+
+	@Override
+	public String toString() {
+		return "double";
+	}
+}
@@ -0,0 +1,344 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Integer factorization by a cached table of smallest prime factors for
+ * small values, trial division, the Miller&ndash;Rabin test and Brent's
+ * variant of Pollard's rho algorithm. Large {@link BigInteger} cofactors are
+ * attacked by several rho walks in parallel.
+ */
+final class Factorization {
+	/**
+	 * Values below this limit are factored by table lookup.
+	 */
+	static final int SIEVE_LIMIT = 1 << 16;
+	/**
+	 * Values are trial divided by the primes below this limit before rho.
+	 */
+	static final int TRIAL_LIMIT = 1 << 10;
+	/**
+	 * Composites of at least this many bits are factored by parallel walks.
+	 */
+	static final int PARALLEL_BIT_LENGTH = 96;
+
+	private static final char[] smallestPrimeFactor = new char[SIEVE_LIMIT];
+	static final int[] PRIMES;
+	static final int[] TRIAL_PRIMES;
+
+	static {
+		int count = 0;
+		int[] primes = new int[SIEVE_LIMIT / 8];
+		for (int i = 2; i < SIEVE_LIMIT; i++) {
+			if (smallestPrimeFactor[i] == 0) {
+				smallestPrimeFactor[i] = (char) i;
+				if (count == primes.length)
+					primes = Arrays.copyOf(primes, count * 2);
+				primes[count++] = i;
+			}
+			for (int j = 0; j < count && primes[j] <= smallestPrimeFactor[i] && (long) i * primes[j] < SIEVE_LIMIT; j++)
+				smallestPrimeFactor[i * primes[j]] = (char) primes[j];
+		}
+		PRIMES = Arrays.copyOf(primes, count);
+		int trial = Arrays.binarySearch(PRIMES, TRIAL_LIMIT);
+		TRIAL_PRIMES = Arrays.copyOf(PRIMES, trial < 0 ? -trial - 1 : trial);
+	}
+
+	private static ExecutorService executor;
+
+	private Factorization() {}
+
+	static int smallestPrimeFactor(int n) {
+		return smallestPrimeFactor[n];
+	}
+
+	private static synchronized ExecutorService executor() {
+		if (executor == null)
+			executor = Executors.newCachedThreadPool(
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("factorization-%d").build());
+		return executor;
+	}
+
+	/**
+	 * @return the prime factors of the magnitude of n, in ascending order and
+	 *         repeated according to multiplicity, preceded by -1 if n is
+	 *         negative.
+	 * @throws IllegalArgumentException if n is zero.
+	 */
+	static long[] primeFactors(long n) {
+		if (n == 0)
+			throw new IllegalArgumentException("Zero has no prime factorization.");
+		long[] factors = new long[64];
+		int count = 0;
+		if (n < 0)
+			factors[count++] = -1;
+		// the magnitude is treated as unsigned so that Long.MIN_VALUE is 2^63
+		int twos = Long.numberOfTrailingZeros(n);
+		for (int i = 0; i < twos; i++)
+			factors[count++] = 2;
+		n = (n < 0 ? -n : n) >>> twos;
+		count = factorOdd(n, factors, count);
+		Arrays.sort(factors, factors[0] == -1 ? 1 : 0, count);
+		return Arrays.copyOf(factors, count);
+	}
+
+	private static int factorOdd(long n, long[] factors, int count) {
+		if (n == 1)
+			return count;
+		if (n < SIEVE_LIMIT) {
+			while (n != 1) {
+				int p = smallestPrimeFactor[(int) n];
+				factors[count++] = p;
+				n /= p;
+			}
+			return count;
+		}
+		for (int p : TRIAL_PRIMES) {
+			if ((long) p * p > n)
+				break;
+			while (n % p == 0) {
+				factors[count++] = p;
+				n /= p;
+			}
+		}
+		if (n == 1)
+			return count;
+		if (n < (long) TRIAL_LIMIT * TRIAL_LIMIT) {
+			factors[count++] = n;
+			return count;
+		}
+		return factorRho(n, factors, count);
+	}
+
+	private static int factorRho(long n, long[] factors, int count) {
+		if (n < SIEVE_LIMIT)
+			return factorOdd(n, factors, count);
+		Montgomery mont = new Montgomery(n);
+		if (LongMath.isProbablePrime(mont)) {
+			factors[count++] = n;
+			return count;
+		}
+		long d = n;
+		for (long c = 1; d == n; c++)
+			d = rho(mont, c);
+		count = factorRho(d, factors, count);
+		return factorRho(n / d, factors, count);
+	}
+
+	/**
+	 * Brent's variant of Pollard's rho, walking x &rarr; x<sup>2</sup> + c in
+	 * Montgomery form. The gcds are batched by accumulating the product of
+	 * the differences.
+	 * @return a factor of the modulus, possibly the modulus itself.
+	 */
+	private static long rho(Montgomery mont, long c) {
+		final int m = 128;
+		long n = mont.modulus;
+		c = mont.toMontgomery(c % n);
+		long x = 0, y = mont.toMontgomery(2), ys = y, q = mont.one, g = 1;
+		for (long r = 1; g == 1; r <<= 1) {
+			x = y;
+			for (long i = 0; i < r; i++)
+				y = mont.add(mont.square(y), c);
+			for (long k = 0; k < r && g == 1; k += m) {
+				ys = y;
+				for (long i = Math.min(m, r - k); i > 0; i--) {
+					y = mont.add(mont.square(y), c);
+					q = mont.multiply(q, mont.subtract(x, y));
+				}
+				g = LongMath.gcd(q, n);
+			}
+		}
+		if (g == n)
+			do {
+				ys = mont.add(mont.square(ys), c);
+				g = LongMath.gcd(mont.subtract(x, ys), n);
+			} while (g == 1);
+		return g;
+	}
+
+	/**
+	 * @return every positive divisor of n, given its prime factors.
+	 */
+	static Set<Long> divisors(long[] primeFactors) {
+		List<Long> divisors = new ArrayList<Long>();
+		divisors.add(1L);
+		int i = primeFactors.length > 0 && primeFactors[0] == -1 ? 1 : 0;
+		while (i < primeFactors.length) {
+			long p = primeFactors[i];
+			int e = 0;
+			while (i < primeFactors.length && primeFactors[i] == p) {
+				e++;
+				i++;
+			}
+			for (int j = 0, size = divisors.size(); j < size; j++) {
+				long d = divisors.get(j);
+				for (int k = 0; k < e; k++)
+					divisors.add(d *= p);
+			}
+		}
+		return new TreeSet<Long>(divisors);
+	}
+
+	/**
+	 * @see #primeFactors(long)
+	 */
+	static BigInteger[] primeFactors(BigInteger n) {
+		if (n.signum() == 0)
+			throw new IllegalArgumentException("Zero has no prime factorization.");
+		List<BigInteger> factors = new ArrayList<BigInteger>();
+		if (n.signum() < 0)
+			factors.add(BigInteger.ONE.negate());
+		n = n.abs();
+		int twos = n.getLowestSetBit();
+		for (int i = 0; i < twos; i++)
+			factors.add(BigInteger.valueOf(2));
+		factorOdd(n.shiftRight(twos), factors);
+		Collections.sort(factors);
+		return factors.toArray(new BigInteger[factors.size()]);
+	}
+
+	private static void factorOdd(BigInteger n, List<BigInteger> factors) {
+		if (n.bitLength() < Long.SIZE) {
+			for (long p : primeFactors(n.longValue()))
+				factors.add(BigInteger.valueOf(p));
+			return;
+		}
+		for (int p : TRIAL_PRIMES) {
+			BigInteger bp = BigInteger.valueOf(p);
+			BigInteger[] qr = n.divideAndRemainder(bp);
+			while (qr[1].signum() == 0) {
+				factors.add(bp);
+				n = qr[0];
+				qr = n.divideAndRemainder(bp);
+			}
+		}
+		factorRho(n, factors);
+	}
+
+	private static void factorRho(BigInteger n, List<BigInteger> factors) {
+		if (n.bitLength() < Long.SIZE) {
+			if (!n.equals(BigInteger.ONE))
+				for (long p : primeFactors(n.longValue()))
+					factors.add(BigInteger.valueOf(p));
+			return;
+		}
+		if (n.isProbablePrime(64)) {
+			factors.add(n);
+			return;
+		}
+		BigInteger d = n.bitLength() < PARALLEL_BIT_LENGTH ? rho(n) : parallelRho(n);
+		factorRho(d, factors);
+		factorRho(n.divide(d), factors);
+	}
+
+	private static BigInteger rho(BigInteger n) {
+		BigInteger d = n;
+		for (long c = 1; d.equals(n); c++)
+			d = rho(n, BigInteger.valueOf(c));
+		return d;
+	}
+
+	/**
+	 * Races several rho walks, each with its own constant, and returns the
+	 * first non-trivial factor found.
+	 */
+	private static BigInteger parallelRho(final BigInteger n) {
+		int walks = Runtime.getRuntime().availableProcessors();
+		if (walks < 2)
+			return rho(n);
+		List<Callable<BigInteger>> tasks = new ArrayList<Callable<BigInteger>>(walks);
+		for (int i = 0; i < walks; i++) {
+			final int first = i + 1, step = walks;
+			tasks.add(new Callable<BigInteger>() {
+				@Override public BigInteger call() throws InterruptedException {
+					BigInteger d = n;
+					for (long c = first; d.equals(n); c += step) {
+						d = rho(n, BigInteger.valueOf(c));
+						if (d == null)
+							throw new InterruptedException();
+					}
+					return d;
+				}
+			});
+		}
+		try {
+			return executor().invokeAny(tasks);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return rho(n);
+		} catch (ExecutionException e) {
+			return rho(n);
+		}
+	}
+
+	/**
+	 * @return a factor of n, possibly n itself, or null if the thread was
+	 *         interrupted.
+	 */
+	private static BigInteger rho(BigInteger n, BigInteger c) {
+		final int m = 128;
+		BigInteger x = BigInteger.ZERO, y = BigInteger.valueOf(2), ys = y, q = BigInteger.ONE, g = BigInteger.ONE;
+		for (long r = 1; g.equals(BigInteger.ONE); r <<= 1) {
+			if (Thread.interrupted())
+				return null;
+			x = y;
+			for (long i = 0; i < r; i++)
+				y = y.multiply(y).add(c).mod(n);
+			for (long k = 0; k < r && g.equals(BigInteger.ONE); k += m) {
+				if (Thread.interrupted())
+					return null;
+				ys = y;
+				for (long i = Math.min(m, r - k); i > 0; i--) {
+					y = y.multiply(y).add(c).mod(n);
+					q = q.multiply(x.subtract(y)).mod(n);
+				}
+				g = q.gcd(n);
+			}
+		}
+		if (g.equals(n))
+			do {
+				ys = ys.multiply(ys).add(c).mod(n);
+				g = x.subtract(ys).gcd(n);
+			} while (g.equals(BigInteger.ONE));
+		return g;
+	}
+
+	/**
+	 * @see #divisors(long[])
+	 */
+	static Set<BigInteger> divisors(BigInteger[] primeFactors) {
+		List<BigInteger> divisors = new ArrayList<BigInteger>();
+		divisors.add(BigInteger.ONE);
+		int i = primeFactors.length > 0 && primeFactors[0].signum() < 0 ? 1 : 0;
+		while (i < primeFactors.length) {
+			BigInteger p = primeFactors[i];
+			int e = 0;
+			while (i < primeFactors.length && primeFactors[i].equals(p)) {
+				e++;
+				i++;
+			}
+			for (int j = 0, size = divisors.size(); j < size; j++) {
+				BigInteger d = divisors.get(j);
+				for (int k = 0; k < e; k++)
+					divisors.add(d = d.multiply(p));
+			}
+		}
+		return new TreeSet<BigInteger>(divisors);
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * IEEE 754 float arithmetic, as a field up to rounding.
+ */
+public class FloatArithmetic implements FieldArithmetic<Float> {
+
+	private static final FloatArithmetic a = new FloatArithmetic();
+	private FloatArithmetic() {}
+	public static FloatArithmetic getInstance() {
+		return a;
+	}
+
+	@Override
+	public Float zero() {
+		return 0.0f;
+	}
+
+	@Override
+	public Float one() {
+		return 1.0f;
+	}
+
+	@Override
+	public Float add(Float a, Float b) {
+		return a + b;
+	}
+
+	@Override
+	public Float negate(Float a) {
+		return -a;
+	}
+
+	@Override
+	public Float subtract(Float a, Float b) {
+		return a - b;
+	}
+
+	@Override
+	public Float multiply(Float a, Float b) {
+		return a * b;
+	}
+
+	@Override
+	public Float divide(Float a, Float b) {
+		return a / b;
+	}
+
+	@Override
+	public Float pow(Float a, Float b) {
+		return (float) Math.pow(a, b);
+	}
+
+	/**
+	 * @return the b<sup>th</sup> root of a; real, and so negative, for
+	 *         negative a when b is an odd integer.
+	 */
+	@Override
+	public Float root(Float a, Float b) {
+		return (float) DoubleArithmetic.root(a, b);
+	}
+
+	@Override
+	public Float max(Float a, Float b) {
+		return Math.max(a, b);
+	}
+
+	@Override
+	public Float min(Float a, Float b) {
+		return Math.min(a, b);
+	}
+
+	@Override
+	public int compare(Float a, Float b) {
+		return Float.compare(a, b);
+	}
+
+	@Override
+	public String toString() {
+		return "float";
+	}
+}
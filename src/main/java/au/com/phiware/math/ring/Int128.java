@@ -0,0 +1,276 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+
+/**
+ * A 128 bit two's complement integer held in two longs. Arithmetic wraps,
+ * as it does for the primitives.
+ *
+ * <p>Instances behave as values: every operation returns a new instance and
+ * leaves its operands untouched, except for the <code>...InPlace</code>
+ * methods, which update and return <code>this</code> so that loops may
+ * accumulate without allocating. Never mutate an instance that may be
+ * shared.
+ */
+public final class Int128 extends Number implements Comparable<Int128> {
+	private static final long serialVersionUID = 1L;
+	public static final int SIZE = 128;
+	static final BigInteger UNSIGNED_LONG = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+	long hi, lo;
+
+	public Int128(long hi, long lo) {
+		this.hi = hi;
+		this.lo = lo;
+	}
+
+	public Int128(Int128 a) {
+		this(a.hi, a.lo);
+	}
+
+	public static Int128 valueOf(long x) {
+		return new Int128(x >> 63, x);
+	}
+
+	/**
+	 * @return the lowest 128 bits of x.
+	 */
+	public static Int128 valueOf(BigInteger x) {
+		return new Int128(x.shiftRight(64).longValue(), x.longValue());
+	}
+
+	public long getHigh() {
+		return hi;
+	}
+
+	public long getLow() {
+		return lo;
+	}
+
+	public BigInteger toBigInteger() {
+		return BigInteger.valueOf(hi).shiftLeft(64).or(BigInteger.valueOf(lo).and(UNSIGNED_LONG));
+	}
+
+	/**
+	 * @return whether the unsigned addition of some value to x, giving sum,
+	 *         carried out of the word.
+	 */
+	static boolean carry(long x, long sum) {
+		return (sum ^ Long.MIN_VALUE) < (x ^ Long.MIN_VALUE);
+	}
+
+	public Int128 addInPlace(Int128 b) {
+		long l = lo + b.lo;
+		hi += b.hi + (carry(lo, l) ? 1 : 0);
+		lo = l;
+		return this;
+	}
+
+	public Int128 shiftLeftInPlace(int n) {
+		n &= SIZE - 1;
+		if (n >= 64) {
+			hi = lo << (n - 64);
+			lo = 0;
+		} else if (n > 0) {
+			hi = hi << n | lo >>> (64 - n);
+			lo <<= n;
+		}
+		return this;
+	}
+
+	public Int128 setBitInPlace(int n) {
+		if (n < 64)
+			lo |= 1L << n;
+		else
+			hi |= 1L << n;
+		return this;
+	}
+
+	public Int128 add(Int128 b) {
+		return new Int128(this).addInPlace(b);
+	}
+
+	public Int128 negate() {
+		return new Int128(~hi + (lo == 0 ? 1 : 0), -lo);
+	}
+
+	public Int128 subtract(Int128 b) {
+		long l = lo - b.lo;
+		return new Int128(hi - b.hi - (carry(l, lo) ? 1 : 0), l);
+	}
+
+	/**
+	 * @return the lowest 128 bits of the product.
+	 */
+	public Int128 multiply(Int128 b) {
+		return new Int128(LongMath.unsignedMultiplyHigh(lo, b.lo) + lo * b.hi + hi * b.lo, lo * b.lo);
+	}
+
+	/**
+	 * @return the lowest 128 bits of this<sup>e</sup>.
+	 */
+	public Int128 pow(long e) {
+		if (e < 0)
+			throw new ArithmeticException("Negative exponent, "+e+".");
+		Int128 r = valueOf(1), a = this;
+		while (e != 0) {
+			if ((e & 1) != 0)
+				r = r.multiply(a);
+			a = a.multiply(a);
+			e >>>= 1;
+		}
+		return r;
+	}
+
+	public Int128 shiftLeft(int n) {
+		return new Int128(this).shiftLeftInPlace(n);
+	}
+
+	/**
+	 * Shifts right, extending the sign.
+	 */
+	public Int128 shiftRight(int n) {
+		n &= SIZE - 1;
+		if (n >= 64)
+			return new Int128(hi >> 63, hi >> (n - 64));
+		if (n == 0)
+			return new Int128(this);
+		return new Int128(hi >> n, lo >>> n | hi << (64 - n));
+	}
+
+	public boolean testBit(int n) {
+		return ((n < 64 ? lo : hi) & (1L << n)) != 0;
+	}
+
+	public Int128 setBit(int n) {
+		return new Int128(this).setBitInPlace(n);
+	}
+
+	public Int128 clearBit(int n) {
+		return n < 64 ? new Int128(hi, lo & ~(1L << n)) : new Int128(hi & ~(1L << n), lo);
+	}
+
+	public Int128 flipBit(int n) {
+		return n < 64 ? new Int128(hi, lo ^ (1L << n)) : new Int128(hi ^ (1L << n), lo);
+	}
+
+	public Int128 and(Int128 b) {
+		return new Int128(hi & b.hi, lo & b.lo);
+	}
+
+	public Int128 or(Int128 b) {
+		return new Int128(hi | b.hi, lo | b.lo);
+	}
+
+	public Int128 xor(Int128 b) {
+		return new Int128(hi ^ b.hi, lo ^ b.lo);
+	}
+
+	/**
+	 * @return this &amp; ~b.
+	 */
+	public Int128 andNot(Int128 b) {
+		return new Int128(hi & ~b.hi, lo & ~b.lo);
+	}
+
+	public Int128 not() {
+		return new Int128(~hi, ~lo);
+	}
+
+	public Int128 reverse() {
+		return new Int128(Long.reverse(lo), Long.reverse(hi));
+	}
+
+	public int signum() {
+		return hi < 0 ? -1 : (hi | lo) == 0 ? 0 : 1;
+	}
+
+	public int bitCount() {
+		return Long.bitCount(hi) + Long.bitCount(lo);
+	}
+
+	/**
+	 * @return the index of the highest set bit, or -1 if there is none.
+	 */
+	public int highestOneBit() {
+		return hi != 0 ? 127 - Long.numberOfLeadingZeros(hi) : 63 - Long.numberOfLeadingZeros(lo);
+	}
+
+	/**
+	 * @return the index of the lowest set bit, or -1 if there is none.
+	 */
+	public int lowestOneBit() {
+		if (lo != 0)
+			return Long.numberOfTrailingZeros(lo);
+		if (hi != 0)
+			return 64 + Long.numberOfTrailingZeros(hi);
+		return -1;
+	}
+
+	/**
+	 * @return the number of bits in the minimal two's complement
+	 *         representation, excluding the sign bit, as
+	 *         {@link BigInteger#bitLength()}.
+	 */
+	public int bitLength() {
+		long h = hi ^ hi >> 63, l = lo ^ hi >> 63;
+		return h != 0 ? 128 - Long.numberOfLeadingZeros(h) : 64 - Long.numberOfLeadingZeros(l);
+	}
+
+	@Override
+	public int compareTo(Int128 b) {
+		if (hi != b.hi)
+			return hi < b.hi ? -1 : 1;
+		if (lo != b.lo)
+			return (lo ^ Long.MIN_VALUE) < (b.lo ^ Long.MIN_VALUE) ? -1 : 1;
+		return 0;
+	}
+
+	@Override
+	public int intValue() {
+		return (int) lo;
+	}
+
+	@Override
+	public long longValue() {
+		return lo;
+	}
+
+	@Override
+	public float floatValue() {
+		return toBigInteger().floatValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return toBigInteger().doubleValue();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Int128))
+			return false;
+		Int128 b = (Int128) obj;
+		return hi == b.hi && lo == b.lo;
+	}
+
+	@Override
+	public int hashCode() {
+		long h = hi * 31 + lo;
+		return (int) (h ^ h >>> 32);
+	}
+
+	public String toString(int radix) {
+		return toBigInteger().toString(radix);
+	}
+
+	@Override
+	public String toString() {
+		return toString(10);
+	}
+}
@@ -0,0 +1,222 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Wrapping, two's complement arithmetic over {@link Int128}. The operations that
+ * divide, i.e. gcd, mod and the factorizations, go by way of
+ * {@link BigInteger}.
+ */
+public class Int128Arithmetic implements BitArithmetic<Int128> {
+
+	private static final Int128Arithmetic a = new Int128Arithmetic();
+	private Int128Arithmetic() {}
+	public static Int128Arithmetic getInstance() {
+		return a;
+	}
+
+	@Override
+	public int maxBitLength() {
+		return Int128.SIZE;
+	}
+
+	@Override
+	public Int128 one() {
+		return Int128.valueOf(1);
+	}
+
+	@Override
+	public Int128 zero() {
+		return Int128.valueOf(0);
+	}
+
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
+	@Override
+	public Set<Int128> factors(Int128 a) {
+		Set<Int128> factors = new TreeSet<Int128>();
+		for (BigInteger d : Factorization.divisors(Factorization.primeFactors(a.toBigInteger())))
+			factors.add(Int128.valueOf(d));
+		return factors;
+	}
+
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
+	@Override
+	public Int128[] primeFactorization(Int128 a) {
+		BigInteger[] factors = Factorization.primeFactors(a.toBigInteger());
+		Int128[] values = new Int128[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			values[i] = Int128.valueOf(factors[i]);
+		return values;
+	}
+
+	@Override
+	public Int128 gcd(Int128 a, Int128 b) {
+		return Int128.valueOf(a.toBigInteger().gcd(b.toBigInteger()));
+	}
+
+	@Override
+	public Int128[] extendedGcd(Int128 a, Int128 b) {
+		BigInteger[] e = BigIntegerMath.extendedGcd(a.toBigInteger(), b.toBigInteger());
+		return new Int128[] {Int128.valueOf(e[0]), Int128.valueOf(e[1]), Int128.valueOf(e[2])};
+	}
+
+	@Override
+	public Int128 modInverse(Int128 a, Int128 mod) {
+		return Int128.valueOf(a.toBigInteger().modInverse(mod.toBigInteger()));
+	}
+
+	@Override
+	public void modInverse(Int128[] a, Int128 mod, Int128[] out) {
+		BigInteger[] values = new BigInteger[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i].toBigInteger();
+		BigIntegerMath.modInverse(values, mod.toBigInteger(), values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = Int128.valueOf(values[i]);
+	}
+
+	@Override
+	public boolean congruent(Int128 a, Int128 b, Int128 mod) {
+		return subtract(a, b).toBigInteger().remainder(mod.toBigInteger()).signum() == 0;
+	}
+
+	@Override
+	public Int128 mod(Int128 a, Int128 b) {
+		BigInteger d = b.toBigInteger(), r = a.toBigInteger().remainder(d);
+		return Int128.valueOf(r.signum() >= 0 ? r : r.add(d));
+	}
+
+	@Override
+	public Int128 add(Int128 a, Int128 b) {
+		return a.add(b);
+	}
+
+	@Override
+	public Int128 negate(Int128 a) {
+		return a.negate();
+	}
+
+	@Override
+	public Int128 subtract(Int128 a, Int128 b) {
+		return a.subtract(b);
+	}
+
+	@Override
+	public Int128 multiply(Int128 a, Int128 b) {
+		return a.multiply(b);
+	}
+
+	@Override
+	public Int128 pow(Int128 a, Int128 b) {
+		return a.pow(b.longValue());
+	}
+
+	@Override
+	public Int128 max(Int128 a, Int128 b) {
+		return a.compareTo(b) >= 0 ? a : b;
+	}
+
+	@Override
+	public Int128 min(Int128 a, Int128 b) {
+		return a.compareTo(b) <= 0 ? a : b;
+	}
+
+	@Override
+	public int compare(Int128 a, Int128 b) {
+		return a.compareTo(b);
+	}
+
+	@Override
+	public boolean testBit(Int128 a, int n) {
+		return a.testBit(n);
+	}
+
+	@Override
+	public Int128 setBit(Int128 a, int n) {
+		return a.setBit(n);
+	}
+
+	@Override
+	public Int128 clearBit(Int128 a, int n) {
+		return a.clearBit(n);
+	}
+
+	@Override
+	public Int128 flipBit(Int128 a, int n) {
+		return a.flipBit(n);
+	}
+
+	@Override
+	public int signum(Int128 a) {
+		return a.signum();
+	}
+
+	@Override
+	public Int128 reverse(Int128 a) {
+		return a.reverse();
+	}
+
+	@Override
+	public Int128 or(Int128 a, Int128 b) {
+		return a.or(b);
+	}
+
+	@Override
+	public Int128 and(Int128 a, Int128 b) {
+		return a.and(b);
+	}
+
+	@Override
+	public Int128 nand(Int128 a, Int128 b) {
+		return a.andNot(b);
+	}
+
+	@Override
+	public Int128 xor(Int128 a, Int128 b) {
+		return a.xor(b);
+	}
+
+	@Override
+	public Int128 not(Int128 a) {
+		return a.not();
+	}
+
+	@Override
+	public Int128 shiftLeft(Int128 a, int n) {
+		return a.shiftLeft(n);
+	}
+
+	@Override
+	public Int128 shiftRight(Int128 a, int n) {
+		return a.shiftRight(n);
+	}
+
+	@Override
+	public int bitCount(Int128 a) {
+		return a.bitCount();
+	}
+
+	@Override
+	public int highestOneBit(Int128 a) {
+		return a.highestOneBit();
+	}
+
+	@Override
+	public int lowestOneBit(Int128 a) {
+		return a.lowestOneBit();
+	}
+
+	@Override
+	public String toString(Int128 a, int radix) {
+		return a.toString(radix);
+	}
+}
@@ -0,0 +1,327 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static au.com.phiware.math.ring.Int128.carry;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A 256 bit two's complement integer held in four longs, least significant
+ * first. Arithmetic wraps, as it does for the primitives.
+ * @see Int128 for the contract of the <code>...InPlace</code> methods.
+ */
+public final class Int256 extends Number implements Comparable<Int256> {
+	private static final long serialVersionUID = 1L;
+	public static final int SIZE = 256;
+	private static final int WORDS = 4;
+
+	final long[] w;
+
+	private Int256(long[] w) {
+		this.w = w;
+	}
+
+	/**
+	 * @param w3 the most significant word.
+	 */
+	public Int256(long w3, long w2, long w1, long w0) {
+		this(new long[] {w0, w1, w2, w3});
+	}
+
+	public Int256(Int256 a) {
+		this(a.w.clone());
+	}
+
+	public static Int256 valueOf(long x) {
+		long s = x >> 63;
+		return new Int256(new long[] {x, s, s, s});
+	}
+
+	/**
+	 * @return the lowest 256 bits of x.
+	 */
+	public static Int256 valueOf(BigInteger x) {
+		long[] w = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			w[i] = x.shiftRight(64 * i).longValue();
+		return new Int256(w);
+	}
+
+	/**
+	 * @return word i, where word 0 is the least significant.
+	 */
+	public long getWord(int i) {
+		return w[i];
+	}
+
+	public BigInteger toBigInteger() {
+		BigInteger x = BigInteger.valueOf(w[WORDS - 1]);
+		for (int i = WORDS - 2; i >= 0; i--)
+			x = x.shiftLeft(64).or(BigInteger.valueOf(w[i]).and(Int128.UNSIGNED_LONG));
+		return x;
+	}
+
+	public Int256 addInPlace(Int256 b) {
+		long c = 0;
+		for (int i = 0; i < WORDS; i++) {
+			long x = w[i], s = x + b.w[i];
+			long t = s + c;
+			c = (carry(x, s) ? 1 : 0) + (carry(s, t) ? 1 : 0);
+			w[i] = t;
+		}
+		return this;
+	}
+
+	public Int256 shiftLeftInPlace(int n) {
+		n &= SIZE - 1;
+		int words = n >>> 6, bits = n & 63;
+		for (int i = WORDS - 1; i >= 0; i--) {
+			int j = i - words;
+			long x = j >= 0 ? w[j] << bits : 0;
+			if (bits != 0 && j > 0)
+				x |= w[j - 1] >>> (64 - bits);
+			w[i] = x;
+		}
+		return this;
+	}
+
+	public Int256 setBitInPlace(int n) {
+		w[(n & (SIZE - 1)) >>> 6] |= 1L << n;
+		return this;
+	}
+
+	public Int256 add(Int256 b) {
+		return new Int256(this).addInPlace(b);
+	}
+
+	public Int256 negate() {
+		return not().addInPlace(valueOf(1));
+	}
+
+	public Int256 subtract(Int256 b) {
+		long[] r = new long[WORDS];
+		long borrow = 0;
+		for (int i = 0; i < WORDS; i++) {
+			long x = w[i], d = x - b.w[i];
+			long t = d - borrow;
+			borrow = (carry(d, x) ? 1 : 0) + (carry(t, d) ? 1 : 0);
+			r[i] = t;
+		}
+		return new Int256(r);
+	}
+
+	/**
+	 * @return the lowest 256 bits of the product.
+	 */
+	public Int256 multiply(Int256 b) {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++) {
+			long a = w[i], c = 0;
+			if (a == 0)
+				continue;
+			for (int j = 0; i + j < WORDS; j++) {
+				long lo = a * b.w[j],
+				     hi = LongMath.unsignedMultiplyHigh(a, b.w[j]);
+				long s = lo + c, t = r[i + j] + s;
+				// cannot overflow: a*b + r + c < 2^128
+				c = hi + (carry(lo, s) ? 1 : 0) + (carry(s, t) ? 1 : 0);
+				r[i + j] = t;
+			}
+		}
+		return new Int256(r);
+	}
+
+	/**
+	 * @return the lowest 256 bits of this<sup>e</sup>.
+	 */
+	public Int256 pow(long e) {
+		if (e < 0)
+			throw new ArithmeticException("Negative exponent, "+e+".");
+		Int256 r = valueOf(1), a = this;
+		while (e != 0) {
+			if ((e & 1) != 0)
+				r = r.multiply(a);
+			a = a.multiply(a);
+			e >>>= 1;
+		}
+		return r;
+	}
+
+	public Int256 shiftLeft(int n) {
+		return new Int256(this).shiftLeftInPlace(n);
+	}
+
+	/**
+	 * Shifts right, extending the sign.
+	 */
+	public Int256 shiftRight(int n) {
+		n &= SIZE - 1;
+		int words = n >>> 6, bits = n & 63;
+		long sign = w[WORDS - 1] >> 63;
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++) {
+			int j = i + words;
+			long x = j < WORDS ? w[j] : sign;
+			long y = j + 1 < WORDS ? w[j + 1] : sign;
+			r[i] = bits == 0 ? x : x >>> bits | y << (64 - bits);
+		}
+		return new Int256(r);
+	}
+
+	public boolean testBit(int n) {
+		return (w[(n & (SIZE - 1)) >>> 6] & (1L << n)) != 0;
+	}
+
+	public Int256 setBit(int n) {
+		return new Int256(this).setBitInPlace(n);
+	}
+
+	public Int256 clearBit(int n) {
+		Int256 r = new Int256(this);
+		r.w[(n & (SIZE - 1)) >>> 6] &= ~(1L << n);
+		return r;
+	}
+
+	public Int256 flipBit(int n) {
+		Int256 r = new Int256(this);
+		r.w[(n & (SIZE - 1)) >>> 6] ^= 1L << n;
+		return r;
+	}
+
+	public Int256 and(Int256 b) {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			r[i] = w[i] & b.w[i];
+		return new Int256(r);
+	}
+
+	public Int256 or(Int256 b) {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			r[i] = w[i] | b.w[i];
+		return new Int256(r);
+	}
+
+	public Int256 xor(Int256 b) {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			r[i] = w[i] ^ b.w[i];
+		return new Int256(r);
+	}
+
+	/**
+	 * @return this &amp; ~b.
+	 */
+	public Int256 andNot(Int256 b) {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			r[i] = w[i] & ~b.w[i];
+		return new Int256(r);
+	}
+
+	public Int256 not() {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			r[i] = ~w[i];
+		return new Int256(r);
+	}
+
+	public Int256 reverse() {
+		long[] r = new long[WORDS];
+		for (int i = 0; i < WORDS; i++)
+			r[WORDS - 1 - i] = Long.reverse(w[i]);
+		return new Int256(r);
+	}
+
+	public int signum() {
+		if (w[WORDS - 1] < 0)
+			return -1;
+		for (long x : w)
+			if (x != 0)
+				return 1;
+		return 0;
+	}
+
+	public int bitCount() {
+		int count = 0;
+		for (long x : w)
+			count += Long.bitCount(x);
+		return count;
+	}
+
+	/**
+	 * @return the index of the highest set bit, or -1 if there is none.
+	 */
+	public int highestOneBit() {
+		for (int i = WORDS - 1; i >= 0; i--)
+			if (w[i] != 0)
+				return 64 * i + 63 - Long.numberOfLeadingZeros(w[i]);
+		return -1;
+	}
+
+	/**
+	 * @return the index of the lowest set bit, or -1 if there is none.
+	 */
+	public int lowestOneBit() {
+		for (int i = 0; i < WORDS; i++)
+			if (w[i] != 0)
+				return 64 * i + Long.numberOfTrailingZeros(w[i]);
+		return -1;
+	}
+
+	@Override
+	public int compareTo(Int256 b) {
+		if (w[WORDS - 1] != b.w[WORDS - 1])
+			return w[WORDS - 1] < b.w[WORDS - 1] ? -1 : 1;
+		for (int i = WORDS - 2; i >= 0; i--)
+			if (w[i] != b.w[i])
+				return (w[i] ^ Long.MIN_VALUE) < (b.w[i] ^ Long.MIN_VALUE) ? -1 : 1;
+		return 0;
+	}
+
+	@Override
+	public int intValue() {
+		return (int) w[0];
+	}
+
+	@Override
+	public long longValue() {
+		return w[0];
+	}
+
+	@Override
+	public float floatValue() {
+		return toBigInteger().floatValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return toBigInteger().doubleValue();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Int256))
+			return false;
+		return Arrays.equals(w, ((Int256) obj).w);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(w);
+	}
+
+	public String toString(int radix) {
+		return toBigInteger().toString(radix);
+	}
+
+	@Override
+	public String toString() {
+		return toString(10);
+	}
+}
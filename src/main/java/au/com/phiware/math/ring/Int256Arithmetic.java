@@ -0,0 +1,222 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Wrapping, two's complement arithmetic over {@link Int256}. The operations that
+ * divide, i.e. gcd, mod and the factorizations, go by way of
+ * {@link BigInteger}.
+ */
+public class Int256Arithmetic implements BitArithmetic<Int256> {
+
+	private static final Int256Arithmetic a = new Int256Arithmetic();
+	private Int256Arithmetic() {}
+	public static Int256Arithmetic getInstance() {
+		return a;
+	}
+
+	@Override
+	public int maxBitLength() {
+		return Int256.SIZE;
+	}
+
+	@Override
+	public Int256 one() {
+		return Int256.valueOf(1);
+	}
+
+	@Override
+	public Int256 zero() {
+		return Int256.valueOf(0);
+	}
+
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
+	@Override
+	public Set<Int256> factors(Int256 a) {
+		Set<Int256> factors = new TreeSet<Int256>();
+		for (BigInteger d : Factorization.divisors(Factorization.primeFactors(a.toBigInteger())))
+			factors.add(Int256.valueOf(d));
+		return factors;
+	}
+
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
+	@Override
+	public Int256[] primeFactorization(Int256 a) {
+		BigInteger[] factors = Factorization.primeFactors(a.toBigInteger());
+		Int256[] values = new Int256[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			values[i] = Int256.valueOf(factors[i]);
+		return values;
+	}
+
+	@Override
+	public Int256 gcd(Int256 a, Int256 b) {
+		return Int256.valueOf(a.toBigInteger().gcd(b.toBigInteger()));
+	}
+
+	@Override
+	public Int256[] extendedGcd(Int256 a, Int256 b) {
+		BigInteger[] e = BigIntegerMath.extendedGcd(a.toBigInteger(), b.toBigInteger());
+		return new Int256[] {Int256.valueOf(e[0]), Int256.valueOf(e[1]), Int256.valueOf(e[2])};
+	}
+
+	@Override
+	public Int256 modInverse(Int256 a, Int256 mod) {
+		return Int256.valueOf(a.toBigInteger().modInverse(mod.toBigInteger()));
+	}
+
+	@Override
+	public void modInverse(Int256[] a, Int256 mod, Int256[] out) {
+		BigInteger[] values = new BigInteger[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i].toBigInteger();
+		BigIntegerMath.modInverse(values, mod.toBigInteger(), values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = Int256.valueOf(values[i]);
+	}
+
+	@Override
+	public boolean congruent(Int256 a, Int256 b, Int256 mod) {
+		return subtract(a, b).toBigInteger().remainder(mod.toBigInteger()).signum() == 0;
+	}
+
+	@Override
+	public Int256 mod(Int256 a, Int256 b) {
+		BigInteger d = b.toBigInteger(), r = a.toBigInteger().remainder(d);
+		return Int256.valueOf(r.signum() >= 0 ? r : r.add(d));
+	}
+
+	@Override
+	public Int256 add(Int256 a, Int256 b) {
+		return a.add(b);
+	}
+
+	@Override
+	public Int256 negate(Int256 a) {
+		return a.negate();
+	}
+
+	@Override
+	public Int256 subtract(Int256 a, Int256 b) {
+		return a.subtract(b);
+	}
+
+	@Override
+	public Int256 multiply(Int256 a, Int256 b) {
+		return a.multiply(b);
+	}
+
+	@Override
+	public Int256 pow(Int256 a, Int256 b) {
+		return a.pow(b.longValue());
+	}
+
+	@Override
+	public Int256 max(Int256 a, Int256 b) {
+		return a.compareTo(b) >= 0 ? a : b;
+	}
+
+	@Override
+	public Int256 min(Int256 a, Int256 b) {
+		return a.compareTo(b) <= 0 ? a : b;
+	}
+
+	@Override
+	public int compare(Int256 a, Int256 b) {
+		return a.compareTo(b);
+	}
+
+	@Override
+	public boolean testBit(Int256 a, int n) {
+		return a.testBit(n);
+	}
+
+	@Override
+	public Int256 setBit(Int256 a, int n) {
+		return a.setBit(n);
+	}
+
+	@Override
+	public Int256 clearBit(Int256 a, int n) {
+		return a.clearBit(n);
+	}
+
+	@Override
+	public Int256 flipBit(Int256 a, int n) {
+		return a.flipBit(n);
+	}
+
+	@Override
+	public int signum(Int256 a) {
+		return a.signum();
+	}
+
+	@Override
+	public Int256 reverse(Int256 a) {
+		return a.reverse();
+	}
+
+	@Override
+	public Int256 or(Int256 a, Int256 b) {
+		return a.or(b);
+	}
+
+	@Override
+	public Int256 and(Int256 a, Int256 b) {
+		return a.and(b);
+	}
+
+	@Override
+	public Int256 nand(Int256 a, Int256 b) {
+		return a.andNot(b);
+	}
+
+	@Override
+	public Int256 xor(Int256 a, Int256 b) {
+		return a.xor(b);
+	}
+
+	@Override
+	public Int256 not(Int256 a) {
+		return a.not();
+	}
+
+	@Override
+	public Int256 shiftLeft(Int256 a, int n) {
+		return a.shiftLeft(n);
+	}
+
+	@Override
+	public Int256 shiftRight(Int256 a, int n) {
+		return a.shiftRight(n);
+	}
+
+	@Override
+	public int bitCount(Int256 a) {
+		return a.bitCount();
+	}
+
+	@Override
+	public int highestOneBit(Int256 a) {
+		return a.highestOneBit();
+	}
+
+	@Override
+	public int lowestOneBit(Int256 a) {
+		return a.lowestOneBit();
+	}
+
+	@Override
+	public String toString(Int256 a, int radix) {
+		return a.toString(radix);
+	}
+}
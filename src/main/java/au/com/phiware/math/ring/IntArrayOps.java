@@ -0,0 +1,41 @@
+/**
+ * 
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * Bulk operations over arrays of primitive ints, e.g. bitsets. Each is a
+ * simple counted loop, which the JIT is able to unroll and vectorize.
+ *
+ * <p>The element-wise operations write the first <code>out.length</code>
+ * elements of out, which may be the same array as either operand. The
+ * shifts treat an array as a single integer of <code>a.length</code> words,
+ * least significant first.
+ */
+public interface IntArrayOps {
+	public void add(int[] a, int[] b, int[] out);
+	public void subtract(int[] a, int[] b, int[] out);
+
+	public void or(int[] a, int[] b, int[] out);
+	public void and(int[] a, int[] b, int[] out);
+	public void nand(int[] a, int[] b, int[] out);
+	public void xor(int[] a, int[] b, int[] out);
+	public void not(int[] a, int[] out);
+
+	/**
+	 * Shifts a left by n bits into out, discarding the bits shifted beyond
+	 * <code>out.length</code> words.
+	 * @throws IllegalArgumentException if n is negative.
+	 */
+	public void shiftLeft(int[] a, int n, int[] out);
+	/**
+	 * Shifts a right by n bits into out, filling with zeros.
+	 * @throws IllegalArgumentException if n is negative.
+	 */
+	public void shiftRight(int[] a, int n, int[] out);
+
+	/**
+	 * @return the number of bits set in all of a.
+	 */
+	public long bitCount(int[] a);
+}
@@ -0,0 +1,49 @@
+/**
+ * 
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * The operations of a {@link BitArithmetic BitArithmetic&lt;Integer&gt;} over
+ * primitive ints, so that callers may avoid boxing. A
+ * {@link BitArithmetic} whose values are {@link Integer}s may implement this
+ * interface, in which case generic algorithms may detect it and take a
+ * boxing-free path; each method must agree with its boxed counterpart.
+ */
+public interface IntBitOps {
+	public int add(int a, int b);
+	public int negate(int a);
+	public int subtract(int a, int b);
+	public int multiply(int a, int b);
+	public int pow(int a, int b);
+
+	public int max(int a, int b);
+	public int min(int a, int b);
+	public int compare(int a, int b);
+
+	public int gcd(int a, int b);
+	public int[] extendedGcd(int a, int b);
+	public int modInverse(int a, int mod);
+	public void modInverse(int[] a, int mod, int[] out);
+	public boolean congruent(int a, int b, int mod);
+	public int mod(int a, int b);
+
+	public boolean testBit(int a, int n);
+	public int setBit(int a, int n);
+	public int clearBit(int a, int n);
+	public int flipBit(int a, int n);
+	public int signum(int a);
+	public int reverse(int a);
+
+	public int or(int a, int b);
+	public int and(int a, int b);
+	public int nand(int a, int b);
+	public int xor(int a, int b);
+	public int not(int a);
+	public int shiftLeft(int a, int n);
+	public int shiftRight(int a, int n);
+
+	public int bitCount(int a);
+	public int highestOneBit(int a);
+	public int lowestOneBit(int a);
+}
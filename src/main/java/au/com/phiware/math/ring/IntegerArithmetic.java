@@ -4,12 +4,13 @@
 package au.com.phiware.math.ring;
 
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * @author Corin Lawson <me@corinlawson.com.au>
  *
  */
-public class IntegerArithmetic implements BitArithmetic<Integer> {
+public class IntegerArithmetic implements BitArithmetic<Integer>, IntBitOps, IntArrayOps {
 
 	private static final IntegerArithmetic a = new IntegerArithmetic();
 	private IntegerArithmetic() {}
@@ -27,174 +28,446 @@ public class IntegerArithmetic implements BitArithmetic<Integer> {
 		return 1;
 	}
 
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
 	@Override
 	public Set<Integer> factors(Integer a) {
-		// TODO Auto-generated method stub
-		return null;
+		Set<Integer> factors = new TreeSet<Integer>();
+		for (long d : Factorization.divisors(Factorization.primeFactors(a)))
+			factors.add((int) d);
+		return factors;
 	}
 
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
 	@Override
 	public Integer[] primeFactorization(Integer a) {
-		// TODO Auto-generated method stub
-		return null;
+		long[] factors = Factorization.primeFactors(a);
+		Integer[] boxed = new Integer[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			boxed[i] = (int) factors[i];
+		return boxed;
+	}
+
+	@Override
+	public int gcd(int a, int b) {
+		return (int) LongMath.gcd(a, b);
 	}
 
 	@Override
 	public Integer gcd(Integer a, Integer b) {
-		int r;
-		while (b != 0) {
-			r = a % b;
-			a = b;
-			b = r;
-		}               
-		return a;
+		return gcd(a.intValue(), b.intValue());
 	}
 
 	@Override
-	public boolean congruent(Integer a, Integer b, Integer mod) {
+	public int[] extendedGcd(int a, int b) {
+		long[] e = LongMath.extendedGcd(a, b);
+		return new int[] {(int) e[0], (int) e[1], (int) e[2]};
+	}
+
+	@Override
+	public Integer[] extendedGcd(Integer a, Integer b) {
+		int[] e = extendedGcd(a.intValue(), b.intValue());
+		return new Integer[] {e[0], e[1], e[2]};
+	}
+
+	@Override
+	public int modInverse(int a, int mod) {
+		return (int) LongMath.modInverse(a, mod);
+	}
+
+	@Override
+	public Integer modInverse(Integer a, Integer mod) {
+		return modInverse(a.intValue(), mod.intValue());
+	}
+
+	@Override
+	public void modInverse(int[] a, int mod, int[] out) {
+		long[] values = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		LongMath.modInverse(values, mod, values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = (int) values[i];
+	}
+
+	@Override
+	public void modInverse(Integer[] a, Integer mod, Integer[] out) {
+		long[] values = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		LongMath.modInverse(values, mod, values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = (int) values[i];
+	}
+
+	@Override
+	public boolean congruent(int a, int b, int mod) {
 		return (a - b) % mod == 0;
 	}
 
 	@Override
-	public Integer mod(Integer a, Integer b) {
+	public boolean congruent(Integer a, Integer b, Integer mod) {
+		return congruent(a.intValue(), b.intValue(), mod.intValue());
+	}
+
+	@Override
+	public int mod(int a, int b) {
 		int r = a % b;
 		return r >= 0 ? r : (r + b);
 	}
 
+	@Override
+	public Integer mod(Integer a, Integer b) {
+		return mod(a.intValue(), b.intValue());
+	}
+
 	@Override
 	public Integer zero() {
 		return 0;
 	}
 
 	@Override
-	public Integer add(Integer a, Integer b) {
-		if (a == null || b == null)
-			throw new NullPointerException();
+	public int add(int a, int b) {
 		return a + b;
 	}
 
 	@Override
-	public Integer negate(Integer a) {
+	public Integer add(Integer a, Integer b) {
+		return add(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int negate(int a) {
 		return -a;
 	}
 
 	@Override
-	public Integer subtract(Integer a, Integer b) {
+	public Integer negate(Integer a) {
+		return negate(a.intValue());
+	}
+
+	@Override
+	public int subtract(int a, int b) {
 		return a - b;
 	}
 
 	@Override
-	public Integer multiply(Integer a, Integer b) {
+	public Integer subtract(Integer a, Integer b) {
+		return subtract(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int multiply(int a, int b) {
 		return a * b;
 	}
 
 	@Override
-	public Integer pow(Integer a, Integer b) {
+	public Integer multiply(Integer a, Integer b) {
+		return multiply(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int pow(int a, int b) {
 		return (int) Math.pow(a, b);
 	}
 
 	@Override
-	public Integer max(Integer a, Integer b) {
+	public Integer pow(Integer a, Integer b) {
+		return pow(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int max(int a, int b) {
 		return Math.max(a, b);
 	}
 
 	@Override
-	public Integer min(Integer a, Integer b) {
+	public Integer max(Integer a, Integer b) {
+		return max(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int min(int a, int b) {
 		return Math.min(a, b);
 	}
 
 	@Override
-	public boolean testBit(Integer a, int n) {
+	public Integer min(Integer a, Integer b) {
+		return min(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public boolean testBit(int a, int n) {
 		return (a & (1 << n)) != 0;
 	}
 
 	@Override
-	public Integer setBit(Integer a, int n) {
+	public boolean testBit(Integer a, int n) {
+		return testBit(a.intValue(), n);
+	}
+
+	@Override
+	public int setBit(int a, int n) {
 		return a | (1 << n);
 	}
 
 	@Override
-	public Integer clearBit(Integer a, int n) {
+	public Integer setBit(Integer a, int n) {
+		return setBit(a.intValue(), n);
+	}
+
+	@Override
+	public int clearBit(int a, int n) {
 		return a & ~(1 << n);
 	}
 
+	@Override
+	public Integer clearBit(Integer a, int n) {
+		return clearBit(a.intValue(), n);
+	}
+
+	@Override
+	public int flipBit(int a, int n) {
+		return a ^ (1 << n);
+	}
+
 	@Override
 	public Integer flipBit(Integer a, int n) {
-		if (testBit(a, n))
-			return clearBit(a, n);
-		else
-			return setBit(a, n);
+		return flipBit(a.intValue(), n);
 	}
 
 	@Override
-	public int signum(Integer a) {
+	public int signum(int a) {
 		return Integer.signum(a);
 	}
 
 	@Override
-	public Integer reverse(Integer a) {
+	public int signum(Integer a) {
+		return signum(a.intValue());
+	}
+
+	@Override
+	public int reverse(int a) {
 		return Integer.reverse(a);
 	}
 
 	@Override
-	public Integer or(Integer a, Integer b) {
+	public Integer reverse(Integer a) {
+		return reverse(a.intValue());
+	}
+
+	@Override
+	public int or(int a, int b) {
 		return a | b;
 	}
 
 	@Override
-	public Integer and(Integer a, Integer b) {
+	public Integer or(Integer a, Integer b) {
+		return or(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int and(int a, int b) {
 		return a & b;
 	}
 
 	@Override
-	public Integer nand(Integer a, Integer b) {
+	public Integer and(Integer a, Integer b) {
+		return and(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int nand(int a, int b) {
 		return a & ~b;
 	}
 
 	@Override
-	public Integer xor(Integer a, Integer b) {
+	public Integer nand(Integer a, Integer b) {
+		return nand(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int xor(int a, int b) {
 		return a ^ b;
 	}
 
 	@Override
-	public Integer not(Integer a) {
+	public Integer xor(Integer a, Integer b) {
+		return xor(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public int not(int a) {
 		return ~a;
 	}
 
 	@Override
-	public Integer shiftLeft(Integer a, int n) {
+	public Integer not(Integer a) {
+		return not(a.intValue());
+	}
+
+	@Override
+	public int shiftLeft(int a, int n) {
 		return a << n;
 	}
 
 	@Override
-	public Integer shiftRight(Integer a, int n) {
+	public Integer shiftLeft(Integer a, int n) {
+		return shiftLeft(a.intValue(), n);
+	}
+
+	@Override
+	public int shiftRight(int a, int n) {
 		return a >> n;
 	}
 
 	@Override
-	public int bitCount(Integer a) {
+	public Integer shiftRight(Integer a, int n) {
+		return shiftRight(a.intValue(), n);
+	}
+
+	@Override
+	public int bitCount(int a) {
 		return Integer.bitCount(a);
 	}
 
 	@Override
-	public int highestOneBit(Integer a) {
+	public int bitCount(Integer a) {
+		return bitCount(a.intValue());
+	}
+
+	@Override
+	public int highestOneBit(int a) {
 		return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(a);
 	}
 
 	@Override
-	public int lowestOneBit(Integer a) {
+	public int highestOneBit(Integer a) {
+		return highestOneBit(a.intValue());
+	}
+
+	@Override
+	public int lowestOneBit(int a) {
 		if (a == 0)
 			return -1;
 		return Integer.numberOfTrailingZeros(a);
 	}
 
+	@Override
+	public int lowestOneBit(Integer a) {
+		return lowestOneBit(a.intValue());
+	}
+
 	@Override
 	public String toString(Integer a, int radix) {
 		return Integer.toString(a, radix);
 	}
 
 	@Override
-	public int compare(Integer a, Integer b) {
+	public int compare(int a, int b) {
 		return a - b;
 	}
+
+	@Override
+	public int compare(Integer a, Integer b) {
+		return compare(a.intValue(), b.intValue());
+	}
+
+	@Override
+	public void add(int[] a, int[] b, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] + b[i];
+	}
+
+	@Override
+	public void subtract(int[] a, int[] b, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] - b[i];
+	}
+
+	@Override
+	public void or(int[] a, int[] b, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] | b[i];
+	}
+
+	@Override
+	public void and(int[] a, int[] b, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] & b[i];
+	}
+
+	@Override
+	public void nand(int[] a, int[] b, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] & ~b[i];
+	}
+
+	@Override
+	public void xor(int[] a, int[] b, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] ^ b[i];
+	}
+
+	@Override
+	public void not(int[] a, int[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = ~a[i];
+	}
+
+	@Override
+	public void shiftLeft(int[] a, int n, int[] out) {
+		if (n < 0)
+			throw new IllegalArgumentException("Negative shift distance, "+n+".");
+		int words = n >>> 5, bits = n & 31, length = a.length, i = out.length - 1;
+		// out[words, end) holds the bits of a, in place from the top down
+		long end = length == 0 ? words : (long) words + length + (bits == 0 ? 0 : 1);
+		for (; i >= end; i--)
+			out[i] = 0;
+		if (length > 0 && i >= words) {
+			if (bits == 0) {
+				for (; i >= words; i--)
+					out[i] = a[i - words];
+			} else {
+				if (i == (long) words + length)
+					out[i--] = a[length - 1] >>> -bits;
+				for (; i > words; i--)
+					out[i] = a[i - words] << bits | a[i - words - 1] >>> -bits;
+				out[i--] = a[0] << bits;
+			}
+		}
+		for (; i >= 0; i--)
+			out[i] = 0;
+	}
+
+	@Override
+	public void shiftRight(int[] a, int n, int[] out) {
+		if (n < 0)
+			throw new IllegalArgumentException("Negative shift distance, "+n+".");
+		int words = n >>> 5, bits = n & 31, length = a.length, i = 0;
+		// out[0, copy) takes whole words of a, in place from the bottom up
+		int copy = (int) Math.max(0, Math.min(out.length, (long) length - words - (bits == 0 ? 0 : 1)));
+		if (bits == 0) {
+			for (; i < copy; i++)
+				out[i] = a[i + words];
+		} else {
+			for (; i < copy; i++)
+				out[i] = a[i + words] >>> bits | a[i + words + 1] << -bits;
+			if (i < out.length && (long) i + words == length - 1)
+				out[i++] = a[length - 1] >>> bits;
+		}
+		for (; i < out.length; i++)
+			out[i] = 0;
+	}
+
+	@Override
+	public long bitCount(int[] a) {
+		long count = 0;
+		for (int i = 0; i < a.length; i++)
+			count += Integer.bitCount(a[i]);
+		return count;
+	}
 }
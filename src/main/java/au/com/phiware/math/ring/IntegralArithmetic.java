@@ -15,6 +15,22 @@ public interface IntegralArithmetic<V extends Number> extends RingArithmetic<V>
 	public Set<V> factors(V a);
 	public V[] primeFactorization(V a);
 	public V gcd(V a, V b);
+	/**
+	 * @return {g, x, y} such that a&middot;x + b&middot;y = g = gcd(a, b).
+	 */
+	public V[] extendedGcd(V a, V b);
+	/**
+	 * @return x such that a&middot;x is congruent to one modulo mod.
+	 * @throws ArithmeticException if a has no inverse modulo mod.
+	 */
+	public V modInverse(V a, V mod);
+	/**
+	 * Inverts every element of a modulo mod, by Montgomery's trick, i.e.
+	 * with a single inversion.
+	 * @param out receives the inverses, and may be a.
+	 * @throws ArithmeticException if any element has no inverse modulo mod.
+	 */
+	public void modInverse(V[] a, V mod, V[] out);
 
 	public boolean congruent(V a, V b, V mod);
 	public V mod(V a, V b);
@@ -2,7 +2,7 @@ package au.com.phiware.math.ring;
 
 import java.util.Set;
 
-public class LongArithmetic implements BitArithmetic<Long> {
+public class LongArithmetic implements BitArithmetic<Long>, LongBitOps, LongArrayOps {
 
 	private static final LongArithmetic a = new LongArithmetic();
 	private LongArithmetic() {}
@@ -20,172 +20,441 @@ public class LongArithmetic implements BitArithmetic<Long> {
 		return 1L;
 	}
 
+	/**
+	 * @return every positive divisor of a, in ascending order.
+	 * @throws IllegalArgumentException if a is zero.
+	 */
 	@Override
 	public Set<Long> factors(Long a) {
-		// TODO Auto-generated method stub
-		return null;
+		return Factorization.divisors(Factorization.primeFactors(a));
 	}
 
+	/**
+	 * @return the prime factors of the magnitude of a, in ascending order and
+	 *         repeated according to multiplicity, preceded by -1 if a is
+	 *         negative.
+	 * @throws IllegalArgumentException if a is zero.
+	 */
 	@Override
 	public Long[] primeFactorization(Long a) {
-		// TODO Auto-generated method stub
-		return null;
+		long[] factors = Factorization.primeFactors(a);
+		Long[] boxed = new Long[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			boxed[i] = factors[i];
+		return boxed;
+	}
+
+	@Override
+	public long gcd(long a, long b) {
+		return LongMath.gcd(a, b);
 	}
 
 	@Override
 	public Long gcd(Long a, Long b) {
-		long r;
-		while (b != 0) {
-			r = a % b;
-			a = b;
-			b = r;
-		}               
-		return a;
+		return gcd(a.longValue(), b.longValue());
 	}
 
 	@Override
-	public boolean congruent(Long a, Long b, Long mod) {
+	public long[] extendedGcd(long a, long b) {
+		return LongMath.extendedGcd(a, b);
+	}
+
+	@Override
+	public Long[] extendedGcd(Long a, Long b) {
+		long[] e = extendedGcd(a.longValue(), b.longValue());
+		return new Long[] {e[0], e[1], e[2]};
+	}
+
+	@Override
+	public long modInverse(long a, long mod) {
+		return LongMath.modInverse(a, mod);
+	}
+
+	@Override
+	public Long modInverse(Long a, Long mod) {
+		return modInverse(a.longValue(), mod.longValue());
+	}
+
+	@Override
+	public void modInverse(long[] a, long mod, long[] out) {
+		LongMath.modInverse(a, mod, out);
+	}
+
+	@Override
+	public void modInverse(Long[] a, Long mod, Long[] out) {
+		long[] values = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		modInverse(values, mod.longValue(), values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = values[i];
+	}
+
+	@Override
+	public boolean congruent(long a, long b, long mod) {
 		return (a - b) % mod == 0;
 	}
 
 	@Override
-	public Long mod(Long a, Long b) {
+	public boolean congruent(Long a, Long b, Long mod) {
+		return congruent(a.longValue(), b.longValue(), mod.longValue());
+	}
+
+	@Override
+	public long mod(long a, long b) {
 		long r = a % b;
 		return r >= 0 ? r : (r + b);
 	}
 
+	@Override
+	public Long mod(Long a, Long b) {
+		return mod(a.longValue(), b.longValue());
+	}
+
 	@Override
 	public Long zero() {
 		return 0L;
 	}
 
 	@Override
-	public Long add(Long a, Long b) {
+	public long add(long a, long b) {
 		return a + b;
 	}
 
 	@Override
-	public Long negate(Long a) {
+	public Long add(Long a, Long b) {
+		return add(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long negate(long a) {
 		return -a;
 	}
 
 	@Override
-	public Long subtract(Long a, Long b) {
+	public Long negate(Long a) {
+		return negate(a.longValue());
+	}
+
+	@Override
+	public long subtract(long a, long b) {
 		return a - b;
 	}
 
 	@Override
-	public Long multiply(Long a, Long b) {
+	public Long subtract(Long a, Long b) {
+		return subtract(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long multiply(long a, long b) {
 		return a * b;
 	}
 
 	@Override
-	public Long pow(Long a, Long b) {
+	public Long multiply(Long a, Long b) {
+		return multiply(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long pow(long a, long b) {
 		return (long) Math.pow(a, b);
 	}
 
 	@Override
-	public Long max(Long a, Long b) {
+	public Long pow(Long a, Long b) {
+		return pow(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long max(long a, long b) {
 		return Math.max(a, b);
 	}
 
 	@Override
-	public Long min(Long a, Long b) {
+	public Long max(Long a, Long b) {
+		return max(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long min(long a, long b) {
 		return Math.min(a, b);
 	}
 
 	@Override
-	public boolean testBit(Long a, int n) {
+	public Long min(Long a, Long b) {
+		return min(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public boolean testBit(long a, int n) {
 		return (a & (1L << n)) != 0;
 	}
 
 	@Override
-	public Long setBit(Long a, int n) {
+	public boolean testBit(Long a, int n) {
+		return testBit(a.longValue(), n);
+	}
+
+	@Override
+	public long setBit(long a, int n) {
 		return a | (1L << n);
 	}
 
 	@Override
-	public Long clearBit(Long a, int n) {
+	public Long setBit(Long a, int n) {
+		return setBit(a.longValue(), n);
+	}
+
+	@Override
+	public long clearBit(long a, int n) {
 		return a & ~(1L << n);
 	}
 
+	@Override
+	public Long clearBit(Long a, int n) {
+		return clearBit(a.longValue(), n);
+	}
+
+	@Override
+	public long flipBit(long a, int n) {
+		return a ^ (1L << n);
+	}
+
 	@Override
 	public Long flipBit(Long a, int n) {
-		if (testBit(a, n))
-			return clearBit(a, n);
-		else
-			return setBit(a, n);
+		return flipBit(a.longValue(), n);
 	}
 
 	@Override
-	public int signum(Long a) {
+	public int signum(long a) {
 		return Long.signum(a);
 	}
 
 	@Override
-	public Long reverse(Long a) {
+	public int signum(Long a) {
+		return signum(a.longValue());
+	}
+
+	@Override
+	public long reverse(long a) {
 		return Long.reverse(a);
 	}
 
 	@Override
-	public Long or(Long a, Long b) {
+	public Long reverse(Long a) {
+		return reverse(a.longValue());
+	}
+
+	@Override
+	public long or(long a, long b) {
 		return a | b;
 	}
 
 	@Override
-	public Long and(Long a, Long b) {
+	public Long or(Long a, Long b) {
+		return or(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long and(long a, long b) {
 		return a & b;
 	}
 
 	@Override
-	public Long nand(Long a, Long b) {
+	public Long and(Long a, Long b) {
+		return and(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long nand(long a, long b) {
 		return a & ~b;
 	}
 
 	@Override
-	public Long xor(Long a, Long b) {
+	public Long nand(Long a, Long b) {
+		return nand(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long xor(long a, long b) {
 		return a ^ b;
 	}
 
 	@Override
-	public Long not(Long a) {
+	public Long xor(Long a, Long b) {
+		return xor(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long not(long a) {
 		return ~a;
 	}
 
 	@Override
-	public Long shiftLeft(Long a, int n) {
+	public Long not(Long a) {
+		return not(a.longValue());
+	}
+
+	@Override
+	public long shiftLeft(long a, int n) {
 		return a << n;
 	}
 
 	@Override
-	public Long shiftRight(Long a, int n) {
+	public Long shiftLeft(Long a, int n) {
+		return shiftLeft(a.longValue(), n);
+	}
+
+	@Override
+	public long shiftRight(long a, int n) {
 		return a >> n;
 	}
 
 	@Override
-	public int bitCount(Long a) {
+	public Long shiftRight(Long a, int n) {
+		return shiftRight(a.longValue(), n);
+	}
+
+	@Override
+	public int bitCount(long a) {
 		return Long.bitCount(a);
 	}
 
 	@Override
-	public int highestOneBit(Long a) {
+	public int bitCount(Long a) {
+		return bitCount(a.longValue());
+	}
+
+	@Override
+	public int highestOneBit(long a) {
 		return 63 - Long.numberOfLeadingZeros(a);
 	}
 
 	@Override
-	public int lowestOneBit(Long a) {
+	public int highestOneBit(Long a) {
+		return highestOneBit(a.longValue());
+	}
+
+	@Override
+	public int lowestOneBit(long a) {
 		if (a == 0)
 			return -1;
 		return Long.numberOfTrailingZeros(a);
 	}
 
+	@Override
+	public int lowestOneBit(Long a) {
+		return lowestOneBit(a.longValue());
+	}
+
 	@Override
 	public String toString(Long a, int radix) {
 		return Long.toString(a, radix);
 	}
 
 	@Override
-	public int compare(Long a, Long b) {
+	public int compare(long a, long b) {
 		return a < b ? -1 : (a > b ? 1 : 0);
 	}
+
+	@Override
+	public int compare(Long a, Long b) {
+		return compare(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public void add(long[] a, long[] b, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] + b[i];
+	}
+
+	@Override
+	public void subtract(long[] a, long[] b, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] - b[i];
+	}
+
+	@Override
+	public void or(long[] a, long[] b, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] | b[i];
+	}
+
+	@Override
+	public void and(long[] a, long[] b, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] & b[i];
+	}
+
+	@Override
+	public void nand(long[] a, long[] b, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] & ~b[i];
+	}
+
+	@Override
+	public void xor(long[] a, long[] b, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = a[i] ^ b[i];
+	}
+
+	@Override
+	public void not(long[] a, long[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = ~a[i];
+	}
+
+	@Override
+	public void shiftLeft(long[] a, int n, long[] out) {
+		if (n < 0)
+			throw new IllegalArgumentException("Negative shift distance, "+n+".");
+		int words = n >>> 6, bits = n & 63, length = a.length, i = out.length - 1;
+		// out[words, end) holds the bits of a, in place from the top down
+		long end = length == 0 ? words : (long) words + length + (bits == 0 ? 0 : 1);
+		for (; i >= end; i--)
+			out[i] = 0;
+		if (length > 0 && i >= words) {
+			if (bits == 0) {
+				for (; i >= words; i--)
+					out[i] = a[i - words];
+			} else {
+				if (i == (long) words + length)
+					out[i--] = a[length - 1] >>> -bits;
+				for (; i > words; i--)
+					out[i] = a[i - words] << bits | a[i - words - 1] >>> -bits;
+				out[i--] = a[0] << bits;
+			}
+		}
+		for (; i >= 0; i--)
+			out[i] = 0;
+	}
+
+	@Override
+	public void shiftRight(long[] a, int n, long[] out) {
+		if (n < 0)
+			throw new IllegalArgumentException("Negative shift distance, "+n+".");
+		int words = n >>> 6, bits = n & 63, length = a.length, i = 0;
+		// out[0, copy) takes whole words of a, in place from the bottom up
+		int copy = (int) Math.max(0, Math.min(out.length, (long) length - words - (bits == 0 ? 0 : 1)));
+		if (bits == 0) {
+			for (; i < copy; i++)
+				out[i] = a[i + words];
+		} else {
+			for (; i < copy; i++)
+				out[i] = a[i + words] >>> bits | a[i + words + 1] << -bits;
+			if (i < out.length && (long) i + words == length - 1)
+				out[i++] = a[length - 1] >>> bits;
+		}
+		for (; i < out.length; i++)
+			out[i] = 0;
+	}
+
+	@Override
+	public long bitCount(long[] a) {
+		long count = 0;
+		for (int i = 0; i < a.length; i++)
+			count += Long.bitCount(a[i]);
+		return count;
+	}
 }
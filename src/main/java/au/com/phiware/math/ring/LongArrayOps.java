@@ -0,0 +1,41 @@
+/**
+ * 
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * Bulk operations over arrays of primitive longs, e.g. bitsets. Each is a
+ * simple counted loop, which the JIT is able to unroll and vectorize.
+ *
+ * <p>The element-wise operations write the first <code>out.length</code>
+ * elements of out, which may be the same array as either operand. The
+ * shifts treat an array as a single integer of <code>a.length</code> words,
+ * least significant first.
+ */
+public interface LongArrayOps {
+	public void add(long[] a, long[] b, long[] out);
+	public void subtract(long[] a, long[] b, long[] out);
+
+	public void or(long[] a, long[] b, long[] out);
+	public void and(long[] a, long[] b, long[] out);
+	public void nand(long[] a, long[] b, long[] out);
+	public void xor(long[] a, long[] b, long[] out);
+	public void not(long[] a, long[] out);
+
+	/**
+	 * Shifts a left by n bits into out, discarding the bits shifted beyond
+	 * <code>out.length</code> words.
+	 * @throws IllegalArgumentException if n is negative.
+	 */
+	public void shiftLeft(long[] a, int n, long[] out);
+	/**
+	 * Shifts a right by n bits into out, filling with zeros.
+	 * @throws IllegalArgumentException if n is negative.
+	 */
+	public void shiftRight(long[] a, int n, long[] out);
+
+	/**
+	 * @return the number of bits set in all of a.
+	 */
+	public long bitCount(long[] a);
+}
@@ -0,0 +1,49 @@
+/**
+ * 
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * The operations of a {@link BitArithmetic BitArithmetic&lt;Long&gt;} over
+ * primitive longs, so that callers may avoid boxing. A
+ * {@link BitArithmetic} whose values are {@link Long}s may implement this
+ * interface, in which case generic algorithms may detect it and take a
+ * boxing-free path; each method must agree with its boxed counterpart.
+ */
+public interface LongBitOps {
+	public long add(long a, long b);
+	public long negate(long a);
+	public long subtract(long a, long b);
+	public long multiply(long a, long b);
+	public long pow(long a, long b);
+
+	public long max(long a, long b);
+	public long min(long a, long b);
+	public int compare(long a, long b);
+
+	public long gcd(long a, long b);
+	public long[] extendedGcd(long a, long b);
+	public long modInverse(long a, long mod);
+	public void modInverse(long[] a, long mod, long[] out);
+	public boolean congruent(long a, long b, long mod);
+	public long mod(long a, long b);
+
+	public boolean testBit(long a, int n);
+	public long setBit(long a, int n);
+	public long clearBit(long a, int n);
+	public long flipBit(long a, int n);
+	public int signum(long a);
+	public long reverse(long a);
+
+	public long or(long a, long b);
+	public long and(long a, long b);
+	public long nand(long a, long b);
+	public long xor(long a, long b);
+	public long not(long a);
+	public long shiftLeft(long a, int n);
+	public long shiftRight(long a, int n);
+
+	public int bitCount(long a);
+	public int highestOneBit(long a);
+	public int lowestOneBit(long a);
+}
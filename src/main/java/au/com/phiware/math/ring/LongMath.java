@@ -0,0 +1,249 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+/**
+ * Number theoretic routines over primitive longs that are not provided by
+ * the JDK.
+ */
+public final class LongMath {
+	private static final long MASK = 0xFFFFFFFFL;
+
+	/**
+	 * Bases for which the Miller&ndash;Rabin test is deterministic for every
+	 * n &lt; 2<sup>64</sup> (Jim Sinclair, 2011).
+	 */
+	private static final long[] MILLER_RABIN_BASES = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+
+	private LongMath() {}
+
+	/**
+	 * @return the high 64 bits of the unsigned 128 bit product a &middot; b.
+	 */
+	public static long unsignedMultiplyHigh(long a, long b) {
+		long a0 = a & MASK, a1 = a >>> 32,
+		     b0 = b & MASK, b1 = b >>> 32;
+		long p01 = a0 * b1, p10 = a1 * b0;
+		long mid = ((a0 * b0) >>> 32) + (p01 & MASK) + (p10 & MASK);
+		return a1 * b1 + (p01 >>> 32) + (p10 >>> 32) + (mid >>> 32);
+	}
+
+	/**
+	 * @return the high 64 bits of the signed 128 bit product a &middot; b.
+	 */
+	public static long multiplyHigh(long a, long b) {
+		return unsignedMultiplyHigh(a, b) - (a >> 63 & b) - (b >> 63 & a);
+	}
+
+	/**
+	 * @return the greatest common divisor of the magnitudes of a and b.
+	 */
+	public static long gcd(long a, long b) {
+		if (a == 0)
+			return Math.abs(b);
+		if (b == 0)
+			return Math.abs(a);
+		a = Math.abs(a);
+		b = Math.abs(b);
+		int shift = Long.numberOfTrailingZeros(a | b);
+		a >>>= Long.numberOfTrailingZeros(a);
+		do {
+			b >>>= Long.numberOfTrailingZeros(b);
+			if (a > b) {
+				long t = a;
+				a = b;
+				b = t;
+			}
+			b -= a;
+		} while (b != 0);
+		return a << shift;
+	}
+
+	/**
+	 * Extended Euclidean algorithm.
+	 * @return {g, x, y} such that a&middot;x + b&middot;y = g, where g is the
+	 *         greatest common divisor of the magnitudes of a and b.
+	 */
+	public static long[] extendedGcd(long a, long b) {
+		long x0 = 1, y0 = 0, x1 = 0, y1 = 1, t;
+		while (b != 0) {
+			long q = a / b;
+			t = a - q * b; a = b; b = t;
+			t = x0 - q * x1; x0 = x1; x1 = t;
+			t = y0 - q * y1; y0 = y1; y1 = t;
+		}
+		if (a < 0)
+			return new long[] {-a, -x0, -y0};
+		return new long[] {a, x0, y0};
+	}
+
+	/**
+	 * @return the unsigned value hi:lo modulo m, where hi &lt; m.
+	 */
+	private static long remainder(long hi, long lo, long m) {
+		long r = hi;
+		for (int i = 63; i >= 0; i--) {
+			r = r << 1 | (lo >>> i & 1); // r < 2^63, so this cannot carry out
+			if (r < 0 || r >= m)
+				r -= m;
+		}
+		return r;
+	}
+
+	/**
+	 * @param a where 0 &lt;= a &lt; m.
+	 * @param b where 0 &lt;= b &lt; m.
+	 * @return a &middot; b mod m.
+	 */
+	public static long multiplyMod(long a, long b, long m) {
+		long hi = unsignedMultiplyHigh(a, b), lo = a * b;
+		if (hi == 0 && lo >= 0)
+			return lo % m;
+		return remainder(hi, lo, m);
+	}
+
+	private static long half(long x, long m) {
+		return (x & 1) == 0 ? x >>> 1 : (x >>> 1) + (m >>> 1) + 1;
+	}
+
+	/**
+	 * For an odd modulus, this is the binary algorithm, which needs no
+	 * division beyond the initial reduction of a.
+	 * @return x such that a&middot;x &equiv; 1 (mod m), where 0 &lt;= x &lt; m.
+	 * @throws ArithmeticException if m is not positive or a is not
+	 *         invertible modulo m.
+	 */
+	public static long modInverse(long a, long m) {
+		if (m <= 0)
+			throw new ArithmeticException("Modulus, "+m+", not positive.");
+		if (m == 1)
+			return 0;
+		long u = a % m;
+		if (u < 0)
+			u += m;
+		if ((m & 1) == 0) {
+			long[] e = extendedGcd(u, m);
+			if (e[0] != 1)
+				throw new ArithmeticException(a+" is not invertible modulo "+m+".");
+			return e[1] < 0 ? e[1] + m : e[1];
+		}
+
+		// invariants: a * x1 = u and a * x2 = v (mod m)
+		long v = m, x1 = 1, x2 = 0;
+		while (u != 1 && v != 1) {
+			if (u == 0)
+				throw new ArithmeticException(a+" is not invertible modulo "+m+".");
+			while ((u & 1) == 0) {
+				u >>= 1;
+				x1 = half(x1, m);
+			}
+			while ((v & 1) == 0) {
+				v >>= 1;
+				x2 = half(x2, m);
+			}
+			if (u >= v) {
+				u -= v;
+				x1 -= x2;
+				if (x1 < 0)
+					x1 += m;
+			} else {
+				v -= u;
+				x2 -= x1;
+				if (x2 < 0)
+					x2 += m;
+			}
+		}
+		return u == 1 ? x1 : x2;
+	}
+
+	/**
+	 * Inverts every element of a modulo m by Montgomery's trick, which
+	 * costs a single inversion and 3(n - 1) modular multiplications.
+	 * @param out receives the inverses, and may be a.
+	 * @throws ArithmeticException if m is not positive or any element is
+	 *         not invertible modulo m.
+	 */
+	public static void modInverse(long[] a, long m, long[] out) {
+		int n = a.length;
+		if (n == 0)
+			return;
+		if (m <= 0)
+			throw new ArithmeticException("Modulus, "+m+", not positive.");
+		long[] prefix = new long[n];
+		if ((m & 1) != 0 && m != 1) {
+			Montgomery mont = new Montgomery(m);
+			for (int i = 0; i < n; i++) {
+				out[i] = mont.valueOf(a[i]);
+				prefix[i] = i == 0 ? out[0] : mont.multiply(prefix[i - 1], out[i]);
+			}
+			long inverse = mont.toMontgomery(modInverse(mont.fromMontgomery(prefix[n - 1]), m));
+			for (int i = n - 1; i > 0; i--) {
+				long x = out[i];
+				out[i] = mont.fromMontgomery(mont.multiply(inverse, prefix[i - 1]));
+				inverse = mont.multiply(inverse, x);
+			}
+			out[0] = mont.fromMontgomery(inverse);
+		} else {
+			for (int i = 0; i < n; i++) {
+				long x = a[i] % m;
+				out[i] = x < 0 ? x + m : x;
+				prefix[i] = i == 0 ? out[0] : multiplyMod(prefix[i - 1], out[i], m);
+			}
+			long inverse = modInverse(prefix[n - 1], m);
+			for (int i = n - 1; i > 0; i--) {
+				long x = out[i];
+				out[i] = multiplyMod(inverse, prefix[i - 1], m);
+				inverse = multiplyMod(inverse, x, m);
+			}
+			out[0] = inverse;
+		}
+	}
+
+	/**
+	 * Tests n for primality by trial division by the small primes followed by
+	 * a deterministic Miller&ndash;Rabin test.
+	 */
+	public static boolean isPrime(long n) {
+		if (n < 2)
+			return false;
+		if (n < Factorization.SIEVE_LIMIT)
+			return Factorization.smallestPrimeFactor((int) n) == n;
+		if ((n & 1) == 0)
+			return false;
+		for (int p : Factorization.TRIAL_PRIMES)
+			if (n % p == 0)
+				return false;
+		return isProbablePrime(new Montgomery(n));
+	}
+
+	/**
+	 * Miller&ndash;Rabin test of an odd modulus, that is deterministic for
+	 * all longs.
+	 */
+	static boolean isProbablePrime(Montgomery mont) {
+		long n = mont.modulus, d = n - 1;
+		int s = Long.numberOfTrailingZeros(d);
+		d >>= s;
+		long one = mont.one, minusOne = mont.modulus - mont.one;
+
+		witness:
+		for (long base : MILLER_RABIN_BASES) {
+			base %= n;
+			if (base == 0)
+				continue;
+			long x = mont.pow(mont.toMontgomery(base), d);
+			if (x == one || x == minusOne)
+				continue;
+			for (int r = 1; r < s; r++) {
+				x = mont.square(x);
+				if (x == minusOne)
+					continue witness;
+				if (x == one)
+					return false;
+			}
+			return false;
+		}
+		return true;
+	}
+}
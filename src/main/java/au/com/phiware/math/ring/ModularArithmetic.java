@@ -0,0 +1,494 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The ring of integers modulo a fixed odd modulus, m &lt; 2<sup>63</sup>.
+ * Values are held in Montgomery form, x&middot;2<sup>64</sup> mod m, so that
+ * {@link #multiply(long, long) multiply} and {@link #pow(long, long) pow}
+ * never divide; use {@link #valueOf(long)} and {@link #residue(long)} to
+ * convert to and from ordinary integers.
+ *
+ * <p>Comparisons and the bitwise operations act on the canonical
+ * representative, 0 &lt;= x &lt; m, and reduce their result. Shifts are
+ * consistent with the ring: shifting left by n multiplies by
+ * 2<sup>n</sup>, and {@link #not(long) not} is -x - 1.
+ */
+public class ModularArithmetic implements BitArithmetic<Long>, LongBitOps {
+	private final Montgomery mont;
+	private final int bitLength;
+
+	/**
+	 * @param modulus an odd, positive modulus.
+	 */
+	public ModularArithmetic(long modulus) {
+		mont = new Montgomery(modulus);
+		bitLength = Long.SIZE - Long.numberOfLeadingZeros(modulus - 1);
+	}
+
+	public long getModulus() {
+		return mont.modulus;
+	}
+
+	/**
+	 * @return x mod m, in Montgomery form.
+	 */
+	public long valueOf(long x) {
+		return mont.valueOf(x);
+	}
+
+	/**
+	 * @return the canonical representative of a, i.e. 0 &lt;= a &lt; m.
+	 */
+	public long residue(long a) {
+		return mont.fromMontgomery(a);
+	}
+
+	/**
+	 * @see #residue(long)
+	 */
+	public long residue(Long a) {
+		return residue(a.longValue());
+	}
+
+	@Override
+	public int maxBitLength() {
+		return bitLength;
+	}
+
+	@Override
+	public Long one() {
+		return mont.one;
+	}
+
+	@Override
+	public Long zero() {
+		return 0L;
+	}
+
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
+	@Override
+	public Set<Long> factors(Long a) {
+		Set<Long> factors = new TreeSet<Long>(this);
+		for (long d : Factorization.divisors(Factorization.primeFactors(residue(a))))
+			factors.add(valueOf(d));
+		return factors;
+	}
+
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
+	@Override
+	public Long[] primeFactorization(Long a) {
+		long[] factors = Factorization.primeFactors(residue(a));
+		Long[] values = new Long[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			values[i] = valueOf(factors[i]);
+		return values;
+	}
+
+	/**
+	 * @return the generator of the ideal generated by a, b and m.
+	 */
+	@Override
+	public long gcd(long a, long b) {
+		return valueOf(LongMath.gcd(LongMath.gcd(residue(a), residue(b)), mont.modulus));
+	}
+
+	@Override
+	public Long gcd(Long a, Long b) {
+		return gcd(a.longValue(), b.longValue());
+	}
+
+	/**
+	 * @return {g, x, y} such that a&middot;x + b&middot;y = g for the
+	 *         canonical representatives of a and b.
+	 */
+	@Override
+	public long[] extendedGcd(long a, long b) {
+		long[] e = LongMath.extendedGcd(residue(a), residue(b));
+		return new long[] {valueOf(e[0]), valueOf(e[1]), valueOf(e[2])};
+	}
+
+	@Override
+	public Long[] extendedGcd(Long a, Long b) {
+		long[] e = extendedGcd(a.longValue(), b.longValue());
+		return new Long[] {e[0], e[1], e[2]};
+	}
+
+	/**
+	 * @return the inverse of a in this ring; a has an inverse if it is
+	 *         coprime to m.
+	 */
+	public long inverse(long a) {
+		return valueOf(LongMath.modInverse(residue(a), mont.modulus));
+	}
+
+	/**
+	 * When mod is zero, i.e. a multiple of m, this is the
+	 * {@link #inverse(long) inverse} in this ring; otherwise the canonical
+	 * representatives are inverted.
+	 */
+	@Override
+	public long modInverse(long a, long mod) {
+		if (mod == 0)
+			return inverse(a);
+		return valueOf(LongMath.modInverse(residue(a), residue(mod)));
+	}
+
+	@Override
+	public Long modInverse(Long a, Long mod) {
+		return modInverse(a.longValue(), mod.longValue());
+	}
+
+	/**
+	 * @see #modInverse(long, long)
+	 */
+	@Override
+	public void modInverse(long[] a, long mod, long[] out) {
+		int n = a.length;
+		if (n == 0)
+			return;
+		if (mod != 0) {
+			long[] values = new long[n];
+			for (int i = 0; i < n; i++)
+				values[i] = residue(a[i]);
+			LongMath.modInverse(values, residue(mod), values);
+			for (int i = 0; i < n; i++)
+				out[i] = valueOf(values[i]);
+			return;
+		}
+		long[] prefix = new long[n];
+		prefix[0] = a[0];
+		for (int i = 1; i < n; i++)
+			prefix[i] = mont.multiply(prefix[i - 1], a[i]);
+		long inverse = inverse(prefix[n - 1]);
+		for (int i = n - 1; i > 0; i--) {
+			long x = a[i];
+			out[i] = mont.multiply(inverse, prefix[i - 1]);
+			inverse = mont.multiply(inverse, x);
+		}
+		out[0] = inverse;
+	}
+
+	@Override
+	public void modInverse(Long[] a, Long mod, Long[] out) {
+		long[] values = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		modInverse(values, mod.longValue(), values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = values[i];
+	}
+
+	@Override
+	public boolean congruent(long a, long b, long mod) {
+		long r = residue(mod);
+		if (r == 0)
+			return a == b;
+		return (residue(a) - residue(b)) % r == 0;
+	}
+
+	@Override
+	public boolean congruent(Long a, Long b, Long mod) {
+		return congruent(a.longValue(), b.longValue(), mod.longValue());
+	}
+
+	/**
+	 * Values are always reduced modulo m, so a is returned as is when b is
+	 * zero, i.e. a multiple of m, or m itself. Reduction modulo any other b
+	 * is not defined on the ring, and is not divided out.
+	 * @throws ArithmeticException unless b is zero or m.
+	 */
+	@Override
+	public long mod(long a, long b) {
+		if (b != 0 && b != mont.modulus)
+			throw new ArithmeticException("Modulus, "+residue(b)+", is not a multiple of "+mont.modulus+".");
+		return a;
+	}
+
+	@Override
+	public Long mod(Long a, Long b) {
+		return mod(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long add(long a, long b) {
+		return mont.add(a, b);
+	}
+
+	@Override
+	public Long add(Long a, Long b) {
+		return add(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long negate(long a) {
+		return mont.subtract(0, a);
+	}
+
+	@Override
+	public Long negate(Long a) {
+		return negate(a.longValue());
+	}
+
+	@Override
+	public long subtract(long a, long b) {
+		return mont.subtract(a, b);
+	}
+
+	@Override
+	public Long subtract(Long a, Long b) {
+		return subtract(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long multiply(long a, long b) {
+		return mont.multiply(a, b);
+	}
+
+	@Override
+	public Long multiply(Long a, Long b) {
+		return multiply(a.longValue(), b.longValue());
+	}
+
+	/**
+	 * @param b an ordinary, non-negative exponent, <em>not</em> in Montgomery form.
+	 */
+	@Override
+	public long pow(long a, long b) {
+		if (b < 0)
+			throw new ArithmeticException("Negative exponent, "+b+".");
+		return mont.pow(a, b);
+	}
+
+	@Override
+	public Long pow(Long a, Long b) {
+		return pow(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long max(long a, long b) {
+		return compare(a, b) >= 0 ? a : b;
+	}
+
+	@Override
+	public Long max(Long a, Long b) {
+		return max(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long min(long a, long b) {
+		return compare(a, b) <= 0 ? a : b;
+	}
+
+	@Override
+	public Long min(Long a, Long b) {
+		return min(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public int compare(long a, long b) {
+		if (a == b)
+			return 0;
+		return residue(a) < residue(b) ? -1 : 1;
+	}
+
+	@Override
+	public int compare(Long a, Long b) {
+		return compare(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public boolean testBit(long a, int n) {
+		return (residue(a) & (1L << n)) != 0;
+	}
+
+	@Override
+	public boolean testBit(Long a, int n) {
+		return testBit(a.longValue(), n);
+	}
+
+	@Override
+	public long setBit(long a, int n) {
+		return valueOf(residue(a) | (1L << n));
+	}
+
+	@Override
+	public Long setBit(Long a, int n) {
+		return setBit(a.longValue(), n);
+	}
+
+	@Override
+	public long clearBit(long a, int n) {
+		return valueOf(residue(a) & ~(1L << n));
+	}
+
+	@Override
+	public Long clearBit(Long a, int n) {
+		return clearBit(a.longValue(), n);
+	}
+
+	@Override
+	public long flipBit(long a, int n) {
+		return valueOf(residue(a) ^ (1L << n));
+	}
+
+	@Override
+	public Long flipBit(Long a, int n) {
+		return flipBit(a.longValue(), n);
+	}
+
+	@Override
+	public int signum(long a) {
+		return a == 0 ? 0 : 1;
+	}
+
+	@Override
+	public int signum(Long a) {
+		return signum(a.longValue());
+	}
+
+	/**
+	 * Reverses the lowest {@link #maxBitLength()} bits of the canonical representative.
+	 */
+	@Override
+	public long reverse(long a) {
+		if (bitLength == 0)
+			return a;
+		return valueOf(Long.reverse(residue(a)) >>> (Long.SIZE - bitLength));
+	}
+
+	@Override
+	public Long reverse(Long a) {
+		return reverse(a.longValue());
+	}
+
+	@Override
+	public long or(long a, long b) {
+		return valueOf(residue(a) | residue(b));
+	}
+
+	@Override
+	public Long or(Long a, Long b) {
+		return or(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long and(long a, long b) {
+		return valueOf(residue(a) & residue(b));
+	}
+
+	@Override
+	public Long and(Long a, Long b) {
+		return and(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long nand(long a, long b) {
+		return valueOf(residue(a) & ~residue(b));
+	}
+
+	@Override
+	public Long nand(Long a, Long b) {
+		return nand(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long xor(long a, long b) {
+		return valueOf(residue(a) ^ residue(b));
+	}
+
+	@Override
+	public Long xor(Long a, Long b) {
+		return xor(a.longValue(), b.longValue());
+	}
+
+	@Override
+	public long not(long a) {
+		return mont.subtract(negate(a), mont.one);
+	}
+
+	@Override
+	public Long not(Long a) {
+		return not(a.longValue());
+	}
+
+	/**
+	 * @return a &middot; 2<sup>n</sup>.
+	 */
+	@Override
+	public long shiftLeft(long a, int n) {
+		if (n < Long.SIZE)
+			return mont.multiply(a, mont.toMontgomery(1L << n));
+		return mont.multiply(a, mont.pow(mont.toMontgomery(2), n));
+	}
+
+	@Override
+	public Long shiftLeft(Long a, int n) {
+		return shiftLeft(a.longValue(), n);
+	}
+
+	/**
+	 * @return the canonical representative of a shifted right by n bits.
+	 */
+	@Override
+	public long shiftRight(long a, int n) {
+		if (n >= Long.SIZE)
+			return 0;
+		return valueOf(residue(a) >>> n);
+	}
+
+	@Override
+	public Long shiftRight(Long a, int n) {
+		return shiftRight(a.longValue(), n);
+	}
+
+	@Override
+	public int bitCount(long a) {
+		return Long.bitCount(residue(a));
+	}
+
+	@Override
+	public int bitCount(Long a) {
+		return bitCount(a.longValue());
+	}
+
+	@Override
+	public int highestOneBit(long a) {
+		return 63 - Long.numberOfLeadingZeros(residue(a));
+	}
+
+	@Override
+	public int highestOneBit(Long a) {
+		return highestOneBit(a.longValue());
+	}
+
+	@Override
+	public int lowestOneBit(long a) {
+		if (a == 0)
+			return -1;
+		return Long.numberOfTrailingZeros(residue(a));
+	}
+
+	@Override
+	public int lowestOneBit(Long a) {
+		return lowestOneBit(a.longValue());
+	}
+
+	@Override
+	public String toString(Long a, int radix) {
+		return Long.toString(residue(a), radix);
+	}
+
+	@Override
+	public String toString() {
+		return "Z/"+mont.modulus+"Z";
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static au.com.phiware.math.ring.LongMath.unsignedMultiplyHigh;
+
+/**
+ * Montgomery multiplication modulo a fixed odd modulus, m &lt; 2<sup>63</sup>,
+ * with R = 2<sup>64</sup>. Values in Montgomery form, x&middot;R mod m, are
+ * multiplied without any division.
+ */
+final class Montgomery {
+	final long modulus;
+	/**
+	 * m<sup>-1</sup> mod 2<sup>64</sup>.
+	 */
+	final long inverse;
+	/**
+	 * R mod m, i.e. one in Montgomery form.
+	 */
+	final long one;
+	/**
+	 * R<sup>2</sup> mod m.
+	 */
+	final long r2;
+
+	Montgomery(long modulus) {
+		if (modulus <= 0 || (modulus & 1) == 0)
+			throw new IllegalArgumentException("Modulus, "+modulus+", must be odd and positive.");
+		this.modulus = modulus;
+
+		long x = modulus; // correct to 3 bits, each iteration doubles that
+		for (int i = 0; i < 5; i++)
+			x *= 2 - modulus * x;
+		this.inverse = x;
+
+		long r = (Long.MAX_VALUE % modulus + 1) % modulus; // 2^63 mod m
+		r = twice(r);
+		this.one = r;
+		for (int i = 0; i < 64; i++)
+			r = twice(r);
+		this.r2 = r;
+	}
+
+	private long twice(long a) {
+		long r = a << 1;
+		if (r < 0 || r >= modulus)
+			r -= modulus;
+		return r;
+	}
+
+	/**
+	 * @return hi:lo &middot; R<sup>-1</sup> mod m, for hi:lo &lt; m&middot;R.
+	 */
+	long reduce(long hi, long lo) {
+		long h = unsignedMultiplyHigh(lo * inverse, modulus);
+		return hi < h ? hi - h + modulus : hi - h;
+	}
+
+	long multiply(long a, long b) {
+		return reduce(unsignedMultiplyHigh(a, b), a * b);
+	}
+
+	long square(long a) {
+		return multiply(a, a);
+	}
+
+	long add(long a, long b) {
+		long r = a - modulus + b;
+		return r < 0 ? r + modulus : r;
+	}
+
+	long subtract(long a, long b) {
+		long r = a - b;
+		return r < 0 ? r + modulus : r;
+	}
+
+	/**
+	 * @param x any value, treated as unsigned.
+	 * @return x mod m in Montgomery form.
+	 */
+	long toMontgomery(long x) {
+		return multiply(x, r2);
+	}
+
+	/**
+	 * @return x mod m in Montgomery form, for any signed x.
+	 */
+	long valueOf(long x) {
+		if (x < 0) // -Long.MIN_VALUE is 2^63 when treated as unsigned
+			return subtract(0, toMontgomery(-x));
+		return toMontgomery(x);
+	}
+
+	long fromMontgomery(long x) {
+		return reduce(0, x);
+	}
+
+	/**
+	 * @param a in Montgomery form.
+	 * @param e a non-negative exponent.
+	 * @return a<sup>e</sup> in Montgomery form.
+	 */
+	long pow(long a, long e) {
+		long r = one;
+		while (e != 0) {
+			if ((e & 1) != 0)
+				r = multiply(r, a);
+			a = square(a);
+			e >>>= 1;
+		}
+		return r;
+	}
+}
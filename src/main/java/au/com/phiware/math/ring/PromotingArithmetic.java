@@ -0,0 +1,489 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Exact, unbounded integer arithmetic that works on longs whilst results fit
+ * and promotes to {@link Int128}, then {@link BigInteger}, only when an
+ * operation overflows. Every result is demoted to the narrowest of
+ * {@link Long}, {@link Int128} and {@link BigInteger} that holds it, so
+ * values that shrink again return to the fast path.
+ *
+ * <p>Operands may be any of those types, or an {@link Integer},
+ * {@link Short} or {@link Byte}. The semantics are those of
+ * {@link BigIntegerArithmetic}, e.g. bitwise operations act on an infinite
+ * two's complement representation.
+ */
+public class PromotingArithmetic implements BitArithmetic<Number> {
+
+	private static final PromotingArithmetic a = new PromotingArithmetic();
+	private PromotingArithmetic() {}
+	public static PromotingArithmetic getInstance() {
+		return a;
+	}
+
+	private static final Long ZERO = 0L, ONE = 1L;
+
+	private static boolean isLong(Number a) {
+		return a instanceof Long || a instanceof Integer || a instanceof Short || a instanceof Byte;
+	}
+
+	private static boolean isWide(Number a) {
+		return isLong(a) || a instanceof Int128;
+	}
+
+	private static Int128 toInt128(Number a) {
+		if (a instanceof Int128)
+			return (Int128) a;
+		return Int128.valueOf(a.longValue());
+	}
+
+	/**
+	 * @throws IllegalArgumentException if a is not an integer type.
+	 */
+	public static BigInteger toBigInteger(Number a) {
+		if (a instanceof BigInteger)
+			return (BigInteger) a;
+		if (a instanceof Int128)
+			return ((Int128) a).toBigInteger();
+		if (isLong(a))
+			return BigInteger.valueOf(a.longValue());
+		throw new IllegalArgumentException("Not an integer, "+a+", of "+a.getClass()+".");
+	}
+
+	/**
+	 * @return a as the narrowest of {@link Long}, {@link Int128} and {@link BigInteger}.
+	 */
+	public static Number valueOf(Number a) {
+		if (a instanceof Long)
+			return a;
+		if (a instanceof Int128)
+			return valueOf((Int128) a);
+		if (isLong(a))
+			return a.longValue();
+		return valueOf(toBigInteger(a));
+	}
+
+	private static Number valueOf(Int128 a) {
+		if (a.hi == a.lo >> 63)
+			return a.lo;
+		return a;
+	}
+
+	private static Number valueOf(BigInteger a) {
+		int bitLength = a.bitLength();
+		if (bitLength < Long.SIZE)
+			return a.longValue();
+		if (bitLength < Int128.SIZE)
+			return Int128.valueOf(a);
+		return a;
+	}
+
+	@Override
+	public int maxBitLength() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public Number one() {
+		return ONE;
+	}
+
+	@Override
+	public Number zero() {
+		return ZERO;
+	}
+
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
+	@Override
+	public Set<Number> factors(Number a) {
+		Set<Number> factors = new TreeSet<Number>(this);
+		if (isLong(a))
+			for (long d : Factorization.divisors(Factorization.primeFactors(a.longValue())))
+				factors.add(d < 0 ? valueOf(BigInteger.valueOf(d).negate()) : d); // 2^63
+		else
+			for (BigInteger d : Factorization.divisors(Factorization.primeFactors(toBigInteger(a))))
+				factors.add(valueOf(d));
+		return factors;
+	}
+
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
+	@Override
+	public Number[] primeFactorization(Number a) {
+		if (isLong(a)) {
+			long[] factors = Factorization.primeFactors(a.longValue());
+			Number[] boxed = new Number[factors.length];
+			for (int i = 0; i < factors.length; i++)
+				boxed[i] = factors[i];
+			return boxed;
+		}
+		BigInteger[] factors = Factorization.primeFactors(toBigInteger(a));
+		Number[] values = new Number[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			values[i] = valueOf(factors[i]);
+		return values;
+	}
+
+	@Override
+	public Number gcd(Number a, Number b) {
+		if (isLong(a) && isLong(b)) {
+			long g = LongMath.gcd(a.longValue(), b.longValue());
+			if (g >= 0)
+				return g;
+		}
+		return valueOf(toBigInteger(a).gcd(toBigInteger(b)));
+	}
+
+	@Override
+	public Number[] extendedGcd(Number a, Number b) {
+		if (isLong(a) && isLong(b) && a.longValue() != Long.MIN_VALUE && b.longValue() != Long.MIN_VALUE) {
+			long[] e = LongMath.extendedGcd(a.longValue(), b.longValue());
+			return new Number[] {e[0], e[1], e[2]};
+		}
+		BigInteger[] e = BigIntegerMath.extendedGcd(toBigInteger(a), toBigInteger(b));
+		return new Number[] {valueOf(e[0]), valueOf(e[1]), valueOf(e[2])};
+	}
+
+	@Override
+	public Number modInverse(Number a, Number mod) {
+		if (isLong(a) && isLong(mod))
+			return LongMath.modInverse(a.longValue(), mod.longValue());
+		return valueOf(toBigInteger(a).modInverse(toBigInteger(mod)));
+	}
+
+	@Override
+	public void modInverse(Number[] a, Number mod, Number[] out) {
+		boolean small = isLong(mod);
+		for (int i = 0; small && i < a.length; i++)
+			small = isLong(a[i]);
+		if (small) {
+			long[] values = new long[a.length];
+			for (int i = 0; i < a.length; i++)
+				values[i] = a[i].longValue();
+			LongMath.modInverse(values, mod.longValue(), values);
+			for (int i = 0; i < a.length; i++)
+				out[i] = values[i];
+		} else {
+			BigInteger[] values = new BigInteger[a.length];
+			for (int i = 0; i < a.length; i++)
+				values[i] = toBigInteger(a[i]);
+			BigIntegerMath.modInverse(values, toBigInteger(mod), values);
+			for (int i = 0; i < a.length; i++)
+				out[i] = valueOf(values[i]);
+		}
+	}
+
+	@Override
+	public boolean congruent(Number a, Number b, Number mod) {
+		return signum(mod(subtract(a, b), mod)) == 0;
+	}
+
+	/**
+	 * @see LongArithmetic#mod(long, long)
+	 */
+	@Override
+	public Number mod(Number a, Number b) {
+		if (isLong(a) && isLong(b)) {
+			long x = a.longValue(), y = b.longValue();
+			long r = x % y;
+			return r >= 0 ? r : r + y;
+		}
+		BigInteger d = toBigInteger(b), r = toBigInteger(a).remainder(d);
+		return valueOf(r.signum() >= 0 ? r : r.add(d));
+	}
+
+	@Override
+	public Number add(Number a, Number b) {
+		if (isLong(a) && isLong(b)) {
+			long x = a.longValue(), y = b.longValue(), r = x + y;
+			if (((x ^ r) & (y ^ r)) >= 0)
+				return r;
+			return Int128.valueOf(x).addInPlace(Int128.valueOf(y));
+		}
+		if (isWide(a) && isWide(b)) {
+			Int128 x = toInt128(a), y = toInt128(b), r = x.add(y);
+			if (((x.hi ^ r.hi) & (y.hi ^ r.hi)) >= 0)
+				return valueOf(r);
+		}
+		return valueOf(toBigInteger(a).add(toBigInteger(b)));
+	}
+
+	@Override
+	public Number negate(Number a) {
+		if (isLong(a)) {
+			long x = a.longValue();
+			if (x != Long.MIN_VALUE)
+				return -x;
+			return Int128.valueOf(x).negate();
+		}
+		if (a instanceof Int128 && !(((Int128) a).hi == Long.MIN_VALUE && ((Int128) a).lo == 0))
+			return valueOf(((Int128) a).negate());
+		return valueOf(toBigInteger(a).negate());
+	}
+
+	@Override
+	public Number subtract(Number a, Number b) {
+		if (isLong(a) && isLong(b)) {
+			long x = a.longValue(), y = b.longValue(), r = x - y;
+			if (((x ^ y) & (x ^ r)) >= 0)
+				return r;
+			return Int128.valueOf(x).subtract(Int128.valueOf(y));
+		}
+		if (isWide(a) && isWide(b)) {
+			Int128 x = toInt128(a), y = toInt128(b), r = x.subtract(y);
+			if (((x.hi ^ y.hi) & (x.hi ^ r.hi)) >= 0)
+				return valueOf(r);
+		}
+		return valueOf(toBigInteger(a).subtract(toBigInteger(b)));
+	}
+
+	@Override
+	public Number multiply(Number a, Number b) {
+		if (isLong(a) && isLong(b)) {
+			long x = a.longValue(), y = b.longValue();
+			long hi = LongMath.multiplyHigh(x, y), lo = x * y;
+			if (hi == lo >> 63)
+				return lo;
+			return new Int128(hi, lo);
+		}
+		if (isWide(a) && isWide(b)) {
+			Int128 x = toInt128(a), y = toInt128(b);
+			if (x.bitLength() + y.bitLength() < Int128.SIZE - 1)
+				return valueOf(x.multiply(y));
+		}
+		return valueOf(toBigInteger(a).multiply(toBigInteger(b)));
+	}
+
+	/**
+	 * @param b a non-negative exponent.
+	 */
+	@Override
+	public Number pow(Number a, Number b) {
+		long e = b.longValue();
+		if (e < 0 || !isLong(b))
+			throw new ArithmeticException("Unsupported exponent, "+b+".");
+		Number r = ONE;
+		while (e != 0) {
+			if ((e & 1) != 0)
+				r = multiply(r, a);
+			e >>>= 1;
+			if (e != 0)
+				a = multiply(a, a);
+		}
+		return r;
+	}
+
+	@Override
+	public Number max(Number a, Number b) {
+		return compare(a, b) >= 0 ? a : b;
+	}
+
+	@Override
+	public Number min(Number a, Number b) {
+		return compare(a, b) <= 0 ? a : b;
+	}
+
+	@Override
+	public int compare(Number a, Number b) {
+		if (isLong(a) && isLong(b)) {
+			long x = a.longValue(), y = b.longValue();
+			return x < y ? -1 : (x > y ? 1 : 0);
+		}
+		if (isWide(a) && isWide(b))
+			return toInt128(a).compareTo(toInt128(b));
+		return toBigInteger(a).compareTo(toBigInteger(b));
+	}
+
+	@Override
+	public boolean testBit(Number a, int n) {
+		if (isLong(a))
+			return n < Long.SIZE ? (a.longValue() & (1L << n)) != 0 : a.longValue() < 0;
+		if (a instanceof Int128)
+			return n < Int128.SIZE ? ((Int128) a).testBit(n) : ((Int128) a).hi < 0;
+		return toBigInteger(a).testBit(n);
+	}
+
+	@Override
+	public Number setBit(Number a, int n) {
+		if (isLong(a) && n < Long.SIZE - 1)
+			return a.longValue() | (1L << n);
+		if (isWide(a) && n < Int128.SIZE - 1)
+			return valueOf(toInt128(a).setBit(n));
+		return valueOf(toBigInteger(a).setBit(n));
+	}
+
+	@Override
+	public Number clearBit(Number a, int n) {
+		if (isLong(a) && n < Long.SIZE - 1)
+			return a.longValue() & ~(1L << n);
+		if (isWide(a) && n < Int128.SIZE - 1)
+			return valueOf(toInt128(a).clearBit(n));
+		return valueOf(toBigInteger(a).clearBit(n));
+	}
+
+	@Override
+	public Number flipBit(Number a, int n) {
+		if (isLong(a) && n < Long.SIZE - 1)
+			return a.longValue() ^ (1L << n);
+		if (isWide(a) && n < Int128.SIZE - 1)
+			return valueOf(toInt128(a).flipBit(n));
+		return valueOf(toBigInteger(a).flipBit(n));
+	}
+
+	@Override
+	public int signum(Number a) {
+		if (isLong(a))
+			return Long.signum(a.longValue());
+		if (a instanceof Int128)
+			return ((Int128) a).signum();
+		return toBigInteger(a).signum();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException as the width is unbounded.
+	 */
+	@Override
+	public Number reverse(Number a) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Number or(Number a, Number b) {
+		if (isLong(a) && isLong(b))
+			return a.longValue() | b.longValue();
+		if (isWide(a) && isWide(b))
+			return valueOf(toInt128(a).or(toInt128(b)));
+		return valueOf(toBigInteger(a).or(toBigInteger(b)));
+	}
+
+	@Override
+	public Number and(Number a, Number b) {
+		if (isLong(a) && isLong(b))
+			return a.longValue() & b.longValue();
+		if (isWide(a) && isWide(b))
+			return valueOf(toInt128(a).and(toInt128(b)));
+		return valueOf(toBigInteger(a).and(toBigInteger(b)));
+	}
+
+	@Override
+	public Number nand(Number a, Number b) {
+		if (isLong(a) && isLong(b))
+			return a.longValue() & ~b.longValue();
+		if (isWide(a) && isWide(b))
+			return valueOf(toInt128(a).andNot(toInt128(b)));
+		return valueOf(toBigInteger(a).andNot(toBigInteger(b)));
+	}
+
+	@Override
+	public Number xor(Number a, Number b) {
+		if (isLong(a) && isLong(b))
+			return a.longValue() ^ b.longValue();
+		if (isWide(a) && isWide(b))
+			return valueOf(toInt128(a).xor(toInt128(b)));
+		return valueOf(toBigInteger(a).xor(toBigInteger(b)));
+	}
+
+	@Override
+	public Number not(Number a) {
+		if (isLong(a))
+			return ~a.longValue();
+		if (a instanceof Int128)
+			return valueOf(((Int128) a).not());
+		return valueOf(toBigInteger(a).not());
+	}
+
+	/**
+	 * @param n may be negative, in which case a is shifted right.
+	 */
+	@Override
+	public Number shiftLeft(Number a, int n) {
+		if (n < 0)
+			return shiftRight(a, -n);
+		if (isLong(a)) {
+			long x = a.longValue();
+			if (n < Long.SIZE && (x << n) >> n == x)
+				return x << n;
+		}
+		if (isWide(a)) {
+			Int128 x = toInt128(a);
+			if (n < Int128.SIZE && x.bitLength() + n < Int128.SIZE)
+				return valueOf(x.shiftLeft(n));
+		}
+		return valueOf(toBigInteger(a).shiftLeft(n));
+	}
+
+	/**
+	 * Shifts right, extending the sign.
+	 * @param n may be negative, in which case a is shifted left.
+	 */
+	@Override
+	public Number shiftRight(Number a, int n) {
+		if (n < 0)
+			return shiftLeft(a, -n);
+		if (isLong(a))
+			return a.longValue() >> Math.min(n, Long.SIZE - 1);
+		if (a instanceof Int128) {
+			Int128 x = (Int128) a;
+			return valueOf(n < Int128.SIZE ? x.shiftRight(n) : x.shiftRight(Int128.SIZE - 1));
+		}
+		return valueOf(toBigInteger(a).shiftRight(n));
+	}
+
+	/**
+	 * @return the number of bits that differ from the sign bit, as
+	 *         {@link BigInteger#bitCount()}.
+	 */
+	@Override
+	public int bitCount(Number a) {
+		if (isLong(a)) {
+			long x = a.longValue();
+			return Long.bitCount(x ^ x >> 63);
+		}
+		if (a instanceof Int128) {
+			Int128 x = (Int128) a;
+			return x.signum() < 0 ? x.not().bitCount() : x.bitCount();
+		}
+		return toBigInteger(a).bitCount();
+	}
+
+	/**
+	 * @return the bit length less one, as for {@link BigIntegerArithmetic}.
+	 */
+	@Override
+	public int highestOneBit(Number a) {
+		if (isLong(a)) {
+			long x = a.longValue();
+			return Long.SIZE - 1 - Long.numberOfLeadingZeros(x ^ x >> 63);
+		}
+		if (a instanceof Int128)
+			return ((Int128) a).bitLength() - 1;
+		return toBigInteger(a).bitLength() - 1;
+	}
+
+	@Override
+	public int lowestOneBit(Number a) {
+		if (isLong(a)) {
+			long x = a.longValue();
+			return x == 0 ? -1 : Long.numberOfTrailingZeros(x);
+		}
+		if (a instanceof Int128)
+			return ((Int128) a).lowestOneBit();
+		return toBigInteger(a).getLowestSetBit();
+	}
+
+	@Override
+	public String toString(Number a, int radix) {
+		if (isLong(a))
+			return Long.toString(a.longValue(), radix);
+		return toBigInteger(a).toString(radix);
+	}
+}
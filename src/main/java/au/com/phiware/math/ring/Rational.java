@@ -0,0 +1,386 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * An exact fraction, held in a pair of longs until either the numerator or
+ * the denominator overflows and in a pair of {@link BigInteger}s thereafter.
+ * The denominator is always positive.
+ *
+ * <p>Results are <em>not</em> reduced to lowest terms as they are
+ * computed; the gcd is taken only when it is needed: when the value is
+ * {@link #hashCode() hashed}, {@link #toString() printed} or asked for its
+ * {@link #getNumerator() numerator} or {@link #getDenominator() denominator},
+ * and when a long operation is about to overflow, in which case the operands
+ * are reduced and the operation retried before resorting to
+ * {@link BigInteger}. Comparison and equality are decided by
+ * cross-multiplication, without reducing. Because a {@link BigInteger}
+ * fraction cannot overflow, it is reduced eagerly once its denominator
+ * exceeds {@value #REDUCE_BIT_LENGTH} bits, lest it grow without bound.
+ * A reduced fraction that fits in longs is held in longs again.
+ */
+public final class Rational extends Number implements Comparable<Rational> {
+	private static final long serialVersionUID = 1L;
+	static final int REDUCE_BIT_LENGTH = 1024;
+	private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+	public static final Rational ZERO = new Rational(0, 1, true);
+	public static final Rational ONE = new Rational(1, 1, true);
+
+	/**
+	 * Long.MIN_VALUE is never held, so that it may signal overflow.
+	 */
+	private final long num, den;
+	/**
+	 * Non-null iff the fraction is held as BigIntegers.
+	 */
+	private final BigInteger bigNum, bigDen;
+	/**
+	 * This fraction in lowest terms, once known; a benign race.
+	 */
+	private transient Rational reduced;
+
+	private Rational(long num, long den, boolean reduced) {
+		this.num = num;
+		this.den = den;
+		this.bigNum = this.bigDen = null;
+		if (reduced)
+			this.reduced = this;
+	}
+
+	private Rational(BigInteger num, BigInteger den, boolean reduced) {
+		this.num = this.den = 0;
+		this.bigNum = num;
+		this.bigDen = den;
+		if (reduced)
+			this.reduced = this;
+	}
+
+	public static Rational valueOf(long n) {
+		if (n == Long.MIN_VALUE)
+			return new Rational(BigInteger.valueOf(n), BigInteger.ONE, true);
+		return new Rational(n, 1, true);
+	}
+
+	public static Rational valueOf(BigInteger n) {
+		return valueOf(n, BigInteger.ONE);
+	}
+
+	/**
+	 * @throws ArithmeticException if den is zero.
+	 */
+	public static Rational valueOf(long num, long den) {
+		if (den == 0)
+			throw new ArithmeticException("Zero denominator.");
+		if (num == Long.MIN_VALUE || den == Long.MIN_VALUE)
+			return valueOf(BigInteger.valueOf(num), BigInteger.valueOf(den));
+		if (den < 0)
+			return new Rational(-num, -den, false);
+		return new Rational(num, den, false);
+	}
+
+	/**
+	 * @throws ArithmeticException if den is zero.
+	 */
+	public static Rational valueOf(BigInteger num, BigInteger den) {
+		if (den.signum() == 0)
+			throw new ArithmeticException("Zero denominator.");
+		return big(num, den);
+	}
+
+	/**
+	 * The exact value of a finite double.
+	 * @throws NumberFormatException if a is infinite or NaN.
+	 */
+	public static Rational valueOf(double a) {
+		BigDecimal d = new BigDecimal(a);
+		if (d.scale() <= 0)
+			return valueOf(d.toBigIntegerExact());
+		return valueOf(d.unscaledValue(), BigInteger.TEN.pow(d.scale()));
+	}
+
+	/**
+	 * @return num/den held in longs if they fit, otherwise as BigIntegers.
+	 */
+	private static Rational big(BigInteger num, BigInteger den) {
+		if (den.signum() < 0) {
+			num = num.negate();
+			den = den.negate();
+		}
+		if (fits(num) && fits(den))
+			return new Rational(num.longValue(), den.longValue(), false);
+		if (den.bitLength() > REDUCE_BIT_LENGTH)
+			return new Rational(num, den, false).reduce();
+		return new Rational(num, den, false);
+	}
+
+	private static boolean fits(BigInteger a) {
+		return a.bitLength() < Long.SIZE && !a.equals(LONG_MIN);
+	}
+
+	/**
+	 * @return x&middot;y, or Long.MIN_VALUE if that overflows.
+	 */
+	private static long multiply(long x, long y) {
+		long lo = x * y;
+		if (LongMath.multiplyHigh(x, y) != lo >> 63)
+			return Long.MIN_VALUE;
+		return lo;
+	}
+
+	/**
+	 * @return x + y, or Long.MIN_VALUE if that overflows.
+	 */
+	private static long add(long x, long y) {
+		long r = x + y;
+		if (((x ^ r) & (y ^ r)) < 0)
+			return Long.MIN_VALUE;
+		return r;
+	}
+
+	public boolean isBig() {
+		return bigNum != null;
+	}
+
+	private BigInteger bigNum() {
+		return bigNum != null ? bigNum : BigInteger.valueOf(num);
+	}
+
+	private BigInteger bigDen() {
+		return bigDen != null ? bigDen : BigInteger.valueOf(den);
+	}
+
+	/**
+	 * @return this fraction in lowest terms.
+	 */
+	public Rational reduce() {
+		Rational r = reduced;
+		if (r != null)
+			return r;
+		if (bigNum == null) {
+			long g = LongMath.gcd(num, den);
+			r = g == 1 ? this : new Rational(num / g, den / g, true);
+		} else {
+			BigInteger g = bigNum.gcd(bigDen),
+			           n = bigNum.divide(g), d = bigDen.divide(g);
+			if (fits(n) && fits(d))
+				r = new Rational(n.longValue(), d.longValue(), true);
+			else
+				r = g.equals(BigInteger.ONE) ? this : new Rational(n, d, true);
+		}
+		reduced = r;
+		return r;
+	}
+
+	/**
+	 * @return the numerator in lowest terms.
+	 */
+	public BigInteger getNumerator() {
+		return reduce().bigNum();
+	}
+
+	/**
+	 * @return the denominator in lowest terms, which is positive.
+	 */
+	public BigInteger getDenominator() {
+		return reduce().bigDen();
+	}
+
+	public boolean isInteger() {
+		Rational r = reduce();
+		return r.bigNum == null ? r.den == 1 : r.bigDen.equals(BigInteger.ONE);
+	}
+
+	public int signum() {
+		return bigNum == null ? Long.signum(num) : bigNum.signum();
+	}
+
+	public Rational negate() {
+		if (bigNum == null)
+			return new Rational(-num, den, reduced == this);
+		return new Rational(bigNum.negate(), bigDen, reduced == this);
+	}
+
+	/**
+	 * @throws ArithmeticException if this is zero.
+	 */
+	public Rational reciprocal() {
+		if (signum() == 0)
+			throw new ArithmeticException("Division by zero.");
+		if (bigNum == null)
+			return num < 0 ? new Rational(-den, -num, reduced == this) : new Rational(den, num, reduced == this);
+		if (bigNum.signum() < 0)
+			return new Rational(bigDen.negate(), bigNum.negate(), reduced == this);
+		return new Rational(bigDen, bigNum, reduced == this);
+	}
+
+	private static Rational addLong(Rational x, Rational y) {
+		long a = x.num, b = x.den, c = y.num, d = y.den;
+		if (b == d) {
+			long n = add(a, c);
+			return n == Long.MIN_VALUE ? null : new Rational(n, b, false);
+		}
+		long ad = multiply(a, d), cb = multiply(c, b), bd = multiply(b, d);
+		if (ad == Long.MIN_VALUE || cb == Long.MIN_VALUE || bd == Long.MIN_VALUE)
+			return null;
+		long n = add(ad, cb);
+		return n == Long.MIN_VALUE ? null : new Rational(n, bd, false);
+	}
+
+	public Rational add(Rational b) {
+		if (bigNum == null && b.bigNum == null) {
+			Rational r = addLong(this, b);
+			if (r == null)
+				r = addLong(reduce(), b.reduce());
+			if (r != null)
+				return r;
+		}
+		if (bigDen != null && bigDen.equals(b.bigDen))
+			return big(bigNum.add(b.bigNum), bigDen);
+		return big(bigNum().multiply(b.bigDen()).add(b.bigNum().multiply(bigDen())),
+		           bigDen().multiply(b.bigDen()));
+	}
+
+	public Rational subtract(Rational b) {
+		return add(b.negate());
+	}
+
+	private static Rational multiplyLong(Rational x, Rational y) {
+		long n = multiply(x.num, y.num), d = multiply(x.den, y.den);
+		if (n == Long.MIN_VALUE || d == Long.MIN_VALUE)
+			return null;
+		return new Rational(n, d, false);
+	}
+
+	public Rational multiply(Rational b) {
+		if (bigNum == null && b.bigNum == null) {
+			Rational r = multiplyLong(this, b);
+			if (r == null)
+				r = multiplyLong(reduce(), b.reduce());
+			if (r != null)
+				return r;
+		}
+		return big(bigNum().multiply(b.bigNum()), bigDen().multiply(b.bigDen()));
+	}
+
+	/**
+	 * @throws ArithmeticException if b is zero.
+	 */
+	public Rational divide(Rational b) {
+		return multiply(b.reciprocal());
+	}
+
+	/**
+	 * @return this<sup>e</sup>, which is a reciprocal for negative e.
+	 * @throws ArithmeticException if this is zero and e is negative.
+	 */
+	public Rational pow(int e) {
+		if (e < 0)
+			return reciprocal().pow(-e);
+		Rational r = reduce();
+		// the powers of coprime integers are coprime
+		BigInteger n = r.bigNum().pow(e), d = r.bigDen().pow(e);
+		if (fits(n) && fits(d))
+			return new Rational(n.longValue(), d.longValue(), true);
+		return new Rational(n, d, true);
+	}
+
+	/**
+	 * @return the exact n<sup>th</sup> root.
+	 * @throws ArithmeticException if there is no rational root.
+	 */
+	public Rational root(int n) {
+		if (n <= 0)
+			throw new ArithmeticException("Non-positive root, "+n+".");
+		Rational r = reduce();
+		BigInteger p = r.bigNum(), q = r.bigDen();
+		if (p.signum() < 0 && (n & 1) == 0)
+			throw new ArithmeticException("Even root, "+n+", of negative "+this+".");
+		BigInteger s = BigIntegerMath.root(p.abs(), n), t = BigIntegerMath.root(q, n);
+		if (!s.pow(n).equals(p.abs()) || !t.pow(n).equals(q))
+			throw new ArithmeticException("No rational root, "+n+", of "+this+".");
+		if (p.signum() < 0)
+			s = s.negate();
+		if (fits(s) && fits(t))
+			return new Rational(s.longValue(), t.longValue(), true);
+		return new Rational(s, t, true);
+	}
+
+	@Override
+	public int compareTo(Rational b) {
+		if (bigNum == null && b.bigNum == null) {
+			// a/b < c/d iff a*d < c*b, since b, d > 0; compare 128 bit products
+			long hi = LongMath.multiplyHigh(num, b.den), lo = num * b.den,
+			     bhi = LongMath.multiplyHigh(b.num, den), blo = b.num * den;
+			if (hi != bhi)
+				return hi < bhi ? -1 : 1;
+			if (lo != blo)
+				return (lo ^ Long.MIN_VALUE) < (blo ^ Long.MIN_VALUE) ? -1 : 1;
+			return 0;
+		}
+		return bigNum().multiply(b.bigDen()).compareTo(b.bigNum().multiply(bigDen()));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Rational))
+			return false;
+		return compareTo((Rational) obj) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		Rational r = reduce();
+		if (r.bigNum == null)
+			return 31 * (int) (r.num ^ r.num >>> 32) + (int) (r.den ^ r.den >>> 32);
+		return 31 * r.bigNum.hashCode() + r.bigDen.hashCode();
+	}
+
+	/**
+	 * @return the integer part, truncated toward zero.
+	 */
+	@Override
+	public long longValue() {
+		if (bigNum == null)
+			return num / den;
+		return bigNum.divide(bigDen).longValue();
+	}
+
+	@Override
+	public int intValue() {
+		return (int) longValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		if (bigNum == null && Math.abs(num) < 1L << 53 && den < 1L << 53)
+			return (double) num / den; // both exact, so correctly rounded
+		return new BigDecimal(bigNum()).divide(new BigDecimal(bigDen()), MathContext.DECIMAL128).doubleValue();
+	}
+
+	@Override
+	public float floatValue() {
+		return (float) doubleValue();
+	}
+
+	public String toString(int radix) {
+		Rational r = reduce();
+		if (r.bigNum == null)
+			return r.den == 1 ? Long.toString(r.num, radix)
+			                  : Long.toString(r.num, radix)+"/"+Long.toString(r.den, radix);
+		return r.bigDen.equals(BigInteger.ONE) ? r.bigNum.toString(radix)
+		                                      : r.bigNum.toString(radix)+"/"+r.bigDen.toString(radix);
+	}
+
+	@Override
+	public String toString() {
+		return toString(10);
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+
+/**
+ * The field of {@link Rational}s. Values are exact and are reduced to lowest
+ * terms only when necessary; see {@link Rational}.
+ */
+public class RationalArithmetic implements FieldArithmetic<Rational> {
+
+	private static final RationalArithmetic a = new RationalArithmetic();
+	private RationalArithmetic() {}
+	public static RationalArithmetic getInstance() {
+		return a;
+	}
+
+	@Override
+	public Rational zero() {
+		return Rational.ZERO;
+	}
+
+	@Override
+	public Rational one() {
+		return Rational.ONE;
+	}
+
+	@Override
+	public Rational add(Rational a, Rational b) {
+		return a.add(b);
+	}
+
+	@Override
+	public Rational negate(Rational a) {
+		return a.negate();
+	}
+
+	@Override
+	public Rational subtract(Rational a, Rational b) {
+		return a.subtract(b);
+	}
+
+	@Override
+	public Rational multiply(Rational a, Rational b) {
+		return a.multiply(b);
+	}
+
+	@Override
+	public Rational divide(Rational a, Rational b) {
+		return a.divide(b);
+	}
+
+	private static int intValueExact(BigInteger a) {
+		if (a.bitLength() >= Integer.SIZE)
+			throw new ArithmeticException("Exponent, "+a+", is too big.");
+		return a.intValue();
+	}
+
+	/**
+	 * For b = p/q in lowest terms this is the p<sup>th</sup> power of the
+	 * q<sup>th</sup> root of a.
+	 * @throws ArithmeticException if the result is not rational.
+	 */
+	@Override
+	public Rational pow(Rational a, Rational b) {
+		int p = intValueExact(b.getNumerator()), q = intValueExact(b.getDenominator());
+		if (q != 1)
+			a = a.root(q);
+		return a.pow(p);
+	}
+
+	/**
+	 * @return the b<sup>th</sup> root of a, i.e. a<sup>1/b</sup>.
+	 * @throws ArithmeticException if the result is not rational.
+	 * @see #pow(Rational, Rational)
+	 */
+	@Override
+	public Rational root(Rational a, Rational b) {
+		return pow(a, b.reciprocal());
+	}
+
+	@Override
+	public Rational max(Rational a, Rational b) {
+		return a.compareTo(b) >= 0 ? a : b;
+	}
+
+	@Override
+	public Rational min(Rational a, Rational b) {
+		return a.compareTo(b) <= 0 ? a : b;
+	}
+
+	@Override
+	public int compare(Rational a, Rational b) {
+		return a.compareTo(b);
+	}
+
+	@Override
+	public String toString() {
+		return "Q";
+	}
+}
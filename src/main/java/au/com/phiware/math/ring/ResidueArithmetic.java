@@ -0,0 +1,332 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A residue number system: integers are held as their residues modulo k
+ * distinct primes just below 2<sup>62</sup>, one {@link Montgomery} lane per
+ * prime. {@link #add(ResidueNumber, ResidueNumber) add},
+ * {@link #subtract(ResidueNumber, ResidueNumber) subtract} and
+ * {@link #multiply(ResidueNumber, ResidueNumber) multiply} act on each lane
+ * independently and never carry between lanes; the
+ * {@link #sum(ResidueNumber...) sum} and
+ * {@link #product(ResidueNumber...) product} of many values are computed a
+ * lane per task, in parallel, once there are enough of them.
+ *
+ * <p>A value is exact whilst it lies in [-M/2, M/2), where M is the
+ * {@link #getModulus() product of the primes}, and wraps modulo M
+ * otherwise. {@link #toBigInteger(ResidueNumber)} reconstructs it by
+ * Garner's algorithm, which is the only operation that touches
+ * {@link BigInteger}; {@link #compare(ResidueNumber, ResidueNumber) compare},
+ * and hence max and min, reconstructs both operands.
+ */
+public class ResidueArithmetic implements RingArithmetic<ResidueNumber> {
+	/**
+	 * Bulk operations over at least this many lane operations run in parallel.
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	private static final List<Long> primes = new ArrayList<Long>();
+
+	/**
+	 * @return the i<sup>th</sup> largest prime below 2<sup>62</sup>.
+	 */
+	static long prime(int i) {
+		synchronized (primes) {
+			long p = primes.isEmpty() ? 1L << 62 : primes.get(primes.size() - 1);
+			while (primes.size() <= i) {
+				do
+					p -= p == 1L << 62 ? 1 : 2;
+				while (!LongMath.isPrime(p));
+				primes.add(p);
+			}
+			return primes.get(i);
+		}
+	}
+
+	private final Montgomery[] mont;
+	private final BigInteger modulus, halfModulus;
+	/**
+	 * For Garner's algorithm: inverse[i] = (p<sub>0</sub>&middot;&middot;&middot;p<sub>i-1</sub>)<sup>-1</sup>
+	 * mod p<sub>i</sub> and radix[i][j] = p<sub>j</sub> mod p<sub>i</sub>,
+	 * both in Montgomery form.
+	 */
+	private final long[] inverse;
+	private final long[][] radix;
+	private final ResidueNumber zero, one;
+
+	/**
+	 * @param lanes the number of primes, k &gt; 0.
+	 */
+	public ResidueArithmetic(int lanes) {
+		if (lanes <= 0)
+			throw new IllegalArgumentException("Lanes, "+lanes+", must be positive.");
+		mont = new Montgomery[lanes];
+		BigInteger m = BigInteger.ONE;
+		for (int i = 0; i < lanes; i++) {
+			mont[i] = new Montgomery(prime(i));
+			m = m.multiply(BigInteger.valueOf(mont[i].modulus));
+		}
+		modulus = m;
+		halfModulus = m.shiftRight(1);
+
+		inverse = new long[lanes];
+		radix = new long[lanes][];
+		for (int i = 0; i < lanes; i++) {
+			Montgomery lane = mont[i];
+			radix[i] = new long[i];
+			long product = lane.one;
+			for (int j = 0; j < i; j++) {
+				radix[i][j] = lane.toMontgomery(mont[j].modulus);
+				product = lane.multiply(product, radix[i][j]);
+			}
+			inverse[i] = lane.toMontgomery(LongMath.modInverse(lane.fromMontgomery(product), lane.modulus));
+		}
+
+		long[] z = new long[lanes], o = new long[lanes];
+		for (int i = 0; i < lanes; i++)
+			o[i] = mont[i].one;
+		zero = new ResidueNumber(this, z);
+		one = new ResidueNumber(this, o);
+	}
+
+	/**
+	 * @return an arithmetic with enough lanes to hold any signed integer of
+	 *         the given bit length exactly.
+	 */
+	public static ResidueArithmetic forBitLength(int bitLength) {
+		// each prime exceeds 2^61, and a signed value needs one more bit
+		return new ResidueArithmetic((bitLength + 1 + 60) / 61);
+	}
+
+	public int getLanes() {
+		return mont.length;
+	}
+
+	/**
+	 * @return the i<sup>th</sup> prime.
+	 */
+	public long getPrime(int i) {
+		return mont[i].modulus;
+	}
+
+	/**
+	 * @return M, the product of the primes.
+	 */
+	public BigInteger getModulus() {
+		return modulus;
+	}
+
+	private void check(ResidueNumber a) {
+		if (a.arithmetic != this)
+			throw new IllegalArgumentException(a+" belongs to a different residue number system.");
+	}
+
+	public ResidueNumber valueOf(long x) {
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].valueOf(x);
+		return new ResidueNumber(this, r);
+	}
+
+	/**
+	 * @return x mod M.
+	 */
+	public ResidueNumber valueOf(BigInteger x) {
+		if (x.bitLength() < Long.SIZE)
+			return valueOf(x.longValue());
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].toMontgomery(x.mod(BigInteger.valueOf(mont[i].modulus)).longValue());
+		return new ResidueNumber(this, r);
+	}
+
+	long residue(ResidueNumber a, int i) {
+		return mont[i].fromMontgomery(a.lanes[i]);
+	}
+
+	/**
+	 * Garner's algorithm: the mixed radix digits are found lane by lane in
+	 * long arithmetic, after which a single Horner pass builds the result.
+	 * @return the value of a in [-M/2, M/2).
+	 */
+	public BigInteger toBigInteger(ResidueNumber a) {
+		check(a);
+		int k = mont.length;
+		long[] digit = new long[k];
+		for (int i = 0; i < k; i++) {
+			Montgomery lane = mont[i];
+			// t = v_0 + v_1 p_0 + ... + v_{i-1} p_0...p_{i-2} mod p_i, by Horner
+			long t = 0;
+			for (int j = i - 1; j >= 0; j--)
+				t = lane.add(lane.multiply(t, radix[i][j]), lane.toMontgomery(digit[j]));
+			digit[i] = lane.fromMontgomery(lane.multiply(lane.subtract(a.lanes[i], t), inverse[i]));
+		}
+		BigInteger x = BigInteger.valueOf(digit[k - 1]);
+		for (int j = k - 2; j >= 0; j--)
+			x = x.multiply(BigInteger.valueOf(mont[j].modulus)).add(BigInteger.valueOf(digit[j]));
+		return x.compareTo(halfModulus) > 0 ? x.subtract(modulus) : x;
+	}
+
+	@Override
+	public ResidueNumber zero() {
+		return zero;
+	}
+
+	public ResidueNumber one() {
+		return one;
+	}
+
+	@Override
+	public ResidueNumber add(ResidueNumber a, ResidueNumber b) {
+		check(a);
+		check(b);
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].add(a.lanes[i], b.lanes[i]);
+		return new ResidueNumber(this, r);
+	}
+
+	@Override
+	public ResidueNumber negate(ResidueNumber a) {
+		check(a);
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].subtract(0, a.lanes[i]);
+		return new ResidueNumber(this, r);
+	}
+
+	@Override
+	public ResidueNumber subtract(ResidueNumber a, ResidueNumber b) {
+		check(a);
+		check(b);
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].subtract(a.lanes[i], b.lanes[i]);
+		return new ResidueNumber(this, r);
+	}
+
+	@Override
+	public ResidueNumber multiply(ResidueNumber a, ResidueNumber b) {
+		check(a);
+		check(b);
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].multiply(a.lanes[i], b.lanes[i]);
+		return new ResidueNumber(this, r);
+	}
+
+	/**
+	 * @param b a non-negative exponent, which is reconstructed.
+	 */
+	@Override
+	public ResidueNumber pow(ResidueNumber a, ResidueNumber b) {
+		check(a);
+		BigInteger e = toBigInteger(b);
+		if (e.signum() < 0)
+			throw new ArithmeticException("Negative exponent, "+e+".");
+		if (e.bitLength() >= Long.SIZE)
+			throw new ArithmeticException("Exponent, "+e+", is too big.");
+		long[] r = new long[mont.length];
+		for (int i = 0; i < r.length; i++)
+			r[i] = mont[i].pow(a.lanes[i], e.longValue());
+		return new ResidueNumber(this, r);
+	}
+
+	private static final int SUM = 0, PRODUCT = 1;
+
+	/**
+	 * Reduces lanes [from, to) of the values, splitting the lanes between
+	 * tasks.
+	 */
+	private final class Lanes extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final ResidueNumber[] values;
+		private final long[] r;
+		private final int op, from, to;
+
+		Lanes(ResidueNumber[] values, long[] r, int op, int from, int to) {
+			this.values = values;
+			this.r = r;
+			this.op = op;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new Lanes(values, r, op, from, mid), new Lanes(values, r, op, mid, to));
+			} else {
+				reduce(values, r, op, from, to);
+			}
+		}
+	}
+
+	private void reduce(ResidueNumber[] values, long[] r, int op, int from, int to) {
+		for (int i = from; i < to; i++) {
+			Montgomery lane = mont[i];
+			long x = op == SUM ? 0 : lane.one;
+			for (ResidueNumber v : values)
+				x = op == SUM ? lane.add(x, v.lanes[i]) : lane.multiply(x, v.lanes[i]);
+			r[i] = x;
+		}
+	}
+
+	private ResidueNumber reduce(ResidueNumber[] values, int op) {
+		for (ResidueNumber v : values)
+			check(v);
+		long[] r = new long[mont.length];
+		if ((long) values.length * r.length < PARALLEL_THRESHOLD || r.length == 1)
+			reduce(values, r, op, 0, r.length);
+		else
+			BigIntegerMath.pool().invoke(new Lanes(values, r, op, 0, r.length));
+		return new ResidueNumber(this, r);
+	}
+
+	/**
+	 * @return the sum of the values, computed a lane per task.
+	 */
+	public ResidueNumber sum(ResidueNumber... values) {
+		return reduce(values, SUM);
+	}
+
+	/**
+	 * @return the product of the values, computed a lane per task.
+	 */
+	public ResidueNumber product(ResidueNumber... values) {
+		return reduce(values, PRODUCT);
+	}
+
+	@Override
+	public ResidueNumber max(ResidueNumber a, ResidueNumber b) {
+		return compare(a, b) >= 0 ? a : b;
+	}
+
+	@Override
+	public ResidueNumber min(ResidueNumber a, ResidueNumber b) {
+		return compare(a, b) <= 0 ? a : b;
+	}
+
+	/**
+	 * Reconstructs both operands, unless they are equal.
+	 */
+	@Override
+	public int compare(ResidueNumber a, ResidueNumber b) {
+		if (a.equals(b))
+			return 0;
+		return toBigInteger(a).compareTo(toBigInteger(b));
+	}
+
+	@Override
+	public String toString() {
+		return "Z/"+modulus+"Z";
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An integer held as its residues modulo the primes of a
+ * {@link ResidueArithmetic}, one residue per lane. Converting to any other
+ * representation costs a Chinese remainder reconstruction.
+ */
+public final class ResidueNumber extends Number {
+	private static final long serialVersionUID = 1L;
+
+	final ResidueArithmetic arithmetic;
+	/**
+	 * The residues, in Montgomery form.
+	 */
+	final long[] lanes;
+
+	ResidueNumber(ResidueArithmetic arithmetic, long[] lanes) {
+		this.arithmetic = arithmetic;
+		this.lanes = lanes;
+	}
+
+	public ResidueArithmetic getArithmetic() {
+		return arithmetic;
+	}
+
+	/**
+	 * @return the residue modulo the i<sup>th</sup> prime, 0 &lt;= r &lt; p.
+	 */
+	public long getResidue(int i) {
+		return arithmetic.residue(this, i);
+	}
+
+	/**
+	 * @see ResidueArithmetic#toBigInteger(ResidueNumber)
+	 */
+	public BigInteger toBigInteger() {
+		return arithmetic.toBigInteger(this);
+	}
+
+	@Override
+	public int intValue() {
+		return toBigInteger().intValue();
+	}
+
+	@Override
+	public long longValue() {
+		return toBigInteger().longValue();
+	}
+
+	@Override
+	public float floatValue() {
+		return toBigInteger().floatValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return toBigInteger().doubleValue();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ResidueNumber))
+			return false;
+		ResidueNumber b = (ResidueNumber) obj;
+		return arithmetic == b.arithmetic && Arrays.equals(lanes, b.lanes);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(lanes);
+	}
+
+	@Override
+	public String toString() {
+		return toBigInteger().toString();
+	}
+}
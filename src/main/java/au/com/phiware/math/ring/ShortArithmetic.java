@@ -0,0 +1,224 @@
+/**
+ * 
+ */
+package au.com.phiware.math.ring;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Wrapping, 16 bit two's complement arithmetic over {@link Short}.
+ */
+public class ShortArithmetic implements BitArithmetic<Short> {
+
+	private static final ShortArithmetic a = new ShortArithmetic();
+	private ShortArithmetic() {}
+	public static ShortArithmetic getInstance() {
+		return a;
+	}
+
+	@Override
+	public int maxBitLength() {
+		return Short.SIZE;
+	}
+
+	@Override
+	public Short one() {
+		return 1;
+	}
+
+	/**
+	 * @see LongArithmetic#factors(Long)
+	 */
+	@Override
+	public Set<Short> factors(Short a) {
+		Set<Short> factors = new TreeSet<Short>();
+		for (long d : Factorization.divisors(Factorization.primeFactors(a)))
+			factors.add((short) d);
+		return factors;
+	}
+
+	/**
+	 * @see LongArithmetic#primeFactorization(Long)
+	 */
+	@Override
+	public Short[] primeFactorization(Short a) {
+		long[] factors = Factorization.primeFactors(a);
+		Short[] boxed = new Short[factors.length];
+		for (int i = 0; i < factors.length; i++)
+			boxed[i] = (short) factors[i];
+		return boxed;
+	}
+
+	@Override
+	public Short gcd(Short a, Short b) {
+		return (short) LongMath.gcd(a, b);
+	}
+
+	@Override
+	public Short[] extendedGcd(Short a, Short b) {
+		long[] e = LongMath.extendedGcd(a, b);
+		return new Short[] {(short) e[0], (short) e[1], (short) e[2]};
+	}
+
+	@Override
+	public Short modInverse(Short a, Short mod) {
+		return (short) LongMath.modInverse(a, mod);
+	}
+
+	@Override
+	public void modInverse(Short[] a, Short mod, Short[] out) {
+		long[] values = new long[a.length];
+		for (int i = 0; i < a.length; i++)
+			values[i] = a[i];
+		LongMath.modInverse(values, mod, values);
+		for (int i = 0; i < a.length; i++)
+			out[i] = (short) values[i];
+	}
+
+	@Override
+	public boolean congruent(Short a, Short b, Short mod) {
+		return (a - b) % mod == 0;
+	}
+
+	@Override
+	public Short mod(Short a, Short b) {
+		short r = (short) (a % b);
+		return (short) (r >= 0 ? r : (r + b));
+	}
+
+	@Override
+	public Short zero() {
+		return 0;
+	}
+
+	@Override
+	public Short add(Short a, Short b) {
+		return (short) (a + b);
+	}
+
+	@Override
+	public Short negate(Short a) {
+		return (short) -a;
+	}
+
+	@Override
+	public Short subtract(Short a, Short b) {
+		return (short) (a - b);
+	}
+
+	@Override
+	public Short multiply(Short a, Short b) {
+		return (short) (a * b);
+	}
+
+	@Override
+	public Short pow(Short a, Short b) {
+		return (short) Math.pow(a, b);
+	}
+
+	@Override
+	public Short max(Short a, Short b) {
+		return (short) Math.max(a, b);
+	}
+
+	@Override
+	public Short min(Short a, Short b) {
+		return (short) Math.min(a, b);
+	}
+
+	@Override
+	public boolean testBit(Short a, int n) {
+		return (a & (1 << n)) != 0;
+	}
+
+	@Override
+	public Short setBit(Short a, int n) {
+		return (short) (a | (1 << n));
+	}
+
+	@Override
+	public Short clearBit(Short a, int n) {
+		return (short) (a & ~(1 << n));
+	}
+
+	@Override
+	public Short flipBit(Short a, int n) {
+		if (testBit(a, n))
+			return clearBit(a, n);
+		else
+			return setBit(a, n);
+	}
+
+	@Override
+	public int signum(Short a) {
+		return Integer.signum(a);
+	}
+
+	@Override
+	public Short reverse(Short a) {
+		return (short) (Integer.reverse(a) >> (Integer.SIZE - Short.SIZE));
+	}
+
+	@Override
+	public Short or(Short a, Short b) {
+		return (short) (a | b);
+	}
+
+	@Override
+	public Short and(Short a, Short b) {
+		return (short) (a & b);
+	}
+
+	@Override
+	public Short nand(Short a, Short b) {
+		return (short) (a & ~b);
+	}
+
+	@Override
+	public Short xor(Short a, Short b) {
+		return (short) (a ^ b);
+	}
+
+	@Override
+	public Short not(Short a) {
+		return (short) ~a;
+	}
+
+	@Override
+	public Short shiftLeft(Short a, int n) {
+		return (short) (a << n);
+	}
+
+	@Override
+	public Short shiftRight(Short a, int n) {
+		return (short) (a >> n);
+	}
+
+	@Override
+	public int bitCount(Short a) {
+		return Integer.bitCount(a & 0xFFFF);
+	}
+
+	@Override
+	public int highestOneBit(Short a) {
+		return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(a & 0xFFFF);
+	}
+
+	@Override
+	public int lowestOneBit(Short a) {
+		if (a == 0)
+			return -1;
+		return Integer.numberOfTrailingZeros(a & 0xFFFF);
+	}
+
+	@Override
+	public String toString(Short a, int radix) {
+		return Integer.toString(a, radix);
+	}
+
+	@Override
+	public int compare(Short a, Short b) {
+		return a - b;
+	}
+}
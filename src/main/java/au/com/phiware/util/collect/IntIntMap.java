@@ -0,0 +1,222 @@
+package au.com.phiware.util.collect;
+
+/**
+ * A map of <tt>int</tt> keys to <tt>int</tt> values, that is an open
+ * addressing hash table with double hashing and prime capacities.
+ *
+ * <p>Unlike a <tt>HashMap&lt;Integer, Integer&gt;</tt> no entry is an object; the
+ * keys and values are held in parallel arrays.
+ */
+public class IntIntMap extends OpenHashTable {
+	int[] keys;
+	int[] values;
+
+	public IntIntMap() {
+		this(defaultCapacity);
+	}
+
+	public IntIntMap(int initialCapacity) {
+		this(initialCapacity, defaultMinLoadFactor, defaultMaxLoadFactor);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if initialCapacity is negative or the
+	 *         load factors are not <tt>0 &lt;= minLoadFactor &lt; maxLoadFactor &lt; 1</tt>.
+	 */
+	public IntIntMap(int initialCapacity, double minLoadFactor, double maxLoadFactor) {
+		super(initialCapacity, minLoadFactor, maxLoadFactor);
+		setUp(initialCapacity);
+	}
+
+	@Override
+	void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		resize(capacity);
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		int[] oldKeys = keys, oldValues = values;
+		byte[] oldState = state;
+		int size = distinct;
+		allocate(newCapacity);
+		for (int i = oldState.length; i-- > 0; ) {
+			if (oldState[i] == FULL) {
+				int j = indexOfFree(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+				state[j] = FULL;
+			}
+		}
+		distinct = size;
+		freeEntries -= size;
+	}
+
+	/**
+	 * @return the index of the slot to insert the key into, or, if the key is
+	 *         already contained, <tt>-index - 1</tt> of its slot.
+	 */
+	final int indexOfInsertion(int key) {
+		final byte[] state = this.state;
+		final int[] keys = this.keys;
+		final int length = state.length;
+		final long hash = hash(key);
+		final int decrement = probeDecrement(hash);
+		int i = firstProbe(hash);
+
+		// stop at a free or removed slot, or at the key itself
+		while (state[i] == FULL && keys[i] != key) {
+			i -= decrement;
+			if (i < 0)
+				i += length;
+		}
+
+		if (state[i] == REMOVED) {
+			// the key may yet be further along; stop only at a free slot or the key itself
+			int j = i;
+			while (state[i] != FREE && (state[i] == REMOVED || keys[i] != key)) {
+				i -= decrement;
+				if (i < 0)
+					i += length;
+			}
+			if (state[i] == FREE)
+				i = j;
+		}
+
+		if (state[i] == FULL)
+			return -i - 1;
+		return i;
+	}
+
+	/**
+	 * @return the index of the slot of the key, or -1 if it is not contained.
+	 */
+	final int indexOfKey(int key) {
+		final byte[] state = this.state;
+		final int[] keys = this.keys;
+		final int length = state.length;
+		final long hash = hash(key);
+		final int decrement = probeDecrement(hash);
+		int i = firstProbe(hash);
+
+		while (state[i] != FREE && (state[i] == REMOVED || keys[i] != key)) {
+			i -= decrement;
+			if (i < 0)
+				i += length;
+		}
+
+		if (state[i] == FREE)
+			return -1;
+		return i;
+	}
+
+	/**
+	 * @return the index of a free slot for a key that is not contained, in a
+	 *         table that has no removed slots; used by {@link #rehash(int)}.
+	 */
+	final int indexOfFree(int key) {
+		final long hash = hash(key);
+		final int decrement = probeDecrement(hash);
+		int i = firstProbe(hash);
+		while (state[i] == FULL) {
+			i -= decrement;
+			if (i < 0)
+				i += state.length;
+		}
+		return i;
+	}
+
+	public boolean containsKey(int key) {
+		return indexOfKey(key) >= 0;
+	}
+
+	/**
+	 * @return the keys, in no particular order.
+	 */
+	public int[] keys() {
+		int[] list = new int[distinct];
+		int n = 0;
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				list[n++] = keys[i];
+		return list;
+	}
+
+	/**
+	 * @return the value of the key, or 0 if it is not contained.
+	 */
+	public int get(int key) {
+		return get(key, 0);
+	}
+
+	/**
+	 * @return the value of the key, or absent if it is not contained.
+	 */
+	public int get(int key, int absent) {
+		int i = indexOfKey(key);
+		return i < 0 ? absent : values[i];
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 * @return true if the key was not already contained.
+	 */
+	public boolean put(int key, int value) {
+		int i = indexOfInsertion(key);
+		if (i < 0) {
+			values[-i - 1] = value;
+			return false;
+		}
+		if (growForInsertion())
+			return put(key, value);
+		keys[i] = key;
+		values[i] = value;
+		inserted(i);
+		return true;
+	}
+
+	/**
+	 * Adds delta to the value of the key, which is 0 if it is not contained.
+	 * @return the new value.
+	 */
+	public int addTo(int key, int delta) {
+		int i = indexOfInsertion(key);
+		if (i < 0)
+			return values[-i - 1] += delta;
+		put(key, delta);
+		return delta;
+	}
+
+	/**
+	 * @return true if the key was contained.
+	 */
+	public boolean removeKey(int key) {
+		int i = indexOfKey(key);
+		if (i < 0)
+			return false;
+		removed(i);
+		return true;
+	}
+
+	/**
+	 * @return the values, in the same order as {@link #keys()}.
+	 */
+	public int[] values() {
+		int[] list = new int[distinct];
+		int n = 0;
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				list[n++] = values[i];
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("{");
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				s.append(s.length() > 1 ? ", " : "").append(keys[i]).append('=').append(values[i]);
+		return s.append('}').toString();
+	}
+}
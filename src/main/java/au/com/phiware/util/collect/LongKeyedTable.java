@@ -0,0 +1,108 @@
+package au.com.phiware.util.collect;
+
+/**
+ * An open addressing hash table of <tt>long</tt> keys.
+ */
+abstract class LongKeyedTable extends OpenHashTable {
+	long[] keys;
+
+	LongKeyedTable(int initialCapacity, double minLoadFactor, double maxLoadFactor) {
+		super(initialCapacity, minLoadFactor, maxLoadFactor);
+	}
+
+	@Override
+	void allocate(int capacity) {
+		keys = new long[capacity];
+		resize(capacity);
+	}
+
+	/**
+	 * @return the index of the slot to insert the key into, or, if the key is
+	 *         already contained, <tt>-index - 1</tt> of its slot.
+	 */
+	final int indexOfInsertion(long key) {
+		final byte[] state = this.state;
+		final long[] keys = this.keys;
+		final int length = state.length;
+		final long hash = hash(key);
+		final int decrement = probeDecrement(hash);
+		int i = firstProbe(hash);
+
+		// stop at a free or removed slot, or at the key itself
+		while (state[i] == FULL && keys[i] != key) {
+			i -= decrement;
+			if (i < 0)
+				i += length;
+		}
+
+		if (state[i] == REMOVED) {
+			// the key may yet be further along; stop only at a free slot or the key itself
+			int j = i;
+			while (state[i] != FREE && (state[i] == REMOVED || keys[i] != key)) {
+				i -= decrement;
+				if (i < 0)
+					i += length;
+			}
+			if (state[i] == FREE)
+				i = j;
+		}
+
+		if (state[i] == FULL)
+			return -i - 1;
+		return i;
+	}
+
+	/**
+	 * @return the index of the slot of the key, or -1 if it is not contained.
+	 */
+	final int indexOfKey(long key) {
+		final byte[] state = this.state;
+		final long[] keys = this.keys;
+		final int length = state.length;
+		final long hash = hash(key);
+		final int decrement = probeDecrement(hash);
+		int i = firstProbe(hash);
+
+		while (state[i] != FREE && (state[i] == REMOVED || keys[i] != key)) {
+			i -= decrement;
+			if (i < 0)
+				i += length;
+		}
+
+		if (state[i] == FREE)
+			return -1;
+		return i;
+	}
+
+	/**
+	 * @return the index of a free slot for a key that is not contained, in a
+	 *         table that has no removed slots; used by {@link #rehash(int)}.
+	 */
+	final int indexOfFree(long key) {
+		final long hash = hash(key);
+		final int decrement = probeDecrement(hash);
+		int i = firstProbe(hash);
+		while (state[i] == FULL) {
+			i -= decrement;
+			if (i < 0)
+				i += state.length;
+		}
+		return i;
+	}
+
+	public boolean containsKey(long key) {
+		return indexOfKey(key) >= 0;
+	}
+
+	/**
+	 * @return the keys, in no particular order.
+	 */
+	public long[] keys() {
+		long[] list = new long[distinct];
+		int n = 0;
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				list[n++] = keys[i];
+		return list;
+	}
+}
@@ -0,0 +1,130 @@
+package au.com.phiware.util.collect;
+
+/**
+ * A map of <tt>long</tt> keys to <tt>long</tt> values, that is an open
+ * addressing hash table with double hashing and prime capacities.
+ *
+ * <p>Unlike a <tt>HashMap&lt;Long, Long&gt;</tt> no entry is an object; the
+ * keys and values are held in parallel arrays.
+ */
+public class LongLongMap extends LongKeyedTable {
+	long[] values;
+
+	public LongLongMap() {
+		this(defaultCapacity);
+	}
+
+	public LongLongMap(int initialCapacity) {
+		this(initialCapacity, defaultMinLoadFactor, defaultMaxLoadFactor);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if initialCapacity is negative or the
+	 *         load factors are not <tt>0 &lt;= minLoadFactor &lt; maxLoadFactor &lt; 1</tt>.
+	 */
+	public LongLongMap(int initialCapacity, double minLoadFactor, double maxLoadFactor) {
+		super(initialCapacity, minLoadFactor, maxLoadFactor);
+		setUp(initialCapacity);
+	}
+
+	@Override
+	void allocate(int capacity) {
+		values = new long[capacity];
+		super.allocate(capacity);
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldKeys = keys, oldValues = values;
+		byte[] oldState = state;
+		int size = distinct;
+		allocate(newCapacity);
+		for (int i = oldState.length; i-- > 0; ) {
+			if (oldState[i] == FULL) {
+				int j = indexOfFree(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+				state[j] = FULL;
+			}
+		}
+		distinct = size;
+		freeEntries -= size;
+	}
+
+	/**
+	 * @return the value of the key, or 0 if it is not contained.
+	 */
+	public long get(long key) {
+		return get(key, 0L);
+	}
+
+	/**
+	 * @return the value of the key, or absent if it is not contained.
+	 */
+	public long get(long key, long absent) {
+		int i = indexOfKey(key);
+		return i < 0 ? absent : values[i];
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 * @return true if the key was not already contained.
+	 */
+	public boolean put(long key, long value) {
+		int i = indexOfInsertion(key);
+		if (i < 0) {
+			values[-i - 1] = value;
+			return false;
+		}
+		if (growForInsertion())
+			return put(key, value);
+		keys[i] = key;
+		values[i] = value;
+		inserted(i);
+		return true;
+	}
+
+	/**
+	 * Adds delta to the value of the key, which is 0 if it is not contained.
+	 * @return the new value.
+	 */
+	public long addTo(long key, long delta) {
+		int i = indexOfInsertion(key);
+		if (i < 0)
+			return values[-i - 1] += delta;
+		put(key, delta);
+		return delta;
+	}
+
+	/**
+	 * @return true if the key was contained.
+	 */
+	public boolean removeKey(long key) {
+		int i = indexOfKey(key);
+		if (i < 0)
+			return false;
+		removed(i);
+		return true;
+	}
+
+	/**
+	 * @return the values, in the same order as {@link #keys()}.
+	 */
+	public long[] values() {
+		long[] list = new long[distinct];
+		int n = 0;
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				list[n++] = values[i];
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("{");
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				s.append(s.length() > 1 ? ", " : "").append(keys[i]).append('=').append(values[i]);
+		return s.append('}').toString();
+	}
+}
@@ -0,0 +1,114 @@
+package au.com.phiware.util.collect;
+
+/**
+ * A map of <tt>long</tt> keys to object values, that is an open addressing
+ * hash table with double hashing and prime capacities.
+ *
+ * <p>Unlike a <tt>HashMap&lt;Long, V&gt;</tt> neither the keys nor the entries
+ * are objects; the keys and values are held in parallel arrays.
+ */
+public class LongObjectMap<V> extends LongKeyedTable {
+	Object[] values;
+
+	public LongObjectMap() {
+		this(defaultCapacity);
+	}
+
+	public LongObjectMap(int initialCapacity) {
+		this(initialCapacity, defaultMinLoadFactor, defaultMaxLoadFactor);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if initialCapacity is negative or the
+	 *         load factors are not <tt>0 &lt;= minLoadFactor &lt; maxLoadFactor &lt; 1</tt>.
+	 */
+	public LongObjectMap(int initialCapacity, double minLoadFactor, double maxLoadFactor) {
+		super(initialCapacity, minLoadFactor, maxLoadFactor);
+		setUp(initialCapacity);
+	}
+
+	@Override
+	void allocate(int capacity) {
+		values = new Object[capacity];
+		super.allocate(capacity);
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		byte[] oldState = state;
+		int size = distinct;
+		allocate(newCapacity);
+		for (int i = oldState.length; i-- > 0; ) {
+			if (oldState[i] == FULL) {
+				int j = indexOfFree(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+				state[j] = FULL;
+			}
+		}
+		distinct = size;
+		freeEntries -= size;
+	}
+
+	/**
+	 * @return the value of the key, or null if it is not contained.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int i = indexOfKey(key);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 * @return true if the key was not already contained.
+	 */
+	public boolean put(long key, V value) {
+		int i = indexOfInsertion(key);
+		if (i < 0) {
+			values[-i - 1] = value;
+			return false;
+		}
+		if (growForInsertion())
+			return put(key, value);
+		keys[i] = key;
+		values[i] = value;
+		inserted(i);
+		return true;
+	}
+
+	/**
+	 * @return true if the key was contained.
+	 */
+	public boolean removeKey(long key) {
+		int i = indexOfKey(key);
+		if (i < 0)
+			return false;
+		values[i] = null;
+		removed(i);
+		return true;
+	}
+
+	/**
+	 * @return the values, in the same order as {@link #keys()}.
+	 */
+	public Object[] values() {
+		Object[] list = new Object[distinct];
+		int n = 0;
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				list[n++] = values[i];
+		return list;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("{");
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				s.append(s.length() > 1 ? ", " : "").append(keys[i]).append('=').append(values[i]);
+		return s.append('}').toString();
+	}
+}
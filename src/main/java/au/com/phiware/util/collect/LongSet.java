@@ -0,0 +1,89 @@
+package au.com.phiware.util.collect;
+
+/**
+ * A set of <tt>long</tt>s, that is an open addressing hash table with double
+ * hashing and prime capacities.
+ *
+ * <p>Unlike a <tt>HashSet&lt;Long&gt;</tt> no element is an object; the
+ * elements are held in an array.
+ */
+public class LongSet extends LongKeyedTable {
+	public LongSet() {
+		this(defaultCapacity);
+	}
+
+	public LongSet(int initialCapacity) {
+		this(initialCapacity, defaultMinLoadFactor, defaultMaxLoadFactor);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if initialCapacity is negative or the
+	 *         load factors are not <tt>0 &lt;= minLoadFactor &lt; maxLoadFactor &lt; 1</tt>.
+	 */
+	public LongSet(int initialCapacity, double minLoadFactor, double maxLoadFactor) {
+		super(initialCapacity, minLoadFactor, maxLoadFactor);
+		setUp(initialCapacity);
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldKeys = keys;
+		byte[] oldState = state;
+		int size = distinct;
+		allocate(newCapacity);
+		for (int i = oldState.length; i-- > 0; ) {
+			if (oldState[i] == FULL) {
+				int j = indexOfFree(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				state[j] = FULL;
+			}
+		}
+		distinct = size;
+		freeEntries -= size;
+	}
+
+	public boolean contains(long element) {
+		return indexOfKey(element) >= 0;
+	}
+
+	/**
+	 * @return true if the element was not already contained.
+	 */
+	public boolean add(long element) {
+		int i = indexOfInsertion(element);
+		if (i < 0)
+			return false;
+		if (growForInsertion())
+			return add(element);
+		keys[i] = element;
+		inserted(i);
+		return true;
+	}
+
+	/**
+	 * @return true if the element was contained.
+	 */
+	public boolean remove(long element) {
+		int i = indexOfKey(element);
+		if (i < 0)
+			return false;
+		removed(i);
+		return true;
+	}
+
+	/**
+	 * @return the elements, in no particular order.
+	 */
+	public long[] toArray() {
+		return keys();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("[");
+		for (int i = 0; i < state.length; i++)
+			if (state[i] == FULL)
+				s.append(s.length() > 1 ? ", " : "").append(keys[i]);
+		return s.append(']').toString();
+	}
+}
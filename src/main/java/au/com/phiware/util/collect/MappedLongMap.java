@@ -0,0 +1,428 @@
+package au.com.phiware.util.collect;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import au.com.phiware.math.FastMod;
+import au.com.phiware.math.PrimeFinder;
+
+/**
+ * A map of <tt>long</tt> keys to fixed size values, that is an open
+ * addressing hash table with double hashing and a prime capacity, whose
+ * slots are held in a memory-mapped file rather than on the heap.
+ *
+ * <p>The file is the table, so that a map is {@link #open(File) reopened}
+ * without reading it; its pages are loaded as they are probed. A map does
+ * not grow by itself: once it is {@link #MAX_LOAD_FACTOR} full, it must be
+ * {@link #rehash(File, int) rehashed} into a larger file.
+ *
+ * <p>The file consists of a header of {@value #HEADER_SIZE} bytes, a state
+ * byte per slot (padded to a multiple of eight), and the slots, each of
+ * which is a key followed by its value; numbers are little-endian. Files
+ * larger than 2 GB are mapped in several chunks. A slot's state is written
+ * after its key and value, so that a slot is never full with a partly
+ * written entry.
+ *
+ * <p>A map is not thread-safe.
+ */
+public class MappedLongMap implements Closeable {
+	static final long MAGIC = 0x32305041_4d494850L; // "PHIMAP02"
+	static final int HEADER_SIZE = 64;
+	static final int VALUE_SIZE_OFFSET = 8;
+	static final int CAPACITY_OFFSET = 12;
+	static final int SIZE_OFFSET = 16;
+	static final int USED_OFFSET = 24;
+
+	/**
+	 * The greatest proportion of slots that may be used, i.e. full or
+	 * removed.
+	 */
+	public static final double MAX_LOAD_FACTOR = 0.75;
+
+	static final byte FREE = 0;
+	static final byte FULL = 1;
+	static final byte REMOVED = 2;
+
+	/**
+	 * The greatest length of a chunk of the mapping.
+	 */
+	static final int MAX_CHUNK = 1 << 30;
+
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final MappedByteBuffer[] states;
+	private final MappedByteBuffer[] slots;
+	private final int slotsPerChunk;
+	private final int valueSize;
+	private final int slotSize;
+	private final int capacity;
+	private final FastMod index, decrement;
+	private long size;
+	private long used;
+
+	private MappedLongMap(File file, RandomAccessFile raf, int capacity, int valueSize) throws IOException {
+		this.file = file;
+		this.raf = raf;
+		this.channel = raf.getChannel();
+		this.capacity = capacity;
+		this.valueSize = valueSize;
+		this.slotSize = 8 + valueSize;
+		this.index = PrimeFinder.fastMod(capacity);
+		this.decrement = PrimeFinder.fastMod(Math.max(capacity - 2, 1));
+
+		header = map(0, HEADER_SIZE);
+		long offset = HEADER_SIZE;
+		states = new MappedByteBuffer[(int) ((capacity + (long) MAX_CHUNK - 1) / MAX_CHUNK)];
+		for (int i = 0; i < states.length; i++) {
+			long length = Math.min(MAX_CHUNK, capacity - (long) i * MAX_CHUNK);
+			states[i] = map(offset, length);
+			offset += length;
+		}
+		offset = (offset + 7) & ~7L;
+		slotsPerChunk = MAX_CHUNK / slotSize;
+		slots = new MappedByteBuffer[(int) ((capacity + (long) slotsPerChunk - 1) / slotsPerChunk)];
+		for (int i = 0; i < slots.length; i++) {
+			long length = (long) slotSize * Math.min(slotsPerChunk, capacity - (long) i * slotsPerChunk);
+			slots[i] = map(offset, length);
+			offset += length;
+		}
+	}
+
+	private MappedByteBuffer map(long offset, long length) throws IOException {
+		MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, offset, length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+	/**
+	 * @return the length of the file of a table.
+	 */
+	static long fileLength(int capacity, int valueSize) {
+		return ((HEADER_SIZE + (long) capacity + 7) & ~7L) + (long) capacity * (8 + valueSize);
+	}
+
+	/**
+	 * Creates an empty map in the given file, replacing its contents.
+	 * @param initialCapacity the number of entries to hold; the capacity is
+	 *        the next prime that holds them within the maximum load factor.
+	 * @param valueSize the number of bytes of each value.
+	 * @throws IllegalArgumentException if initialCapacity or valueSize is
+	 *         negative, or the table would be too big.
+	 */
+	public static MappedLongMap create(File file, int initialCapacity, int valueSize) throws IOException {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Initial capacity, "+initialCapacity+", must not be negative.");
+		if (valueSize < 0 || valueSize > MAX_CHUNK - 8)
+			throw new IllegalArgumentException("Value size, "+valueSize+", must be within [0, "+(MAX_CHUNK - 8)+"].");
+		long desired = (long) Math.ceil((initialCapacity + 1) / MAX_LOAD_FACTOR);
+		if (desired > PrimeFinder.largestPrime)
+			throw new IllegalArgumentException("Initial capacity, "+initialCapacity+", is too big.");
+		int capacity = PrimeFinder.nextPrime(Math.max((int) desired, 3));
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(0);
+			raf.setLength(fileLength(capacity, valueSize));
+			MappedLongMap map = new MappedLongMap(file, raf, capacity, valueSize);
+			map.header.putLong(0, MAGIC);
+			map.header.putInt(VALUE_SIZE_OFFSET, valueSize);
+			map.header.putInt(CAPACITY_OFFSET, capacity);
+			map.writeCounts();
+			return map;
+		} catch (IOException e) {
+			raf.close();
+			throw e;
+		} catch (RuntimeException e) {
+			raf.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a map that was created by {@link #create(File, int, int)}.
+	 * @throws IOException if the file is not such a map.
+	 */
+	public static MappedLongMap open(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			if (raf.length() < HEADER_SIZE)
+				throw new IOException(file+" is not a map.");
+			MappedByteBuffer header = raf.getChannel().map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			int valueSize = header.getInt(VALUE_SIZE_OFFSET), capacity = header.getInt(CAPACITY_OFFSET);
+			if (header.getLong(0) != MAGIC || valueSize < 0 || capacity < 3
+					|| raf.length() != fileLength(capacity, valueSize))
+				throw new IOException(file+" is not a map.");
+			MappedLongMap map = new MappedLongMap(file, raf, capacity, valueSize);
+			map.size = header.getLong(SIZE_OFFSET);
+			map.used = header.getLong(USED_OFFSET);
+			return map;
+		} catch (IOException e) {
+			raf.close();
+			throw e;
+		} catch (RuntimeException e) {
+			raf.close();
+			throw e;
+		}
+	}
+
+	private void writeCounts() {
+		header.putLong(SIZE_OFFSET, size);
+		header.putLong(USED_OFFSET, used);
+	}
+
+	private byte state(int i) {
+		return states[i / MAX_CHUNK].get(i % MAX_CHUNK);
+	}
+
+	private void state(int i, byte state) {
+		states[i / MAX_CHUNK].put(i % MAX_CHUNK, state);
+	}
+
+	private MappedByteBuffer chunk(int i) {
+		return slots[i / slotsPerChunk];
+	}
+
+	private int position(int i) {
+		return (i % slotsPerChunk) * slotSize;
+	}
+
+	private long key(int i) {
+		return chunk(i).getLong(position(i));
+	}
+
+	/**
+	 * @return the slot of the key, or, if it is not contained,
+	 *         <tt>-index - 1</tt> of the slot to insert it into; the first
+	 *         probe is taken from the high bits of the
+	 *         {@link OpenHashTable#hash(long) mixed hash} and the probe
+	 *         decrement from its low bits.
+	 */
+	private int indexOf(long key) {
+		long hash = OpenHashTable.hash(key);
+		int i = index.mod((int) (hash >>> 33));
+		int d = Math.max(decrement.mod((int) hash & 0x7fffffff), 1);
+		int insertion = -1;
+		for (;;) {
+			byte state = state(i);
+			if (state == FREE)
+				return -(insertion < 0 ? i : insertion) - 1;
+			if (state == REMOVED) {
+				if (insertion < 0)
+					insertion = i;
+			} else if (key(i) == key)
+				return i;
+			i -= d;
+			if (i < 0)
+				i += capacity;
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getValueSize() {
+		return valueSize;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean containsKey(long key) {
+		return indexOf(key) >= 0;
+	}
+
+	private void checkLongValues() {
+		if (valueSize != 8)
+			throw new UnsupportedOperationException("Values are "+valueSize+" bytes, not longs.");
+	}
+
+	/**
+	 * @return the value of the key, or absent if it is not contained.
+	 * @throws UnsupportedOperationException unless values are 8 bytes.
+	 */
+	public long get(long key, long absent) {
+		checkLongValues();
+		int i = indexOf(key);
+		return i < 0 ? absent : chunk(i).getLong(position(i) + 8);
+	}
+
+	/**
+	 * Copies the value of the key into value.
+	 * @return true if the key is contained.
+	 * @throws IllegalArgumentException unless value has a length of the value size.
+	 */
+	public boolean get(long key, byte[] value) {
+		checkValue(value);
+		int i = indexOf(key);
+		if (i < 0)
+			return false;
+		MappedByteBuffer chunk = chunk(i);
+		int position = position(i) + 8;
+		for (int j = 0; j < valueSize; j++)
+			value[j] = chunk.get(position + j);
+		return true;
+	}
+
+	private void checkValue(byte[] value) {
+		if (value.length != valueSize)
+			throw new IllegalArgumentException("Value of "+value.length+" bytes, must be "+valueSize+" bytes.");
+	}
+
+	/**
+	 * Writes a key that is not contained into the slot it is to be inserted
+	 * into, which is not full until it is {@link #fill(int) filled}.
+	 * @param i <tt>-index - 1</tt> of the slot, as returned by indexOf.
+	 * @return the slot.
+	 * @throws IllegalStateException if the map is full.
+	 */
+	private int reserve(int i, long key) {
+		i = -i - 1;
+		if (state(i) == FREE && used + 1 > (long) (capacity * MAX_LOAD_FACTOR))
+			throw new IllegalStateException("The map is full; rehash it into a larger file.");
+		chunk(i).putLong(position(i), key);
+		return i;
+	}
+
+	/**
+	 * Marks a {@link #reserve(int, long) reserved} slot full, once its value
+	 * is written, and then counts it.
+	 */
+	private void fill(int i) {
+		if (state(i) == FREE)
+			used++;
+		state(i, FULL);
+		size++;
+		writeCounts();
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 * @return true if the key was not already contained.
+	 * @throws UnsupportedOperationException unless values are 8 bytes.
+	 * @throws IllegalStateException if the map is full.
+	 */
+	public boolean put(long key, long value) {
+		checkLongValues();
+		int i = indexOf(key);
+		boolean absent = i < 0;
+		if (absent)
+			i = reserve(i, key);
+		chunk(i).putLong(position(i) + 8, value);
+		if (absent)
+			fill(i);
+		return absent;
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 * @return true if the key was not already contained.
+	 * @throws IllegalArgumentException unless value has a length of the value size.
+	 * @throws IllegalStateException if the map is full.
+	 */
+	public boolean put(long key, byte[] value) {
+		checkValue(value);
+		int i = indexOf(key);
+		boolean absent = i < 0;
+		if (absent)
+			i = reserve(i, key);
+		MappedByteBuffer chunk = chunk(i);
+		int position = position(i) + 8;
+		for (int j = 0; j < valueSize; j++)
+			chunk.put(position + j, value[j]);
+		if (absent)
+			fill(i);
+		return absent;
+	}
+
+	/**
+	 * @return true if the key was contained.
+	 */
+	public boolean remove(long key) {
+		int i = indexOf(key);
+		if (i < 0)
+			return false;
+		state(i, REMOVED);
+		size--;
+		writeCounts();
+		return true;
+	}
+
+	/**
+	 * Creates a map in another file with every entry of this map, which is
+	 * left unchanged.
+	 * @param newCapacity the number of entries the new map holds.
+	 * @throws IllegalArgumentException if newCapacity is less than the size.
+	 */
+	public MappedLongMap rehash(File file, int newCapacity) throws IOException {
+		if (newCapacity < size)
+			throw new IllegalArgumentException("New capacity, "+newCapacity+", is less than the size, "+size+".");
+		if (file.getCanonicalFile().equals(this.file.getCanonicalFile()))
+			throw new IllegalArgumentException("Cannot rehash "+file+" into itself.");
+		MappedLongMap map = create(file, newCapacity, valueSize);
+		try {
+			for (int i = 0; i < capacity; i++) {
+				if (state(i) != FULL)
+					continue;
+				int j = -map.indexOf(key(i)) - 1;
+				MappedByteBuffer from = chunk(i), to = map.chunk(j);
+				int p = position(i), q = map.position(j), k = 0;
+				for (; k + 8 <= slotSize; k += 8)
+					to.putLong(q + k, from.getLong(p + k));
+				for (; k < slotSize; k++)
+					to.put(q + k, from.get(p + k));
+				map.state(j, FULL);
+			}
+			map.size = map.used = size;
+			map.writeCounts();
+			return map;
+		} catch (RuntimeException e) {
+			map.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes any changes to the file.
+	 */
+	public void flush() {
+		header.force();
+		for (MappedByteBuffer b : states)
+			b.force();
+		for (MappedByteBuffer b : slots)
+			b.force();
+	}
+
+	/**
+	 * Writes any changes to the file and closes it; the mapping is released
+	 * when the map is collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+		raf.close();
+	}
+
+	@Override
+	public String toString() {
+		return file+": "+size+" of "+capacity;
+	}
+}
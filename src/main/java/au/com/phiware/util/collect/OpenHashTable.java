@@ -0,0 +1,209 @@
+package au.com.phiware.util.collect;
+
+import au.com.phiware.math.FastMod;
+import au.com.phiware.math.PrimeFinder;
+
+/**
+ * The bookkeeping of an open addressing hash table with double hashing,
+ * whose capacities are primes chosen by {@link PrimeFinder}.
+ *
+ * <p>A table grows when more than <tt>maxLoadFactor</tt> of its slots are
+ * full and shrinks when fewer than <tt>minLoadFactor</tt> of them are.
+ * Subclasses keep their keys and values in arrays that are parallel to
+ * {@link #state}.
+ */
+abstract class OpenHashTable {
+	static final byte FREE = 0;
+	static final byte FULL = 1;
+	static final byte REMOVED = 2;
+
+	static final int defaultCapacity = 277;
+	static final double defaultMinLoadFactor = 0.2;
+	static final double defaultMaxLoadFactor = 0.5;
+
+	byte[] state;
+	/**
+	 * Reducers by the capacity, for the first probe, and by the capacity
+	 * less two, for the probe decrement.
+	 */
+	FastMod index, decrement;
+
+	int distinct;
+	int freeEntries;
+	int lowWaterMark;
+	int highWaterMark;
+	final double minLoadFactor;
+	final double maxLoadFactor;
+
+	OpenHashTable(int initialCapacity, double minLoadFactor, double maxLoadFactor) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Initial capacity, "+initialCapacity+", must not be negative.");
+		if (minLoadFactor < 0.0 || minLoadFactor >= 1.0)
+			throw new IllegalArgumentException("Minimum load factor, "+minLoadFactor+", must be in [0, 1).");
+		if (maxLoadFactor <= 0.0 || maxLoadFactor >= 1.0)
+			throw new IllegalArgumentException("Maximum load factor, "+maxLoadFactor+", must be in (0, 1).");
+		if (minLoadFactor >= maxLoadFactor)
+			throw new IllegalArgumentException("Minimum load factor, "+minLoadFactor+", must be less than the maximum, "+maxLoadFactor+".");
+		this.minLoadFactor = minLoadFactor;
+		this.maxLoadFactor = maxLoadFactor;
+	}
+
+	/**
+	 * Allocates the arrays of a table of the given capacity; the table is
+	 * then empty.
+	 */
+	abstract void allocate(int capacity);
+
+	/**
+	 * Allocates a table of the given capacity and moves every entry into it.
+	 */
+	abstract void rehash(int newCapacity);
+
+	/**
+	 * Called by the constructors of subclasses.
+	 */
+	void setUp(int initialCapacity) {
+		allocate(PrimeFinder.nextPrime(Math.max(initialCapacity, 3)));
+		lowWaterMark = 0; // a new table never shrinks before it has grown
+	}
+
+	/**
+	 * Sets up the bookkeeping of an empty table of the given capacity; called
+	 * by {@link #allocate(int)}.
+	 */
+	void resize(int capacity) {
+		state = new byte[capacity];
+		index = PrimeFinder.fastMod(capacity);
+		decrement = PrimeFinder.fastMod(Math.max(capacity - 2, 1));
+		distinct = 0;
+		freeEntries = capacity;
+		lowWaterMark = (int) (capacity * minLoadFactor);
+		highWaterMark = Math.min(capacity - 2, (int) (capacity * maxLoadFactor));
+	}
+
+	int capacity() {
+		return state.length;
+	}
+
+	/**
+	 * @return the index of the first probe of a key with the given hash,
+	 *         taken from its high bits.
+	 */
+	final int firstProbe(long hash) {
+		return index.mod((int) (hash >>> 33));
+	}
+
+	/**
+	 * @return the distance between probes of a key with the given hash,
+	 *         taken from its low bits, so that keys sharing a first probe
+	 *         seldom share a decrement; never zero, so that every slot is
+	 *         eventually probed.
+	 */
+	final int probeDecrement(long hash) {
+		int d = decrement.mod((int) hash & 0x7fffffff);
+		return d == 0 ? 1 : d;
+	}
+
+	/**
+	 * Mixes every bit of a key into every bit of its hash (the 64 bit
+	 * finaliser of MurmurHash3). Folding the halves together is not enough,
+	 * even for a prime capacity: keys that pack two ints, e.g.
+	 * <tt>n * 0x100000001L</tt> or <tt>n &lt;&lt; 32 | k</tt>, would collide.
+	 */
+	static long hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	/**
+	 * @return a capacity for size entries after growing.
+	 */
+	int chooseGrowCapacity(int size) {
+		return PrimeFinder.nextPrime(Math.max(size + 1, (int) ((4 * size / (3 * minLoadFactor + maxLoadFactor)))));
+	}
+
+	/**
+	 * @return a capacity for size entries after shrinking.
+	 */
+	int chooseShrinkCapacity(int size) {
+		return PrimeFinder.nextPrime(Math.max(size + 1, (int) ((4 * size / (minLoadFactor + 3 * maxLoadFactor)))));
+	}
+
+	/**
+	 * Grows the table, if need be, before a key is inserted into a free slot.
+	 * @return true if the table was rehashed, in which case the slot must be
+	 *         found again.
+	 */
+	boolean growForInsertion() {
+		if (distinct >= highWaterMark) {
+			rehash(chooseGrowCapacity(distinct + 1));
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records the insertion of a key into the slot at i.
+	 */
+	void inserted(int i) {
+		if (state[i] == FREE)
+			freeEntries--;
+		state[i] = FULL;
+		distinct++;
+		if (freeEntries < 1) {
+			// too many removed slots
+			rehash(chooseGrowCapacity(distinct + 1));
+		}
+	}
+
+	/**
+	 * Records the removal of the key in the slot at i.
+	 */
+	void removed(int i) {
+		state[i] = REMOVED;
+		distinct--;
+		if (distinct < lowWaterMark)
+			rehash(chooseShrinkCapacity(distinct));
+	}
+
+	/**
+	 * @return the number of entries.
+	 */
+	public int size() {
+		return distinct;
+	}
+
+	public boolean isEmpty() {
+		return distinct == 0;
+	}
+
+	/**
+	 * Removes every entry, without shrinking.
+	 */
+	public void clear() {
+		allocate(capacity());
+	}
+
+	/**
+	 * Grows the table, if need be, so that it holds at least minCapacity
+	 * entries without rehashing.
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (highWaterMark < minCapacity)
+			rehash(chooseGrowCapacity(minCapacity));
+	}
+
+	/**
+	 * Shrinks the table to the smallest prime capacity that holds its entries
+	 * within the maximum load factor.
+	 */
+	public void trimToSize() {
+		int newCapacity = PrimeFinder.nextPrime((int) (1 + distinct / maxLoadFactor));
+		if (capacity() > newCapacity)
+			rehash(newCapacity);
+	}
+}
@@ -0,0 +1 @@
+package au.com.phiware.util.collect;
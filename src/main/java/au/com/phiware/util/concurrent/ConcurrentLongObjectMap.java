@@ -0,0 +1,370 @@
+package au.com.phiware.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import au.com.phiware.math.FastMod;
+import au.com.phiware.math.PrimeFinder;
+
+/**
+ * A concurrent map of <tt>long</tt> keys to non-null object values, for
+ * read-mostly caches with several writers.
+ *
+ * <p>The map is split into segments, each guarded by its own lock, that are
+ * open addressing hash tables with double hashing and prime capacities; a
+ * segment grows to the next prime of a {@link PrimeFinder} chain. Writers
+ * lock the segment of their key. Readers take no lock: each segment has a
+ * sequence number, which writers make odd while they modify the segment, and
+ * a read is retried unless the sequence number was even and unchanged
+ * throughout. A reader that is repeatedly overtaken by writers takes the
+ * lock.
+ *
+ * <p>Unlike a <tt>ConcurrentHashMap&lt;Long, V&gt;</tt> neither the keys nor
+ * the entries are objects; each segment holds its keys and values in a pair
+ * of arrays.
+ */
+public class ConcurrentLongObjectMap<V> {
+	static final int DEFAULT_INITIAL_CAPACITY = 277;
+	static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+	static final int MAX_SEGMENTS = 1 << 16;
+	static final double MAX_LOAD_FACTOR = 0.5;
+	/**
+	 * The number of optimistic reads before a reader takes the lock.
+	 */
+	static final int MAX_OPTIMISTIC_READS = 8;
+
+	/**
+	 * The value of a slot whose entry was removed.
+	 */
+	static final Object REMOVED = new Object();
+
+	/**
+	 * The slots of a segment; a slot is free while its value is null. The
+	 * arrays are atomic so that the reads of a reader are ordered with
+	 * respect to its reads of the sequence number.
+	 */
+	static final class Table {
+		final AtomicLongArray keys;
+		final AtomicReferenceArray<Object> values;
+		final FastMod index, decrement;
+
+		Table(int capacity) {
+			keys = new AtomicLongArray(capacity);
+			values = new AtomicReferenceArray<Object>(capacity);
+			index = PrimeFinder.fastMod(capacity);
+			decrement = PrimeFinder.fastMod(Math.max(capacity - 2, 1));
+		}
+
+		int length() {
+			return values.length();
+		}
+
+		/**
+		 * @return the value of the key, or null; or null, if the table is
+		 *         being modified, in which case the read is discarded.
+		 */
+		Object get(long key, long hash) {
+			int length = length();
+			int i = index.mod((int) (hash >>> 33));
+			int d = Math.max(decrement.mod((int) hash & 0x7fffffff), 1);
+			for (int probes = length; probes-- > 0; ) {
+				Object v = values.get(i);
+				if (v == null)
+					return null;
+				if (v != REMOVED && keys.get(i) == key)
+					return v;
+				i -= d;
+				if (i < 0)
+					i += length;
+			}
+			return null;
+		}
+
+		/**
+		 * @return the slot of the key, or, if it is not contained,
+		 *         <tt>-index - 1</tt> of the slot to insert it into.
+		 */
+		int indexOf(long key, long hash) {
+			int length = length();
+			int i = index.mod((int) (hash >>> 33));
+			int d = Math.max(decrement.mod((int) hash & 0x7fffffff), 1);
+			int insertion = -1;
+			for (;;) {
+				Object v = values.get(i);
+				if (v == null)
+					return -(insertion < 0 ? i : insertion) - 1;
+				if (v == REMOVED) {
+					if (insertion < 0)
+						insertion = i;
+				} else if (keys.get(i) == key)
+					return i;
+				i -= d;
+				if (i < 0)
+					i += length;
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	static final class Segment extends ReentrantLock {
+		/**
+		 * Odd while the segment is being modified.
+		 */
+		volatile int sequence;
+		volatile Table table;
+		volatile int count;
+		/**
+		 * The number of slots that are not free, i.e. full or removed.
+		 */
+		int used;
+
+		Segment(int capacity) {
+			table = new Table(capacity);
+		}
+
+		/**
+		 * Begins a modification; the lock must be held.
+		 */
+		void begin() {
+			sequence++;
+		}
+
+		/**
+		 * Ends a modification; the lock must be held.
+		 */
+		void end() {
+			sequence++;
+		}
+
+		/**
+		 * Grows the table, if need be, before a key is inserted into a free
+		 * slot; otherwise, if most used slots are removed, rehashes it at
+		 * the same capacity.
+		 * @return true if the table was rehashed.
+		 */
+		boolean ensureFree() {
+			Table t = table;
+			int length = t.length();
+			if (used + 1 <= (int) (length * MAX_LOAD_FACTOR))
+				return false;
+			int capacity = length;
+			if (count + 1 > (int) (length * MAX_LOAD_FACTOR) / 2)
+				capacity = PrimeFinder.nextPrime((int) Math.min(2L * length, PrimeFinder.largestPrime));
+			Table next = new Table(capacity);
+			for (int i = 0; i < length; i++) {
+				Object v = t.values.get(i);
+				if (v != null && v != REMOVED) {
+					long key = t.keys.get(i);
+					int j = -next.indexOf(key, hash(key)) - 1;
+					next.keys.set(j, key);
+					next.values.set(j, v);
+				}
+			}
+			table = next;
+			used = count;
+			return true;
+		}
+	}
+
+	final Segment[] segments;
+	final int segmentShift;
+
+	public ConcurrentLongObjectMap() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	public ConcurrentLongObjectMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * @param initialCapacity the number of entries to hold without growing.
+	 * @param concurrencyLevel the expected number of concurrent writers.
+	 * @throws IllegalArgumentException if initialCapacity is negative or
+	 *         concurrencyLevel is not positive.
+	 */
+	public ConcurrentLongObjectMap(int initialCapacity, int concurrencyLevel) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Initial capacity, "+initialCapacity+", must not be negative.");
+		if (concurrencyLevel <= 0)
+			throw new IllegalArgumentException("Concurrency level, "+concurrencyLevel+", must be positive.");
+		int bits = 0;
+		while (1 << bits < Math.min(concurrencyLevel, MAX_SEGMENTS))
+			bits++;
+		segments = new Segment[1 << bits];
+		segmentShift = 64 - bits;
+		int perSegment = (int) Math.ceil(initialCapacity / MAX_LOAD_FACTOR / segments.length);
+		for (int i = 0; i < segments.length; i++)
+			segments[i] = new Segment(PrimeFinder.nextPrime(Math.max(perSegment, 3)));
+	}
+
+	/**
+	 * Mixes every bit of a key into every bit of its hash (the 64 bit
+	 * finaliser of MurmurHash3); a slot's first probe is taken from the high
+	 * bits and its probe decrement from the low bits. Folding the halves
+	 * together is not enough: keys that pack two ints, e.g.
+	 * <tt>n * 0x100000001L</tt>, would share a probe sequence.
+	 */
+	static long hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	/**
+	 * @return the segment of the key, chosen by the high bits of a
+	 *         multiplicative hash, which is independent of the mixed hash
+	 *         used within the segment.
+	 */
+	Segment segmentFor(long key) {
+		if (segmentShift == 64)
+			return segments[0];
+		return segments[(int) ((key * 0x9e3779b97f4a7c15L) >>> segmentShift)];
+	}
+
+	/**
+	 * @return the value of the key, or null if it is not contained.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		Segment s = segmentFor(key);
+		long hash = hash(key);
+		for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+			int sequence = s.sequence;
+			if ((sequence & 1) == 0) {
+				Object v = s.table.get(key, hash);
+				if (s.sequence == sequence)
+					return (V) v;
+			}
+			Thread.yield();
+		}
+		s.lock();
+		try {
+			return (V) s.table.get(key, hash);
+		} finally {
+			s.unlock();
+		}
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 * @return the previous value, or null if the key was not contained.
+	 * @throws NullPointerException if value is null.
+	 */
+	public V put(long key, V value) {
+		return put(key, value, false);
+	}
+
+	/**
+	 * Associates the value with the key, unless it is already contained.
+	 * @return the value of the key, or null if it was not contained.
+	 * @throws NullPointerException if value is null.
+	 */
+	public V putIfAbsent(long key, V value) {
+		return put(key, value, true);
+	}
+
+	@SuppressWarnings("unchecked")
+	private V put(long key, V value, boolean onlyIfAbsent) {
+		if (value == null)
+			throw new NullPointerException();
+		Segment s = segmentFor(key);
+		long hash = hash(key);
+		s.lock();
+		try {
+			int i = s.table.indexOf(key, hash);
+			if (i >= 0) {
+				Object previous = s.table.values.get(i);
+				if (!onlyIfAbsent) {
+					s.begin();
+					s.table.values.set(i, value);
+					s.end();
+				}
+				return (V) previous;
+			}
+			s.begin();
+			try {
+				if (s.ensureFree())
+					i = s.table.indexOf(key, hash);
+				i = -i - 1;
+				Table t = s.table;
+				if (t.values.get(i) == null)
+					s.used++;
+				t.keys.set(i, key);
+				t.values.set(i, value);
+				s.count++;
+			} finally {
+				s.end();
+			}
+			return null;
+		} finally {
+			s.unlock();
+		}
+	}
+
+	/**
+	 * @return the value that was removed, or null if the key was not
+	 *         contained.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		Segment s = segmentFor(key);
+		s.lock();
+		try {
+			int i = s.table.indexOf(key, hash(key));
+			if (i < 0)
+				return null;
+			s.begin();
+			Object previous = s.table.values.getAndSet(i, REMOVED);
+			s.count--;
+			s.end();
+			return (V) previous;
+		} finally {
+			s.unlock();
+		}
+	}
+
+	/**
+	 * @return the number of entries; while there are concurrent writers,
+	 *         only an estimate.
+	 */
+	public int size() {
+		long size = 0;
+		for (Segment s : segments)
+			size += s.count;
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	public boolean isEmpty() {
+		for (Segment s : segments)
+			if (s.count != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Removes every entry, without shrinking.
+	 */
+	public void clear() {
+		for (Segment s : segments) {
+			s.lock();
+			try {
+				s.begin();
+				s.table = new Table(s.table.length());
+				s.used = 0;
+				s.count = 0;
+				s.end();
+			} finally {
+				s.unlock();
+			}
+		}
+	}
+}
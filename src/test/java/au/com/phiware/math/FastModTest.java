@@ -0,0 +1,59 @@
+/**
+ *
+ */
+package au.com.phiware.math;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FastModTest {
+
+	static void assertMod(FastMod f, int a) {
+		int d = f.getDivisor();
+		assertEquals(a+" % "+d, a % d, f.mod(a));
+		assertEquals((int) ((a & 0xffffffffL) % d), f.modUnsigned(a));
+	}
+
+	@Test
+	public void testMod() {
+		Random random = new Random(45);
+		int[] edges = {0, 1, -1, 2, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1};
+		int[] divisors = {1, 2, 3, 7, 1000, 65537, 1 << 30, PrimeFinder.largestPrime, 1685759167};
+		for (int d : divisors) {
+			FastMod f = new FastMod(d);
+			for (int a : edges) {
+				assertMod(f, a);
+				assertMod(f, a + d);
+				assertMod(f, a - d);
+			}
+			for (int i = 0; i < 10000; i++)
+				assertMod(f, random.nextInt());
+		}
+		for (int i = 0; i < 1000; i++) {
+			FastMod f = new FastMod(1 + random.nextInt(Integer.MAX_VALUE));
+			for (int j = 0; j < 100; j++)
+				assertMod(f, random.nextInt());
+		}
+	}
+
+	@Test
+	public void testPrimeCapacities() {
+		Random random = new Random(45);
+		for (int i = 0; i < 1000; i++) {
+			int p = PrimeFinder.nextPrime(random.nextInt(Integer.MAX_VALUE));
+			FastMod f = PrimeFinder.fastMod(p);
+			assertSame(f, PrimeFinder.fastMod(p));
+			assertEquals(p, f.getDivisor());
+			assertMod(f, random.nextInt());
+		}
+		assertEquals(4, PrimeFinder.fastMod(6).mod(1000));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZero() {
+		new FastMod(0);
+	}
+}
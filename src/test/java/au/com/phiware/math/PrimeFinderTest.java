@@ -0,0 +1,111 @@
+/**
+ *
+ */
+package au.com.phiware.math;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PrimeFinderTest {
+
+	static boolean isPrime(long n) {
+		return BigInteger.valueOf(n).isProbablePrime(64);
+	}
+
+	@Test
+	public void testSieve() {
+		assertEquals(2, PrimeFinder.leastPrime(0));
+		assertEquals(2, PrimeFinder.leastPrime(2));
+		assertEquals(1009, PrimeFinder.leastPrime(1000));
+		assertEquals(PrimeFinder.largestPrime, PrimeFinder.leastPrime(Integer.MAX_VALUE - 10));
+		assertEquals(1, PrimeFinder.greatestPrime(1));
+		assertEquals(2, PrimeFinder.greatestPrime(2));
+		assertEquals(997, PrimeFinder.greatestPrime(1008));
+		assertEquals(2147483629, PrimeFinder.greatestPrime(Integer.MAX_VALUE - 1));
+		Random random = new Random(43);
+		for (int i = 0; i < 200; i++) {
+			long n = random.nextInt(Integer.MAX_VALUE - 1000);
+			long p = PrimeFinder.leastPrime(n);
+			assertTrue(isPrime(p));
+			for (long m = n; m < p; m++)
+				assertFalse(isPrime(m));
+		}
+	}
+
+	@Test
+	public void testCapacities() {
+		for (double growthFactor : new double[] {1.25, 1.5, 2.0}) {
+			double maxError = 0.05;
+			int[] capacities = PrimeFinder.primeCapacities(growthFactor, maxError);
+			assertEquals(PrimeFinder.largestPrime, capacities[capacities.length - 1]);
+			for (int i = 0; i < capacities.length; i++) {
+				assertTrue(isPrime(capacities[i]));
+				if (i > 0)
+					assertTrue(capacities[i - 1] < capacities[i]);
+			}
+			Random random = new Random(43);
+			for (int i = 0; i < 10000; i++) {
+				int desired = 1000 + random.nextInt(Integer.MAX_VALUE - 1000);
+				int p = PrimeFinder.nextPrime(capacities, desired);
+				assertTrue(p >= desired);
+				assertTrue(desired+" -> "+p, p <= desired * (1 + maxError));
+			}
+			// after growing, the table has the smallest prime of the new capacity
+			for (int i = 0; i < 1000; i++) {
+				int p = capacities[random.nextInt(capacities.length - 1)];
+				long grown = (long) Math.ceil(p * growthFactor);
+				if (grown <= PrimeFinder.largestPrime)
+					assertEquals(PrimeFinder.leastPrime(grown), PrimeFinder.nextPrime(capacities, (int) grown));
+			}
+		}
+	}
+
+	@Test
+	public void testBuiltIn() {
+		assertEquals(1039, PrimeFinder.nextPrime(1038));
+		assertEquals(1039, PrimeFinder.nextPrime(1039));
+		assertEquals(1039, PrimeFinder.priorPrime(1048));
+		assertEquals(1, PrimeFinder.priorPrime(2));
+	}
+
+	@Test
+	public void testLong() {
+		assertEquals(2L, PrimeFinder.nextPrime(Long.MIN_VALUE));
+		assertEquals(2L, PrimeFinder.nextPrime(2L));
+		assertEquals(11L, PrimeFinder.nextPrime(8L));
+		assertEquals(13L, PrimeFinder.nextPrime(12L));
+		assertEquals(1L, PrimeFinder.priorPrime(1L));
+		assertEquals(7L, PrimeFinder.priorPrime(10L));
+		assertEquals(11L, PrimeFinder.priorPrime(12L));
+		assertEquals(4294967311L, PrimeFinder.nextPrime(1L << 32));
+		assertEquals(4294967291L, PrimeFinder.priorPrime(1L << 32));
+		assertEquals(PrimeFinder.largestLongPrime, PrimeFinder.priorPrime(Long.MAX_VALUE));
+		assertEquals(PrimeFinder.largestLongPrime, PrimeFinder.nextPrime(Long.MAX_VALUE - 100));
+		assertTrue(isPrime(PrimeFinder.largestLongPrime));
+		Random random = new Random(44);
+		for (int i = 0; i < 300; i++) {
+			long n = random.nextLong() >>> 1 + random.nextInt(62);
+			long next = PrimeFinder.nextPrime(n), prior = PrimeFinder.priorPrime(n);
+			assertTrue(n+": "+prior+", "+next, isPrime(next) && (prior == 1 || isPrime(prior)));
+			assertEquals(n < 2 ? 2 : BigInteger.valueOf(n - 1).nextProbablePrime().longValue(), next);
+			for (long m = prior + 1; m < next; m++)
+				assertFalse(isPrime(m));
+		}
+		for (long n = 0; n < 5000; n++)
+			assertEquals(isPrime(n), PrimeFinder.nextPrime(n) == n && PrimeFinder.priorPrime(n) == n);
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testLargestLong() {
+		PrimeFinder.nextPrime(PrimeFinder.largestLongPrime + 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGrowthFactor() {
+		PrimeFinder.primeCapacities(1.0, 0.1);
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ *
+ */
+package au.com.phiware.math;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import au.com.phiware.math.ring.LongMath;
+
+public class PrimeSieveTest {
+
+	static void assertPrimes(long from, long to) {
+		final long[] primes = PrimeSieve.primes(from, to).toArray();
+		int n = 0;
+		for (long m = from; m < to; m++)
+			if (LongMath.isPrime(m))
+				assertEquals("["+from+", "+to+")", m, primes[n++]);
+		assertEquals(n, primes.length);
+		assertEquals(n, PrimeSieve.primes(from, to).count());
+
+		final int[] i = {0};
+		PrimeSieve.primes(from, to).forEach(new PrimeSieve.Visitor() {
+			public void visit(long prime) {
+				assertEquals(primes[i[0]++], prime);
+			}
+		});
+		assertEquals(n, i[0]);
+	}
+
+	@Test
+	public void testRanges() {
+		assertPrimes(0, 0);
+		assertPrimes(0, 2);
+		assertPrimes(0, 3);
+		assertPrimes(2, 3);
+		assertPrimes(3, 3);
+		assertPrimes(0, 1000);
+		long segment = PrimeSieve.SEGMENT_LENGTH;
+		assertPrimes(segment - 1001, 3 * segment + 1001);
+		assertPrimes(1000000000000L, 1000000000000L + 200000);
+		assertPrimes(PrimeSieve.MAX_BOUND - 100000, PrimeSieve.MAX_BOUND);
+		Random random = new Random(48);
+		for (int i = 0; i < 20; i++) {
+			long from = random.nextInt(1 << 30);
+			assertPrimes(from, from + random.nextInt(3000));
+		}
+	}
+
+	@Test
+	public void testCount() {
+		assertEquals(78498, PrimeSieve.primes(0, 1000000).count());
+		assertEquals(5761455, PrimeSieve.primes(0, 100000000).count());
+		assertEquals(5761455 - 78498, PrimeSieve.primes(1000000, 100000000).count());
+	}
+
+	@Test
+	public void testParallel() {
+		final AtomicLong sum = new AtomicLong(), count = new AtomicLong();
+		PrimeSieve.primes(0, 10000000).forEachParallel(new PrimeSieve.Visitor() {
+			public void visit(long prime) {
+				sum.addAndGet(prime);
+				count.incrementAndGet();
+			}
+		});
+		assertEquals(664579, count.get());
+		assertEquals(3203324994356L, sum.get());
+	}
+
+	@Test
+	public void testTable() {
+		PrimeTable table = new PrimeTable(3 * PrimeSieve.SEGMENT_LENGTH + 77);
+		for (long n = -5; n < table.getBound() + 1000; n++)
+			assertEquals(Long.toString(n), LongMath.isPrime(n), table.isPrime(n));
+		assertEquals(PrimeSieve.primes(0, table.getBound()).count(), table.count());
+		assertEquals(5761455, new PrimeTable(100000000).count());
+		for (long bound = 0; bound < 200; bound++)
+			assertEquals(PrimeSieve.primes(0, bound).count(), new PrimeTable(bound).count());
+	}
+
+	/**
+	 * A range from zero to the bound has more segments than an int can
+	 * count; sieves its last segment only.
+	 */
+	@Test
+	public void testWholeRange() {
+		PrimeSieve sieve = PrimeSieve.primes(0, PrimeSieve.MAX_BOUND);
+		assertEquals(PrimeSieve.MAX_BOUND / PrimeSieve.SEGMENT_LENGTH, sieve.segments());
+		long s = sieve.segments() - 1, start = s * PrimeSieve.SEGMENT_LENGTH;
+		long[] composite = new long[PrimeSieve.SEGMENT_WORDS];
+		sieve.sieve(s, composite);
+		final long[] expected = PrimeSieve.primes(start, PrimeSieve.MAX_BOUND).toArray();
+		assertTrue(expected.length > 0);
+		assertEquals(expected.length, sieve.count(s, composite));
+		final int[] i = {0};
+		sieve.visit(s, composite, new PrimeSieve.Visitor() {
+			public void visit(long prime) {
+				assertEquals(expected[i[0]++], prime);
+			}
+		});
+		assertEquals(expected.length, i[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBound() {
+		PrimeSieve.primes(0, PrimeSieve.MAX_BOUND + 1);
+	}
+}
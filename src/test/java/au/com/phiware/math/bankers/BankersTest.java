@@ -5,11 +5,20 @@ package au.com.phiware.math.bankers;
 
 import static org.junit.Assert.*;
 
+import java.math.BigInteger;
 import java.util.BitSet;
+import java.util.Random;
 
 import org.junit.Test;
 
 import au.com.phiware.math.binom.BinomCounter;
+import au.com.phiware.math.binom.Binomials;
+import au.com.phiware.math.binom.BoxedArithmetic;
+import au.com.phiware.math.ring.Int128;
+import au.com.phiware.math.ring.Int256;
+import au.com.phiware.math.ring.IntegerArithmetic;
+import au.com.phiware.math.ring.LongArithmetic;
+import au.com.phiware.math.ring.ModularArithmetic;
 
 /**
  * @author Corin Lawson <me@corinlawson.com.au>
@@ -122,4 +131,89 @@ public class BankersTest {
 		assertEquals("Should be the same for length "+bankers.length(), b, bankers.to(i));
 		//assertTrue("Should be efficient at "+i+" of length "+bankers.length(), BinomCounter.hasAllOnes());
 	}
+
+	@Test
+	public void testWideIntegers() throws ClassNotFoundException {
+		for (int length : new int[] {100, 127}) {
+			Bankers<BigInteger> expected = new Bankers<BigInteger>(length){};
+			Bankers<Int128> actual = new Bankers<Int128>(length){};
+			BigInteger b = BigInteger.ZERO;
+			for (int i = 0; i < 300; i++) {
+				BigInteger a = BigInteger.valueOf(i).shiftLeft(i % 90);
+				b = expected.to(a);
+				assertEquals(b, actual.to(Int128.valueOf(a)).toBigInteger());
+				assertEquals(a, actual.from(Int128.valueOf(b)).toBigInteger());
+				assertEquals(expected.to(a.add(BigInteger.ONE)), actual.next(Int128.valueOf(b)).toBigInteger());
+			}
+		}
+		Bankers<BigInteger> expected = new Bankers<BigInteger>(200){};
+		Bankers<Int256> actual = new Bankers<Int256>(200){};
+		for (int i = 0; i < 100; i++) {
+			BigInteger a = BigInteger.valueOf(i).shiftLeft(i);
+			assertEquals(expected.to(a), actual.to(Int256.valueOf(a)).toBigInteger());
+		}
+	}
+
+	/**
+	 * The boxing-free paths must agree with the generic paths.
+	 */
+	@Test
+	public void testPrimitivePaths() {
+		for (int length : new int[] {1, 2, 7, 12}) {
+			Bankers<Long> longs = new Bankers<Long>(length,
+					Binomials.defaultBinomFactory(LongArithmetic.getInstance())){};
+			Bankers<Long> boxedLongs = new Bankers<Long>(length,
+					Binomials.defaultBinomFactory(BoxedArithmetic.of(LongArithmetic.getInstance()))){};
+			Bankers<Integer> ints = new Bankers<Integer>(length,
+					Binomials.defaultBinomFactory(IntegerArithmetic.getInstance())){};
+			Bankers<Integer> boxedInts = new Bankers<Integer>(length,
+					Binomials.defaultBinomFactory(BoxedArithmetic.of(IntegerArithmetic.getInstance()))){};
+			Long b = 0L;
+			for (long i = 0; i < 1L << length; i++) {
+				assertEquals(boxedLongs.to(i), longs.to(i));
+				assertEquals(boxedLongs.from(b), longs.from(b));
+				assertEquals(boxedInts.to((int) i), ints.to((int) i));
+				assertEquals(boxedInts.from(b.intValue()), ints.from(b.intValue()));
+				assertEquals(boxedInts.next(b.intValue()), ints.next(b.intValue()));
+				Long next = boxedLongs.next(b);
+				assertEquals(next, longs.next(b));
+				b = next;
+			}
+			for (int k = 1; k < length; k++)
+				for (long i = 0; i < 1L << length; i += 5)
+					assertEquals(boxedLongs.to(i, k), longs.to(i, k));
+		}
+		Bankers<Long> longs = new Bankers<Long>(62,
+				Binomials.defaultBinomFactory(LongArithmetic.getInstance())){};
+		Bankers<Long> boxedLongs = new Bankers<Long>(62,
+				Binomials.defaultBinomFactory(BoxedArithmetic.of(LongArithmetic.getInstance()))){};
+		Random random = new Random(29);
+		for (int j = 0; j < 200; j++) {
+			long i = random.nextLong() >>> 2;
+			Long b = boxedLongs.to(i);
+			assertEquals(b, longs.to(i));
+			assertEquals(boxedLongs.from(b), longs.from(b));
+			assertEquals(boxedLongs.next(b), longs.next(b));
+		}
+	}
+
+	/**
+	 * The boxing-free paths must use the arithmetic's one and zero, which are
+	 * not 1 and 0 in Montgomery form.
+	 */
+	@Test
+	public void testModular() throws ClassNotFoundException {
+		int length = 12;
+		ModularArithmetic arithmetic = new ModularArithmetic(1000003);
+		Bankers<Long> expected = new Bankers<Long>(length){};
+		Bankers<Long> actual = new Bankers<Long>(length, Binomials.defaultBinomFactory(arithmetic)){};
+		long b = 0;
+		for (long i = 0; i < 1 << length; i++) {
+			assertEquals(b, arithmetic.residue(actual.to(arithmetic.valueOf(i))));
+			assertEquals(i, arithmetic.residue(actual.from(arithmetic.valueOf(b))));
+			long next = expected.next(b);
+			assertEquals(next, arithmetic.residue(actual.next(arithmetic.valueOf(b))));
+			b = next;
+		}
+	}
 }
@@ -14,6 +14,7 @@ import au.com.phiware.math.ring.BigIntegerArithmetic;
 import au.com.phiware.math.ring.BitArithmetic;
 import au.com.phiware.math.ring.IntegerArithmetic;
 import au.com.phiware.math.ring.LongArithmetic;
+import au.com.phiware.math.ring.ModularArithmetic;
 
 /**
  * @author Corin Lawson <me@corinlawson.com.au>
@@ -144,6 +145,51 @@ public class BinomGraphTest {
 	}
 	
 
+	/**
+	 * The boxing-free sums must agree with the generic sum.
+	 */
+	@Test
+	public void testPrimitiveSums() {
+		BitArithmetic<Long> longMath = LongArithmetic.getInstance();
+		BitArithmetic<Integer> intMath = IntegerArithmetic.getInstance();
+		BitArithmetic<Long> boxedLongMath = BoxedArithmetic.of(longMath);
+		BitArithmetic<Integer> boxedIntMath = BoxedArithmetic.of(intMath);
+		for (int n = 0; n <= 40; n++)
+		for (int k = 0; k <= n; k++) {
+			assertEquals("sum "+n+" choose 0..."+k,
+					new BinomGraph<Long>(boxedLongMath, n, k).sum(),
+					new BinomGraph<Long>(longMath, n, k).sum());
+			assertEquals("sum "+n+" choose 0..."+k,
+					new BinomGraph<Integer>(boxedIntMath, n, k).sum(),
+					new BinomGraph<Integer>(intMath, n, k).sum());
+		}
+	}
+
+	/**
+	 * The boxing-free sum must use the arithmetic's one, which is not 1 in
+	 * Montgomery form.
+	 */
+	@Test
+	public void testModularRowSums() {
+		for (long m : new long[] {1000003, 3000003}) {
+			ModularArithmetic arithmetic = new ModularArithmetic(m);
+			BinomFactory<Long> factory = Binomials.binomFactory(arithmetic, 30, Binomials.Hint.NAVIGATION);
+			for (int n = 1; n <= 30; n++) {
+				BigInteger expected = BigInteger.ZERO;
+				for (int k = 0; k <= n; k++) {
+					BigInteger binom = factorial(n).divide(factorial(k).multiply(factorial(n-k)));
+					expected = expected.add(binom);
+					String msg = "sum "+n+" choose 0..."+k+" mod "+m;
+					long sum = expected.mod(BigInteger.valueOf(m)).longValue();
+					assertEquals(msg, sum, arithmetic.residue(new BinomGraph<Long>(arithmetic, n, k).sum()));
+					Binom<Long> b = factory.createBinom(n, k);
+					assertEquals(msg, binom.mod(BigInteger.valueOf(m)).longValue(), arithmetic.residue(b.value()));
+					assertEquals(msg, sum, arithmetic.residue(b.sum()));
+				}
+			}
+		}
+	}
+
 	/**
 	 * Test method for {@link au.com.phiware.math.binom.BinomGraph#up()}.
 	 */
@@ -257,4 +303,36 @@ public class BinomGraphTest {
 			//assertTrue("Should be efficient at "+n+" choose "+(k + 1), BinomCounter.hasAllOnes());
 		}
 	}
+
+	/**
+	 * A cleared node is removed from the map, unless its key has since been
+	 * mapped to a rebuilt node.
+	 */
+	@Test
+	public void testClearedNodes() {
+		BinomGraph<Long> graph = new BinomGraph<Long>(LongArithmetic.getInstance(), 20, 10);
+		graph.value();
+		BinomGraph<Long>.NodeReference cleared = null, rebuilt = null;
+		for (Object ref : graph.foldedNodes.values()) {
+			@SuppressWarnings("unchecked")
+			BinomGraph<Long>.NodeReference r = (BinomGraph<Long>.NodeReference) ref;
+			if (r.key == 0)
+				continue;
+			if (cleared == null)
+				cleared = r;
+			else if (rebuilt == null)
+				rebuilt = r;
+		}
+		BinomGraph<Long>.BinomNode node = rebuilt.get();
+		rebuilt.clear();
+		graph.createNode(node.n, node.k);
+		assertNotSame(rebuilt, graph.foldedNodes.get(rebuilt.key));
+
+		cleared.clear();
+		cleared.enqueue();
+		rebuilt.enqueue();
+		graph.createNode(0, 0);
+		assertNull(graph.foldedNodes.get(cleared.key));
+		assertNotNull(graph.foldedNodes.get(rebuilt.key));
+	}
 }
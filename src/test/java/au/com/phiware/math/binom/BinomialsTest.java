@@ -0,0 +1,219 @@
+/**
+ *
+ */
+package au.com.phiware.math.binom;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import au.com.phiware.math.ring.BigIntegerArithmetic;
+import au.com.phiware.math.ring.BitArithmetic;
+import au.com.phiware.math.ring.IntegerArithmetic;
+import au.com.phiware.math.ring.LongArithmetic;
+import au.com.phiware.math.ring.ModularArithmetic;
+
+public class BinomialsTest {
+
+	static BigInteger choose(int n, int k) {
+		return BinomGraphTest.factorial(n).divide(BinomGraphTest.factorial(k).multiply(BinomGraphTest.factorial(n - k)));
+	}
+
+	/**
+	 * @return row n of Pascal's triangle, without a factorial per entry.
+	 */
+	static BigInteger[] row(int n) {
+		BigInteger[] row = new BigInteger[n + 1];
+		row[0] = BigInteger.ONE;
+		for (int k = 0; k < n; k++)
+			row[k + 1] = row[k].multiply(BigInteger.valueOf(n - k)).divide(BigInteger.valueOf(k + 1));
+		return row;
+	}
+
+	/**
+	 * @return x as it would appear in a two's complement arithmetic of the given width.
+	 */
+	static BigInteger wrap(BigInteger x, int width) {
+		if (width == Integer.MAX_VALUE)
+			return x;
+		x = x.mod(BigInteger.ONE.shiftLeft(width));
+		return x.testBit(width - 1) ? x.subtract(BigInteger.ONE.shiftLeft(width)) : x;
+	}
+
+	<V extends Number> void testAgainstFormula(BinomFactory<V> factory, int maxN) {
+		BitArithmetic<V> arithmetic = factory.getArithmetic();
+		int width = arithmetic.maxBitLength();
+		for (int n = 0; n <= maxN; n++) {
+			BigInteger sum = BigInteger.ZERO;
+			for (int k = 0; k <= n; k++) {
+				Binom<V> binom = factory.createBinom(n, k);
+				sum = sum.add(choose(n, k));
+				assertEquals(n + " choose " + k, wrap(choose(n, k), width), new BigInteger(arithmetic.toString(binom.value(), 10)));
+				assertEquals("sum " + n + " choose 0..." + k, wrap(sum, width), new BigInteger(arithmetic.toString(binom.sum(), 10)));
+				assertEquals("Row of " + n + " choose " + k, n, binom.getRow());
+				assertEquals("Column of " + n + " choose " + k, k, binom.getColumn());
+			}
+		}
+	}
+
+	<V extends Number> void testAgainstGraph(BinomFactory<V> factory, int maxN) {
+		BitArithmetic<V> arithmetic = factory.getArithmetic();
+		for (int n = 0; n <= maxN; n++) {
+			Binom<V> expected = new BinomGraph<V>(arithmetic, n, 0);
+			for (int k = 0; k <= n; k++, expected = expected.right()) {
+				Binom<V> binom = factory.createBinom(n, k);
+				assertEquals(n + " choose " + k, expected.value(), binom.value());
+				if (n < arithmetic.maxBitLength()) // BinomGraph's sums shift beyond the width
+					assertEquals("sum " + n + " choose 0..." + k, expected.sum(), binom.sum());
+				assertEquals("Row of " + n + " choose " + k, n, binom.getRow());
+				assertEquals("Column of " + n + " choose " + k, k, binom.getColumn());
+			}
+		}
+	}
+
+	@Test
+	public void testTable() {
+		testAgainstGraph(new BinomTable<Integer>(IntegerArithmetic.getInstance(), 34), 34);
+		testAgainstGraph(new BinomTable<BigInteger>(BigIntegerArithmetic.getInstance(), 40), 40);
+		testAgainstFormula(new BinomTable<Integer>(IntegerArithmetic.getInstance(), 40), 40);
+		testAgainstFormula(new BinomTable<BigInteger>(BigIntegerArithmetic.getInstance(), 70), 70);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testTableBeyondMaxRow() {
+		new BinomTable<Long>(LongArithmetic.getInstance(), 10).createBinom(11, 3);
+	}
+
+	@Test
+	public void testFormula() {
+		testAgainstGraph(new BinomFormula<Integer>(IntegerArithmetic.getInstance()), 40);
+		testAgainstGraph(new BinomFormula<Long>(LongArithmetic.getInstance()), 70);
+		testAgainstGraph(new BinomFormula<BigInteger>(BigIntegerArithmetic.getInstance()), 70);
+		testAgainstFormula(new BinomFormula<Integer>(IntegerArithmetic.getInstance()), 40);
+		testAgainstFormula(new BinomFormula<Long>(LongArithmetic.getInstance()), 70);
+		testAgainstFormula(new BinomFormula<BigInteger>(BigIntegerArithmetic.getInstance()), 70);
+	}
+
+	@Test
+	public void testFormulaRowScan() {
+		BinomFactory<BigInteger> factory = new BinomFormula<BigInteger>(BigIntegerArithmetic.getInstance());
+		int n = 200;
+		Binom<BigInteger> binom = factory.createBinom(n, 0);
+		binom.value();
+		for (int k = 0; k <= n; k++, binom = binom.right())
+			assertEquals(n + " choose " + k, choose(n, k), binom.value());
+		assertNull(binom);
+	}
+
+	/**
+	 * Rows whose values wrap around the arithmetic are stepped exactly.
+	 */
+	@Test
+	public void testFormulaWrappedRowScan() {
+		BinomFactory<Integer> factory = Binomials.binomFactory(IntegerArithmetic.getInstance(), 100000, Binomials.Hint.ROW_SCAN);
+		assertTrue(factory instanceof BinomFormula);
+		for (int n : new int[] {30, 31, 66, 67, 300}) {
+			Binom<Integer> binom = factory.createBinom(n, 0);
+			binom.value();
+			for (int k = 0; k <= n; k++, binom = binom.right())
+				assertEquals(n + " choose " + k, wrap(choose(n, k), 32).intValue(), binom.intValue());
+			assertNull(binom);
+			binom = factory.createBinom(n, n);
+			binom.value();
+			for (int k = n; k >= 0; k--, binom = binom.left())
+				assertEquals(n + " choose " + k, wrap(choose(n, k), 32).intValue(), binom.intValue());
+			assertNull(binom);
+		}
+	}
+
+	@Test
+	public void testModulo() {
+		long p = 13;
+		BinomFactory<Long> factory = Binomials.binomFactory(LongArithmetic.getInstance(), 40, p);
+		for (int n = 0; n <= 60; n++)
+		for (int k = 0; k <= n; k++)
+			assertEquals(n + " choose " + k + " mod " + p, choose(n, k).mod(BigInteger.valueOf(p)).longValue(),
+					factory.createBinom(n, k).longValue());
+	}
+
+	@Test
+	public void testModularArithmetic() {
+		long p = 1000000007;
+		ModularArithmetic field = new ModularArithmetic(p);
+		BinomFactory<Long> factory = Binomials.binomFactory(field, 3000, Binomials.Hint.RANDOM_ACCESS);
+		assertTrue(factory instanceof BinomModulo);
+		for (int n = 0; n <= 3000; n += 97) {
+			BigInteger[] row = row(n);
+			for (int k = 0; k <= n; k += 13)
+				assertEquals(n + " choose " + k + " mod " + p, row[k].mod(BigInteger.valueOf(p)).longValue(),
+						field.residue(factory.createBinom(n, k).value()));
+		}
+
+		long m = 3 * 5 * 7 * 11;
+		ModularArithmetic ring = new ModularArithmetic(m);
+		factory = Binomials.binomFactory(ring, 100, Binomials.Hint.RANDOM_ACCESS);
+		assertFalse(factory instanceof BinomFormula);
+		for (int n = 0; n <= 100; n++)
+		for (int k = 0; k <= n; k++)
+			assertEquals(n + " choose " + k + " mod " + m, choose(n, k).mod(BigInteger.valueOf(m)).longValue(),
+					ring.residue(factory.createBinom(n, k).value()));
+	}
+
+	@Test
+	public void testSelection() {
+		assertTrue(Binomials.binomFactory(LongArithmetic.getInstance(), 60) instanceof BinomTable);
+		assertTrue(Binomials.binomFactory(BigIntegerArithmetic.getInstance(), 10000, Binomials.Hint.ROW_SCAN) instanceof BinomFormula);
+		assertTrue(Binomials.binomFactory(BigIntegerArithmetic.getInstance(), 10000, Binomials.Hint.NAVIGATION) instanceof BinomGraph);
+	}
+
+	@Test
+	public void testRow() {
+		for (int n = 0; n <= 300; n += n < 70 ? 1 : 23) {
+			BinomRow row = Binomials.row(n);
+			for (int k = 0; k <= n; k++)
+				assertEquals(n + " choose " + k, choose(n, k), row.next());
+			assertFalse(row.hasNext());
+		}
+	}
+
+	@Test
+	public void testLongRow() {
+		int n = 66;
+		BinomRow row = Binomials.row(n);
+		for (int k = 0; k <= n; k++)
+			assertEquals(n + " choose " + k, choose(n, k).longValue(), row.nextLong());
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testLongRowOverflow() {
+		BinomRow row = Binomials.row(67);
+		while (row.hasNext())
+			row.nextLong();
+	}
+
+	static double log(BigInteger x) {
+		int shift = Math.max(0, x.bitLength() - 1000);
+		return Math.log(x.shiftRight(shift).doubleValue()) + shift * Math.log(2);
+	}
+
+	@Test
+	public void testLogRow() {
+		LogBinomTable table = LogBinomTable.getInstance();
+		for (int n : new int[] {0, 1, 10, 255, 256, 1000, 3000}) {
+			double[] row = table.logRow(n, null);
+			BigInteger[] expected = row(n);
+			for (int k = 0; k <= n; k++)
+				assertEquals("ln " + n + " choose " + k, log(expected[k]), row[k], 1e-9 * Math.max(1, row[k]));
+		}
+	}
+
+	@Test
+	public void testLogStirling() {
+		LogBinomTable small = new LogBinomTable(LogBinomTable.STIRLING_MIN),
+		              large = LogBinomTable.getInstance();
+		for (int n = 1000; n < 60000; n += 997)
+			assertEquals("ln " + n + " choose " + n / 3, large.logChoose(n, n / 3), small.logChoose(n, n / 3), 1e-12 * n);
+	}
+}
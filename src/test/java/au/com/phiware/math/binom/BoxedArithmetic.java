@@ -0,0 +1,35 @@
+/**
+ * 
+ */
+package au.com.phiware.math.binom;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import au.com.phiware.math.ring.BitArithmetic;
+
+/**
+ * Hides the primitive operations ({@link au.com.phiware.math.ring.LongBitOps}
+ * and {@link au.com.phiware.math.ring.IntBitOps}) of an arithmetic, so that
+ * the generic paths are taken and may be compared with the boxing-free ones.
+ */
+public class BoxedArithmetic {
+	@SuppressWarnings("unchecked")
+	public static <V extends Number> BitArithmetic<V> of(final BitArithmetic<V> arithmetic) {
+		return (BitArithmetic<V>) Proxy.newProxyInstance(
+				BitArithmetic.class.getClassLoader(),
+				new Class<?>[] {BitArithmetic.class},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						try {
+							return method.invoke(arithmetic, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					}
+				});
+	}
+}
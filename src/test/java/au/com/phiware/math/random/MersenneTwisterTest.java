@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package au.com.phiware.math.random;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MersenneTwisterTest {
+	static RandomEngine<Integer> engine(int seed) {
+		return MersenneTwister.builder(Integer.class).build(seed);
+	}
+
+	/**
+	 * Draws runs of random lengths, some straddling blocks and starting at
+	 * odd words, in bulk from one engine and one at a time from the other.
+	 */
+	@Test
+	public void testBulkMatchesSingle() {
+		RandomEngine<Integer> bulk = engine(50), single = engine(50);
+		Random random = new Random(50);
+		for (int run = 0; run < 400; run++) {
+			int len = random.nextInt(1500), off = random.nextInt(3);
+			switch (random.nextInt(5)) {
+			case 0:
+				int[] ints = new int[off + len + 1];
+				bulk.nextInts(ints, off, len);
+				for (int i = 0; i < len; i++)
+					assertEquals(single.nextInt(), ints[off + i]);
+				assertEquals(0, ints[off + len]);
+				break;
+			case 1:
+				long[] longs = new long[off + len];
+				bulk.nextLongs(longs, off, len);
+				for (int i = 0; i < len; i++)
+					assertEquals(single.nextLong(), longs[off + i]);
+				break;
+			case 2:
+				double[] doubles = new double[len];
+				bulk.nextDoubles(doubles);
+				for (double d : doubles)
+					assertEquals(single.nextDouble(), d, 0.0);
+				break;
+			case 3:
+				float[] floats = new float[len];
+				bulk.nextFloats(floats);
+				for (float f : floats)
+					assertEquals(single.nextFloat(), f, 0.0f);
+				break;
+			default: // leave the engines at an odd word
+				assertEquals(single.nextInt(), bulk.nextInt());
+			}
+		}
+		assertEquals(single.nextLong(), bulk.nextLong());
+	}
+
+	@Test
+	public void testDefaultBulk() {
+		RandomEngine<Integer> counter = new RandomEngine<Integer>() {
+			int n;
+			@Override public int nextInt() {
+				return n++;
+			}
+			@Override public Integer get() {
+				return nextInt();
+			}
+		};
+		int[] ints = new int[10];
+		counter.nextInts(ints, 2, 5);
+		assertArrayEquals(new int[] {0, 0, 0, 1, 2, 3, 4, 0, 0, 0}, ints);
+		long[] longs = new long[2];
+		counter.nextLongs(longs);
+		assertArrayEquals(new long[] {5L << 32 | 6, 7L << 32 | 8}, longs);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRange() {
+		engine(1).nextInts(new int[10], 8, 3);
+	}
+}
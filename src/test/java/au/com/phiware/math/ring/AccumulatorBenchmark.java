@@ -0,0 +1,72 @@
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+import com.carrotsearch.junitbenchmarks.AbstractBenchmark;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+
+/**
+ * Sums the same signed operands of 64 to 1024 bits with
+ * {@link BigInteger#add(BigInteger)}, the baseline, and with a
+ * {@link BigIntegerAccumulator}, reading the operands either as
+ * {@link BigInteger}s or as accumulators. Only the latter, which allocates
+ * nothing, beats the baseline; a {@link BigInteger} operand costs a byte
+ * array to read.
+ */
+public class AccumulatorBenchmark extends AbstractBenchmark {
+	static final int rounds = 200;
+	static final BigInteger[] operands = new BigInteger[10000];
+	static final BigIntegerAccumulator[] accumulators = new BigIntegerAccumulator[operands.length];
+	static final BigInteger expected;
+	static {
+		Random random = new Random(37);
+		BigInteger sum = BigInteger.ZERO;
+		for (int i = 0; i < operands.length; i++) {
+			BigInteger x = new BigInteger(64 + random.nextInt(961), random);
+			operands[i] = random.nextBoolean() ? x : x.negate();
+			accumulators[i] = new BigIntegerAccumulator(operands[i]);
+			sum = sum.add(operands[i]);
+		}
+		expected = sum;
+	}
+
+	@BenchmarkOptions(callgc = false, benchmarkRounds = 5, warmupRounds = 3)
+	@Test
+	public void testBigInteger() {
+		BigInteger sum = BigInteger.ZERO;
+		for (int r = 0; r < rounds; r++) {
+			sum = BigInteger.ZERO;
+			for (BigInteger x : operands)
+				sum = sum.add(x);
+		}
+		assertEquals(expected, sum);
+	}
+
+	@BenchmarkOptions(callgc = false, benchmarkRounds = 5, warmupRounds = 3)
+	@Test
+	public void testAccumulator() {
+		BigIntegerAccumulator sum = new BigIntegerAccumulator();
+		for (int r = 0; r < rounds; r++) {
+			sum.set(BigInteger.ZERO);
+			for (BigInteger x : operands)
+				sum.addInPlace(x);
+		}
+		assertEquals(expected, sum.value());
+	}
+
+	@BenchmarkOptions(callgc = false, benchmarkRounds = 5, warmupRounds = 3)
+	@Test
+	public void testAccumulatorOfAccumulators() {
+		BigIntegerAccumulator sum = new BigIntegerAccumulator();
+		for (int r = 0; r < rounds; r++) {
+			sum.set(BigInteger.ZERO);
+			for (BigIntegerAccumulator x : accumulators)
+				sum.addInPlace(x);
+		}
+		assertEquals(expected, sum.value());
+	}
+}
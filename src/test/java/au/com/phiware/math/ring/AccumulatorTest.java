@@ -0,0 +1,119 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AccumulatorTest {
+
+	@Test
+	public void testBigIntegerAccumulator() {
+		Random random = new Random(37);
+		BigIntegerAccumulator acc = new BigIntegerAccumulator(), other = new BigIntegerAccumulator();
+		BigInteger expected = BigInteger.ZERO;
+		for (int i = 0; i < 5000; i++) {
+			BigInteger x = new BigInteger(random.nextInt(300), random);
+			if (random.nextBoolean())
+				x = x.negate();
+			switch (random.nextInt(6)) {
+			case 0:
+				acc.addInPlace(x);
+				expected = expected.add(x);
+				break;
+			case 1:
+				acc.subtractInPlace(x);
+				expected = expected.subtract(x);
+				break;
+			case 2:
+				int n = random.nextInt(100);
+				acc.shiftLeftInPlace(n);
+				expected = expected.shiftLeft(n);
+				if (expected.bitLength() > 2000) {
+					acc.set(x);
+					expected = x;
+				}
+				break;
+			case 3:
+				acc.addInPlace(other.set(x));
+				expected = expected.add(x);
+				break;
+			case 4:
+				acc.subtractInPlace(other.set(x));
+				expected = expected.subtract(x);
+				break;
+			default:
+				assertEquals(expected.compareTo(x), acc.compareTo(x));
+				assertEquals(0, acc.compareTo(expected));
+			}
+			assertEquals(expected, acc.value());
+			assertEquals(expected.signum(), acc.signum());
+		}
+	}
+
+	@Test
+	public void testEdges() {
+		BigIntegerAccumulator acc = new BigIntegerAccumulator();
+		assertEquals(BigInteger.ZERO, acc.value());
+		acc.set(BigInteger.valueOf(-128)).shiftLeftInPlace(32);
+		assertEquals(BigInteger.valueOf(-128).shiftLeft(32), acc.value());
+		acc.addInPlace(acc);
+		assertEquals(BigInteger.valueOf(-128).shiftLeft(33), acc.value());
+		acc.subtractInPlace(acc);
+		assertEquals(0, acc.signum());
+		BigInteger m = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		acc.set(m).addInPlace(BigInteger.ONE);
+		assertEquals(BigInteger.ONE.shiftLeft(64), acc.value());
+		acc.subtractInPlace(BigInteger.ONE);
+		assertEquals(m, acc.value());
+		assertEquals(1, acc.compareTo(m.shiftRight(1)));
+		assertEquals(-1, acc.compareTo(m.add(BigInteger.ONE)));
+	}
+
+	/**
+	 * Multi-word values either side of word boundaries, where the words of
+	 * a {@link BigInteger} are read bit by bit.
+	 */
+	@Test
+	public void testWordBoundaries() {
+		BigIntegerAccumulator acc = new BigIntegerAccumulator();
+		BigInteger[] deltas = {BigInteger.valueOf(-1), BigInteger.ZERO, BigInteger.ONE};
+		for (int bits = 31; bits <= 161; bits++) {
+			if (bits % 32 > 1 && bits % 32 < 31)
+				continue;
+			BigInteger base = BigInteger.ONE.shiftLeft(bits);
+			for (BigInteger low : new BigInteger[] {BigInteger.ZERO, BigInteger.ONE.shiftLeft(bits / 2)})
+			for (BigInteger d : deltas) {
+				BigInteger x = base.add(low).add(d);
+				acc.set(x);
+				assertEquals(x, acc.value());
+				for (BigInteger e : deltas) {
+					BigInteger y = x.add(e);
+					assertEquals(x+" vs "+y, x.compareTo(y), acc.compareTo(y));
+					assertEquals(x+" vs "+y, x.negate().compareTo(y.negate()),
+							new BigIntegerAccumulator(x.negate()).compareTo(y.negate()));
+					assertEquals(x.add(y), new BigIntegerAccumulator(x).addInPlace(y).value());
+					assertEquals(x.subtract(y.negate()), new BigIntegerAccumulator(x).subtractInPlace(y.negate()).value());
+				}
+			}
+		}
+		acc.set(BigInteger.valueOf(Long.MIN_VALUE));
+		assertEquals(BigInteger.valueOf(Long.MIN_VALUE), acc.value());
+		assertEquals(0, acc.compareTo(BigInteger.valueOf(Long.MIN_VALUE)));
+	}
+
+	@Test
+	public void testGenericAccumulator() {
+		Accumulator<Long> acc = Accumulators.newAccumulator(LongArithmetic.getInstance());
+		assertTrue(acc instanceof Accumulators.ArithmeticAccumulator);
+		acc.set(5L).shiftLeftInPlace(3).subtractInPlace(1L).addInPlace(acc);
+		assertEquals(78L, (long) acc.value());
+		assertEquals(1, acc.compareTo(77L));
+		assertTrue(Accumulators.newAccumulator(BigIntegerArithmetic.getInstance()) instanceof BigIntegerAccumulator);
+	}
+}
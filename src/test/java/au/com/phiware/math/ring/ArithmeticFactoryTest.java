@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+public class ArithmeticFactoryTest {
+
+	@Test
+	public void testBuiltIn() throws ClassNotFoundException {
+		assertSame(LongArithmetic.getInstance(), ArithmeticFactory.getBitArithmetic(Long.class));
+		assertSame(IntegerArithmetic.getInstance(), ArithmeticFactory.getBitArithmetic(Integer.class));
+		assertSame(ByteArithmetic.getInstance(), ArithmeticFactory.getBitArithmetic(Byte.class));
+		assertSame(BigIntegerArithmetic.getInstance(), ArithmeticFactory.getBitArithmetic(BigInteger.class));
+		assertSame(BigIntegerArithmetic.getInstance(), ArithmeticFactory.getBitArithmetic(Number.class));
+		assertSame(LongArithmetic.getInstance(), ArithmeticFactory.getBitArithmeticForNumber(1L));
+	}
+
+	@Test
+	public void testShort() throws ClassNotFoundException {
+		BitArithmetic<Short> arithmetic = ArithmeticFactory.getBitArithmetic(Short.class);
+		assertSame(ShortArithmetic.getInstance(), arithmetic);
+		assertEquals(16, arithmetic.maxBitLength());
+		assertEquals(Short.MIN_VALUE, (short) arithmetic.add(Short.MAX_VALUE, arithmetic.one()));
+		assertEquals(15, arithmetic.highestOneBit((short) -1));
+		assertEquals(16, arithmetic.bitCount((short) -1));
+		assertEquals((short) 0x8000, (short) arithmetic.reverse((short) 1));
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void testUnknown() throws ClassNotFoundException {
+		ArithmeticFactory.getBitArithmetic(Double.class);
+	}
+
+	@Test
+	public void testRegister() throws ClassNotFoundException {
+		ModularArithmetic ring = new ModularArithmetic(65537);
+		try {
+			ArithmeticFactory.register(Long.class, ring);
+			assertSame(ring, ArithmeticFactory.getBitArithmetic(Long.class));
+		} finally {
+			ArithmeticFactory.register(Long.class, LongArithmetic.getInstance());
+		}
+		assertSame(LongArithmetic.getInstance(), ArithmeticFactory.getBitArithmetic(Long.class));
+	}
+}
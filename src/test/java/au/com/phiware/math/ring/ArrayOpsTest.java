@@ -0,0 +1,151 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ArrayOpsTest {
+
+	static BigInteger toBigInteger(long[] a) {
+		BigInteger x = BigInteger.ZERO;
+		for (int i = a.length - 1; i >= 0; i--)
+			x = x.shiftLeft(64).or(BigInteger.valueOf(a[i]).and(Int128.UNSIGNED_LONG));
+		return x;
+	}
+
+	static BigInteger toBigInteger(int[] a) {
+		BigInteger x = BigInteger.ZERO;
+		for (int i = a.length - 1; i >= 0; i--)
+			x = x.shiftLeft(32).or(BigInteger.valueOf(a[i] & 0xFFFFFFFFL));
+		return x;
+	}
+
+	@Test
+	public void testLongElementWise() {
+		LongArrayOps ops = LongArithmetic.getInstance();
+		Random random = new Random(33);
+		long[] a = new long[37], b = new long[37], out = new long[37];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = random.nextLong();
+			b[i] = random.nextLong();
+		}
+		ops.add(a, b, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i] + b[i], out[i]);
+		ops.subtract(a, b, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i] - b[i], out[i]);
+		ops.and(a, b, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i] & b[i], out[i]);
+		ops.or(a, b, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i] | b[i], out[i]);
+		ops.xor(a, b, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i] ^ b[i], out[i]);
+		ops.nand(a, b, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i] & ~b[i], out[i]);
+		ops.not(a, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(~a[i], out[i]);
+		assertEquals(toBigInteger(a).bitCount(), ops.bitCount(a));
+
+		long[] c = a.clone();
+		ops.xor(c, b, c);
+		ops.xor(c, b, c);
+		assertArrayEquals(a, c);
+	}
+
+	@Test
+	public void testLongShifts() {
+		LongArrayOps ops = LongArithmetic.getInstance();
+		Random random = new Random(34);
+		for (int t = 0; t < 500; t++) {
+			long[] a = new long[1 + random.nextInt(8)];
+			for (int i = 0; i < a.length; i++)
+				a[i] = random.nextLong();
+			BigInteger x = toBigInteger(a);
+			int n = random.nextInt(64 * (a.length + 1));
+			long[] out = new long[1 + random.nextInt(9)];
+			BigInteger mask = BigInteger.ONE.shiftLeft(64 * out.length).subtract(BigInteger.ONE);
+			ops.shiftLeft(a, n, out);
+			assertEquals(x.shiftLeft(n).and(mask), toBigInteger(out));
+			ops.shiftRight(a, n, out);
+			assertEquals(x.shiftRight(n).and(mask), toBigInteger(out));
+
+			long[] b = a.clone();
+			ops.shiftLeft(b, n, b);
+			assertEquals(x.shiftLeft(n).and(BigInteger.ONE.shiftLeft(64 * a.length).subtract(BigInteger.ONE)), toBigInteger(b));
+			b = a.clone();
+			ops.shiftRight(b, n, b);
+			assertEquals(x.shiftRight(n), toBigInteger(b));
+		}
+	}
+
+	@Test
+	public void testIntShifts() {
+		IntArrayOps ops = IntegerArithmetic.getInstance();
+		Random random = new Random(35);
+		for (int t = 0; t < 500; t++) {
+			int[] a = new int[1 + random.nextInt(8)];
+			for (int i = 0; i < a.length; i++)
+				a[i] = random.nextInt();
+			BigInteger x = toBigInteger(a);
+			int n = random.nextInt(32 * (a.length + 1));
+			int[] out = new int[a.length];
+			BigInteger mask = BigInteger.ONE.shiftLeft(32 * out.length).subtract(BigInteger.ONE);
+			ops.shiftLeft(a, n, out);
+			assertEquals(x.shiftLeft(n).and(mask), toBigInteger(out));
+			ops.shiftRight(a, n, out);
+			assertEquals(x.shiftRight(n), toBigInteger(out));
+			assertEquals(x.bitCount(), ops.bitCount(a));
+			ops.nand(a, out, out);
+			for (int i = 0; i < a.length; i++)
+				assertEquals(0, out[i] & ~a[i]);
+		}
+	}
+
+	/**
+	 * Shifts of empty arrays, into shorter and longer arrays, and beyond
+	 * every word.
+	 */
+	@Test
+	public void testShiftBounds() {
+		IntArrayOps ops = IntegerArithmetic.getInstance();
+		Random random = new Random(36);
+		for (int t = 0; t < 500; t++) {
+			int[] a = new int[random.nextInt(6)];
+			for (int i = 0; i < a.length; i++)
+				a[i] = random.nextInt();
+			BigInteger x = toBigInteger(a);
+			int n = t % 50 == 0 ? Integer.MAX_VALUE : random.nextInt(32 * (a.length + 2));
+			int[] out = new int[random.nextInt(9)];
+			BigInteger mask = BigInteger.ONE.shiftLeft(32 * out.length).subtract(BigInteger.ONE);
+			ops.shiftLeft(a, n, out);
+			assertEquals(n == Integer.MAX_VALUE ? BigInteger.ZERO : x.shiftLeft(n).and(mask), toBigInteger(out));
+			ops.shiftRight(a, n, out);
+			assertEquals(x.shiftRight(n).and(mask), toBigInteger(out));
+		}
+		long[] empty = new long[0], out = {-1, -1};
+		LongArithmetic.getInstance().shiftLeft(empty, 3, out);
+		assertArrayEquals(new long[2], out);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeShiftLeft() {
+		LongArithmetic.getInstance().shiftLeft(new long[2], -1, new long[2]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeShiftRight() {
+		IntegerArithmetic.getInstance().shiftRight(new int[2], -1, new int[2]);
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BinaryFieldArithmeticTest {
+
+	/**
+	 * Shift-and-add multiplication, for reference.
+	 */
+	static int reference(int a, int b, int degree, long polynomial) {
+		long x = a & 0xffffffffL, r = 0;
+		for (int i = 0; i < degree; i++) {
+			if ((b >>> i & 1) != 0)
+				r ^= x;
+			x <<= 1;
+			if ((x >>> degree & 1) != 0)
+				x ^= polynomial;
+		}
+		return (int) r;
+	}
+
+	static void assertField(BinaryFieldArithmetic f, Random random) {
+		int degree = f.getDegree();
+		int mask = (int) ((1L << degree) - 1);
+		for (int i = 0; i < 2000; i++) {
+			int a = random.nextInt() & mask, b = random.nextInt() & mask, c = random.nextInt() & mask;
+			assertEquals(f+": "+a+"*"+b, reference(a, b, degree, f.getPolynomial()), f.multiply(a, b));
+			assertEquals(f.multiply(f.multiply(a, b), c), f.multiply(a, f.multiply(b, c)));
+			assertEquals(f.add(f.multiply(a, c), f.multiply(b, c)), f.multiply(f.add(a, b), c));
+			if (b != 0) {
+				assertEquals(a, f.multiply(f.divide(a, b), b));
+				assertEquals(1, f.multiply(b, f.inverse(b)));
+			}
+			assertEquals(f.multiply(a, f.multiply(a, a)), f.pow(a, 3));
+			if (a != 0)
+				assertEquals(f.inverse(a), f.pow(a, -1));
+			assertEquals(a, (int) f.root(f.pow(a, 2), 2));
+		}
+		assertEquals(1, f.pow(0, 0));
+		assertEquals(0, f.pow(0, 5));
+		try {
+			f.inverse(0);
+			fail("zero has no inverse");
+		} catch (ArithmeticException expected) {}
+	}
+
+	@Test
+	public void testFields() {
+		Random random = new Random(39);
+		for (int degree : new int[] {8, 16, 32})
+			assertField(BinaryFieldArithmetic.getInstance(degree), random);
+		// not primitive, so the tables need a generator other than x
+		assertField(new BinaryFieldArithmetic(8, 0x11b), random);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReducible8() {
+		new BinaryFieldArithmetic(8, 0x101); // (x + 1)^8
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReducible32() {
+		new BinaryFieldArithmetic(32, 0x100000001L);
+	}
+
+	@Test
+	public void testRegions() {
+		Random random = new Random(39);
+		BinaryFieldArithmetic f = BinaryFieldArithmetic.getInstance(8);
+		byte[] src = new byte[1000], dst = new byte[1000], acc = new byte[1000];
+		random.nextBytes(src);
+		random.nextBytes(acc);
+		byte[] before = acc.clone();
+		for (int c : new int[] {0, 1, 2, 0x53, 0xff}) {
+			f.multiply(src, (byte) c, dst);
+			f.multiplyAdd(src, (byte) c, acc);
+			for (int i = 0; i < src.length; i++) {
+				int p = f.multiply(c, src[i] & 0xff);
+				assertEquals(p, dst[i] & 0xff);
+				assertEquals((before[i] & 0xff) ^ p, acc[i] & 0xff);
+				before[i] = acc[i];
+			}
+		}
+
+		for (int degree : new int[] {8, 16, 32}) {
+			BinaryFieldArithmetic g = BinaryFieldArithmetic.getInstance(degree);
+			int mask = (int) ((1L << degree) - 1);
+			int[] s = new int[300], d = new int[300], e = new int[300];
+			for (int i = 0; i < s.length; i++)
+				s[i] = random.nextInt() & mask;
+			int c = random.nextInt() & mask;
+			g.multiply(s, c, d);
+			g.multiplyAdd(s, c, e);
+			for (int i = 0; i < s.length; i++) {
+				assertEquals(g.multiply(c, s[i]), d[i]);
+				assertEquals(d[i], e[i]);
+			}
+		}
+
+		try {
+			BinaryFieldArithmetic.getInstance(16).multiply(src, (byte) 3, dst);
+			fail("byte regions are only GF(2^8)");
+		} catch (UnsupportedOperationException expected) {}
+	}
+
+	@Test
+	public void testIntegral() {
+		BinaryFieldArithmetic f = BinaryFieldArithmetic.getInstance(16);
+		assertEquals(1, f.gcd(0, 7));
+		assertEquals(0, f.gcd(0, 0));
+		int[] a = {3, 5, 7, 0xffff}, out = new int[4];
+		f.modInverse(a, 0, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(f.inverse(a[i]), out[i]);
+		assertEquals(f.multiply(5, 4), f.shiftLeft(5, 2));
+		assertEquals(0xfffa, f.not(5));
+		assertEquals("GF(2^16)", f.toString());
+		assertEquals("ffffffff", BinaryFieldArithmetic.getInstance(32).toString(-1, 16));
+	}
+}
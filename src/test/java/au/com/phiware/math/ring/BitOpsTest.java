@@ -0,0 +1,42 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BitOpsTest {
+
+	@Test
+	public void testLongBitOps() {
+		assertSame(LongArithmetic.getInstance(), BitOps.longBitOps(LongArithmetic.getInstance()));
+		assertNull(BitOps.longBitOps(BigIntegerArithmetic.getInstance()));
+		assertNotNull(BitOps.longBitOps(IntegerArithmetic.getInstance()));
+	}
+
+	/**
+	 * The widened operations overflow as ints do.
+	 */
+	@Test
+	public void testWidenedIntBitOps() {
+		IntegerArithmetic a = IntegerArithmetic.getInstance();
+		LongBitOps w = BitOps.longBitOps(a);
+		Random random = new Random(29);
+		for (int i = 0; i < 10000; i++) {
+			int x = random.nextInt(), y = random.nextInt(), n = random.nextInt(40);
+			assertEquals(a.add(x, y), w.add(x, y));
+			assertEquals(a.subtract(x, y), w.subtract(x, y));
+			assertEquals(a.multiply(x, y), w.multiply(x, y));
+			assertEquals(a.nand(x, y), w.nand(x, y));
+			assertEquals(a.compare(x, y), w.compare(x, y));
+			assertEquals(a.shiftLeft(x, n), w.shiftLeft(x, n));
+			assertEquals(a.shiftRight(x, n), w.shiftRight(x, n));
+			assertEquals(a.bitCount(x), w.bitCount(x));
+		}
+		assertEquals(Integer.MIN_VALUE, w.add(Integer.MAX_VALUE, 1));
+	}
+}
@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class FactorizationTest {
+
+	static long product(Long[] factors) {
+		long p = 1;
+		for (Long f : factors)
+			p *= f;
+		return p;
+	}
+
+	static void assertFactorization(long n) {
+		Long[] factors = LongArithmetic.getInstance().primeFactorization(n);
+		assertEquals("product of factors of "+n, n, product(factors));
+		for (int i = 0; i < factors.length; i++) {
+			if (i == 0 && factors[i] == -1)
+				continue;
+			assertTrue(factors[i]+" is prime", BigInteger.valueOf(factors[i]).isProbablePrime(64));
+			if (i > 0)
+				assertTrue("ascending", factors[i - 1] <= factors[i]);
+		}
+	}
+
+	@Test
+	public void testSmall() {
+		for (long n = -1000; n <= 20000; n++)
+			if (n != 0)
+				assertFactorization(n);
+		assertArrayEquals(new Long[0], LongArithmetic.getInstance().primeFactorization(1L));
+		assertArrayEquals(new Long[] {-1L, 2L, 2L, 3L}, LongArithmetic.getInstance().primeFactorization(-12L));
+	}
+
+	@Test
+	public void testExtremes() {
+		Long[] factors = LongArithmetic.getInstance().primeFactorization(Long.MIN_VALUE);
+		assertEquals(64, factors.length);
+		assertEquals(-1L, (long) factors[0]);
+		for (int i = 1; i < factors.length; i++)
+			assertEquals(2L, (long) factors[i]);
+		assertArrayEquals(new Long[] {7L, 7L, 73L, 127L, 337L, 92737L, 649657L},
+				LongArithmetic.getInstance().primeFactorization(Long.MAX_VALUE));
+		assertFactorization(-Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testSemiprimes() {
+		Random random = new Random(30);
+		for (int i = 0; i < 50; i++) {
+			long p = BigInteger.probablePrime(31, random).longValue(),
+			     q = BigInteger.probablePrime(32, random).longValue();
+			assertArrayEquals(new Long[] {Math.min(p, q), Math.max(p, q)},
+					LongArithmetic.getInstance().primeFactorization(p * q));
+		}
+		long p = 2147483647L;
+		assertArrayEquals(new Long[] {p, p}, LongArithmetic.getInstance().primeFactorization(p * p));
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(31);
+		for (int i = 0; i < 2000; i++)
+			assertFactorization(random.nextLong() >> random.nextInt(40));
+	}
+
+	@Test
+	public void testIsPrime() {
+		Random random = new Random(32);
+		for (long n = -10; n < 200000; n++)
+			assertEquals(""+n, n > 1 && BigInteger.valueOf(n).isProbablePrime(64), LongMath.isPrime(n));
+		for (int i = 0; i < 20000; i++) {
+			long n = random.nextLong() >>> 1;
+			assertEquals(""+n, BigInteger.valueOf(n).isProbablePrime(64), LongMath.isPrime(n));
+		}
+		// strong pseudoprimes to several of the smaller bases
+		assertFalse(LongMath.isPrime(3215031751L));
+		assertFalse(LongMath.isPrime(3825123056546413051L));
+	}
+
+	@Test
+	public void testFactors() {
+		assertEquals("[1, 2, 3, 4, 6, 12]", LongArithmetic.getInstance().factors(-12L).toString());
+		assertEquals("[1, 2, 3, 4, 5, 6, 8, 10, 12, 15, 20, 24, 30, 40, 60, 120]", ByteArithmetic.getInstance().factors((byte) -120).toString());
+		assertEquals("[1]", IntegerArithmetic.getInstance().factors(1).toString());
+		Set<Integer> factors = IntegerArithmetic.getInstance().factors(720720);
+		assertEquals(240, factors.size());
+		for (int d : factors)
+			assertEquals(0, 720720 % d);
+	}
+
+	@Test
+	public void testBigInteger() {
+		Random random = new Random(33);
+		BigIntegerArithmetic arithmetic = BigIntegerArithmetic.getInstance();
+		BigInteger p = BigInteger.probablePrime(36, random),
+		           q = BigInteger.probablePrime(66, random);
+		BigInteger n = p.multiply(q).multiply(BigInteger.valueOf(-360));
+		BigInteger[] factors = arithmetic.primeFactorization(n);
+		BigInteger product = BigInteger.ONE;
+		for (BigInteger f : factors)
+			product = product.multiply(f);
+		assertEquals(n, product);
+		assertEquals(BigInteger.ONE.negate(), factors[0]);
+		assertEquals(p.min(q), factors[factors.length - 2]);
+		assertEquals(p.max(q), factors[factors.length - 1]);
+		assertEquals(4 * 3 * 2 * 2 * 2, arithmetic.factors(n).size());
+	}
+}
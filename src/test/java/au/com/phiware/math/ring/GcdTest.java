@@ -0,0 +1,152 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GcdTest {
+
+	@Test
+	public void testGcd() {
+		Random random = new Random(36);
+		for (int i = 0; i < 10000; i++) {
+			long a = random.nextLong() >> random.nextInt(64),
+			     b = random.nextLong() >> random.nextInt(64);
+			if (a == Long.MIN_VALUE || b == Long.MIN_VALUE)
+				continue;
+			long g = BigInteger.valueOf(a).gcd(BigInteger.valueOf(b)).longValue();
+			assertEquals("gcd("+a+", "+b+")", g, LongMath.gcd(a, b));
+			assertEquals("gcd("+a+", "+b+")", g, (long) LongArithmetic.getInstance().gcd(a, b));
+			assertEquals(BigInteger.valueOf((int) a).gcd(BigInteger.valueOf((int) b)).intValue(),
+					IntegerArithmetic.getInstance().gcd((int) a, (int) b));
+
+			long[] e = LongMath.extendedGcd(a, b);
+			assertEquals(g, e[0]);
+			assertEquals(BigInteger.valueOf(g),
+					BigInteger.valueOf(a).multiply(BigInteger.valueOf(e[1]))
+					.add(BigInteger.valueOf(b).multiply(BigInteger.valueOf(e[2]))));
+		}
+		assertEquals(0, LongMath.gcd(0, 0));
+		assertEquals(7, LongMath.gcd(0, -7));
+		assertEquals(12, (byte) ByteArithmetic.getInstance().gcd((byte) -36, (byte) 60));
+	}
+
+	@Test
+	public void testBigExtendedGcd() {
+		Random random = new Random(36);
+		for (int i = 0; i < 200; i++) {
+			BigInteger a = new BigInteger(200, random), b = new BigInteger(150, random).negate();
+			BigInteger[] e = BigIntegerArithmetic.getInstance().extendedGcd(a, b);
+			assertEquals(a.gcd(b), e[0]);
+			assertEquals(e[0], a.multiply(e[1]).add(b.multiply(e[2])));
+		}
+	}
+
+	@Test
+	public void testModInverse() {
+		Random random = new Random(36);
+		for (int i = 0; i < 10000; i++) {
+			long m = random.nextLong() >>> 1 >>> random.nextInt(62);
+			long a = random.nextLong();
+			if (m == 0)
+				continue;
+			BigInteger expected;
+			try {
+				expected = BigInteger.valueOf(a).modInverse(BigInteger.valueOf(m));
+			} catch (ArithmeticException e) {
+				try {
+					LongMath.modInverse(a, m);
+					fail(a+" is not invertible modulo "+m);
+				} catch (ArithmeticException expectedException) {}
+				continue;
+			}
+			assertEquals(a+"^-1 mod "+m, expected.longValue(), LongMath.modInverse(a, m));
+		}
+	}
+
+	static void assertBatch(long[] a, long m) {
+		long[] out = new long[a.length];
+		LongMath.modInverse(a, m, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(LongMath.modInverse(a[i], m), out[i]);
+		LongMath.modInverse(a, m, a);
+		assertArrayEquals(out, a);
+	}
+
+	@Test
+	public void testBatchedModInverse() {
+		Random random = new Random(36);
+		long[] moduli = {(1L << 61) - 1, 1000000007L * 2, 0x7fffffffffffffe7L, 1L << 40, 3};
+		for (long m : moduli) {
+			long[] a = new long[100];
+			for (int i = 0; i < a.length; i++) {
+				do
+					a[i] = random.nextLong();
+				while (LongMath.gcd(a[i] % m, m) != 1);
+			}
+			assertBatch(a, m);
+		}
+		assertBatch(new long[0], 7);
+		assertBatch(new long[] {-1}, 7);
+
+		try {
+			LongMath.modInverse(new long[] {3, 6, 5}, 9, new long[3]);
+			fail("6 is not invertible modulo 9");
+		} catch (ArithmeticException expected) {}
+
+		BigInteger bm = BigInteger.probablePrime(200, random);
+		BigInteger[] b = new BigInteger[50], bout = new BigInteger[50];
+		for (int i = 0; i < b.length; i++)
+			b[i] = new BigInteger(300, random).subtract(BigInteger.ONE.shiftLeft(299));
+		BigIntegerArithmetic.getInstance().modInverse(b, bm, bout);
+		for (int i = 0; i < b.length; i++)
+			assertEquals(b[i].modInverse(bm), bout[i]);
+
+		int[] c = {3, -5, 7, 11}, cout = new int[4];
+		IntegerArithmetic.getInstance().modInverse(c, 1 << 20, cout);
+		for (int i = 0; i < c.length; i++)
+			assertEquals(1, BigInteger.valueOf(c[i]).multiply(BigInteger.valueOf(cout[i])).mod(BigInteger.valueOf(1 << 20)).intValue());
+	}
+
+	@Test
+	public void testRingInverse() {
+		ModularArithmetic r = new ModularArithmetic(1000000007L);
+		long[] a = new long[20], out = new long[20];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = r.valueOf(i * 7919 + 1);
+			assertEquals(r.one().longValue(), r.multiply(a[i], r.inverse(a[i])));
+		}
+		r.modInverse(a, 0, out);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(r.inverse(a[i]), out[i]);
+		try {
+			new ModularArithmetic(15).inverse(new ModularArithmetic(15).valueOf(5));
+			fail("5 is not invertible modulo 15");
+		} catch (ArithmeticException expected) {}
+
+		BigIntegerModularArithmetic s = new BigIntegerModularArithmetic(BigInteger.valueOf(1000000007L));
+		BigInteger[] b = new BigInteger[20], bout = new BigInteger[20];
+		for (int i = 0; i < b.length; i++)
+			b[i] = s.valueOf(i * 7919 + 1);
+		s.modInverse(b, BigInteger.ZERO, bout);
+		for (int i = 0; i < b.length; i++)
+			assertEquals(s.one(), s.multiply(b[i], bout[i]));
+	}
+
+	@Test
+	public void testPromoting() {
+		PromotingArithmetic p = PromotingArithmetic.getInstance();
+		assertEquals(4L, p.modInverse(2L, 7L));
+		BigInteger m = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+		Number x = p.modInverse(3L, PromotingArithmetic.valueOf(m));
+		assertEquals(BigInteger.valueOf(3).modInverse(m), PromotingArithmetic.toBigInteger(x));
+		Number[] e = p.extendedGcd(Long.MIN_VALUE, 6L);
+		assertEquals(2L, e[0]);
+	}
+}
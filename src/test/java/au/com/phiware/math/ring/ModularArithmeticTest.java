@@ -0,0 +1,128 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ModularArithmeticTest {
+	static final long[] MODULI = {1, 3, 65537, 1000000007, 0xB504F335L, (1L << 62) + 135, Long.MAX_VALUE};
+
+	static BigInteger big(long x) {
+		return BigInteger.valueOf(x);
+	}
+
+	@Test
+	public void testRing() {
+		Random random = new Random(310);
+		for (long m : MODULI) {
+			ModularArithmetic r = new ModularArithmetic(m);
+			BigInteger bm = big(m);
+			for (int i = 0; i < 2000; i++) {
+				long x = random.nextLong(), y = random.nextLong() >> random.nextInt(64);
+				long a = r.valueOf(x), b = r.valueOf(y);
+				BigInteger bx = big(x).mod(bm), by = big(y).mod(bm);
+				assertEquals(bx.longValue(), r.residue(a));
+				assertEquals(bx.add(by).mod(bm).longValue(), r.residue(r.add(a, b)));
+				assertEquals(bx.subtract(by).mod(bm).longValue(), r.residue(r.subtract(a, b)));
+				assertEquals(bx.negate().mod(bm).longValue(), r.residue(r.negate(a)));
+				assertEquals(bx.multiply(by).mod(bm).longValue(), r.residue(r.multiply(a, b)));
+				int e = random.nextInt(1000);
+				assertEquals(bx.modPow(big(e), bm).longValue(), r.residue(r.pow(a, e)));
+				assertEquals(Long.signum(bx.compareTo(by)), Long.signum(r.compare(a, b)));
+				assertEquals(Long.signum(bx.compareTo(by)), Long.signum(r.compare(Long.valueOf(a), Long.valueOf(b))));
+				int n = random.nextInt(100);
+				assertEquals(bx.shiftLeft(n).mod(bm).longValue(), r.residue(r.shiftLeft(a, n)));
+				assertEquals(bx.shiftRight(n).longValue(), r.residue(r.shiftRight(a, n)));
+				assertEquals(bx.and(by).longValue(), r.residue(r.and(a, b)));
+				assertEquals(bx.or(by).mod(bm).longValue(), r.residue(r.or(a, b)));
+				assertEquals(bx.xor(by).mod(bm).longValue(), r.residue(r.xor(a, b)));
+				assertEquals(bx.not().mod(bm).longValue(), r.residue(r.not(a)));
+				assertEquals(bx.bitCount(), r.bitCount(a));
+			}
+		}
+	}
+
+	@Test
+	public void testBits() {
+		ModularArithmetic r = new ModularArithmetic(1000000007);
+		assertEquals(30, r.maxBitLength());
+		long v = r.zero();
+		for (int i : new int[] {0, 3, 29})
+			v = r.setBit(v, i);
+		assertEquals((1L << 29) + 9, r.residue(v));
+		assertTrue(r.testBit(v, 3));
+		assertFalse(r.testBit(v, 4));
+		assertEquals(29, r.highestOneBit(v));
+		assertEquals(0, r.lowestOneBit(v));
+		assertEquals(-1, r.lowestOneBit(r.zero()));
+		assertEquals(1L << 29, r.residue(r.clearBit(r.clearBit(v, 0), 3)));
+		assertEquals(1, r.residue(r.one()));
+		assertEquals(Long.toString((1L << 29) + 9, 16), r.toString(v, 16));
+		assertEquals(v, r.mod(v, 0L));
+		assertEquals(v, r.mod(v, r.getModulus()));
+		try {
+			r.mod(v, r.valueOf(8));
+			fail("8 is not a multiple of the modulus");
+		} catch (ArithmeticException expected) {}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEvenModulus() {
+		new ModularArithmetic(1 << 20);
+	}
+
+	@Test
+	public void testBigIntegerRing() {
+		Random random = new Random(311);
+		BigInteger[] moduli = {
+				BigInteger.valueOf(3),
+				BigInteger.valueOf(Long.MAX_VALUE),
+				BigInteger.ONE.shiftLeft(64).subtract(BigInteger.valueOf(59)),
+				BigInteger.probablePrime(200, random),
+				new BigInteger(521, random).setBit(0).setBit(520)
+		};
+		for (BigInteger m : moduli) {
+			BigIntegerModularArithmetic r = new BigIntegerModularArithmetic(m);
+			for (int i = 0; i < 300; i++) {
+				BigInteger x = new BigInteger(m.bitLength() + 8, random),
+				           y = new BigInteger(m.bitLength() - 1, random).negate();
+				BigInteger a = r.valueOf(x), b = r.valueOf(y);
+				BigInteger bx = x.mod(m), by = y.mod(m);
+				assertEquals(bx, r.residue(a));
+				assertEquals(bx.add(by).mod(m), r.residue(r.add(a, b)));
+				assertEquals(bx.subtract(by).mod(m), r.residue(r.subtract(a, b)));
+				assertEquals(bx.negate().mod(m), r.residue(r.negate(a)));
+				assertEquals(bx.multiply(by).mod(m), r.residue(r.multiply(a, b)));
+				BigInteger e = new BigInteger(70, random);
+				assertEquals(bx.modPow(e, m), r.residue(r.pow(a, e)));
+				assertEquals(bx.compareTo(by), r.compare(a, b));
+				int n = random.nextInt(600);
+				assertEquals(bx.shiftLeft(n).mod(m), r.residue(r.shiftLeft(a, n)));
+				assertEquals(bx.xor(by).mod(m), r.residue(r.xor(a, b)));
+				assertEquals(bx.not().mod(m), r.residue(r.not(a)));
+			}
+		}
+	}
+
+	@Test
+	public void testChain() {
+		long m = (1L << 61) - 1;
+		ModularArithmetic r = new ModularArithmetic(m);
+		BigIntegerModularArithmetic big = new BigIntegerModularArithmetic(big(m));
+		long x = r.one();
+		BigInteger y = big.one(), z = BigInteger.ONE;
+		for (long i = 1; i <= 5000; i++) {
+			x = r.multiply(x, r.valueOf(i * 2654435761L));
+			y = big.multiply(y, big.valueOf(i * 2654435761L));
+			z = z.multiply(big(i * 2654435761L)).mod(big(m));
+		}
+		assertEquals(z.longValue(), r.residue(x));
+		assertEquals(z, big.residue(y));
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ParallelMultiplyTest {
+	static final int BITS = BigIntegerMath.PARALLEL_BIT_LENGTH;
+
+	@Test
+	public void testMultiply() {
+		Random random = new Random(40);
+		BigInteger a = new BigInteger(5 * BITS, random),
+		           b = new BigInteger(3 * BITS, random).negate(),
+		           c = new BigInteger(BITS + 17, random).setBit(BITS + 16);
+		BigIntegerArithmetic arithmetic = BigIntegerArithmetic.getInstance();
+		assertEquals(a.multiply(b), arithmetic.multiply(a, b));
+		assertEquals(b.multiply(a), arithmetic.multiply(b, a));
+		assertEquals(a.multiply(c), arithmetic.multiply(a, c)); // unbalanced
+		assertEquals(b.multiply(b), arithmetic.multiply(b, b));
+		assertEquals(a.multiply(BigInteger.TEN), arithmetic.multiply(a, BigInteger.TEN));
+	}
+
+	@Test
+	public void testPow() {
+		Random random = new Random(40);
+		BigIntegerArithmetic arithmetic = BigIntegerArithmetic.getInstance();
+		BigInteger a = new BigInteger(4000, random);
+		assertEquals(a.pow(300), arithmetic.pow(a, BigInteger.valueOf(300)));
+		BigInteger b = a.negate().shiftLeft(5);
+		assertEquals(b.pow(257), arithmetic.pow(b, BigInteger.valueOf(257)));
+		assertEquals(BigInteger.ONE, BigIntegerMath.pow(b, 0));
+		assertEquals(BigInteger.ZERO, BigIntegerMath.pow(BigInteger.ZERO, 3));
+		assertEquals(BigInteger.valueOf(3).pow(100000), BigIntegerMath.pow(BigInteger.valueOf(3), 100000));
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void testPowOverflow() {
+		BigIntegerMath.pow(BigInteger.ONE.shiftLeft(1 << 16), 1 << 16);
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PromotingArithmeticTest {
+	final PromotingArithmetic arithmetic = PromotingArithmetic.getInstance();
+
+	static BigInteger random(Random random) {
+		BigInteger x = new BigInteger(1 + random.nextInt(200), random);
+		return random.nextBoolean() ? x.negate() : x;
+	}
+
+	/**
+	 * Asserts that actual has the value expected in its narrowest representation.
+	 */
+	static void assertNarrowest(BigInteger expected, Number actual) {
+		assertEquals(expected, PromotingArithmetic.toBigInteger(actual));
+		Class<?> type = expected.bitLength() < 64 ? Long.class : expected.bitLength() < 128 ? Int128.class : BigInteger.class;
+		assertEquals(expected.toString(), type, actual.getClass());
+	}
+
+	@Test
+	public void testAgainstBigInteger() {
+		Random random = new Random(35);
+		for (int i = 0; i < 20000; i++) {
+			BigInteger x = random(random), y = random(random);
+			Number a = PromotingArithmetic.valueOf(x), b = PromotingArithmetic.valueOf(y);
+			assertNarrowest(x, a);
+			assertNarrowest(x.add(y), arithmetic.add(a, b));
+			assertNarrowest(x.subtract(y), arithmetic.subtract(a, b));
+			assertNarrowest(x.negate(), arithmetic.negate(a));
+			assertNarrowest(x.multiply(y), arithmetic.multiply(a, b));
+			assertEquals(x.compareTo(y), arithmetic.compare(a, b));
+			int n = random.nextInt(140);
+			assertNarrowest(x.shiftLeft(n), arithmetic.shiftLeft(a, n));
+			assertNarrowest(x.shiftRight(n), arithmetic.shiftRight(a, n));
+			assertNarrowest(x.setBit(n), arithmetic.setBit(a, n));
+			assertNarrowest(x.clearBit(n), arithmetic.clearBit(a, n));
+			assertNarrowest(x.flipBit(n), arithmetic.flipBit(a, n));
+			assertEquals(x.testBit(n), arithmetic.testBit(a, n));
+			assertNarrowest(x.and(y), arithmetic.and(a, b));
+			assertNarrowest(x.or(y), arithmetic.or(a, b));
+			assertNarrowest(x.xor(y), arithmetic.xor(a, b));
+			assertNarrowest(x.andNot(y), arithmetic.nand(a, b));
+			assertNarrowest(x.not(), arithmetic.not(a));
+			assertNarrowest(x.gcd(y), arithmetic.gcd(a, b));
+			assertEquals(x.bitCount(), arithmetic.bitCount(a));
+			assertEquals(x.bitLength() - 1, arithmetic.highestOneBit(a));
+			assertEquals(x.getLowestSetBit(), arithmetic.lowestOneBit(a));
+			assertEquals(x.signum(), arithmetic.signum(a));
+			assertEquals(x.toString(7), arithmetic.toString(a, 7));
+			if (y.signum() != 0) {
+				BigInteger r = x.remainder(y);
+				assertNarrowest(r.signum() >= 0 ? r : r.add(y), arithmetic.mod(a, b));
+			}
+		}
+	}
+
+	@Test
+	public void testEdges() {
+		assertNarrowest(BigInteger.valueOf(Long.MIN_VALUE).negate(), arithmetic.negate(Long.MIN_VALUE));
+		assertNarrowest(BigInteger.ONE.shiftLeft(127), arithmetic.negate(new Int128(Long.MIN_VALUE, 0)));
+		assertNarrowest(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), arithmetic.add(Long.MAX_VALUE, 1));
+		assertNarrowest(BigInteger.valueOf(Long.MIN_VALUE).pow(2), arithmetic.multiply(Long.MIN_VALUE, Long.MIN_VALUE));
+		assertNarrowest(BigInteger.valueOf(3).pow(100), arithmetic.pow(3, 100));
+		assertNarrowest(BigInteger.ONE.shiftLeft(63), arithmetic.gcd(Long.MIN_VALUE, 0L));
+		assertEquals(64, arithmetic.factors(Long.MIN_VALUE).size());
+
+		// a result that shrinks is demoted again
+		Number big = arithmetic.pow(10, 30);
+		assertTrue(big instanceof Int128);
+		assertEquals(Long.class, arithmetic.subtract(big, arithmetic.subtract(big, 42)).getClass());
+		assertEquals(Long.class, arithmetic.shiftRight(arithmetic.shiftLeft(7, 300), 298).getClass());
+	}
+}
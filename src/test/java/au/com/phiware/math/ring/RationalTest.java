@@ -0,0 +1,138 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RationalTest {
+
+	static BigInteger[] exact(BigInteger n, BigInteger d) {
+		BigInteger g = n.gcd(d);
+		if (d.signum() < 0)
+			g = g.negate();
+		return new BigInteger[] {n.divide(g), d.divide(g)};
+	}
+
+	static void assertRational(BigInteger n, BigInteger d, Rational r) {
+		BigInteger[] e = exact(n, d);
+		assertEquals(e[0], r.getNumerator());
+		assertEquals(e[1], r.getDenominator());
+	}
+
+	@Test
+	public void testAgainstBigInteger() {
+		Random random = new Random(38);
+		RationalArithmetic q = RationalArithmetic.getInstance();
+		Rational r = Rational.ZERO;
+		BigInteger n = BigInteger.ZERO, d = BigInteger.ONE;
+		for (int i = 0; i < 2000; i++) {
+			long x = random.nextInt(2000) - 1000, y = random.nextInt(999) + 1;
+			if (random.nextInt(10) == 0)
+				x = random.nextLong() >> random.nextInt(64);
+			Rational s = Rational.valueOf(x, y);
+			BigInteger bx = BigInteger.valueOf(x), by = BigInteger.valueOf(y);
+			switch (random.nextInt(4)) {
+			case 0:
+				r = q.add(r, s);
+				n = n.multiply(by).add(bx.multiply(d));
+				d = d.multiply(by);
+				break;
+			case 1:
+				r = q.subtract(r, s);
+				n = n.multiply(by).subtract(bx.multiply(d));
+				d = d.multiply(by);
+				break;
+			case 2:
+				r = q.multiply(r, s);
+				n = n.multiply(bx);
+				d = d.multiply(by);
+				break;
+			default:
+				if (x == 0)
+					continue;
+				r = q.divide(r, s);
+				n = n.multiply(by);
+				d = d.multiply(bx);
+			}
+			BigInteger[] e = exact(n, d);
+			n = e[0];
+			d = e[1];
+			if (i % 7 == 0)
+				assertRational(n, d, r);
+			if (n.signum() == 0) {
+				r = Rational.ONE;
+				n = d = BigInteger.ONE;
+			}
+		}
+		assertRational(n, d, r);
+	}
+
+	@Test
+	public void testLazy() {
+		Rational a = Rational.valueOf(2, 4), b = Rational.valueOf(3, 6);
+		assertFalse(a.isBig());
+		assertEquals(a, b);
+		assertEquals(0, a.compareTo(b));
+		assertEquals(a.hashCode(), b.hashCode());
+		assertEquals("1/2", a.toString());
+		assertEquals(Rational.ONE, a.add(b));
+		assertEquals("-1/2", Rational.valueOf(1, -2).toString());
+		assertTrue(Rational.valueOf(1, 3).compareTo(Rational.valueOf(1, 2)) < 0);
+		assertTrue(Rational.valueOf(Long.MAX_VALUE, 3).compareTo(Rational.valueOf(Long.MAX_VALUE - 1, 3)) > 0);
+
+		// overflows unless reduced first
+		Rational c = Rational.valueOf(Long.MAX_VALUE - 1, 2);
+		Rational p = c.multiply(Rational.valueOf(2, Long.MAX_VALUE - 1));
+		assertFalse(p.isBig());
+		assertEquals(Rational.ONE, p);
+
+		Rational big = Rational.valueOf(Long.MAX_VALUE).multiply(Rational.valueOf(Long.MAX_VALUE));
+		assertTrue(big.isBig());
+		assertEquals(Rational.valueOf(Long.MAX_VALUE), big.divide(Rational.valueOf(Long.MAX_VALUE)).reduce());
+		assertFalse(big.divide(Rational.valueOf(Long.MAX_VALUE)).reduce().isBig());
+		assertTrue(Rational.valueOf(Long.MIN_VALUE).isBig());
+	}
+
+	@Test
+	public void testPowAndRoot() {
+		RationalArithmetic q = RationalArithmetic.getInstance();
+		assertEquals(Rational.valueOf(8, 27), q.pow(Rational.valueOf(2, 3), Rational.valueOf(3)));
+		assertEquals(Rational.valueOf(9, 4), q.pow(Rational.valueOf(2, 3), Rational.valueOf(-2)));
+		assertEquals(Rational.valueOf(-2, 3), q.root(Rational.valueOf(-8, 27), Rational.valueOf(3)));
+		assertEquals(Rational.valueOf(4, 9), q.pow(Rational.valueOf(8, 27), Rational.valueOf(2, 3)));
+		try {
+			q.root(Rational.valueOf(2), Rational.valueOf(2));
+			fail("root 2 is irrational");
+		} catch (ArithmeticException expected) {}
+		try {
+			Rational.ONE.divide(Rational.ZERO);
+			fail("division by zero");
+		} catch (ArithmeticException expected) {}
+	}
+
+	@Test
+	public void testValues() {
+		assertEquals(0.1, Rational.valueOf(1, 10).doubleValue(), 0);
+		assertEquals(Rational.valueOf(1, 8), Rational.valueOf(0.125));
+		assertEquals(1.0 / 3, Rational.valueOf(BigInteger.ONE, BigInteger.valueOf(3).shiftLeft(100)).doubleValue() * Math.pow(2, 100), 1e-15);
+		assertEquals(-3, Rational.valueOf(-7, 2).longValue());
+	}
+
+	@Test
+	public void testFloatingPoint() throws ClassNotFoundException {
+		assertSame(DoubleArithmetic.getInstance(), ArithmeticFactory.getFieldArithmetic(Double.class));
+		assertSame(RationalArithmetic.getInstance(), ArithmeticFactory.getArithmeticForNumber(Rational.ONE));
+		DoubleArithmetic d = DoubleArithmetic.getInstance();
+		assertEquals(-2.0, d.root(-8.0, 3.0), 0);
+		assertEquals(2.0, d.root(32.0, 5.0), 1e-15);
+		assertEquals(-2.0, d.root(-32.0, 5.0), 1e-15);
+		assertEquals(0.75, d.divide(3.0, 4.0), 0);
+		assertEquals(1.5f, FloatArithmetic.getInstance().divide(3f, 2f), 0);
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ResidueArithmeticTest {
+
+	@Test
+	public void testPrimes() {
+		ResidueArithmetic r = new ResidueArithmetic(4);
+		for (int i = 0; i < r.getLanes(); i++) {
+			long p = r.getPrime(i);
+			assertTrue(BigInteger.valueOf(p).isProbablePrime(64));
+			assertTrue(p < 1L << 62 && p > 1L << 61);
+			if (i > 0)
+				assertTrue(p < r.getPrime(i - 1));
+		}
+		assertEquals((1L << 62) - 57, r.getPrime(0));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Random random = new Random(41);
+		ResidueArithmetic r = ResidueArithmetic.forBitLength(1000);
+		for (int i = 0; i < 200; i++) {
+			BigInteger x = new BigInteger(random.nextInt(1000), random);
+			if (random.nextBoolean())
+				x = x.negate();
+			assertEquals(x, r.valueOf(x).toBigInteger());
+		}
+		assertEquals(BigInteger.valueOf(Long.MIN_VALUE), r.valueOf(Long.MIN_VALUE).toBigInteger());
+		assertEquals(-7L, r.valueOf(-7).longValue());
+		assertEquals(BigInteger.ZERO, r.zero().toBigInteger());
+		assertEquals(BigInteger.ONE, r.one().toBigInteger());
+	}
+
+	@Test
+	public void testRing() {
+		Random random = new Random(41);
+		ResidueArithmetic r = ResidueArithmetic.forBitLength(2000);
+		for (int i = 0; i < 200; i++) {
+			BigInteger x = new BigInteger(900, random).subtract(BigInteger.ONE.shiftLeft(899)),
+			           y = new BigInteger(900, random).subtract(BigInteger.ONE.shiftLeft(899));
+			ResidueNumber a = r.valueOf(x), b = r.valueOf(y);
+			assertEquals(x.add(y), r.add(a, b).toBigInteger());
+			assertEquals(x.subtract(y), r.subtract(a, b).toBigInteger());
+			assertEquals(x.multiply(y), r.multiply(a, b).toBigInteger());
+			assertEquals(x.negate(), r.negate(a).toBigInteger());
+			assertEquals(x.compareTo(y), r.compare(a, b));
+		}
+		assertEquals(BigInteger.valueOf(3).pow(1000), r.pow(r.valueOf(3), r.valueOf(1000)).toBigInteger());
+	}
+
+	@Test
+	public void testBulk() {
+		ResidueArithmetic r = ResidueArithmetic.forBitLength(30000);
+		ResidueNumber[] values = new ResidueNumber[2000];
+		BigInteger sum = BigInteger.ZERO, product = BigInteger.ONE;
+		for (int i = 0; i < values.length; i++) {
+			long v = 1000003L * (i + 1);
+			values[i] = r.valueOf(v);
+			sum = sum.add(BigInteger.valueOf(v));
+			if (i < 1000)
+				product = product.multiply(BigInteger.valueOf(v));
+		}
+		assertTrue(values.length * r.getLanes() >= ResidueArithmetic.PARALLEL_THRESHOLD);
+		assertEquals(sum, r.sum(values).toBigInteger());
+		ResidueNumber[] half = new ResidueNumber[1000];
+		System.arraycopy(values, 0, half, 0, half.length);
+		assertEquals(product, r.product(half).toBigInteger());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeign() {
+		new ResidueArithmetic(2).add(new ResidueArithmetic(2).one(), new ResidueArithmetic(2).one());
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ */
+package au.com.phiware.math.ring;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class WideIntegerTest {
+
+	static BigInteger wrap(BigInteger x, int width) {
+		x = x.mod(BigInteger.ONE.shiftLeft(width));
+		return x.testBit(width - 1) ? x.subtract(BigInteger.ONE.shiftLeft(width)) : x;
+	}
+
+	static BigInteger random(Random random, int width) {
+		return wrap(new BigInteger(width, random).shiftRight(random.nextInt(width)), width);
+	}
+
+	<V extends Number> void testArithmetic(BitArithmetic<V> arithmetic, Class<V> type) throws Exception {
+		int width = arithmetic.maxBitLength();
+		assertSame(arithmetic, ArithmeticFactory.getBitArithmetic(type));
+		Random random = new Random(width);
+		for (int i = 0; i < 5000; i++) {
+			BigInteger x = random(random, width), y = random(random, width);
+			V a = valueOf(type, x), b = valueOf(type, y);
+			assertEquals(x, toBigInteger(a));
+			assertEquals(wrap(x.add(y), width), toBigInteger(arithmetic.add(a, b)));
+			assertEquals(wrap(x.subtract(y), width), toBigInteger(arithmetic.subtract(a, b)));
+			assertEquals(wrap(x.negate(), width), toBigInteger(arithmetic.negate(a)));
+			assertEquals(wrap(x.multiply(y), width), toBigInteger(arithmetic.multiply(a, b)));
+			int e = random.nextInt(20);
+			assertEquals(wrap(x.pow(e), width), toBigInteger(arithmetic.pow(a, valueOf(type, BigInteger.valueOf(e)))));
+			assertEquals(x.compareTo(y), arithmetic.compare(a, b));
+			assertEquals(x.signum(), arithmetic.signum(a));
+			int n = random.nextInt(width);
+			assertEquals(wrap(x.shiftLeft(n), width), toBigInteger(arithmetic.shiftLeft(a, n)));
+			assertEquals(x.shiftRight(n), toBigInteger(arithmetic.shiftRight(a, n)));
+			assertEquals(x.testBit(n), arithmetic.testBit(a, n));
+			assertEquals(wrap(x.setBit(n), width), toBigInteger(arithmetic.setBit(a, n)));
+			assertEquals(wrap(x.clearBit(n), width), toBigInteger(arithmetic.clearBit(a, n)));
+			assertEquals(wrap(x.flipBit(n), width), toBigInteger(arithmetic.flipBit(a, n)));
+			assertEquals(x.and(y), toBigInteger(arithmetic.and(a, b)));
+			assertEquals(x.or(y), toBigInteger(arithmetic.or(a, b)));
+			assertEquals(x.xor(y), toBigInteger(arithmetic.xor(a, b)));
+			assertEquals(x.andNot(y), toBigInteger(arithmetic.nand(a, b)));
+			assertEquals(x.not(), toBigInteger(arithmetic.not(a)));
+			BigInteger unsigned = x.mod(BigInteger.ONE.shiftLeft(width));
+			assertEquals(unsigned.bitCount(), arithmetic.bitCount(a));
+			assertEquals(unsigned.bitLength() - 1, arithmetic.highestOneBit(a));
+			assertEquals(x.getLowestSetBit(), arithmetic.lowestOneBit(a));
+			if (y.signum() != 0) {
+				BigInteger r = x.remainder(y);
+				assertEquals(r.signum() >= 0 ? r : r.add(y), toBigInteger(arithmetic.mod(a, b)));
+				assertEquals(x.gcd(y), toBigInteger(arithmetic.gcd(a, b)));
+			}
+			assertEquals(x.toString(16), arithmetic.toString(a, 16));
+			assertEquals(x.doubleValue(), a.doubleValue(), 0);
+			assertEquals(x.longValue(), a.longValue());
+		}
+		assertEquals(BigInteger.ONE, toBigInteger(arithmetic.reverse(arithmetic.setBit(arithmetic.zero(), width - 1))));
+	}
+
+	@SuppressWarnings("unchecked")
+	static <V extends Number> V valueOf(Class<V> type, BigInteger x) {
+		return (V) (type == Int128.class ? Int128.valueOf(x) : Int256.valueOf(x));
+	}
+
+	static BigInteger toBigInteger(Number a) {
+		return a instanceof Int128 ? ((Int128) a).toBigInteger() : ((Int256) a).toBigInteger();
+	}
+
+	@Test
+	public void testInt128() throws Exception {
+		testArithmetic(Int128Arithmetic.getInstance(), Int128.class);
+	}
+
+	@Test
+	public void testInt256() throws Exception {
+		testArithmetic(Int256Arithmetic.getInstance(), Int256.class);
+	}
+
+	@Test
+	public void testInPlace() {
+		Int128 a = Int128.valueOf(-1);
+		Int128 b = a.addInPlace(Int128.valueOf(1)).setBitInPlace(100).shiftLeftInPlace(27);
+		assertSame(a, b);
+		assertEquals(BigInteger.ONE.shiftLeft(127).negate(), a.toBigInteger());
+
+		Int256 c = Int256.valueOf(Long.MAX_VALUE);
+		Int256 d = c.addInPlace(Int256.valueOf(1)).shiftLeftInPlace(130).setBitInPlace(3);
+		assertSame(c, d);
+		assertEquals(BigInteger.ONE.shiftLeft(193).setBit(3), c.toBigInteger());
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ *
+ */
+package au.com.phiware.util.collect;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedLongMapTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLongValues() throws IOException {
+		File file = folder.newFile("longs.map");
+		Random random = new Random(49);
+		Map<Long, Long> expected = new HashMap<Long, Long>();
+		MappedLongMap map = MappedLongMap.create(file, 20000, 8);
+		try {
+			for (int i = 0; i < 50000; i++) {
+				long key = random.nextInt(30000) * 0x100000001L;
+				if (random.nextInt(3) < 2) {
+					long value = random.nextLong();
+					assertEquals(!expected.containsKey(key), map.put(key, value));
+					expected.put(key, value);
+				} else
+					assertEquals(expected.remove(key) != null, map.remove(key));
+				Long v = expected.get(key);
+				assertEquals(v == null ? -1 : v, map.get(key, -1));
+				assertEquals(expected.size(), map.size());
+			}
+		} finally {
+			map.close();
+		}
+
+		map = MappedLongMap.open(file);
+		try {
+			assertEquals(expected.size(), map.size());
+			for (Map.Entry<Long, Long> e : expected.entrySet())
+				assertEquals(e.getValue().longValue(), map.get(e.getKey(), -1));
+
+			MappedLongMap larger = map.rehash(folder.newFile("larger.map"), 100000);
+			try {
+				assertTrue(larger.capacity() > map.capacity());
+				assertEquals(expected.size(), larger.size());
+				for (Map.Entry<Long, Long> e : expected.entrySet())
+					assertEquals(e.getValue().longValue(), larger.get(e.getKey(), -1));
+				assertTrue(larger.put(-1, 1));
+				assertFalse(map.containsKey(-1));
+			} finally {
+				larger.close();
+			}
+		} finally {
+			map.close();
+		}
+	}
+
+	@Test
+	public void testByteValues() throws IOException {
+		File file = folder.newFile("bytes.map");
+		MappedLongMap map = MappedLongMap.create(file, 1000, 13);
+		try {
+			try {
+				for (long key = 0; ; key++) {
+					byte[] value = new byte[13];
+					Arrays.fill(value, (byte) key);
+					assertTrue(map.put(key, value));
+				}
+			} catch (IllegalStateException full) {}
+			assertTrue(map.size() >= 1000);
+			assertTrue(map.size() <= map.capacity() * MappedLongMap.MAX_LOAD_FACTOR);
+			try {
+				map.get(1, 0);
+				fail("values are not longs");
+			} catch (UnsupportedOperationException expected) {}
+		} finally {
+			map.close();
+		}
+
+		map = MappedLongMap.open(file);
+		try {
+			byte[] value = new byte[13];
+			for (long key = 0; key < map.size(); key++) {
+				assertTrue(map.get(key, value));
+				for (byte b : value)
+					assertEquals((byte) key, b);
+			}
+			assertFalse(map.get(map.size(), value));
+		} finally {
+			map.close();
+		}
+	}
+
+	/**
+	 * Keys that differ only in their high int, until the map is full; the
+	 * put that finds it full leaves no trace of its key.
+	 */
+	@Test
+	public void testStructuredKeys() throws IOException {
+		MappedLongMap map = MappedLongMap.create(folder.newFile("structured.map"), 50000, 8);
+		try {
+			long n = 0;
+			try {
+				for (; ; n++)
+					assertTrue(map.put(n << 32, n));
+			} catch (IllegalStateException full) {}
+			assertEquals(n, map.size());
+			assertFalse(map.containsKey(n << 32));
+			for (long k = 0; k < n; k++)
+				assertEquals(k, map.get(k << 32, -1));
+		} finally {
+			map.close();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAMap() throws IOException {
+		File file = folder.newFile("not.map");
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[100]);
+		out.close();
+		MappedLongMap.open(file);
+	}
+}
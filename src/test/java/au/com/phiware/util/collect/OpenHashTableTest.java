@@ -0,0 +1,179 @@
+/**
+ *
+ */
+package au.com.phiware.util.collect;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class OpenHashTableTest {
+
+	/**
+	 * @return keys drawn from a small range, so that there are collisions
+	 *         and repeated removals.
+	 */
+	static long nextKey(Random random) {
+		long key = random.nextInt(5000);
+		return random.nextBoolean() ? key : key << 32 | key;
+	}
+
+	@Test
+	public void testLongLongMap() {
+		Random random = new Random(46);
+		LongLongMap map = new LongLongMap(0);
+		Map<Long, Long> expected = new HashMap<Long, Long>();
+		for (int i = 0; i < 100000; i++) {
+			long key = nextKey(random);
+			switch (random.nextInt(4)) {
+			case 0:
+			case 1:
+				long value = random.nextLong();
+				assertEquals(!expected.containsKey(key), map.put(key, value));
+				expected.put(key, value);
+				break;
+			case 2:
+				assertEquals(expected.remove(key) != null, map.removeKey(key));
+				break;
+			default:
+				Long v = expected.get(key);
+				assertEquals(v != null, map.containsKey(key));
+				assertEquals(v == null ? -1 : v, map.get(key, -1));
+			}
+			assertEquals(expected.size(), map.size());
+			if (i % 20000 == 0)
+				map.trimToSize();
+		}
+		long[] keys = map.keys(), values = map.values();
+		for (int i = 0; i < keys.length; i++)
+			assertEquals(expected.get(keys[i]).longValue(), values[i]);
+		assertEquals(expected.size(), keys.length);
+
+		assertEquals(5, map.addTo(-7, 5));
+		assertEquals(8, map.addTo(-7, 3));
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.get(-7));
+	}
+
+	@Test
+	public void testLongObjectMap() {
+		Random random = new Random(46);
+		LongObjectMap<String> map = new LongObjectMap<String>();
+		Map<Long, String> expected = new HashMap<Long, String>();
+		for (int i = 0; i < 100000; i++) {
+			long key = nextKey(random);
+			if (random.nextInt(3) < 2) {
+				String value = Long.toString(random.nextLong(), 36);
+				assertEquals(!expected.containsKey(key), map.put(key, value));
+				expected.put(key, value);
+			} else
+				assertEquals(expected.remove(key) != null, map.removeKey(key));
+			assertEquals(expected.get(key), map.get(key));
+			assertEquals(expected.size(), map.size());
+		}
+		Object[] values = map.values();
+		long[] keys = map.keys();
+		for (int i = 0; i < keys.length; i++)
+			assertSame(expected.get(keys[i]), values[i]);
+	}
+
+	@Test
+	public void testIntIntMap() {
+		Random random = new Random(46);
+		IntIntMap map = new IntIntMap(10, 0.1, 0.75);
+		Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 100000; i++) {
+			int key = random.nextInt(3000) - 1500;
+			if (random.nextInt(3) < 2) {
+				int value = random.nextInt();
+				assertEquals(!expected.containsKey(key), map.put(key, value));
+				expected.put(key, value);
+			} else
+				assertEquals(expected.remove(key) != null, map.removeKey(key));
+			Integer v = expected.get(key);
+			assertEquals(v == null ? 0 : v, map.get(key));
+			assertEquals(expected.size(), map.size());
+		}
+	}
+
+	@Test
+	public void testLongSet() {
+		Random random = new Random(46);
+		LongSet set = new LongSet();
+		Set<Long> expected = new HashSet<Long>();
+		for (int i = 0; i < 100000; i++) {
+			long element = nextKey(random);
+			if (random.nextBoolean())
+				assertEquals(expected.add(element), set.add(element));
+			else
+				assertEquals(expected.remove(element), set.remove(element));
+			assertEquals(expected.contains(element), set.contains(element));
+			assertEquals(expected.size(), set.size());
+		}
+		long[] elements = set.toArray();
+		Arrays.sort(elements);
+		long[] sorted = new long[expected.size()];
+		int n = 0;
+		for (long e : expected)
+			sorted[n++] = e;
+		Arrays.sort(sorted);
+		assertArrayEquals(sorted, elements);
+	}
+
+	@Test
+	public void testCapacity() {
+		LongSet set = new LongSet(0);
+		set.ensureCapacity(10000);
+		int capacity = set.capacity();
+		assertTrue(capacity >= 10000);
+		for (long i = 0; i < 10000; i++)
+			set.add(i * 7919);
+		assertEquals(capacity, set.capacity());
+		for (long i = 0; i < 9990; i++)
+			set.remove(i * 7919);
+		assertTrue(set.capacity() < capacity);
+		set.trimToSize();
+		assertTrue(set.capacity() < 50);
+		assertEquals(10, set.size());
+		assertTrue(set.contains(9999 * 7919L));
+	}
+
+	/**
+	 * Keys that pack two ints must not share their probe sequences.
+	 */
+	@Test
+	public void testStructuredKeys() {
+		LongLongMap map = new LongLongMap(0);
+		for (long n = 0; n < 30000; n++)
+			map.put(n * 0x100000001L, n);
+		for (long n = 0; n < 400; n++)
+			for (long k = 0; k <= n; k++)
+				map.put(n << 32 | k, k);
+		assertEquals(30000 + 400 * 401 / 2 - 400, map.size());
+		for (long n = 0; n < 30000; n++)
+			assertEquals(n, map.get(n * 0x100000001L));
+		for (long n = 0; n < 400; n++)
+			for (long k = 0; k < n; k++)
+				assertEquals(k, map.get(n << 32 | k));
+
+		Set<Long> probes = new HashSet<Long>();
+		for (long key : map.keys()) {
+			long hash = OpenHashTable.hash(key);
+			probes.add((long) map.firstProbe(hash) << 32 | map.probeDecrement(hash));
+		}
+		assertTrue(probes.size() > 0.99 * map.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLoadFactors() {
+		new LongLongMap(10, 0.5, 0.5);
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ *
+ */
+package au.com.phiware.util.concurrent;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class ConcurrentLongObjectMapTest {
+
+	@Test
+	public void testSequential() {
+		Random random = new Random(47);
+		ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<String>(0, 4);
+		Map<Long, String> expected = new HashMap<Long, String>();
+		for (int i = 0; i < 100000; i++) {
+			long key = random.nextInt(5000) * 0x100000001L;
+			switch (random.nextInt(4)) {
+			case 0:
+			case 1:
+				String value = Integer.toString(i);
+				assertEquals(expected.put(key, value), map.put(key, value));
+				break;
+			case 2:
+				assertEquals(expected.remove(key), map.remove(key));
+				break;
+			default:
+				String v = Integer.toString(-i);
+				String previous = expected.get(key);
+				if (previous == null)
+					expected.put(key, v);
+				assertEquals(previous, map.putIfAbsent(key, v));
+			}
+			assertEquals(expected.get(key), map.get(key));
+			assertEquals(expected.size(), map.size());
+		}
+		for (Map.Entry<Long, String> e : expected.entrySet())
+			assertEquals(e.getValue(), map.get(e.getKey()));
+		map.clear();
+		assertTrue(map.isEmpty());
+	}
+
+	/**
+	 * Keys that pack two ints must not share their probe sequences.
+	 */
+	@Test
+	public void testStructuredKeys() {
+		Set<Long> probes = new HashSet<Long>();
+		for (long n = 0; n < 30000; n++) {
+			long hash = ConcurrentLongObjectMap.hash(n * 0x100000001L);
+			probes.add(hash >>> 33 << 32 | (hash & 0x7fffffff));
+		}
+		assertEquals(30000, probes.size());
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final int writers = 4, readers = 4, keysPerWriter = 50000;
+		final ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<Long>();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final AtomicBoolean done = new AtomicBoolean();
+		Thread[] threads = new Thread[writers + readers];
+		for (int w = 0; w < writers; w++) {
+			final int offset = w;
+			threads[w] = new Thread() {
+				@Override
+				public void run() {
+					for (long k = offset; k < (long) keysPerWriter * writers; k += writers) {
+						map.put(k, k * 3);
+						if (k % 5 == 0)
+							map.remove(k);
+					}
+				}
+			};
+		}
+		for (int r = 0; r < readers; r++) {
+			final long seed = r;
+			threads[writers + r] = new Thread() {
+				@Override
+				public void run() {
+					Random random = new Random(seed);
+					try {
+						while (!done.get()) {
+							long k = random.nextInt(keysPerWriter * writers);
+							Long v = map.get(k);
+							if (v != null)
+								assertEquals(k * 3, v.longValue());
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			};
+		}
+		for (Thread t : threads)
+			t.start();
+		for (int w = 0; w < writers; w++)
+			threads[w].join();
+		done.set(true);
+		for (int r = 0; r < readers; r++)
+			threads[writers + r].join();
+		if (failure.get() != null)
+			throw new AssertionError(failure.get());
+
+		assertEquals(keysPerWriter * writers / 5 * 4, map.size());
+		for (long k = 0; k < (long) keysPerWriter * writers; k++)
+			assertEquals(k % 5 == 0 ? null : (Long) (k * 3), map.get(k));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullValue() {
+		new ConcurrentLongObjectMap<Object>().put(1, null);
+	}
+}